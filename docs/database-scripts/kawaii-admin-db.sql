@@ -35,12 +35,20 @@ CREATE TABLE system_configs (
 
 CREATE INDEX idx_system_configs_group ON system_configs(config_group);
 
+-- 配置组版本：组内任一配置增删改时由触发器在同一事务中加一（包括直接执行的SQL），
+-- 各服务的本地配置缓存据此判断快照是否过期
+CREATE TABLE system_config_versions (
+    config_group VARCHAR(50) PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT (NOW() AT TIME ZONE 'UTC')
+);
+
 -- ================================================================
 -- 2. 运营审计日志表 (audit_logs)
 -- 专门记录运营级别的重要操作，C端用户行为通过ELK收集
 -- ================================================================
 CREATE TABLE audit_logs (
-    log_id BIGINT PRIMARY KEY,
+    log_id BIGINT NOT NULL,
 
     -- 操作信息
     user_id BIGINT,
@@ -64,13 +72,36 @@ CREATE TABLE audit_logs (
     error_message TEXT,
 
     -- 元数据（UTC时间）
-    created_at TIMESTAMP DEFAULT (NOW() AT TIME ZONE 'UTC')
-);
+    created_at TIMESTAMP NOT NULL DEFAULT (NOW() AT TIME ZONE 'UTC'),
+
+    -- 分区表的主键必须包含分区键；created_at 在前，同时支撑不带筛选条件的 (created_at, log_id) 游标分页
+    PRIMARY KEY (created_at, log_id)
+) PARTITION BY RANGE (created_at);
+
+-- 按月分区（audit_logs_y2025m01），由应用中的审计写入器提前创建未来月份的分区并删除超过保留期的分区
+-- 默认分区兜底接收没有对应月分区的数据
+CREATE TABLE audit_logs_default PARTITION OF audit_logs DEFAULT;
 
--- 索引 (支持按月分区)
-CREATE INDEX idx_audit_logs_user_id ON audit_logs(user_id);
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', NOW() AT TIME ZONE 'UTC')::DATE;
+BEGIN
+    FOR i IN 0..2 LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS audit_logs_y%s PARTITION OF audit_logs FOR VALUES FROM (%L) TO (%L)',
+                       to_char(month_start + make_interval(months => i), 'YYYY"m"MM'),
+                       month_start + make_interval(months => i),
+                       month_start + make_interval(months => i + 1));
+    END LOOP;
+END $$;
+
+-- 索引（在父表上创建，自动应用到所有分区）
+-- 筛选条件 + 游标排序列的复合索引，游标分页只读取一页所需的索引条目
+CREATE INDEX idx_audit_logs_user_created ON audit_logs(user_id, created_at, log_id);
+CREATE INDEX idx_audit_logs_action_created ON audit_logs(action, created_at, log_id);
+CREATE INDEX idx_audit_logs_resource_type_created ON audit_logs(resource_type, created_at, log_id);
 CREATE INDEX idx_audit_logs_resource ON audit_logs(resource_id);
-CREATE INDEX idx_audit_logs_created_at ON audit_logs(created_at);
+-- 审计日志按时间追加写入，created_at 与物理顺序高度相关，BRIN 索引只有几个页面大小
+CREATE INDEX idx_audit_logs_created_at ON audit_logs USING brin (created_at) WITH (pages_per_range = 32);
 
 -- ================================================================
 -- 3. 管理员用户表 (admin_users)
@@ -115,6 +146,12 @@ CREATE INDEX idx_admin_users_username ON admin_users(username);
 CREATE INDEX idx_admin_users_email ON admin_users(email);
 CREATE INDEX idx_admin_users_status ON admin_users(status);
 
+-- 管理员列表关键词搜索（username/email/real_name 的 LIKE '%关键词%'）使用三元组 GIN 索引，避免全表扫描
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_admin_users_username_trgm ON admin_users USING gin (username gin_trgm_ops);
+CREATE INDEX idx_admin_users_email_trgm ON admin_users USING gin (email gin_trgm_ops);
+CREATE INDEX idx_admin_users_real_name_trgm ON admin_users USING gin (real_name gin_trgm_ops);
+
 -- ================================================================
 -- 4. 管理员角色表 (admin_roles)
 -- ================================================================
@@ -187,6 +224,40 @@ $$ language 'plpgsql';
 CREATE TRIGGER update_system_configs_updated_at BEFORE UPDATE ON system_configs
     FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
 
+-- 系统配置增删改时递增所属配置组的版本（修改配置组时新旧两个组都递增）
+CREATE OR REPLACE FUNCTION increment_config_group_version(changed_group VARCHAR)
+RETURNS VOID AS $$
+BEGIN
+    IF changed_group IS NULL THEN
+        RETURN;
+    END IF;
+    INSERT INTO system_config_versions (config_group, version, updated_at)
+    VALUES (changed_group, 1, NOW() AT TIME ZONE 'UTC')
+    ON CONFLICT (config_group) DO UPDATE
+    SET version = system_config_versions.version + 1, updated_at = EXCLUDED.updated_at;
+END;
+$$ language 'plpgsql';
+
+CREATE OR REPLACE FUNCTION bump_system_config_version()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM increment_config_group_version(NEW.config_group);
+    ELSIF TG_OP = 'DELETE' THEN
+        PERFORM increment_config_group_version(OLD.config_group);
+    ELSE
+        PERFORM increment_config_group_version(NEW.config_group);
+        IF OLD.config_group IS DISTINCT FROM NEW.config_group THEN
+            PERFORM increment_config_group_version(OLD.config_group);
+        END IF;
+    END IF;
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER bump_system_config_version AFTER INSERT OR UPDATE OR DELETE ON system_configs
+    FOR EACH ROW EXECUTE FUNCTION bump_system_config_version();
+
 CREATE TRIGGER update_admin_users_updated_at BEFORE UPDATE ON admin_users
     FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
 
@@ -10,15 +10,18 @@
 
 -- ================================================================
 -- 1. 通知表 (notifications)
+-- notification_id 由本库自增生成，提交通知（含注册验证码）不依赖用户服务的ID生成接口
+-- 已有库迁移：ALTER TABLE notifications ALTER COLUMN notification_id ADD GENERATED BY DEFAULT AS IDENTITY;
+--            SELECT setval(pg_get_serial_sequence('notifications', 'notification_id'), MAX(notification_id)) FROM notifications;
 -- ================================================================
 CREATE TABLE notifications (
-    notification_id BIGINT PRIMARY KEY,
-    user_id BIGINT NOT NULL,
+    notification_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT, -- 为空表示发给尚未注册的联系方式（如注册验证码）
 
     -- 通知内容
     title VARCHAR(200) NOT NULL,
     message TEXT NOT NULL,
-    notification_type VARCHAR(50) NOT NULL, -- transaction, system, security, promotion
+    notification_type VARCHAR(50) NOT NULL, -- transaction, system, security, promotion, verification
 
     -- 通知渠道
     channels TEXT[] DEFAULT ARRAY['in_app'], -- in_app, email, sms, push
@@ -28,8 +31,8 @@ CREATE TABLE notifications (
     related_type VARCHAR(50), -- transaction, payment_order, bill_payment
 
     -- 状态管理
-    is_read BOOLEAN DEFAULT FALSE,
-    is_sent BOOLEAN DEFAULT FALSE,
+    is_read BOOLEAN NOT NULL DEFAULT FALSE,
+    is_sent BOOLEAN NOT NULL DEFAULT FALSE,
     sent_at TIMESTAMP,
 
     -- 元数据
@@ -39,11 +42,47 @@ CREATE TABLE notifications (
     updated_at TIMESTAMP DEFAULT (NOW() AT TIME ZONE 'UTC')
 );
 
-CREATE INDEX idx_notifications_user_id ON notifications(user_id);
-CREATE INDEX idx_notifications_read ON notifications(is_read);
-CREATE INDEX idx_notifications_type ON notifications(notification_type);
+-- 站内信收件箱：按 (created_at, notification_id) 倒序的游标分页，只索引包含 in_app 渠道的通知
+CREATE INDEX idx_notifications_inbox ON notifications(user_id, created_at DESC, notification_id DESC)
+    WHERE 'in_app' = ANY(channels);
+-- 未读列表和未读数对账：已读的行不进入该索引，索引大小只与未读数有关
+CREATE INDEX idx_notifications_inbox_unread ON notifications(user_id, created_at DESC, notification_id DESC)
+    WHERE is_read = FALSE AND 'in_app' = ANY(channels);
 CREATE INDEX idx_notifications_created_at ON notifications(created_at);
 
+-- ================================================================
+-- 2. 通知投递表 (notification_deliveries)
+-- 每条通知的每个渠道一行，与通知在同一事务写入；各渠道的发送线程用
+-- FOR UPDATE SKIP LOCKED 分批认领，status = 'dead' 的行即死信
+-- 已有库迁移：ALTER TABLE notification_deliveries ADD COLUMN secret_params JSONB;
+-- ================================================================
+CREATE TABLE notification_deliveries (
+    delivery_id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    notification_id BIGINT NOT NULL REFERENCES notifications(notification_id) ON DELETE CASCADE,
+    channel VARCHAR(20) NOT NULL CHECK (channel IN ('in_app', 'email', 'sms', 'push')),
+    recipient VARCHAR(255), -- email为邮箱，sms为手机号，in_app/push为用户ID
+
+    -- 投递状态
+    status VARCHAR(20) NOT NULL DEFAULT 'pending' CHECK (status IN ('pending', 'sent', 'dead')),
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT (NOW() AT TIME ZONE 'UTC'), -- 下次可认领时间（认领租期/重试退避）
+    expires_at TIMESTAMP, -- 超过后不再发送（验证码等时效性消息）
+    secret_params JSONB, -- 敏感模板变量（验证码等），只在发送时替换进内容；发送成功或过期后清空
+    last_error VARCHAR(1000),
+    sent_at TIMESTAMP,
+
+    created_at TIMESTAMP NOT NULL DEFAULT (NOW() AT TIME ZONE 'UTC')
+);
+
+-- 各渠道认领：只索引待发送的行
+CREATE INDEX idx_notification_deliveries_pending ON notification_deliveries(channel, next_attempt_at) WHERE status = 'pending';
+-- 死信排查与重放
+CREATE INDEX idx_notification_deliveries_dead ON notification_deliveries(channel, delivery_id) WHERE status = 'dead';
+CREATE INDEX idx_notification_deliveries_notification ON notification_deliveries(notification_id);
+-- 过期敏感变量清理：只索引仍保存敏感变量的行
+CREATE INDEX idx_notification_deliveries_secrets ON notification_deliveries(channel, expires_at)
+    WHERE secret_params IS NOT NULL;
+
 -- ================================================================
 -- 自动更新时间戳触发器
 -- ================================================================
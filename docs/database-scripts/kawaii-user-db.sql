@@ -12,7 +12,7 @@
 -- ================================================================
 CREATE TABLE users (
     user_id BIGINT PRIMARY KEY,
-    username VARCHAR(50) UNIQUE NOT NULL,
+    username VARCHAR(50) NOT NULL, -- 唯一性由部分唯一索引 uk_users_username 保证（已删除用户除外）
     email VARCHAR(100),
     phone VARCHAR(20),
     password_hash VARCHAR(255) NOT NULL, -- BCrypt加密存储，包含内置盐值
@@ -38,10 +38,14 @@ CREATE TABLE users (
 );
 
 -- 索引
-CREATE INDEX idx_users_email ON users(email);
-CREATE INDEX idx_users_phone ON users(phone);
-CREATE INDEX idx_users_username ON users(username);
-CREATE INDEX idx_users_created_at ON users(created_at);
+-- 登录标识部分唯一索引：只约束未删除用户，登录查询按标识类型只命中其中一个
+CREATE UNIQUE INDEX uk_users_username ON users(username) WHERE status != 'deleted';
+CREATE UNIQUE INDEX uk_users_email ON users(lower(email)) WHERE status != 'deleted';  -- 邮箱不区分大小写
+CREATE UNIQUE INDEX uk_users_phone ON users(phone) WHERE status != 'deleted';
+-- 管理员用户列表游标分页: ORDER BY created_at DESC, user_id DESC
+CREATE INDEX idx_users_created_at_user_id ON users(created_at DESC, user_id DESC);
+-- 按状态筛选的游标分页
+CREATE INDEX idx_users_status_created_at ON users(status, created_at DESC, user_id DESC);
 
 -- ================================================================
 -- 2. 用户资料表 (user_profiles)
@@ -185,6 +189,31 @@ INSERT INTO leaf_alloc(biz_tag, max_id, step, description) VALUES
 CREATE TRIGGER update_leaf_alloc_update_time BEFORE UPDATE ON leaf_alloc
     FOR EACH ROW EXECUTE FUNCTION update_leaf_update_time_column();
 
+-- ================================================================
+-- 6. 事务发件箱表 (outbox_events)
+-- 与业务数据在同一事务中写入，由投递线程用 FOR UPDATE SKIP LOCKED 分批认领后投递
+-- ================================================================
+CREATE TABLE outbox_events (
+    event_id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    aggregate_type VARCHAR(50) NOT NULL, -- user, wallet, transaction等
+    aggregate_id VARCHAR(64) NOT NULL,
+    event_type VARCHAR(100) NOT NULL, -- USER_REGISTERED等
+    payload JSONB NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'pending' CHECK (status IN ('pending', 'done', 'failed')),
+    attempts INT NOT NULL DEFAULT 0,
+    available_at TIMESTAMP NOT NULL DEFAULT (NOW() AT TIME ZONE 'UTC'), -- 下次可认领时间（认领租期/重试退避）
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL DEFAULT (NOW() AT TIME ZONE 'UTC'),
+    processed_at TIMESTAMP
+);
+
+-- 认领：只索引待投递的行，已完成的行不进入该索引
+CREATE INDEX idx_outbox_events_pending ON outbox_events(available_at, event_id) WHERE status = 'pending';
+-- 清理过期的已完成事件
+CREATE INDEX idx_outbox_events_done ON outbox_events(processed_at) WHERE status = 'done';
+-- 按聚合排查事件
+CREATE INDEX idx_outbox_events_aggregate ON outbox_events(aggregate_type, aggregate_id);
+
 -- ================================================================
 -- 数据库初始化完成
 -- ================================================================
\ No newline at end of file
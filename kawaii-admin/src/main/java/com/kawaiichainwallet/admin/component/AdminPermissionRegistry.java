@@ -0,0 +1,358 @@
+package com.kawaiichainwallet.admin.component;
+
+import com.kawaiichainwallet.admin.entity.AdminRole;
+import com.kawaiichainwallet.admin.entity.AdminUser;
+import com.kawaiichainwallet.admin.entity.AdminUserRole;
+import com.kawaiichainwallet.admin.mapper.AdminRoleMapper;
+import com.kawaiichainwallet.admin.mapper.AdminUserRoleMapper;
+import com.kawaiichainwallet.common.core.utils.TimeUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 管理员RBAC权限注册表
+ *
+ * <p>所有激活角色在内存中维护为一份 {@link PermissionSnapshot}：每个权限字符串对应一个位下标，
+ * 每个角色对应一个 {@code long[]} 位图。管理员的有效权限是其角色位图按位或上额外权限，
+ * 登录、刷新Token和权限检查都不再需要联表查询和反序列化角色的 permissions JSONB。</p>
+ *
+ * <ul>
+ *   <li>角色增删改、启停后（事务提交后）只重新加载该角色并复制出新快照，其他角色位图保持不变</li>
+ *   <li>角色分配变化后只失效对应管理员的缓存，下次访问时单表查询其有效角色分配</li>
+ *   <li>变更通过 Redis pub/sub 通知其他实例；缓存条目另有存活时间兜底，错过的通知最终也会生效</li>
+ *   <li>加载期间若有管理员缓存被失效，本次加载结果只返回给调用方、不写入缓存，避免把变更前读到的分配缓存到过期</li>
+ *   <li>快照同时保留激活角色的记录，管理员列表等页面直接从内存组装角色信息</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class AdminPermissionRegistry implements MessageListener {
+
+    private static final String CHANNEL = "admin:rbac:changed";
+    private static final String MESSAGE_SEPARATOR = "|";
+    private static final String TYPE_ROLE = "ROLE";
+    private static final String TYPE_ADMIN = "ADMIN";
+
+    private final AdminRoleMapper adminRoleMapper;
+    private final AdminUserRoleMapper adminUserRoleMapper;
+    private final StringRedisTemplate redisTemplate;
+    private final Duration grantTtl;
+    private final Duration snapshotTtl;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    /**
+     * 串行化快照的读-改-写；使用ReentrantLock而不是synchronized，加载角色时的数据库IO不会钉住虚拟线程的载体线程
+     */
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private final Map<Long, Grant> grants = new ConcurrentHashMap<>();
+
+    /**
+     * 管理员缓存失效计数；加载前后不一致说明加载期间发生过失效，结果不写入缓存
+     */
+    private final AtomicLong grantInvalidations = new AtomicLong();
+
+    /**
+     * 当前生效的快照（首次使用前为null）
+     */
+    private volatile PermissionSnapshot snapshot;
+    private volatile long snapshotLoadedAt;
+
+    public AdminPermissionRegistry(AdminRoleMapper adminRoleMapper,
+                                   AdminUserRoleMapper adminUserRoleMapper,
+                                   StringRedisTemplate redisTemplate,
+                                   RedisMessageListenerContainer listenerContainer,
+                                   @Value("${app.admin.rbac.grant-ttl:10m}") Duration grantTtl,
+                                   @Value("${app.admin.rbac.snapshot-ttl:30m}") Duration snapshotTtl) {
+        this.adminRoleMapper = adminRoleMapper;
+        this.adminUserRoleMapper = adminUserRoleMapper;
+        this.redisTemplate = redisTemplate;
+        this.grantTtl = grantTtl;
+        this.snapshotTtl = snapshotTtl;
+
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * 应用启动后预先构建快照，首次登录无需等待
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            reload();
+        } catch (Exception e) {
+            // 首次使用时会再次尝试
+            log.warn("RBAC权限快照预加载失败", e);
+        }
+    }
+
+    /**
+     * 重新加载全部激活角色构建快照，并清空管理员缓存
+     */
+    public void reload() {
+        updateLock.lock();
+        try {
+            long startTime = System.currentTimeMillis();
+            List<AdminRole> roles = adminRoleMapper.findAllActive();
+            snapshot = PermissionSnapshot.build(roles);
+            snapshotLoadedAt = System.currentTimeMillis();
+            grantInvalidations.incrementAndGet();
+            grants.clear();
+            log.info("RBAC权限快照构建完成: roles={}, permissions={}, costMs={}",
+                    roles.size(), snapshot.size(), snapshotLoadedAt - startTime);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * 解析管理员的有效权限（登录、刷新Token时调用，调用方已持有最新的管理员记录）
+     */
+    public AdminPermissions resolve(AdminUser admin) {
+        Grant grant = grants.get(admin.getAdminId());
+        if (grant == null || grant.isStale()) {
+            grant = loadGrant(admin);
+        }
+        return toPermissions(grant);
+    }
+
+    /**
+     * 从快照中取激活角色的副本，角色不存在或未激活时返回null
+     */
+    public AdminRole getActiveRole(Long roleId) {
+        PermissionSnapshot.RoleBits role = currentSnapshot().role(roleId);
+        return role != null ? role.toRole() : null;
+    }
+
+    /**
+     * 角色创建、修改、启停或删除后调用；处于事务中时在提交后生效
+     */
+    public void roleChanged(Long roleId) {
+        afterCommit(() -> {
+            applyRoleChange(roleId);
+            publish(TYPE_ROLE, roleId);
+        });
+    }
+
+    /**
+     * 管理员角色分配、额外权限、状态变化或删除后调用；处于事务中时在提交后生效
+     */
+    public void adminChanged(Long adminId) {
+        afterCommit(() -> {
+            evictGrant(adminId);
+            publish(TYPE_ADMIN, adminId);
+        });
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length != 3 || instanceId.equals(parts[0])) {
+            return;
+        }
+
+        try {
+            Long id = Long.valueOf(parts[2]);
+            switch (parts[1]) {
+                case TYPE_ROLE -> applyRoleChange(id);
+                case TYPE_ADMIN -> evictGrant(id);
+                default -> log.warn("无法识别的RBAC变更消息: type={}", parts[1]);
+            }
+        } catch (NumberFormatException e) {
+            log.warn("无法识别的RBAC变更消息: id={}", parts[2]);
+        } catch (Exception e) {
+            log.error("应用RBAC变更消息失败，下次快照过期时重建: type={}, id={}", parts[1], parts[2], e);
+            snapshotLoadedAt = 0;
+        }
+    }
+
+    /**
+     * 重新加载单个角色并复制出新快照，已分配的权限下标保持不变
+     */
+    private void applyRoleChange(Long roleId) {
+        updateLock.lock();
+        try {
+            PermissionSnapshot current = currentSnapshot();
+            AdminRole role = adminRoleMapper.selectById(roleId);
+            snapshot = role == null ? current.withoutRole(roleId) : current.withRole(role);
+            log.info("RBAC权限快照已更新: roleId={}, active={}, permissions={}",
+                    roleId, role != null && !Boolean.FALSE.equals(role.getIsActive()), snapshot.size());
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * 单表查询管理员的有效角色分配，必要时把额外权限登记进字典
+     */
+    private Grant loadGrant(AdminUser admin) {
+        long invalidations = grantInvalidations.get();
+        List<AdminUserRole> assignments = adminUserRoleMapper.findActiveAssignmentsByAdminId(admin.getAdminId());
+        List<Long> roleIds = new ArrayList<>(assignments.size());
+        LocalDateTime refreshAt = TimeUtil.nowUtc().plus(grantTtl);
+        for (AdminUserRole assignment : assignments) {
+            roleIds.add(assignment.getRoleId());
+            // 角色分配到期时提前失效
+            if (assignment.getExpiresAt() != null && assignment.getExpiresAt().isBefore(refreshAt)) {
+                refreshAt = assignment.getExpiresAt();
+            }
+        }
+
+        List<String> extras = new ArrayList<>();
+        if (admin.getPermissions() != null) {
+            for (String permission : admin.getPermissions()) {
+                if (permission != null && !permission.isEmpty()) {
+                    extras.add(permission);
+                }
+            }
+        }
+        if (Boolean.TRUE.equals(admin.getIsSuperAdmin())) {
+            extras.add(PermissionSnapshot.WILDCARD);
+        }
+        if (!extras.isEmpty()) {
+            registerPermissions(extras);
+        }
+
+        Grant grant = new Grant(List.copyOf(roleIds), List.copyOf(extras), refreshAt);
+        // 与 evictGrant 在同一个键上串行：失效先发生则不缓存，后发生则移除刚缓存的条目
+        grants.compute(admin.getAdminId(),
+                (id, existing) -> grantInvalidations.get() == invalidations ? grant : existing);
+        return grant;
+    }
+
+    private void evictGrant(Long adminId) {
+        grants.compute(adminId, (id, existing) -> {
+            grantInvalidations.incrementAndGet();
+            return null;
+        });
+    }
+
+    private void registerPermissions(List<String> extras) {
+        if (currentSnapshot().containsAll(extras)) {
+            return;
+        }
+        updateLock.lock();
+        try {
+            snapshot = currentSnapshot().withPermissions(extras);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * 按当前快照计算有效权限；快照未切换时直接复用上次结果
+     */
+    private AdminPermissions toPermissions(Grant grant) {
+        PermissionSnapshot current = currentSnapshot();
+        AdminPermissions cached = grant.computed;
+        if (cached != null && cached.snapshot() == current) {
+            return cached;
+        }
+
+        long[] bits = current.encode(grant.extras);
+        List<String> roleCodes = new ArrayList<>(grant.roleIds.size());
+        for (Long roleId : grant.roleIds) {
+            PermissionSnapshot.RoleBits role = current.role(roleId);
+            // 已删除或停用的角色不在快照中
+            if (role != null) {
+                bits = PermissionSnapshot.or(bits, role.bits());
+                roleCodes.add(role.roleCode());
+            }
+        }
+
+        AdminPermissions permissions = new AdminPermissions(current, bits, List.copyOf(roleCodes));
+        grant.computed = permissions;
+        return permissions;
+    }
+
+    private PermissionSnapshot currentSnapshot() {
+        PermissionSnapshot current = snapshot;
+        if (current == null) {
+            reload();
+            return snapshot;
+        }
+        if (System.currentTimeMillis() - snapshotLoadedAt > snapshotTtl.toMillis() && updateLock.tryLock()) {
+            // 兜底：定期全量重建，修正错过的变更通知；重建在后台进行，本次仍使用旧快照
+            try {
+                snapshotLoadedAt = System.currentTimeMillis();
+            } finally {
+                updateLock.unlock();
+            }
+            Thread.ofVirtual().name("admin-rbac-snapshot-reload").start(() -> {
+                try {
+                    reload();
+                } catch (Exception e) {
+                    log.error("RBAC权限快照重建失败，继续使用旧快照", e);
+                }
+            });
+        }
+        return current;
+    }
+
+    private void publish(String type, Long id) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, String.join(MESSAGE_SEPARATOR, instanceId, type, String.valueOf(id)));
+        } catch (Exception e) {
+            // 其他实例会在缓存过期或快照重建时补上
+            log.warn("广播RBAC变更失败: type={}, id={}", type, id, e);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 单个管理员的角色分配和额外权限
+     */
+    private static final class Grant {
+
+        private final List<Long> roleIds;
+        private final List<String> extras;
+        private final LocalDateTime refreshAt;
+
+        /**
+         * 最近一次按快照计算的结果，快照切换后重新计算（只做位运算，不访问数据库）
+         */
+        private volatile AdminPermissions computed;
+
+        private Grant(List<Long> roleIds, List<String> extras, LocalDateTime refreshAt) {
+            this.roleIds = roleIds;
+            this.extras = extras;
+            this.refreshAt = refreshAt;
+        }
+
+        private boolean isStale() {
+            return !TimeUtil.nowUtc().isBefore(refreshAt);
+        }
+    }
+}
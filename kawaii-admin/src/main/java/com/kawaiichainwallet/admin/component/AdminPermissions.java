@@ -0,0 +1,53 @@
+package com.kawaiichainwallet.admin.component;
+
+import java.util.List;
+
+/**
+ * 管理员的有效权限（角色权限位图按位或上额外权限）
+ *
+ * <p>权限检查是一次哈希查找加一次数组位运算，与权限数量无关。</p>
+ */
+public final class AdminPermissions {
+
+    private final PermissionSnapshot snapshot;
+    private final long[] bits;
+    private final List<String> roleCodes;
+
+    AdminPermissions(PermissionSnapshot snapshot, long[] bits, List<String> roleCodes) {
+        this.snapshot = snapshot;
+        this.bits = bits;
+        this.roleCodes = roleCodes;
+    }
+
+    /**
+     * 是否拥有指定权限（拥有通配权限 * 时始终为true）
+     */
+    public boolean has(String permission) {
+        return isSuperAdmin() || PermissionSnapshot.test(bits, snapshot.indexOf(permission));
+    }
+
+    /**
+     * 是否拥有全部权限
+     */
+    public boolean isSuperAdmin() {
+        return PermissionSnapshot.test(bits, PermissionSnapshot.WILDCARD_INDEX);
+    }
+
+    /**
+     * 生效角色编码列表
+     */
+    public List<String> getRoleCodes() {
+        return roleCodes;
+    }
+
+    /**
+     * 权限列表；拥有通配权限时只返回 *
+     */
+    public List<String> getPermissions() {
+        return isSuperAdmin() ? List.of(PermissionSnapshot.WILDCARD) : snapshot.decode(bits);
+    }
+
+    PermissionSnapshot snapshot() {
+        return snapshot;
+    }
+}
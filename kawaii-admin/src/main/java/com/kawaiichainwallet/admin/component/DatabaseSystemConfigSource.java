@@ -0,0 +1,84 @@
+package com.kawaiichainwallet.admin.component;
+
+import com.kawaiichainwallet.admin.entity.SystemConfig;
+import com.kawaiichainwallet.admin.entity.SystemConfigVersion;
+import com.kawaiichainwallet.admin.mapper.SystemConfigMapper;
+import com.kawaiichainwallet.api.admin.dto.SystemConfigGroupResponse;
+import com.kawaiichainwallet.common.business.sysconfig.SystemConfigGroup;
+import com.kawaiichainwallet.common.business.sysconfig.SystemConfigSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于 system_configs 表的系统配置数据源
+ * 既供本服务的配置缓存使用，也通过内部接口为其他服务提供配置快照
+ */
+@Component
+public class DatabaseSystemConfigSource implements SystemConfigSource {
+
+    private final SystemConfigMapper systemConfigMapper;
+
+    /**
+     * 版本和配置项在同一个可重复读事务中读取，保证快照内容与版本对应
+     */
+    private final TransactionTemplate snapshotTransaction;
+
+    public DatabaseSystemConfigSource(SystemConfigMapper systemConfigMapper,
+                                      PlatformTransactionManager transactionManager) {
+        this.systemConfigMapper = systemConfigMapper;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @Override
+    public Map<String, Long> loadVersions() {
+        List<SystemConfigVersion> versions = systemConfigMapper.findGroupVersions();
+        Map<String, Long> result = new HashMap<>(versions.size() * 2);
+        for (SystemConfigVersion version : versions) {
+            result.put(version.getConfigGroup(), version.getVersion());
+        }
+        return result;
+    }
+
+    @Override
+    public SystemConfigGroup loadGroup(String group) {
+        SystemConfigGroupResponse response = loadGroupResponse(group);
+        List<SystemConfigGroup.Entry> entries = response.getItems().stream()
+                .map(item -> new SystemConfigGroup.Entry(item.getConfigKey(), item.getConfigValue(), item.getConfigType()))
+                .toList();
+        return SystemConfigGroup.of(group, response.getVersion(), entries);
+    }
+
+    /**
+     * 读取配置组快照（内部接口响应格式）
+     */
+    public SystemConfigGroupResponse loadGroupResponse(String group) {
+        return snapshotTransaction.execute(status -> {
+            Long version = systemConfigMapper.findGroupVersion(group);
+            List<SystemConfigGroupResponse.Item> items = systemConfigMapper.findByGroup(group).stream()
+                    .map(DatabaseSystemConfigSource::toItem)
+                    .toList();
+
+            SystemConfigGroupResponse response = new SystemConfigGroupResponse();
+            response.setGroup(group);
+            response.setVersion(version != null ? version : 0L);
+            response.setItems(items);
+            return response;
+        });
+    }
+
+    private static SystemConfigGroupResponse.Item toItem(SystemConfig config) {
+        SystemConfigGroupResponse.Item item = new SystemConfigGroupResponse.Item();
+        item.setConfigKey(config.getConfigKey());
+        item.setConfigValue(config.getConfigValue());
+        item.setConfigType(config.getConfigType());
+        return item;
+    }
+}
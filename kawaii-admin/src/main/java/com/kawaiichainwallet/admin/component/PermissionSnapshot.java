@@ -0,0 +1,236 @@
+package com.kawaiichainwallet.admin.component;
+
+import com.kawaiichainwallet.admin.entity.AdminRole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 角色权限快照（不可变）
+ *
+ * <p>权限字符串按首次出现的顺序分配位下标（字典只追加不重排），每个角色的权限预先编码为 {@code long[]} 位图。
+ * 角色变更时基于当前快照复制出新快照，已分配的下标保持不变，因此旧快照编码的位图在新快照中仍然有效。</p>
+ */
+final class PermissionSnapshot {
+
+    /**
+     * 通配权限，固定占用第0位
+     */
+    static final String WILDCARD = "*";
+
+    static final int WILDCARD_INDEX = 0;
+
+    private final Map<String, Integer> indexes;
+    private final List<String> permissions;
+    private final Map<Long, RoleBits> roles;
+
+    private PermissionSnapshot(Map<String, Integer> indexes, List<String> permissions,
+                               Map<Long, RoleBits> roles) {
+        this.indexes = indexes;
+        this.permissions = permissions;
+        this.roles = roles;
+    }
+
+    /**
+     * 由激活角色列表构建完整快照
+     */
+    static PermissionSnapshot build(List<AdminRole> activeRoles) {
+        Builder builder = new Builder(Map.of(), List.of(), Map.of());
+        builder.register(List.of(WILDCARD));
+        for (AdminRole role : activeRoles) {
+            builder.putRole(role);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 新增或替换一个角色；角色未激活时等同于移除
+     */
+    PermissionSnapshot withRole(AdminRole role) {
+        Builder builder = new Builder(indexes, permissions, roles);
+        if (Boolean.FALSE.equals(role.getIsActive())) {
+            builder.roles.remove(role.getRoleId());
+        } else {
+            builder.putRole(role);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 移除一个角色
+     */
+    PermissionSnapshot withoutRole(Long roleId) {
+        if (!roles.containsKey(roleId)) {
+            return this;
+        }
+        Builder builder = new Builder(indexes, permissions, roles);
+        builder.roles.remove(roleId);
+        return builder.build();
+    }
+
+    /**
+     * 补充登记字典中尚未出现的权限（管理员额外权限），全部已登记时返回自身
+     */
+    PermissionSnapshot withPermissions(Collection<String> extraPermissions) {
+        if (containsAll(extraPermissions)) {
+            return this;
+        }
+        Builder builder = new Builder(indexes, permissions, roles);
+        builder.register(extraPermissions);
+        return builder.build();
+    }
+
+    boolean containsAll(Collection<String> values) {
+        return values == null || indexes.keySet().containsAll(values);
+    }
+
+    RoleBits role(Long roleId) {
+        return roles.get(roleId);
+    }
+
+    int size() {
+        return permissions.size();
+    }
+
+    /**
+     * 权限的位下标，未登记时返回-1
+     */
+    int indexOf(String permission) {
+        Integer index = indexes.get(permission);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * 将权限集合编码为位图，未登记的权限被忽略
+     */
+    long[] encode(Collection<String> values) {
+        long[] bits = new long[words(permissions.size())];
+        if (values != null) {
+            for (String value : values) {
+                Integer index = indexes.get(value);
+                if (index != null) {
+                    bits[index >>> 6] |= 1L << index;
+                }
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * 将位图解码为权限列表（按字典顺序）
+     */
+    List<String> decode(long[] bits) {
+        List<String> result = new ArrayList<>();
+        int limit = Math.min(permissions.size(), bits.length * Long.SIZE);
+        for (int i = 0; i < limit; i++) {
+            if ((bits[i >>> 6] & (1L << i)) != 0) {
+                result.add(permissions.get(i));
+            }
+        }
+        return result;
+    }
+
+    static int words(int bitCount) {
+        return Math.max(1, (bitCount + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    /**
+     * 位图按位或，结果长度取两者较大值
+     */
+    static long[] or(long[] target, long[] source) {
+        long[] result = target.length >= source.length ? target : Arrays.copyOf(target, source.length);
+        for (int i = 0; i < source.length; i++) {
+            result[i] |= source[i];
+        }
+        return result;
+    }
+
+    static boolean test(long[] bits, int index) {
+        int word = index >>> 6;
+        return index >= 0 && word < bits.length && (bits[word] & (1L << index)) != 0;
+    }
+
+    /**
+     * 角色及其权限位图；role 是快照自有的角色副本，permissions 为其权限的不可变副本
+     */
+    record RoleBits(AdminRole role, List<String> permissions, long[] bits) {
+
+        String roleCode() {
+            return role.getRoleCode();
+        }
+
+        /**
+         * 返回角色的新副本，调用方修改副本不影响快照
+         */
+        AdminRole toRole() {
+            return copyOf(role, permissions);
+        }
+    }
+
+    private static AdminRole copyOf(AdminRole source, List<String> permissions) {
+        AdminRole copy = new AdminRole();
+        copy.setRoleId(source.getRoleId());
+        copy.setRoleName(source.getRoleName());
+        copy.setRoleCode(source.getRoleCode());
+        copy.setDescription(source.getDescription());
+        copy.setPermissions(permissions);
+        copy.setMenuPermissions(source.getMenuPermissions() != null ? List.copyOf(source.getMenuPermissions()) : null);
+        copy.setIsActive(source.getIsActive());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        copy.setCreatedBy(source.getCreatedBy());
+        copy.setUpdatedBy(source.getUpdatedBy());
+        return copy;
+    }
+
+    /**
+     * 基于已有快照复制出可修改的副本
+     */
+    private static final class Builder {
+
+        private final Map<String, Integer> indexes;
+        private final List<String> permissions;
+        private final Map<Long, RoleBits> roles;
+
+        private Builder(Map<String, Integer> indexes, List<String> permissions, Map<Long, RoleBits> roles) {
+            this.indexes = new HashMap<>(indexes);
+            this.permissions = new ArrayList<>(permissions);
+            this.roles = new HashMap<>(roles);
+        }
+
+        private void register(Collection<String> values) {
+            for (String value : values) {
+                if (value != null && !value.isEmpty() && !indexes.containsKey(value)) {
+                    indexes.put(value, permissions.size());
+                    permissions.add(value);
+                }
+            }
+        }
+
+        /**
+         * 复制角色及其权限后登记，不修改传入的角色
+         */
+        private void putRole(AdminRole role) {
+            List<String> rolePermissions = role.getPermissions() != null ? List.copyOf(role.getPermissions()) : List.of();
+            register(rolePermissions);
+            long[] bits = new long[words(permissions.size())];
+            for (String permission : rolePermissions) {
+                Integer index = indexes.get(permission);
+                if (index != null) {
+                    bits[index >>> 6] |= 1L << index;
+                }
+            }
+            roles.put(role.getRoleId(), new RoleBits(copyOf(role, rolePermissions), rolePermissions, bits));
+        }
+
+        private PermissionSnapshot build() {
+            return new PermissionSnapshot(Collections.unmodifiableMap(indexes),
+                    Collections.unmodifiableList(permissions), Collections.unmodifiableMap(roles));
+        }
+    }
+}
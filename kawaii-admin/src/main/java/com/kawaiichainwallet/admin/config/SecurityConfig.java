@@ -1,5 +1,9 @@
 package com.kawaiichainwallet.admin.config;
 
+import com.kawaiichainwallet.common.business.password.PasswordHashingProperties;
+import com.kawaiichainwallet.common.business.password.PasswordHashingService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -22,6 +26,7 @@ import org.springframework.security.web.SecurityFilterChain;
  */
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties(PasswordHashingProperties.class)
 public class SecurityConfig {
 
     /**
@@ -33,11 +38,28 @@ public class SecurityConfig {
      * - 可调节计算复杂度
      * - 防止彩虹表攻击
      *
+     * @param properties 密码哈希配置（计算强度）
      * @return BCryptPasswordEncoder实例
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties properties) {
+        return new BCryptPasswordEncoder(properties.getBcryptStrength());
+    }
+
+    /**
+     * 密码哈希服务
+     * 在有界线程池中执行BCrypt计算，登录高峰时只影响登录接口，不会占满全部CPU
+     *
+     * @param passwordEncoder 密码编码器
+     * @param properties 密码哈希配置
+     * @param meterRegistry 指标注册表
+     * @return PasswordHashingService实例
+     */
+    @Bean
+    public PasswordHashingService passwordHashingService(PasswordEncoder passwordEncoder,
+                                                         PasswordHashingProperties properties,
+                                                         MeterRegistry meterRegistry) {
+        return new PasswordHashingService(passwordEncoder, properties, meterRegistry);
     }
 
     /**
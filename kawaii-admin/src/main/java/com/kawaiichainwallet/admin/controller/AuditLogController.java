@@ -1,15 +1,30 @@
 package com.kawaiichainwallet.admin.controller;
 
+import com.kawaiichainwallet.admin.dto.AuditLogDto;
+import com.kawaiichainwallet.admin.dto.AuditLogQuery;
+import com.kawaiichainwallet.admin.service.AuditLogService;
+import com.kawaiichainwallet.common.core.response.CursorPage;
 import com.kawaiichainwallet.common.core.response.R;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.time.LocalDateTime;
 
 /**
  * 运营审计日志控制器
  *
+ * <p>查询必须带 UTC 时间范围 [from, to)，使用上一页返回的 nextCursor 翻页。</p>
+ *
  * @author kawaii-server
  */
 @Tag(name = "运营审计日志", description = "运营级别的审计日志查询和管理")
@@ -19,23 +34,71 @@ import org.springframework.web.bind.annotation.*;
 @Slf4j
 public class AuditLogController {
 
-    @Operation(summary = "获取审计日志列表")
+    private static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
+    private final AuditLogService auditLogService;
+
+    @Operation(summary = "获取审计日志列表", description = "按时间倒序游标分页查询，使用上一页返回的nextCursor翻页")
     @GetMapping("/logs")
-    public R<?> getAuditLogs(
-            @RequestParam(defaultValue = "1") int page,
+    public R<CursorPage<AuditLogDto>> getAuditLogs(
+            @Parameter(description = "起始时间（UTC，包含）", example = "2025-01-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "结束时间（UTC，不包含）", example = "2025-02-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Long userId,
             @RequestParam(required = false) String action,
             @RequestParam(required = false) String resourceType
     ) {
-        log.info("获取审计日志列表，页码：{}，大小：{}，操作：{}，资源类型：{}", page, size, action, resourceType);
-        return R.success("审计日志列表功能待实现");
+        log.info("获取审计日志列表，时间范围：{} ~ {}，游标：{}，大小：{}，用户：{}，操作：{}，资源类型：{}",
+                from, to, cursor, size, userId, action, resourceType);
+        AuditLogQuery query = buildQuery(from, to, userId, action, resourceType);
+        return R.success(auditLogService.getAuditLogs(query, cursor, size));
     }
 
-    @Operation(summary = "根据用户ID获取审计日志")
+    @Operation(summary = "根据用户ID获取审计日志", description = "按时间倒序游标分页查询指定用户的审计日志")
     @GetMapping("/user/{userId}")
-    public R<?> getAuditLogsByUser(@PathVariable Long userId) {
-        log.info("获取用户 {} 的审计日志", userId);
-        return R.success("根据用户获取审计日志功能待实现");
+    public R<CursorPage<AuditLogDto>> getAuditLogsByUser(
+            @PathVariable Long userId,
+            @Parameter(description = "起始时间（UTC，包含）", example = "2025-01-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "结束时间（UTC，不包含）", example = "2025-02-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        log.info("获取用户 {} 的审计日志，时间范围：{} ~ {}，游标：{}，大小：{}", userId, from, to, cursor, size);
+        AuditLogQuery query = buildQuery(from, to, userId, null, null);
+        return R.success(auditLogService.getAuditLogs(query, cursor, size));
+    }
+
+    /**
+     * 流式导出审计日志 - NDJSON格式，每行一条日志
+     */
+    @Operation(summary = "导出审计日志", description = "以NDJSON格式按时间正序流式导出审计日志")
+    @GetMapping(value = "/logs/export", produces = NDJSON_MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportAuditLogs(
+            @Parameter(description = "起始时间（UTC，包含）", example = "2025-01-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "结束时间（UTC，不包含）", example = "2025-02-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String resourceType
+    ) {
+        log.info("导出审计日志，时间范围：{} ~ {}，用户：{}，操作：{}，资源类型：{}", from, to, userId, action, resourceType);
+        AuditLogQuery query = buildQuery(from, to, userId, action, resourceType);
+        auditLogService.validateExportQuery(query);
+
+        StreamingResponseBody body = outputStream ->
+                auditLogService.exportAuditLogs(query, new BufferedOutputStream(outputStream, EXPORT_BUFFER_SIZE));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_MEDIA_TYPE))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"audit-logs.ndjson\"")
+                .body(body);
     }
 
     @Operation(summary = "记录运营审计日志")
@@ -44,4 +107,15 @@ public class AuditLogController {
         log.info("记录运营审计日志");
         return R.success("记录审计日志功能待实现");
     }
-}
\ No newline at end of file
+
+    private static AuditLogQuery buildQuery(LocalDateTime from, LocalDateTime to, Long userId,
+                                            String action, String resourceType) {
+        AuditLogQuery query = new AuditLogQuery();
+        query.setFrom(from);
+        query.setTo(to);
+        query.setUserId(userId);
+        query.setAction(action);
+        query.setResourceType(resourceType);
+        return query;
+    }
+}
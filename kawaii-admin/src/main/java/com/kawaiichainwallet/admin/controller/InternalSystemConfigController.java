@@ -0,0 +1,36 @@
+package com.kawaiichainwallet.admin.controller;
+
+import com.kawaiichainwallet.admin.component.DatabaseSystemConfigSource;
+import com.kawaiichainwallet.api.admin.client.SystemConfigServiceApi;
+import com.kawaiichainwallet.api.admin.dto.SystemConfigGroupResponse;
+import com.kawaiichainwallet.common.core.response.R;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 系统配置内部服务控制器 - 实现SystemConfigServiceApi接口
+ * 仅供内部服务调用，各服务在收到配置变更通知或定期对账时拉取
+ */
+@Slf4j
+@RestController
+@RequestMapping("/internal/config")
+@RequiredArgsConstructor
+public class InternalSystemConfigController implements SystemConfigServiceApi {
+
+    private final DatabaseSystemConfigSource systemConfigSource;
+
+    @Override
+    public R<Map<String, Long>> getGroupVersions() {
+        return R.success(systemConfigSource.loadVersions());
+    }
+
+    @Override
+    public R<SystemConfigGroupResponse> getGroup(String group) {
+        log.debug("内部服务拉取系统配置组: group={}", group);
+        return R.success(systemConfigSource.loadGroupResponse(group));
+    }
+}
@@ -1,12 +1,20 @@
 package com.kawaiichainwallet.admin.controller;
 
+import com.kawaiichainwallet.admin.dto.SystemConfigDto;
+import com.kawaiichainwallet.admin.dto.UpdateSystemConfigRequest;
+import com.kawaiichainwallet.admin.service.SystemConfigService;
 import com.kawaiichainwallet.common.core.response.R;
+import com.kawaiichainwallet.common.spring.utils.RequestUtil;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * 系统配置管理控制器
  *
@@ -19,24 +27,31 @@ import org.springframework.web.bind.annotation.*;
 @Slf4j
 public class SystemConfigController {
 
+    private final SystemConfigService systemConfigService;
+
     @Operation(summary = "获取系统配置列表")
     @GetMapping("/list")
-    public R<?> getConfigList() {
+    public R<List<SystemConfigDto>> getConfigList() {
         log.info("获取系统配置列表");
-        return R.success("系统配置列表功能待实现");
+        return R.success(systemConfigService.getAllConfigs());
     }
 
     @Operation(summary = "根据配置组获取配置")
     @GetMapping("/group/{group}")
-    public R<?> getConfigByGroup(@PathVariable String group) {
+    public R<List<SystemConfigDto>> getConfigByGroup(@PathVariable String group) {
         log.info("获取配置组 {} 的配置", group);
-        return R.success("根据配置组获取配置功能待实现");
+        return R.success(systemConfigService.getConfigsByGroup(group));
     }
 
-    @Operation(summary = "更新系统配置")
+    @Operation(summary = "更新系统配置", description = "更新后各服务在毫秒级内通过配置变更通知刷新本地缓存")
     @PutMapping("/{configId}")
-    public R<?> updateConfig(@PathVariable Long configId, @RequestBody Object configData) {
+    public R<SystemConfigDto> updateConfig(
+            @Parameter(description = "配置ID")
+            @PathVariable Long configId,
+            @Valid @RequestBody UpdateSystemConfigRequest request) {
         log.info("更新配置ID {} 的配置", configId);
-        return R.success("更新系统配置功能待实现");
+        Long currentAdminId = RequestUtil.getCurrentUserId();
+        SystemConfigDto config = systemConfigService.updateConfig(configId, request, currentAdminId);
+        return R.success(config, "更新系统配置成功");
     }
-}
\ No newline at end of file
+}
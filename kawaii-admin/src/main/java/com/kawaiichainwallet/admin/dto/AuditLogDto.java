@@ -0,0 +1,97 @@
+package com.kawaiichainwallet.admin.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 运营审计日志DTO
+ *
+ * <p>oldValues / newValues / metadata 原样输出为JSON对象，不做反序列化再序列化。</p>
+ *
+ * <p><b>时间字段约定</b>：所有时间字段统一使用 UTC 时区</p>
+ *
+ * @author KawaiiChain
+ */
+@Data
+public class AuditLogDto {
+
+    /**
+     * 日志ID
+     */
+    private Long logId;
+
+    /**
+     * 操作人ID
+     */
+    private Long userId;
+
+    /**
+     * 操作类型
+     */
+    private String action;
+
+    /**
+     * 资源类型
+     */
+    private String resourceType;
+
+    /**
+     * 资源ID
+     */
+    private Long resourceId;
+
+    /**
+     * IP地址
+     */
+    private String ipAddress;
+
+    /**
+     * User-Agent
+     */
+    private String userAgent;
+
+    /**
+     * 请求路径
+     */
+    private String requestPath;
+
+    /**
+     * 请求方法
+     */
+    private String requestMethod;
+
+    /**
+     * 修改前的值
+     */
+    @JsonRawValue
+    private String oldValues;
+
+    /**
+     * 修改后的值
+     */
+    @JsonRawValue
+    private String newValues;
+
+    /**
+     * 额外元数据
+     */
+    @JsonRawValue
+    private String metadata;
+
+    /**
+     * 操作是否成功
+     */
+    private Boolean success;
+
+    /**
+     * 错误信息
+     */
+    private String errorMessage;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,43 @@
+package com.kawaiichainwallet.admin.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 审计日志查询条件
+ *
+ * <p>时间范围 [from, to) 为必填，查询只扫描范围内的月分区；其余条件可选。</p>
+ *
+ * <p><b>时间字段约定</b>：所有时间字段统一使用 UTC 时区</p>
+ *
+ * @author KawaiiChain
+ */
+@Data
+public class AuditLogQuery {
+
+    /**
+     * 起始时间（包含）
+     */
+    private LocalDateTime from;
+
+    /**
+     * 结束时间（不包含）
+     */
+    private LocalDateTime to;
+
+    /**
+     * 操作人ID
+     */
+    private Long userId;
+
+    /**
+     * 操作类型
+     */
+    private String action;
+
+    /**
+     * 资源类型
+     */
+    private String resourceType;
+}
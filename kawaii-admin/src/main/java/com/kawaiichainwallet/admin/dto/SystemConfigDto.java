@@ -0,0 +1,71 @@
+package com.kawaiichainwallet.admin.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 系统配置DTO
+ *
+ * <p><b>时间字段约定</b>：所有时间字段统一使用 UTC 时区</p>
+ *
+ * @author KawaiiChain
+ */
+@Data
+public class SystemConfigDto {
+
+    /**
+     * 配置ID
+     */
+    private Long configId;
+
+    /**
+     * 配置键
+     */
+    private String configKey;
+
+    /**
+     * 配置值
+     */
+    private String configValue;
+
+    /**
+     * 配置类型：string / number / boolean / json
+     */
+    private String configType;
+
+    /**
+     * 配置组
+     */
+    private String configGroup;
+
+    /**
+     * 配置描述
+     */
+    private String description;
+
+    /**
+     * 是否可公开访问
+     */
+    private Boolean isPublic;
+
+    /**
+     * 值是否加密存储
+     */
+    private Boolean isEncrypted;
+
+    /**
+     * 配置组当前版本
+     */
+    private Long groupVersion;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updatedAt;
+
+    /**
+     * 更新人ID
+     */
+    private Long updatedBy;
+}
@@ -0,0 +1,31 @@
+package com.kawaiichainwallet.admin.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * 更新系统配置请求DTO
+ *
+ * @author KawaiiChain
+ */
+@Data
+public class UpdateSystemConfigRequest {
+
+    /**
+     * 配置值（需符合配置类型：number 为数字，boolean 为 true/false，json 为合法JSON）
+     */
+    @NotNull(message = "配置值不能为空")
+    private String configValue;
+
+    /**
+     * 配置描述
+     */
+    @Size(max = 500, message = "配置描述不能超过500个字符")
+    private String description;
+
+    /**
+     * 期望的配置组版本（可选），与当前版本不一致时拒绝更新，防止覆盖他人的修改
+     */
+    private Long expectedVersion;
+}
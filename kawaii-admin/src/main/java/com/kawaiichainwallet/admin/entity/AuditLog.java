@@ -0,0 +1,104 @@
+package com.kawaiichainwallet.admin.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 运营审计日志实体类 - 对应 audit_logs 表（按 created_at 月分区）
+ *
+ * <p>写入由 common-business 中的审计写入器批量完成，本实体只用于查询。
+ * old_values / new_values / metadata 为 JSONB 列，以JSON文本读取。</p>
+ *
+ * <p><b>时间字段约定</b>：所有时间字段统一使用 UTC 时区</p>
+ *
+ * @author KawaiiChain
+ */
+@Data
+@TableName("audit_logs")
+public class AuditLog implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -6829403916375208841L;
+
+    /**
+     * 日志ID
+     */
+    @TableId(value = "log_id", type = IdType.INPUT)
+    private Long logId;
+
+    /**
+     * 操作人ID
+     */
+    private Long userId;
+
+    /**
+     * 操作类型
+     */
+    private String action;
+
+    /**
+     * 资源类型
+     */
+    private String resourceType;
+
+    /**
+     * 资源ID
+     */
+    private Long resourceId;
+
+    /**
+     * IP地址
+     */
+    private String ipAddress;
+
+    /**
+     * User-Agent
+     */
+    private String userAgent;
+
+    /**
+     * 请求路径
+     */
+    private String requestPath;
+
+    /**
+     * 请求方法
+     */
+    private String requestMethod;
+
+    /**
+     * 修改前的值（JSON）
+     */
+    private String oldValues;
+
+    /**
+     * 修改后的值（JSON）
+     */
+    private String newValues;
+
+    /**
+     * 额外元数据（JSON）
+     */
+    private String metadata;
+
+    /**
+     * 操作是否成功
+     */
+    private Boolean success;
+
+    /**
+     * 错误信息
+     */
+    private String errorMessage;
+
+    /**
+     * 创建时间（UTC，分区键）
+     */
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,91 @@
+package com.kawaiichainwallet.admin.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 系统配置实体类 - 对应 system_configs 表
+ *
+ * <p><b>时间字段约定</b>：所有时间字段统一使用 UTC 时区</p>
+ *
+ * @author KawaiiChain
+ */
+@Data
+@TableName("system_configs")
+public class SystemConfig implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 4417309276183562091L;
+
+    /**
+     * 配置ID
+     */
+    @TableId(value = "config_id", type = IdType.INPUT)
+    private Long configId;
+
+    /**
+     * 配置键
+     */
+    @TableField("config_key")
+    private String configKey;
+
+    /**
+     * 配置值
+     */
+    @TableField("config_value")
+    private String configValue;
+
+    /**
+     * 配置类型：string / number / boolean / json
+     */
+    @TableField("config_type")
+    private String configType;
+
+    /**
+     * 配置组
+     */
+    @TableField("config_group")
+    private String configGroup;
+
+    /**
+     * 配置描述
+     */
+    private String description;
+
+    /**
+     * 是否可公开访问
+     */
+    @TableField("is_public")
+    private Boolean isPublic;
+
+    /**
+     * 值是否加密存储
+     */
+    @TableField("is_encrypted")
+    private Boolean isEncrypted;
+
+    /**
+     * 创建时间
+     */
+    @TableField("created_at")
+    private LocalDateTime createdAt;
+
+    /**
+     * 更新时间
+     */
+    @TableField("updated_at")
+    private LocalDateTime updatedAt;
+
+    /**
+     * 更新人ID
+     */
+    @TableField("updated_by")
+    private Long updatedBy;
+}
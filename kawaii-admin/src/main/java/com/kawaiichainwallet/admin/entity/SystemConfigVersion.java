@@ -0,0 +1,45 @@
+package com.kawaiichainwallet.admin.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 系统配置组版本实体类 - 对应 system_config_versions 表
+ *
+ * <p>配置组内任一配置写入时版本加一，各服务据此判断本地快照是否过期。</p>
+ *
+ * <p><b>时间字段约定</b>：所有时间字段统一使用 UTC 时区</p>
+ *
+ * @author KawaiiChain
+ */
+@Data
+@TableName("system_config_versions")
+public class SystemConfigVersion implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -2870516394120786543L;
+
+    /**
+     * 配置组
+     */
+    @TableId(value = "config_group", type = IdType.INPUT)
+    private String configGroup;
+
+    /**
+     * 当前版本
+     */
+    private Long version;
+
+    /**
+     * 更新时间
+     */
+    @TableField("updated_at")
+    private LocalDateTime updatedAt;
+}
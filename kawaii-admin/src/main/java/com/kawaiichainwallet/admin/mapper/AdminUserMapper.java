@@ -79,26 +79,9 @@ public interface AdminUserMapper extends BaseMapper<AdminUser> {
     @Select("SELECT COUNT(1) > 0 FROM admin_users WHERE phone = #{phone}")
     boolean existsByPhone(String phone);
 
-    /**
-     * 增加登录失败次数
-     *
-     * @param adminId 管理员ID
-     * @return 影响的行数
-     */
-    @Update("UPDATE admin_users SET login_attempts = login_attempts + 1, updated_at = (NOW() AT TIME ZONE 'UTC') WHERE admin_id = #{adminId}")
-    int incrementLoginAttempts(@Param("adminId") Long adminId);
-
-    /**
-     * 重置登录失败次数
-     *
-     * @param adminId 管理员ID
-     * @return 影响的行数
-     */
-    @Update("UPDATE admin_users SET login_attempts = 0, updated_at = (NOW() AT TIME ZONE 'UTC') WHERE admin_id = #{adminId}")
-    int resetLoginAttempts(@Param("adminId") Long adminId);
-
     /**
      * 锁定管理员账户（时间为 UTC）
+     * 失败计数保存在Redis中，只有触发锁定时才写数据库
      *
      * @param adminId 管理员ID
      * @param lockUntil 锁定截止时间
@@ -129,6 +112,19 @@ public interface AdminUserMapper extends BaseMapper<AdminUser> {
                        @Param("loginTime") LocalDateTime loginTime,
                        @Param("ipAddress") String ipAddress);
 
+    /**
+     * 升级密码哈希（仅当哈希未被并发修改时生效）
+     *
+     * @param adminId 管理员ID
+     * @param oldHash 登录时校验通过的原哈希
+     * @param newHash 按当前强度重新计算的哈希
+     * @return 影响的行数
+     */
+    @Update("UPDATE admin_users SET password_hash = #{newHash}, updated_at = (NOW() AT TIME ZONE 'UTC') WHERE admin_id = #{adminId} AND password_hash = #{oldHash}")
+    int upgradePasswordHash(@Param("adminId") Long adminId,
+                            @Param("oldHash") String oldHash,
+                            @Param("newHash") String newHash);
+
     /**
      * 分页查询管理员列表（支持状态筛选和关键词搜索）
      *
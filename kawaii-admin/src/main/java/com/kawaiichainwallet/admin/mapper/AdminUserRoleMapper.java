@@ -36,6 +36,30 @@ public interface AdminUserRoleMapper extends BaseMapper<AdminUserRole> {
     @Select("SELECT role_id FROM admin_user_roles WHERE admin_id = #{adminId}")
     List<Long> findRoleIdsByAdminId(@Param("adminId") Long adminId);
 
+    /**
+     * 查询管理员当前有效（未过期）的角色分配，只走 admin_user_roles 单表
+     * 角色本身的权限和激活状态由内存中的权限快照提供
+     *
+     * @param adminId 管理员ID
+     * @return 角色分配列表（只包含role_id和expires_at）
+     */
+    @Select("SELECT role_id, expires_at FROM admin_user_roles " +
+            "WHERE admin_id = #{adminId} " +
+            "AND (expires_at IS NULL OR expires_at > (NOW() AT TIME ZONE 'UTC'))")
+    List<AdminUserRole> findActiveAssignmentsByAdminId(@Param("adminId") Long adminId);
+
+    /**
+     * 批量查询多个管理员当前有效的角色分配（admin_id = ANY(数组)，单个绑定参数）
+     * 用于列表页一次性加载整页管理员的角色，调用方保证数组长度不超过页大小
+     *
+     * @param adminIds 管理员ID数组
+     * @return 角色分配列表（只包含admin_id、role_id和expires_at）
+     */
+    @Select("SELECT admin_id, role_id, expires_at FROM admin_user_roles " +
+            "WHERE admin_id = ANY(#{adminIds, typeHandler=org.apache.ibatis.type.ArrayTypeHandler}) " +
+            "AND (expires_at IS NULL OR expires_at > (NOW() AT TIME ZONE 'UTC'))")
+    List<AdminUserRole> findActiveAssignmentsByAdminIds(@Param("adminIds") Long[] adminIds);
+
     /**
      * 根据角色ID查询拥有该角色的管理员ID列表
      *
@@ -0,0 +1,83 @@
+package com.kawaiichainwallet.admin.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.kawaiichainwallet.admin.dto.AuditLogQuery;
+import com.kawaiichainwallet.admin.entity.AuditLog;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 运营审计日志数据访问接口
+ *
+ * <p>所有查询都带 created_at 范围条件，PostgreSQL 在执行期裁剪掉范围外的月分区；
+ * 按操作人、操作类型、资源类型筛选时分别由 (user_id / action / resource_type, created_at, log_id) 复合索引支撑，
+ * 不带筛选时由主键 (created_at, log_id) 支撑。</p>
+ *
+ * @author KawaiiChain
+ */
+@Mapper
+public interface AuditLogMapper extends BaseMapper<AuditLog> {
+
+    /**
+     * 按 (created_at, log_id) 倒序的游标分页查询，翻页成本与页码无关
+     */
+    @Select({
+        "<script>",
+        "SELECT log_id, user_id, action, resource_type, resource_id,",
+        "       ip_address, user_agent, request_path, request_method,",
+        "       old_values, new_values, metadata, success, error_message, created_at",
+        "FROM audit_logs",
+        "WHERE created_at &gt;= #{q.from} AND created_at &lt; #{q.to}",
+        "  <if test='q.userId != null'>",
+        "    AND user_id = #{q.userId}",
+        "  </if>",
+        "  <if test='q.action != null and q.action != \"\"'>",
+        "    AND action = #{q.action}",
+        "  </if>",
+        "  <if test='q.resourceType != null and q.resourceType != \"\"'>",
+        "    AND resource_type = #{q.resourceType}",
+        "  </if>",
+        "  <if test='cursorCreatedAt != null and cursorLogId != null'>",
+        "    AND (created_at, log_id) &lt; (#{cursorCreatedAt}, #{cursorLogId})",
+        "  </if>",
+        "ORDER BY created_at DESC, log_id DESC",
+        "LIMIT #{limit}",
+        "</script>"
+    })
+    List<AuditLog> findPage(@Param("q") AuditLogQuery query,
+                            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                            @Param("cursorLogId") Long cursorLogId,
+                            @Param("limit") int limit);
+
+    /**
+     * 流式导出审计日志（服务端游标，按批次抓取，需在事务中消费），按时间正序输出
+     */
+    @Select({
+        "<script>",
+        "SELECT log_id, user_id, action, resource_type, resource_id,",
+        "       ip_address, user_agent, request_path, request_method,",
+        "       old_values, new_values, metadata, success, error_message, created_at",
+        "FROM audit_logs",
+        "WHERE created_at &gt;= #{q.from} AND created_at &lt; #{q.to}",
+        "  <if test='q.userId != null'>",
+        "    AND user_id = #{q.userId}",
+        "  </if>",
+        "  <if test='q.action != null and q.action != \"\"'>",
+        "    AND action = #{q.action}",
+        "  </if>",
+        "  <if test='q.resourceType != null and q.resourceType != \"\"'>",
+        "    AND resource_type = #{q.resourceType}",
+        "  </if>",
+        "ORDER BY created_at, log_id",
+        "</script>"
+    })
+    @Options(fetchSize = 1000, resultSetType = ResultSetType.FORWARD_ONLY)
+    Cursor<AuditLog> streamLogs(@Param("q") AuditLogQuery query);
+}
@@ -0,0 +1,66 @@
+package com.kawaiichainwallet.admin.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.kawaiichainwallet.admin.entity.SystemConfig;
+import com.kawaiichainwallet.admin.entity.SystemConfigVersion;
+import org.apache.ibatis.annotations.*;
+
+import java.util.List;
+
+/**
+ * 系统配置数据访问接口
+ *
+ * @author KawaiiChain
+ */
+@Mapper
+public interface SystemConfigMapper extends BaseMapper<SystemConfig> {
+
+    /**
+     * 查询全部配置（按配置组、配置键排序）
+     */
+    @Select("SELECT * FROM system_configs ORDER BY config_group, config_key")
+    List<SystemConfig> findAll();
+
+    /**
+     * 查询配置组下的全部配置
+     *
+     * @param group 配置组
+     */
+    @Select("SELECT * FROM system_configs WHERE config_group = #{group} ORDER BY config_key")
+    List<SystemConfig> findByGroup(@Param("group") String group);
+
+    /**
+     * 确保配置组版本行存在（初始版本0），之后的 {@link #lockGroupVersion} 总能锁到一行
+     *
+     * @param group 配置组
+     */
+    @Insert("""
+        INSERT INTO system_config_versions (config_group, version, updated_at)
+        VALUES (#{group}, 0, NOW() AT TIME ZONE 'UTC')
+        ON CONFLICT (config_group) DO NOTHING
+        """)
+    int ensureGroupVersion(@Param("group") String group);
+
+    /**
+     * 锁定配置组版本行并返回当前版本（不存在时为null）
+     * 同一配置组的并发修改在版本行上排队，版本由 system_configs 上的触发器在写入时递增
+     *
+     * @param group 配置组
+     */
+    @Select("SELECT version FROM system_config_versions WHERE config_group = #{group} FOR UPDATE")
+    Long lockGroupVersion(@Param("group") String group);
+
+    /**
+     * 查询配置组的当前版本（不存在时为null）
+     *
+     * @param group 配置组
+     */
+    @Select("SELECT version FROM system_config_versions WHERE config_group = #{group}")
+    Long findGroupVersion(@Param("group") String group);
+
+    /**
+     * 查询所有配置组的当前版本
+     */
+    @Select("SELECT * FROM system_config_versions")
+    List<SystemConfigVersion> findGroupVersions();
+}
@@ -1,28 +1,26 @@
 package com.kawaiichainwallet.admin.service;
 
+import com.kawaiichainwallet.admin.component.AdminPermissionRegistry;
+import com.kawaiichainwallet.admin.component.AdminPermissions;
 import com.kawaiichainwallet.admin.dto.AdminLoginRequest;
 import com.kawaiichainwallet.admin.dto.AdminLoginResponse;
-import com.kawaiichainwallet.admin.entity.AdminRole;
 import com.kawaiichainwallet.admin.entity.AdminUser;
 import com.kawaiichainwallet.admin.mapper.AdminUserMapper;
-import com.kawaiichainwallet.admin.mapper.AdminUserRoleMapper;
 import com.kawaiichainwallet.common.auth.JwtTokenService;
 import com.kawaiichainwallet.common.auth.JwtValidationService;
+import com.kawaiichainwallet.common.auth.LoginAttemptService;
 import com.kawaiichainwallet.common.auth.TokenBlacklistService;
+import com.kawaiichainwallet.common.business.password.PasswordHashingService;
 import com.kawaiichainwallet.common.core.enums.ApiCode;
 import com.kawaiichainwallet.common.core.exception.BusinessException;
+import com.kawaiichainwallet.common.core.exception.RateLimitException;
 import com.kawaiichainwallet.common.core.utils.TimeUtil;
 import com.kawaiichainwallet.common.core.utils.ValidationUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * 管理员认证服务
@@ -32,6 +30,8 @@ import java.util.stream.Collectors;
  * - JwtValidationService: 验证Token有效性
  * - TokenBlacklistService: 管理Token黑名单
  *
+ * <p>角色和权限取自内存中的 {@link AdminPermissionRegistry}，登录和刷新Token不再联表查询角色。
+ *
  * @author KawaiiChain
  */
 @Slf4j
@@ -39,18 +39,18 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AdminAuthService {
 
+    /**
+     * 登录失败计数的用户类型维度
+     */
+    private static final String USER_TYPE = "ADMIN";
+
     private final AdminUserMapper adminUserMapper;
-    private final AdminUserRoleMapper adminUserRoleMapper;
+    private final AdminPermissionRegistry permissionRegistry;
     private final JwtTokenService jwtTokenService;
     private final JwtValidationService jwtValidationService;
     private final TokenBlacklistService tokenBlacklistService;
-    private final PasswordEncoder passwordEncoder;
-
-    @Value("${app.auth.max-login-attempts:5}")
-    private int maxLoginAttempts;
-
-    @Value("${app.auth.account-lock-duration:15}")
-    private int accountLockDurationMinutes;
+    private final PasswordHashingService passwordHashingService;
+    private final LoginAttemptService loginAttemptService;
 
     /**
      * 管理员登录
@@ -60,14 +60,19 @@ public class AdminAuthService {
      * @param userAgent 用户代理
      * @return 登录响应
      */
-    @Transactional(rollbackFor = Exception.class)
     public AdminLoginResponse login(AdminLoginRequest request, String clientIp, String userAgent) {
         // 验证请求参数
         validateLoginRequest(request);
 
+        // 同一IP失败次数过多时直接拒绝，不查库也不做BCrypt计算
+        if (loginAttemptService.isIpLocked(USER_TYPE, clientIp)) {
+            throw new RateLimitException("登录失败次数过多，请稍后再试");
+        }
+
         // 查找管理员
         AdminUser admin = adminUserMapper.findByIdentifier(request.getIdentifier());
         if (admin == null) {
+            loginAttemptService.recordFailure(USER_TYPE, null, clientIp);
             log.warn("管理员登录失败: 用户不存在 - identifier: {}, IP: {}",
                     ValidationUtil.maskSensitiveInfo(request.getIdentifier()), clientIp);
             throw new BusinessException(ApiCode.INVALID_CREDENTIALS, "用户名或密码错误");
@@ -76,14 +81,24 @@ public class AdminAuthService {
         // 检查账户状态
         checkAccountStatus(admin, clientIp);
 
-        // 验证密码
-        boolean passwordValid = passwordEncoder.matches(request.getPassword(), admin.getPasswordHash());
+        // 检查Redis中的失败锁定状态（在BCrypt校验之前）
+        if (loginAttemptService.isLocked(USER_TYPE, admin.getAdminId(), clientIp)) {
+            throw new BusinessException(ApiCode.ACCOUNT_LOCKED,
+                    String.format("登录失败次数过多，账户已被锁定%d分钟", loginAttemptService.getLockMinutes()));
+        }
+
+        // 验证密码（在有界哈希线程池中执行，繁忙时快速失败）
+        boolean passwordValid = passwordHashingService.matches(request.getPassword(), admin.getPasswordHash());
         if (!passwordValid) {
             // 增加登录失败次数
             handleLoginFailure(admin, clientIp, "密码错误");
             throw new BusinessException(ApiCode.INVALID_CREDENTIALS, "用户名或密码错误");
         }
 
+        // 存量哈希强度低于当前配置时顺带升级
+        passwordHashingService.rehashIfNeeded(request.getPassword(), admin.getPasswordHash())
+                .ifPresent(newHash -> adminUserMapper.upgradePasswordHash(admin.getAdminId(), admin.getPasswordHash(), newHash));
+
         // 登录成功，处理后续逻辑
         return handleLoginSuccess(admin, clientIp, userAgent);
     }
@@ -140,18 +155,15 @@ public class AdminAuthService {
                 throw new BusinessException(ApiCode.USER_NOT_FOUND, "管理员不存在或已被禁用");
             }
 
-            // 查询管理员角色
-            List<AdminRole> roles = adminUserRoleMapper.findRolesByAdminId(adminId);
-            String rolesStr = roles.stream()
-                    .map(AdminRole::getRoleCode)
-                    .collect(Collectors.joining(","));
+            // 从权限快照解析角色和权限
+            AdminPermissions permissions = permissionRegistry.resolve(admin);
 
             // 生成新的Token（指定用户类型为ADMIN）
-            String newAccessToken = jwtTokenService.generateAccessToken(adminId, username, rolesStr, "ADMIN");
+            String newAccessToken = generateAccessToken(adminId, username, permissions);
             String newRefreshToken = jwtTokenService.generateRefreshToken(adminId, username, "ADMIN");
 
             // 构建响应
-            AdminLoginResponse response = buildLoginResponse(admin, roles);
+            AdminLoginResponse response = buildLoginResponse(admin, permissions);
             response.setAccessToken(newAccessToken);
             response.setRefreshToken(newRefreshToken);
             response.setExpiresIn((int) jwtTokenService.getAccessTokenExpiration());
@@ -202,35 +214,28 @@ public class AdminAuthService {
                     String.format("账户已被锁定，解锁时间: %s", admin.getLockedUntil()));
         }
 
-        // 如果锁定时间已过，解锁账户
-        if (admin.getLockedUntil() != null && admin.getLockedUntil().isBefore(now)) {
-            adminUserMapper.unlockUser(admin.getAdminId());
-            log.info("管理员账户自动解锁: adminId={}", admin.getAdminId());
-        }
+        // 锁定时间已过无需单独解锁，登录成功时一并清除
     }
 
     /**
      * 处理登录失败
      */
     private void handleLoginFailure(AdminUser admin, String clientIp, String reason) {
-        // 增加登录失败次数
-        adminUserMapper.incrementLoginAttempts(admin.getAdminId());
+        // 在Redis中原子计数，只有本次触发锁定时才写数据库
+        LoginAttemptService.FailureResult result = loginAttemptService.recordFailure(USER_TYPE, admin.getAdminId(), clientIp);
 
-        int currentAttempts = admin.getLoginAttempts() + 1;
-
-        // 检查是否需要锁定账户（使用 UTC 时间）
-        if (currentAttempts >= maxLoginAttempts) {
-            LocalDateTime lockUntil = TimeUtil.nowUtc().plusMinutes(accountLockDurationMinutes);
+        if (result.accountLockTriggered()) {
+            LocalDateTime lockUntil = TimeUtil.nowUtc().plusMinutes(loginAttemptService.getLockMinutes());
             adminUserMapper.lockUser(admin.getAdminId(), lockUntil);
 
             log.warn("管理员账户被锁定: adminId={}, attempts={}, lockUntil={}, reason={}, IP={}",
-                    admin.getAdminId(), currentAttempts, lockUntil, reason, clientIp);
+                    admin.getAdminId(), result.accountAttempts(), lockUntil, reason, clientIp);
 
             throw new BusinessException(ApiCode.ACCOUNT_LOCKED,
-                    String.format("登录失败次数过多，账户已被锁定%d分钟", accountLockDurationMinutes));
+                    String.format("登录失败次数过多，账户已被锁定%d分钟", loginAttemptService.getLockMinutes()));
         } else {
             log.warn("管理员登录失败: adminId={}, attempts={}/{}, reason={}, IP={}",
-                    admin.getAdminId(), currentAttempts, maxLoginAttempts, reason, clientIp);
+                    admin.getAdminId(), result.accountAttempts(), loginAttemptService.getMaxAccountAttempts(), reason, clientIp);
         }
     }
 
@@ -238,27 +243,20 @@ public class AdminAuthService {
      * 处理登录成功
      */
     private AdminLoginResponse handleLoginSuccess(AdminUser admin, String clientIp, String userAgent) {
-        // 重置登录失败次数
-        adminUserMapper.resetLoginAttempts(admin.getAdminId());
+        // 清除Redis失败计数；只有存在锁定记录时才需要写数据库
+        loginAttemptService.clearAccount(USER_TYPE, admin.getAdminId());
+        if ((admin.getLoginAttempts() != null && admin.getLoginAttempts() > 0) || admin.getLockedUntil() != null) {
+            adminUserMapper.unlockUser(admin.getAdminId());
+        }
 
         // 更新最后登录信息（使用 UTC 时间）
         adminUserMapper.updateLoginInfo(admin.getAdminId(), TimeUtil.nowUtc(), clientIp);
 
-        // 查询管理员角色
-        List<AdminRole> roles = adminUserRoleMapper.findRolesByAdminId(admin.getAdminId());
-
-        // 生成角色字符串（用于JWT）
-        String rolesStr = roles.stream()
-                .map(AdminRole::getRoleCode)
-                .collect(Collectors.joining(","));
+        // 从权限快照解析角色和权限
+        AdminPermissions permissions = permissionRegistry.resolve(admin);
 
         // 生成JWT令牌（指定用户类型为ADMIN）
-        String accessToken = jwtTokenService.generateAccessToken(
-                admin.getAdminId(),
-                admin.getUsername(),
-                rolesStr.isEmpty() ? "ADMIN" : rolesStr,
-                "ADMIN"  // 用户类型
-        );
+        String accessToken = generateAccessToken(admin.getAdminId(), admin.getUsername(), permissions);
         String refreshToken = jwtTokenService.generateRefreshToken(
                 admin.getAdminId(),
                 admin.getUsername(),
@@ -266,21 +264,34 @@ public class AdminAuthService {
         );
 
         // 构建响应
-        AdminLoginResponse response = buildLoginResponse(admin, roles);
+        AdminLoginResponse response = buildLoginResponse(admin, permissions);
         response.setAccessToken(accessToken);
         response.setRefreshToken(refreshToken);
         response.setExpiresIn((int) jwtTokenService.getAccessTokenExpiration());
 
         log.info("管理员登录成功: adminId={}, username={}, roles={}, IP={}",
-                admin.getAdminId(), admin.getUsername(), rolesStr, clientIp);
+                admin.getAdminId(), admin.getUsername(), permissions.getRoleCodes(), clientIp);
 
         return response;
     }
 
+    /**
+     * 生成访问令牌
+     */
+    private String generateAccessToken(Long adminId, String username, AdminPermissions permissions) {
+        String rolesStr = String.join(",", permissions.getRoleCodes());
+        return jwtTokenService.generateAccessToken(
+                adminId,
+                username,
+                rolesStr.isEmpty() ? "ADMIN" : rolesStr,
+                "ADMIN"  // 用户类型
+        );
+    }
+
     /**
      * 构建登录响应
      */
-    private AdminLoginResponse buildLoginResponse(AdminUser admin, List<AdminRole> roles) {
+    private AdminLoginResponse buildLoginResponse(AdminUser admin, AdminPermissions permissions) {
         AdminLoginResponse response = new AdminLoginResponse();
         response.setAdminId(admin.getAdminId());
         response.setUsername(admin.getUsername());
@@ -288,29 +299,11 @@ public class AdminAuthService {
         response.setRealName(admin.getRealName());
         response.setIsSuperAdmin(admin.getIsSuperAdmin());
 
-        // 设置角色列表
-        List<String> roleCodes = roles.stream()
-                .map(AdminRole::getRoleCode)
-                .collect(Collectors.toList());
-        response.setRoles(roleCodes);
-
-        // 收集所有权限（角色权限 + 用户额外权限）
-        List<String> allPermissions = roles.stream()
-                .flatMap(role -> role.getPermissions().stream())
-                .collect(Collectors.toList());
-
-        // 添加用户的额外权限
-        if (admin.getPermissions() != null && !admin.getPermissions().isEmpty()) {
-            allPermissions.addAll(admin.getPermissions());
-        }
-
-        // 如果是超级管理员，拥有所有权限
-        if (Boolean.TRUE.equals(admin.getIsSuperAdmin())) {
-            allPermissions.clear();
-            allPermissions.add("*");
-        }
+        // 角色列表
+        response.setRoles(permissions.getRoleCodes());
 
-        response.setPermissions(allPermissions.stream().distinct().collect(Collectors.toList()));
+        // 权限列表（角色权限 + 用户额外权限，超级管理员只返回 *）
+        response.setPermissions(permissions.getPermissions());
 
         return response;
     }
@@ -3,22 +3,26 @@ package com.kawaiichainwallet.admin.service;
 import com.kawaiichainwallet.api.user.client.IdGeneratorServiceApi;
 import com.kawaiichainwallet.api.user.dto.IdGenerationRequest;
 import com.kawaiichainwallet.api.user.dto.IdGenerationResponse;
+import com.kawaiichainwallet.common.business.audit.AuditIdAllocator;
 import com.kawaiichainwallet.common.core.exception.IdGenerationException;
 import com.kawaiichainwallet.common.core.response.R;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 /**
  * Admin服务ID生成器服务
  * 通过Feign调用user服务的分布式ID生成器
+ * 同时作为审计日志写入器的ID分配器（批量租用审计日志ID）
  *
  * @author kawaii-server
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class AdminIdGeneratorService {
+public class AdminIdGeneratorService implements AuditIdAllocator {
 
     private final IdGeneratorServiceApi idGeneratorServiceApi;
 
@@ -27,6 +31,11 @@ public class AdminIdGeneratorService {
     private static final String AUDIT_LOG_BIZ_TAG = "notification-id";
     private static final String CONFIG_BIZ_TAG = "user-id";
 
+    /**
+     * ID生成服务批量接口的单次上限
+     */
+    private static final int MAX_BATCH_COUNT = 1000;
+
     /**
      * 生成管理员用户ID
      */
@@ -67,6 +76,15 @@ public class AdminIdGeneratorService {
         }
     }
 
+    /**
+     * 批量租用审计日志ID（单次最多1000个）
+     */
+    @Override
+    public List<Long> allocate(int count) {
+        IdGenerationResponse response = generateBatchIds(AUDIT_LOG_BIZ_TAG, Math.min(count, MAX_BATCH_COUNT));
+        return response.getIds() != null ? response.getIds() : List.of();
+    }
+
     /**
      * 生成系统配置ID
      */
@@ -1,5 +1,6 @@
 package com.kawaiichainwallet.admin.service;
 
+import com.kawaiichainwallet.admin.component.AdminPermissionRegistry;
 import com.kawaiichainwallet.admin.dto.AdminRoleDto;
 import com.kawaiichainwallet.admin.dto.CreateRoleRequest;
 import com.kawaiichainwallet.admin.dto.UpdateRoleRequest;
@@ -30,6 +31,7 @@ public class AdminRoleService {
     private final AdminRoleMapper adminRoleMapper;
     private final AdminUserRoleMapper adminUserRoleMapper;
     private final AdminIdGeneratorService idGeneratorService;
+    private final AdminPermissionRegistry permissionRegistry;
 
     /**
      * 获取所有激活的角色
@@ -103,6 +105,7 @@ public class AdminRoleService {
 
         // 保存角色
         adminRoleMapper.insert(role);
+        permissionRegistry.roleChanged(roleId);
 
         log.info("创建角色成功: roleId={}, roleCode={}, createdBy={}",
                 roleId, request.getRoleCode(), createdBy);
@@ -158,6 +161,7 @@ public class AdminRoleService {
 
         // 保存更新
         adminRoleMapper.updateById(role);
+        permissionRegistry.roleChanged(roleId);
 
         log.info("更新角色成功: roleId={}, updatedBy={}", roleId, updatedBy);
 
@@ -192,6 +196,7 @@ public class AdminRoleService {
 
         // 删除角色
         adminRoleMapper.deleteById(roleId);
+        permissionRegistry.roleChanged(roleId);
 
         log.info("删除角色成功: roleId={}, deletedBy={}", roleId, deletedBy);
     }
@@ -221,6 +226,7 @@ public class AdminRoleService {
         role.setUpdatedAt(TimeUtil.nowUtc());
         role.setUpdatedBy(updatedBy);
         adminRoleMapper.updateById(role);
+        permissionRegistry.roleChanged(roleId);
 
         log.info("修改角色状态: roleId={}, isActive={}, updatedBy={}", roleId, isActive, updatedBy);
     }
@@ -2,24 +2,29 @@ package com.kawaiichainwallet.admin.service;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.kawaiichainwallet.admin.component.AdminPermissionRegistry;
 import com.kawaiichainwallet.admin.dto.AdminUserDto;
 import com.kawaiichainwallet.admin.dto.CreateAdminRequest;
 import com.kawaiichainwallet.admin.dto.UpdateAdminRequest;
 import com.kawaiichainwallet.admin.entity.AdminRole;
 import com.kawaiichainwallet.admin.entity.AdminUser;
+import com.kawaiichainwallet.admin.entity.AdminUserRole;
 import com.kawaiichainwallet.admin.mapper.AdminUserMapper;
 import com.kawaiichainwallet.admin.mapper.AdminUserRoleMapper;
+import com.kawaiichainwallet.common.business.password.PasswordHashingService;
 import com.kawaiichainwallet.common.core.enums.ApiCode;
 import com.kawaiichainwallet.common.core.exception.BusinessException;
 import com.kawaiichainwallet.common.core.utils.TimeUtil;
 import com.kawaiichainwallet.common.core.utils.ValidationUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -33,10 +38,16 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AdminUserService {
 
+    /**
+     * 列表每页最大数量（同时限制批量查询角色分配的数组长度）
+     */
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final AdminUserMapper adminUserMapper;
     private final AdminUserRoleMapper adminUserRoleMapper;
     private final AdminIdGeneratorService idGeneratorService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final AdminPermissionRegistry permissionRegistry;
 
     /**
      * 分页查询管理员列表
@@ -48,11 +59,14 @@ public class AdminUserService {
      * @return 分页结果
      */
     public IPage<AdminUserDto> getAdminUsers(int pageNum, int pageSize, String status, String keyword) {
-        Page<AdminUser> page = new Page<>(pageNum, pageSize);
+        Page<AdminUser> page = new Page<>(pageNum, Math.min(Math.max(pageSize, 1), MAX_PAGE_SIZE));
         IPage<AdminUser> result = adminUserMapper.selectPageWithSearch(page, status, keyword);
 
+        // 一次查询整页管理员的角色分配，角色详情取自内存权限快照
+        Map<Long, List<AdminRole>> rolesByAdmin = loadActiveRoles(result.getRecords());
+
         // 转换为DTO
-        return result.convert(this::convertToDto);
+        return result.convert(admin -> convertToDto(admin, rolesByAdmin.getOrDefault(admin.getAdminId(), List.of())));
     }
 
     /**
@@ -124,7 +138,7 @@ public class AdminUserService {
             password = generateRandomPassword();
             log.info("为管理员生成随机密码: adminId={}", adminId);
         }
-        admin.setPasswordHash(passwordEncoder.encode(password));
+        admin.setPasswordHash(passwordHashingService.encode(password));
 
         // 保存管理员
         adminUserMapper.insert(admin);
@@ -221,6 +235,7 @@ public class AdminUserService {
 
         // 删除管理员的所有角色关联
         adminUserRoleMapper.deleteByAdminId(adminId);
+        permissionRegistry.adminChanged(adminId);
 
         log.info("删除管理员成功: adminId={}, deletedBy={}", adminId, deletedBy);
     }
@@ -255,6 +270,7 @@ public class AdminUserService {
         admin.setUpdatedAt(TimeUtil.nowUtc());
         admin.setUpdatedBy(updatedBy);
         adminUserMapper.updateById(admin);
+        permissionRegistry.adminChanged(adminId);
 
         log.info("修改管理员状态: adminId={}, status={}, updatedBy={}", adminId, status, updatedBy);
     }
@@ -281,14 +297,42 @@ public class AdminUserService {
         if (roleIds != null && !roleIds.isEmpty()) {
             adminUserRoleMapper.batchInsert(adminId, roleIds, assignedBy);
         }
+        permissionRegistry.adminChanged(adminId);
 
         log.info("分配角色成功: adminId={}, roleIds={}, assignedBy={}", adminId, roleIds, assignedBy);
     }
 
     /**
-     * 转换为DTO
+     * 批量加载管理员当前有效的角色，按管理员ID分组
+     * 只查询 admin_user_roles 一次；已停用、已删除的角色不在快照中，与单个查询的过滤条件一致
+     */
+    private Map<Long, List<AdminRole>> loadActiveRoles(List<AdminUser> admins) {
+        if (admins.isEmpty()) {
+            return Map.of();
+        }
+
+        Long[] adminIds = admins.stream().map(AdminUser::getAdminId).toArray(Long[]::new);
+        Map<Long, List<AdminRole>> rolesByAdmin = new HashMap<>();
+        for (AdminUserRole assignment : adminUserRoleMapper.findActiveAssignmentsByAdminIds(adminIds)) {
+            AdminRole role = permissionRegistry.getActiveRole(assignment.getRoleId());
+            if (role != null) {
+                rolesByAdmin.computeIfAbsent(assignment.getAdminId(), id -> new ArrayList<>()).add(role);
+            }
+        }
+        return rolesByAdmin;
+    }
+
+    /**
+     * 转换为DTO（单个管理员，角色分配单表查询一次）
      */
     private AdminUserDto convertToDto(AdminUser admin) {
+        return convertToDto(admin, loadActiveRoles(List.of(admin)).getOrDefault(admin.getAdminId(), List.of()));
+    }
+
+    /**
+     * 转换为DTO
+     */
+    private AdminUserDto convertToDto(AdminUser admin, List<AdminRole> roles) {
         AdminUserDto dto = new AdminUserDto();
         dto.setAdminId(admin.getAdminId());
         dto.setUsername(admin.getUsername());
@@ -311,8 +355,6 @@ public class AdminUserService {
         dto.setCreatedBy(admin.getCreatedBy());
         dto.setUpdatedBy(admin.getUpdatedBy());
 
-        // 查询角色
-        List<AdminRole> roles = adminUserRoleMapper.findRolesByAdminId(admin.getAdminId());
         dto.setRoles(roles.stream().map(this::convertRoleToDto).collect(Collectors.toList()));
 
         return dto;
@@ -0,0 +1,184 @@
+package com.kawaiichainwallet.admin.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kawaiichainwallet.admin.dto.AuditLogDto;
+import com.kawaiichainwallet.admin.dto.AuditLogQuery;
+import com.kawaiichainwallet.admin.entity.AuditLog;
+import com.kawaiichainwallet.admin.mapper.AuditLogMapper;
+import com.kawaiichainwallet.common.core.enums.ApiCode;
+import com.kawaiichainwallet.common.core.exception.BusinessException;
+import com.kawaiichainwallet.common.core.response.CursorPage;
+import com.kawaiichainwallet.common.spring.bulkhead.Bulkhead;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 运营审计日志查询服务
+ *
+ * <p>audit_logs 按月分区且数据量很大，查询遵循以下约束：</p>
+ * <ul>
+ *   <li>必须指定时间范围，只扫描范围内的分区；列表最多跨 {@link #MAX_QUERY_SPAN}，导出最多跨 {@link #MAX_EXPORT_SPAN}</li>
+ *   <li>列表基于 (created_at, log_id) 的游标分页，不使用 OFFSET，也不返回总数（分区表上按条件估算误差过大）</li>
+ *   <li>导出使用服务端游标逐行写出NDJSON，内存占用与导出行数无关</li>
+ * </ul>
+ *
+ * @author KawaiiChain
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AuditLogService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final Duration MAX_QUERY_SPAN = Duration.ofDays(93);
+    private static final Duration MAX_EXPORT_SPAN = Duration.ofDays(366);
+
+    private final AuditLogMapper auditLogMapper;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 游标分页查询审计日志（按时间倒序）
+     *
+     * @param query  查询条件（时间范围必填）
+     * @param cursor 上一页返回的游标，首页传null
+     * @param size   每页数量（1-100）
+     */
+    @Bulkhead("audit-query")
+    public CursorPage<AuditLogDto> getAuditLogs(AuditLogQuery query, String cursor, int size) {
+        validateRange(query, MAX_QUERY_SPAN);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        LocalDateTime cursorCreatedAt = null;
+        Long cursorLogId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] parts = decodeCursor(cursor);
+            cursorCreatedAt = LocalDateTime.parse(parts[0]);
+            cursorLogId = Long.parseLong(parts[1]);
+        }
+
+        // 多查一条用于判断是否还有下一页
+        List<AuditLog> rows = auditLogMapper.findPage(query, cursorCreatedAt, cursorLogId, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            AuditLog last = rows.get(rows.size() - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getLogId());
+        }
+
+        List<AuditLogDto> items = rows.stream()
+                .map(this::convertToDto)
+                .toList();
+
+        return new CursorPage<>(items, nextCursor, hasMore, null);
+    }
+
+    /**
+     * 以NDJSON格式流式导出审计日志（按时间正序）
+     * 使用服务端游标按批次抓取，游标需要在事务内消费
+     * 导出会长时间占用一个数据库连接，通过舱壁限制同时进行的导出数
+     */
+    @Bulkhead("audit-export")
+    @Transactional(readOnly = true)
+    public long exportAuditLogs(AuditLogQuery query, OutputStream outputStream) throws IOException {
+        validateRange(query, MAX_EXPORT_SPAN);
+
+        long count = 0;
+        try (Cursor<AuditLog> cursor = auditLogMapper.streamLogs(query)) {
+            for (AuditLog auditLog : cursor) {
+                outputStream.write(objectMapper.writeValueAsBytes(convertToDto(auditLog)));
+                outputStream.write('\n');
+                count++;
+            }
+        }
+        outputStream.flush();
+
+        log.info("审计日志导出完成: from={}, to={}, userId={}, action={}, resourceType={}, count={}",
+                query.getFrom(), query.getTo(), query.getUserId(), query.getAction(), query.getResourceType(), count);
+        return count;
+    }
+
+    /**
+     * 校验导出条件
+     * 导出在异步线程中写出响应体，需要在返回响应头之前调用，使参数错误仍能以普通错误响应返回
+     */
+    public void validateExportQuery(AuditLogQuery query) {
+        validateRange(query, MAX_EXPORT_SPAN);
+    }
+
+    /**
+     * 校验时间范围，保证查询能裁剪到有限个分区
+     */
+    private void validateRange(AuditLogQuery query, Duration maxSpan) {
+        if (query.getFrom() == null || query.getTo() == null) {
+            throw new BusinessException(ApiCode.VALIDATION_ERROR, "必须指定查询时间范围");
+        }
+        if (!query.getFrom().isBefore(query.getTo())) {
+            throw new BusinessException(ApiCode.VALIDATION_ERROR, "起始时间必须早于结束时间");
+        }
+        if (Duration.between(query.getFrom(), query.getTo()).compareTo(maxSpan) > 0) {
+            throw new BusinessException(ApiCode.VALIDATION_ERROR, "查询时间范围不能超过" + maxSpan.toDays() + "天");
+        }
+    }
+
+    private AuditLogDto convertToDto(AuditLog auditLog) {
+        AuditLogDto dto = new AuditLogDto();
+        dto.setLogId(auditLog.getLogId());
+        dto.setUserId(auditLog.getUserId());
+        dto.setAction(auditLog.getAction());
+        dto.setResourceType(auditLog.getResourceType());
+        dto.setResourceId(auditLog.getResourceId());
+        dto.setIpAddress(auditLog.getIpAddress());
+        dto.setUserAgent(auditLog.getUserAgent());
+        dto.setRequestPath(auditLog.getRequestPath());
+        dto.setRequestMethod(auditLog.getRequestMethod());
+        dto.setOldValues(auditLog.getOldValues());
+        dto.setNewValues(auditLog.getNewValues());
+        dto.setMetadata(auditLog.getMetadata());
+        dto.setSuccess(auditLog.getSuccess());
+        dto.setErrorMessage(auditLog.getErrorMessage());
+        dto.setCreatedAt(auditLog.getCreatedAt());
+        return dto;
+    }
+
+    /**
+     * 编码分页游标: Base64URL("created_at|log_id")
+     */
+    private String encodeCursor(LocalDateTime createdAt, Long logId) {
+        String raw = createdAt + "|" + logId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码分页游标
+     */
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("cursor parts: " + parts.length);
+            }
+            // 提前校验格式，避免非法游标进入SQL
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (RuntimeException e) {
+            throw new BusinessException(ApiCode.VALIDATION_ERROR, "无效的分页游标");
+        }
+    }
+}
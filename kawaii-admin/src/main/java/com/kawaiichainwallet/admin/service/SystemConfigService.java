@@ -0,0 +1,201 @@
+package com.kawaiichainwallet.admin.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kawaiichainwallet.admin.component.DatabaseSystemConfigSource;
+import com.kawaiichainwallet.admin.dto.SystemConfigDto;
+import com.kawaiichainwallet.admin.dto.UpdateSystemConfigRequest;
+import com.kawaiichainwallet.admin.entity.SystemConfig;
+import com.kawaiichainwallet.admin.mapper.SystemConfigMapper;
+import com.kawaiichainwallet.common.business.audit.AuditEvent;
+import com.kawaiichainwallet.common.business.audit.OperationAuditService;
+import com.kawaiichainwallet.common.business.sysconfig.SystemConfigCache;
+import com.kawaiichainwallet.common.core.enums.ApiCode;
+import com.kawaiichainwallet.common.core.exception.BusinessException;
+import com.kawaiichainwallet.common.core.utils.TimeUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 系统配置管理服务
+ *
+ * <p>管理端的查询和修改直接读写 system_configs 表；业务代码读取配置应使用 {@link SystemConfigCache}。</p>
+ *
+ * <p>每次修改由数据库触发器在同一事务中递增配置组版本，事务提交后记录审计日志并广播新版本，
+ * 各服务的配置缓存收到通知后重新拉取该配置组。未开启 app.system-config.enabled 时不广播。</p>
+ *
+ * @author KawaiiChain
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SystemConfigService {
+
+    private static final String AUDIT_ACTION = "UPDATE_CONFIG";
+    private static final String AUDIT_RESOURCE_TYPE = "system_config";
+
+    private final SystemConfigMapper systemConfigMapper;
+    private final DatabaseSystemConfigSource systemConfigSource;
+    private final ObjectProvider<SystemConfigCache> systemConfigCache;
+    private final OperationAuditService operationAuditService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 查询全部配置
+     */
+    public List<SystemConfigDto> getAllConfigs() {
+        Map<String, Long> versions = systemConfigSource.loadVersions();
+        return systemConfigMapper.findAll().stream()
+                .map(config -> convertToDto(config, versions.get(config.getConfigGroup())))
+                .toList();
+    }
+
+    /**
+     * 查询配置组下的全部配置
+     */
+    public List<SystemConfigDto> getConfigsByGroup(String group) {
+        Long version = systemConfigMapper.findGroupVersion(group);
+        return systemConfigMapper.findByGroup(group).stream()
+                .map(config -> convertToDto(config, version))
+                .toList();
+    }
+
+    /**
+     * 更新配置值
+     *
+     * @param configId  配置ID
+     * @param request   更新请求
+     * @param updatedBy 更新人ID
+     * @return 更新后的配置
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public SystemConfigDto updateConfig(Long configId, UpdateSystemConfigRequest request, Long updatedBy) {
+        SystemConfig config = systemConfigMapper.selectById(configId);
+        if (config == null) {
+            throw new BusinessException(ApiCode.VALIDATION_ERROR, "配置不存在");
+        }
+        validateValue(config.getConfigType(), request.getConfigValue());
+
+        // 先锁定版本行：同一配置组的并发修改在此排队，期望版本校验不会出现竞态
+        // 配置组首次修改时版本行尚不存在，先插入再锁定，否则 FOR UPDATE 锁不到任何行
+        String group = config.getConfigGroup();
+        if (group != null) {
+            systemConfigMapper.ensureGroupVersion(group);
+        }
+        Long currentVersion = systemConfigMapper.lockGroupVersion(group);
+        if (request.getExpectedVersion() != null
+                && !request.getExpectedVersion().equals(currentVersion != null ? currentVersion : 0L)) {
+            throw new BusinessException(ApiCode.VALIDATION_ERROR, "配置已被他人修改，请刷新后重试");
+        }
+
+        Map<String, String> oldValues = auditValues(config);
+        config.setConfigValue(request.getConfigValue());
+        if (request.getDescription() != null) {
+            config.setDescription(request.getDescription());
+        }
+        config.setUpdatedAt(TimeUtil.nowUtc());
+        config.setUpdatedBy(updatedBy);
+        systemConfigMapper.updateById(config);
+        // 触发器已在本事务内递增版本
+        Long version = systemConfigMapper.findGroupVersion(group);
+        Map<String, String> newValues = auditValues(config);
+
+        afterCommit(() -> {
+            operationAuditService.record(AuditEvent.builder()
+                    .userId(updatedBy)
+                    .action(AUDIT_ACTION)
+                    .resourceType(AUDIT_RESOURCE_TYPE)
+                    .resourceId(configId)
+                    .oldValues(toJson(oldValues))
+                    .newValues(toJson(newValues))
+                    .metadata(toJson(Map.of("group", String.valueOf(group), "version", String.valueOf(version))))
+                    .build());
+            if (group != null && version != null) {
+                systemConfigCache.ifAvailable(cache -> cache.publish(group, version));
+            }
+        });
+
+        log.info("更新系统配置成功: configId={}, key={}, group={}, version={}, updatedBy={}",
+                configId, config.getConfigKey(), group, version, updatedBy);
+        return convertToDto(config, version);
+    }
+
+    /**
+     * 校验配置值与配置类型是否匹配，避免各服务读取时解析失败
+     */
+    private void validateValue(String type, String value) {
+        try {
+            switch (type == null ? "string" : type) {
+                case "number" -> new BigDecimal(value.trim());
+                case "boolean" -> {
+                    if (!"true".equalsIgnoreCase(value.trim()) && !"false".equalsIgnoreCase(value.trim())) {
+                        throw new BusinessException(ApiCode.VALIDATION_ERROR, "布尔类型配置只能为true或false");
+                    }
+                }
+                case "json" -> objectMapper.readTree(value);
+                default -> {
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new BusinessException(ApiCode.VALIDATION_ERROR, "数值类型配置格式错误");
+        } catch (JsonProcessingException e) {
+            throw new BusinessException(ApiCode.VALIDATION_ERROR, "JSON类型配置格式错误");
+        }
+    }
+
+    private Map<String, String> auditValues(SystemConfig config) {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("configKey", config.getConfigKey());
+        // 加密存储的配置不把值写入审计日志
+        values.put("configValue", Boolean.TRUE.equals(config.getIsEncrypted()) ? "******" : config.getConfigValue());
+        values.put("description", config.getDescription());
+        return values;
+    }
+
+    private String toJson(Map<String, String> values) {
+        try {
+            return objectMapper.writeValueAsString(values);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private SystemConfigDto convertToDto(SystemConfig config, Long groupVersion) {
+        SystemConfigDto dto = new SystemConfigDto();
+        dto.setConfigId(config.getConfigId());
+        dto.setConfigKey(config.getConfigKey());
+        dto.setConfigValue(config.getConfigValue());
+        dto.setConfigType(config.getConfigType());
+        dto.setConfigGroup(config.getConfigGroup());
+        dto.setDescription(config.getDescription());
+        dto.setIsPublic(config.getIsPublic());
+        dto.setIsEncrypted(config.getIsEncrypted());
+        dto.setGroupVersion(groupVersion != null ? groupVersion : 0L);
+        dto.setUpdatedAt(config.getUpdatedAt());
+        dto.setUpdatedBy(config.getUpdatedBy());
+        return dto;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
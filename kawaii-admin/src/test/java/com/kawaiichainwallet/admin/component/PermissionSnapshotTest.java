@@ -0,0 +1,160 @@
+package com.kawaiichainwallet.admin.component;
+
+import com.kawaiichainwallet.admin.entity.AdminRole;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 角色权限快照：位下标分配、角色增删、位图运算和有效权限
+ */
+class PermissionSnapshotTest {
+
+    @Test
+    void wildcardAlwaysOccupiesFirstBit() {
+        PermissionSnapshot snapshot = PermissionSnapshot.build(List.of(role(1L, "OPS", "user:read")));
+
+        assertEquals(PermissionSnapshot.WILDCARD_INDEX, snapshot.indexOf(PermissionSnapshot.WILDCARD));
+        assertEquals(1, snapshot.indexOf("user:read"));
+        assertEquals(-1, snapshot.indexOf("user:delete"));
+    }
+
+    @Test
+    void roleChangesKeepExistingIndexes() {
+        PermissionSnapshot original = PermissionSnapshot.build(List.of(
+                role(1L, "OPS", "user:read", "user:update"),
+                role(2L, "AUDITOR", "audit:read")));
+        int auditRead = original.indexOf("audit:read");
+
+        PermissionSnapshot updated = original
+                .withRole(role(1L, "OPS", "user:read", "config:update"))
+                .withoutRole(2L);
+
+        // 字典只追加：被移除角色的权限仍保留下标，新权限排在末尾
+        assertEquals(auditRead, updated.indexOf("audit:read"));
+        assertEquals(original.size(), updated.indexOf("config:update"));
+        assertNull(updated.role(2L));
+        assertEquals(List.of("user:read", "config:update"), updated.decode(updated.role(1L).bits()));
+        // 原快照不受影响
+        assertEquals(List.of("user:read", "user:update"), original.decode(original.role(1L).bits()));
+    }
+
+    @Test
+    void inactiveRoleIsRemoved() {
+        PermissionSnapshot snapshot = PermissionSnapshot.build(List.of(role(1L, "OPS", "user:read")));
+        AdminRole disabled = role(1L, "OPS", "user:read");
+        disabled.setIsActive(false);
+
+        assertNull(snapshot.withRole(disabled).role(1L));
+        assertSame(snapshot, snapshot.withoutRole(99L));
+    }
+
+    @Test
+    void putRoleLeavesArgumentUntouched() {
+        List<String> mutable = new ArrayList<>(List.of("user:read"));
+        AdminRole role = role(1L, "OPS");
+        role.setPermissions(mutable);
+
+        PermissionSnapshot snapshot = PermissionSnapshot.build(List.of(role));
+        mutable.add("user:delete");
+        role.setRoleCode("CHANGED");
+
+        assertSame(mutable, role.getPermissions());
+        assertEquals(List.of("user:read"), snapshot.role(1L).permissions());
+        assertEquals("OPS", snapshot.role(1L).roleCode());
+        // 取出的副本修改后同样不影响快照
+        AdminRole copy = snapshot.role(1L).toRole();
+        copy.setRoleCode("OTHER");
+        assertEquals("OPS", snapshot.role(1L).roleCode());
+    }
+
+    @Test
+    void withPermissionsOnlyCopiesWhenSomethingIsNew() {
+        PermissionSnapshot snapshot = PermissionSnapshot.build(List.of(role(1L, "OPS", "user:read")));
+
+        assertSame(snapshot, snapshot.withPermissions(List.of("user:read", PermissionSnapshot.WILDCARD)));
+
+        PermissionSnapshot extended = snapshot.withPermissions(List.of("report:export"));
+        assertTrue(extended.containsAll(List.of("user:read", "report:export")));
+        assertFalse(snapshot.containsAll(List.of("report:export")));
+    }
+
+    @Test
+    void encodeIgnoresUnknownPermissions() {
+        PermissionSnapshot snapshot = PermissionSnapshot.build(List.of(role(1L, "OPS", "user:read", "user:update")));
+
+        long[] bits = snapshot.encode(List.of("user:update", "unknown"));
+
+        assertEquals(List.of("user:update"), snapshot.decode(bits));
+    }
+
+    @Test
+    void bitsetsSpanMultipleWords() {
+        List<String> permissions = new ArrayList<>();
+        for (int i = 0; i < 130; i++) {
+            permissions.add("perm:" + i);
+        }
+        PermissionSnapshot snapshot = PermissionSnapshot.build(List.of(
+                role(1L, "LOW", permissions.subList(0, 3).toArray(String[]::new)),
+                role(2L, "ALL", permissions.toArray(String[]::new))));
+
+        long[] low = snapshot.role(1L).bits();
+        long[] all = snapshot.role(2L).bits();
+        assertEquals(PermissionSnapshot.words(131), all.length);
+        assertTrue(PermissionSnapshot.test(all, snapshot.indexOf("perm:129")));
+        assertFalse(PermissionSnapshot.test(low, snapshot.indexOf("perm:129")));
+        assertFalse(PermissionSnapshot.test(low, 10_000));
+        assertFalse(PermissionSnapshot.test(low, -1));
+
+        long[] merged = PermissionSnapshot.or(low.clone(), all);
+        assertArrayEquals(all, merged);
+        assertEquals(permissions, snapshot.decode(merged));
+    }
+
+    @Test
+    void effectivePermissionsCombineRolesAndExtras() {
+        PermissionSnapshot snapshot = PermissionSnapshot.build(List.of(
+                role(1L, "OPS", "user:read"),
+                role(2L, "AUDITOR", "audit:read")))
+                .withPermissions(List.of("report:export"));
+
+        long[] bits = PermissionSnapshot.or(snapshot.encode(List.of("report:export")), snapshot.role(2L).bits());
+        AdminPermissions permissions = new AdminPermissions(snapshot, bits, List.of("AUDITOR"));
+
+        assertTrue(permissions.has("audit:read"));
+        assertTrue(permissions.has("report:export"));
+        assertFalse(permissions.has("user:read"));
+        assertFalse(permissions.has("not:registered"));
+        assertFalse(permissions.isSuperAdmin());
+        assertEquals(List.of("audit:read", "report:export"), permissions.getPermissions());
+    }
+
+    @Test
+    void wildcardGrantsEverything() {
+        PermissionSnapshot snapshot = PermissionSnapshot.build(List.of(role(1L, "OPS", "user:read")));
+        AdminPermissions permissions = new AdminPermissions(snapshot,
+                snapshot.encode(List.of(PermissionSnapshot.WILDCARD)), List.of());
+
+        assertTrue(permissions.isSuperAdmin());
+        assertTrue(permissions.has("user:read"));
+        assertTrue(permissions.has("not:registered"));
+        assertEquals(List.of(PermissionSnapshot.WILDCARD), permissions.getPermissions());
+    }
+
+    private static AdminRole role(Long roleId, String roleCode, String... permissions) {
+        AdminRole role = new AdminRole();
+        role.setRoleId(roleId);
+        role.setRoleCode(roleCode);
+        role.setPermissions(List.of(permissions));
+        role.setIsActive(true);
+        return role;
+    }
+}
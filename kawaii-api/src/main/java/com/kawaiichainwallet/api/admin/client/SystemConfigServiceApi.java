@@ -0,0 +1,37 @@
+package com.kawaiichainwallet.api.admin.client;
+
+import com.kawaiichainwallet.api.admin.dto.SystemConfigGroupResponse;
+import com.kawaiichainwallet.api.admin.fallback.SystemConfigServiceApiFallbackFactory;
+import com.kawaiichainwallet.common.core.response.R;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import java.util.Map;
+
+/**
+ * 系统配置服务API接口定义
+ * 该接口由管理服务实现，其他服务通过Feign拉取配置快照
+ */
+@FeignClient(
+    name = "kawaii-admin",
+    contextId = "systemConfigServiceApi",
+    path = "/internal/config",
+    fallbackFactory = SystemConfigServiceApiFallbackFactory.class
+)
+public interface SystemConfigServiceApi {
+
+    /**
+     * 获取所有配置组的当前版本
+     */
+    @GetMapping("/versions")
+    R<Map<String, Long>> getGroupVersions();
+
+    /**
+     * 获取单个配置组的完整快照
+     */
+    @GetMapping("/groups/{group}")
+    R<SystemConfigGroupResponse> getGroup(
+        @PathVariable("group") String group
+    );
+}
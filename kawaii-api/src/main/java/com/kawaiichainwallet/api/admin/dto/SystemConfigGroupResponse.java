@@ -0,0 +1,49 @@
+package com.kawaiichainwallet.api.admin.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 系统配置组快照响应DTO
+ */
+@Data
+public class SystemConfigGroupResponse {
+
+    /**
+     * 配置组
+     */
+    private String group;
+
+    /**
+     * 配置组版本（每次写入单调递增）
+     */
+    private Long version;
+
+    /**
+     * 配置项
+     */
+    private List<Item> items;
+
+    /**
+     * 配置项
+     */
+    @Data
+    public static class Item {
+
+        /**
+         * 配置键
+         */
+        private String configKey;
+
+        /**
+         * 配置值
+         */
+        private String configValue;
+
+        /**
+         * 配置类型：string / number / boolean / json
+         */
+        private String configType;
+    }
+}
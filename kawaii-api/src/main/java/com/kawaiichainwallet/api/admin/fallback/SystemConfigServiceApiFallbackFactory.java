@@ -0,0 +1,38 @@
+package com.kawaiichainwallet.api.admin.fallback;
+
+import com.kawaiichainwallet.api.admin.client.SystemConfigServiceApi;
+import com.kawaiichainwallet.api.admin.dto.SystemConfigGroupResponse;
+import com.kawaiichainwallet.common.core.enums.ApiCode;
+import com.kawaiichainwallet.common.core.response.R;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 系统配置服务API降级处理工厂
+ * 降级时返回错误，调用方继续使用本地缓存的旧快照
+ */
+@Slf4j
+@Component
+public class SystemConfigServiceApiFallbackFactory implements FallbackFactory<SystemConfigServiceApi> {
+
+    @Override
+    public SystemConfigServiceApi create(Throwable cause) {
+        return new SystemConfigServiceApi() {
+
+            @Override
+            public R<Map<String, Long>> getGroupVersions() {
+                log.error("获取系统配置版本失败", cause);
+                return R.error(ApiCode.SERVICE_UNAVAILABLE.getCode(), "系统配置服务暂时不可用");
+            }
+
+            @Override
+            public R<SystemConfigGroupResponse> getGroup(String group) {
+                log.error("获取系统配置组失败: group={}", group, cause);
+                return R.error(ApiCode.SERVICE_UNAVAILABLE.getCode(), "系统配置服务暂时不可用");
+            }
+        };
+    }
+}
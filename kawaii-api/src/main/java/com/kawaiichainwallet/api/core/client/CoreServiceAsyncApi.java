@@ -0,0 +1,59 @@
+package com.kawaiichainwallet.api.core.client;
+
+import com.kawaiichainwallet.api.support.AsyncApiInvoker;
+import com.kawaiichainwallet.common.core.response.R;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 核心钱包服务API的异步门面
+ * 与 {@link CoreServiceApi} 方法一一对应；该客户端没有降级工厂，失败或超时时返回 SERVICE_UNAVAILABLE
+ */
+public class CoreServiceAsyncApi {
+
+    private final CoreServiceApi client;
+    private final AsyncApiInvoker<CoreServiceApi> invoker;
+
+    public CoreServiceAsyncApi(CoreServiceApi client, Executor executor, Duration timeout) {
+        this(client, new AsyncApiInvoker<>(executor, timeout, null));
+    }
+
+    private CoreServiceAsyncApi(CoreServiceApi client, AsyncApiInvoker<CoreServiceApi> invoker) {
+        this.client = client;
+        this.invoker = invoker;
+    }
+
+    /**
+     * 使用其他超时时间的副本
+     */
+    public CoreServiceAsyncApi withTimeout(Duration timeout) {
+        return new CoreServiceAsyncApi(client, invoker.withTimeout(timeout));
+    }
+
+    public CompletableFuture<R<CoreServiceApi.WalletBalanceDto>> getWalletBalance(String userId, String coinType) {
+        return invoker.call(() -> client.getWalletBalance(userId, coinType),
+                fallback -> fallback.getWalletBalance(userId, coinType));
+    }
+
+    public CompletableFuture<R<Boolean>> walletExists(String userId) {
+        return invoker.call(() -> client.walletExists(userId), fallback -> fallback.walletExists(userId));
+    }
+
+    public CompletableFuture<R<CoreServiceApi.WalletDto>> createWallet(CoreServiceApi.CreateWalletRequest request) {
+        return invoker.call(() -> client.createWallet(request), fallback -> fallback.createWallet(request));
+    }
+
+    public CompletableFuture<R<Void>> freezeWallet(String userId, Boolean freeze, String reason) {
+        return invoker.call(() -> client.freezeWallet(userId, freeze, reason),
+                fallback -> fallback.freezeWallet(userId, freeze, reason));
+    }
+
+    public CompletableFuture<R<List<CoreServiceApi.TransactionDto>>> getTransactionHistory(
+            String userId, Integer page, Integer size, String coinType) {
+        return invoker.call(() -> client.getTransactionHistory(userId, page, size, coinType),
+                fallback -> fallback.getTransactionHistory(userId, page, size, coinType));
+    }
+}
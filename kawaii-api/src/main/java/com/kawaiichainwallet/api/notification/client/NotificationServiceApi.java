@@ -0,0 +1,27 @@
+package com.kawaiichainwallet.api.notification.client;
+
+import com.kawaiichainwallet.api.notification.dto.SendNotificationRequest;
+import com.kawaiichainwallet.api.notification.fallback.NotificationServiceApiFallbackFactory;
+import com.kawaiichainwallet.common.core.response.R;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+/**
+ * 通知服务API接口定义
+ * 该接口由通知服务实现，其他服务通过Feign提交通知
+ */
+@FeignClient(
+    name = "kawaii-notification",
+    contextId = "notificationServiceApi",
+    path = "/internal/notifications",
+    fallbackFactory = NotificationServiceApiFallbackFactory.class
+)
+public interface NotificationServiceApi {
+
+    /**
+     * 提交通知（落库后立即返回通知ID，各渠道异步发送）
+     */
+    @PostMapping
+    R<Long> send(@RequestBody SendNotificationRequest request);
+}
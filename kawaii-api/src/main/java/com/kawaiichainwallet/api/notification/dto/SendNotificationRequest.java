@@ -0,0 +1,87 @@
+package com.kawaiichainwallet.api.notification.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 发送通知请求DTO
+ *
+ * <p>通知服务只负责落库和排队，接口在写入后立即返回，各渠道由后台异步发送。
+ * 每个渠道需要对应的接收地址：in_app / push 使用 userId，email 使用 email，sms 使用 phone。</p>
+ */
+@Data
+public class SendNotificationRequest {
+
+    /**
+     * 接收用户ID（发给尚未注册的联系方式时为空，如注册验证码）
+     */
+    private Long userId;
+
+    /**
+     * 标题
+     */
+    @NotBlank(message = "通知标题不能为空")
+    @Size(max = 200, message = "通知标题不能超过200个字符")
+    private String title;
+
+    /**
+     * 内容
+     */
+    @NotBlank(message = "通知内容不能为空")
+    private String message;
+
+    /**
+     * 通知类型：transaction, system, security, promotion, verification
+     */
+    @NotBlank(message = "通知类型不能为空")
+    private String notificationType;
+
+    /**
+     * 发送渠道：in_app, email, sms, push
+     */
+    @NotEmpty(message = "发送渠道不能为空")
+    private List<String> channels;
+
+    /**
+     * 邮件接收地址（email渠道必填）
+     */
+    private String email;
+
+    /**
+     * 短信接收手机号（sms渠道必填）
+     */
+    private String phone;
+
+    /**
+     * 关联业务ID（交易ID、订单ID等）
+     */
+    private Long relatedId;
+
+    /**
+     * 关联业务类型：transaction, payment_order, bill_payment
+     */
+    private String relatedType;
+
+    /**
+     * 附加数据
+     */
+    private Map<String, Object> metadata;
+
+    /**
+     * 敏感模板变量（如验证码）：message 中的 {name} 占位符只在发送时替换，变量不写入通知内容，
+     * 只保存在投递行上，发送成功或过期后清除；使用时必须设置 ttlSeconds
+     */
+    private Map<String, String> secrets;
+
+    /**
+     * 有效期（秒），超过后未发出的渠道不再发送，用于验证码等时效性消息；为空表示不过期
+     */
+    @Positive(message = "有效期必须大于0")
+    private Integer ttlSeconds;
+}
@@ -0,0 +1,30 @@
+package com.kawaiichainwallet.api.notification.fallback;
+
+import com.kawaiichainwallet.api.notification.client.NotificationServiceApi;
+import com.kawaiichainwallet.api.notification.dto.SendNotificationRequest;
+import com.kawaiichainwallet.common.core.enums.ApiCode;
+import com.kawaiichainwallet.common.core.response.R;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * 通知服务API降级处理工厂
+ */
+@Slf4j
+@Component
+public class NotificationServiceApiFallbackFactory implements FallbackFactory<NotificationServiceApi> {
+
+    @Override
+    public NotificationServiceApi create(Throwable cause) {
+        return new NotificationServiceApi() {
+
+            @Override
+            public R<Long> send(SendNotificationRequest request) {
+                log.error("提交通知失败: userId={}, type={}, channels={}",
+                        request.getUserId(), request.getNotificationType(), request.getChannels(), cause);
+                return R.error(ApiCode.SERVICE_UNAVAILABLE.getCode(), "通知服务暂时不可用");
+            }
+        };
+    }
+}
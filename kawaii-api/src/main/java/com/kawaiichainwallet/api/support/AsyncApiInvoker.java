@@ -0,0 +1,104 @@
+package com.kawaiichainwallet.api.support;
+
+import com.kawaiichainwallet.common.core.enums.ApiCode;
+import com.kawaiichainwallet.common.core.response.R;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.openfeign.FallbackFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 异步调用Feign客户端的执行器
+ *
+ * <p>把阻塞的Feign调用提交到指定执行器（通常是携带用户上下文的虚拟线程执行器），
+ * 返回 {@code CompletableFuture<R<T>>}，多个调用可以并行发起后再合并结果。</p>
+ *
+ * <ul>
+ *   <li>每次调用有独立的超时时间，超时后取消底层任务：尚未开始的不再执行，执行中的线程被中断
+ *       （虚拟线程阻塞在 socket 读写上时中断会关闭连接并立即返回；平台线程不响应中断，
+ *       此时仍由Feign的 readTimeout 兜底，应让 readTimeout 不小于这里的超时时间）</li>
+ *   <li>调用抛出异常或超时时，使用客户端原有的 FallbackFactory 生成降级结果；没有降级工厂时返回 SERVICE_UNAVAILABLE</li>
+ * </ul>
+ *
+ * @param <A> Feign客户端接口
+ */
+@Slf4j
+public class AsyncApiInvoker<A> {
+
+    private final Executor executor;
+    private final Duration timeout;
+    private final FallbackFactory<? extends A> fallbackFactory;
+
+    /**
+     * @param executor        执行远程调用的执行器
+     * @param timeout         默认超时时间
+     * @param fallbackFactory 降级工厂（可为null）
+     */
+    public AsyncApiInvoker(Executor executor, Duration timeout, FallbackFactory<? extends A> fallbackFactory) {
+        this.executor = executor;
+        this.timeout = timeout;
+        this.fallbackFactory = fallbackFactory;
+    }
+
+    /**
+     * 使用其他超时时间的副本
+     */
+    public AsyncApiInvoker<A> withTimeout(Duration timeout) {
+        return new AsyncApiInvoker<>(executor, timeout, fallbackFactory);
+    }
+
+    /**
+     * 异步执行一次调用
+     *
+     * @param call     远程调用
+     * @param fallback 在降级实现上执行的同一调用
+     */
+    public <T> CompletableFuture<R<T>> call(Supplier<R<T>> call, Function<A, R<T>> fallback) {
+        CompletableFuture<R<T>> result = new CompletableFuture<>();
+        // CompletableFuture.cancel 不会中断执行线程，用 FutureTask 持有任务以便超时后真正取消
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            try {
+                result.complete(call.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }, null);
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+        return result
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((value, e) -> {
+                    if (e != null) {
+                        task.cancel(true);
+                    }
+                })
+                .exceptionally(e -> fallback(unwrap(e), fallback));
+    }
+
+    private <T> R<T> fallback(Throwable cause, Function<A, R<T>> fallback) {
+        if (fallbackFactory == null) {
+            log.error("异步调用失败且没有降级实现", cause);
+            return R.error(ApiCode.SERVICE_UNAVAILABLE);
+        }
+        return fallback.apply(fallbackFactory.create(cause));
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+}
@@ -0,0 +1,269 @@
+package com.kawaiichainwallet.api.support;
+
+import com.kawaiichainwallet.common.core.exception.BusinessException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * 请求合并器
+ *
+ * <p>把并发的单key查询在一个很短的时间窗口内（或攒够 maxBatchSize 个key时）合并为一次批量调用，
+ * 再把结果分发给各个等待者：</p>
+ * <ul>
+ *   <li>同一个key在排队或调用中时，后来的请求直接复用同一个结果，不会重复进入批次</li>
+ *   <li>结果（包括不存在）按 cacheTtl 在本实例内短暂缓存，cacheTtl 为0时不缓存</li>
+ *   <li>批量调用失败时，该批次的所有等待者都收到同一个异常；等待超过 timeout 的调用方单独失败，批次本身不受影响</li>
+ *   <li>{@link #invalidate} 同时摘除该key排队或调用中的结果：已在等待的调用方仍拿到本批结果，
+ *       之后的请求重新进入批次，本批结果也不会写入缓存</li>
+ * </ul>
+ *
+ * <p>指标（tag name 为合并器名称）：request.collapser.batch.size（每批key数）、
+ * request.collapser.wait（调用方等待耗时）、request.collapser.cache（result=hit/miss）。</p>
+ *
+ * @param <K> 查询key
+ * @param <V> 查询结果，不存在时为null
+ */
+@Slf4j
+public class RequestCollapser<K, V> implements AutoCloseable {
+
+    private final String name;
+    private final Function<List<K>, Map<K, V>> batchLoader;
+    private final long windowNanos;
+    private final long timeoutNanos;
+    private final int maxBatchSize;
+    private final long cacheTtlNanos;
+    private final int cacheMaxSize;
+
+    private final ScheduledExecutorService timer;
+    private final ExecutorService dispatcher = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * 排队中和调用中的key，用于合并重复请求
+     */
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Map<K, CacheEntry<V>> cache = new ConcurrentHashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private List<Pending<K, V>> queued = new ArrayList<>();
+    private long generation;
+
+    private final DistributionSummary batchSize;
+    private final Timer waitTimer;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+
+    /**
+     * @param name         合并器名称（指标tag、线程名）
+     * @param batchLoader  批量查询，返回 key -> 结果，不存在的key可以不出现在结果中
+     * @param window       第一个key入队后最长等待多久发出批次
+     * @param timeout      调用方等待批次结果的最长时间
+     * @param maxBatchSize 攒够多少个key立即发出批次
+     * @param cacheTtl     结果缓存时间，0表示不缓存
+     * @param cacheMaxSize 缓存最大条目数
+     */
+    public RequestCollapser(String name, Function<List<K>, Map<K, V>> batchLoader, Duration window, Duration timeout,
+                            int maxBatchSize, Duration cacheTtl, int cacheMaxSize, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.batchLoader = batchLoader;
+        this.windowNanos = window.toNanos();
+        this.timeoutNanos = timeout.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.cacheTtlNanos = cacheTtl.toNanos();
+        this.cacheMaxSize = cacheMaxSize;
+        this.timer = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("collapser-" + name)
+                .daemon(true)
+                .factory());
+
+        this.batchSize = DistributionSummary.builder("request.collapser.batch.size")
+                .tag("name", name)
+                .description("每次批量调用包含的key数量")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("request.collapser.wait")
+                .tag("name", name)
+                .description("调用方从提交到拿到结果的等待耗时")
+                .register(meterRegistry);
+        this.cacheHits = cacheCounter(meterRegistry, name, "hit");
+        this.cacheMisses = cacheCounter(meterRegistry, name, "miss");
+    }
+
+    /**
+     * 查询单个key，阻塞直到所在批次返回或等待超时
+     *
+     * @return 查询结果，不存在时返回null
+     * @throws BusinessException 批量调用失败、等待超时或等待被中断
+     */
+    public V get(K key) {
+        if (cacheTtlNanos > 0) {
+            CacheEntry<V> entry = cache.get(key);
+            if (entry != null && entry.expiresAt() - System.nanoTime() > 0) {
+                cacheHits.increment();
+                return entry.value();
+            }
+            cacheMisses.increment();
+        }
+
+        CompletableFuture<V> future = inFlight.get(key);
+        if (future == null) {
+            CompletableFuture<V> created = new CompletableFuture<>();
+            future = inFlight.putIfAbsent(key, created);
+            if (future == null) {
+                future = created;
+                enqueue(new Pending<>(key, created));
+            }
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new BusinessException(name + " 等待批量结果超时", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(name + " 等待批量结果时被中断", e);
+        } catch (ExecutionException e) {
+            throw new BusinessException(name + " 批量调用失败", e.getCause());
+        } finally {
+            waitTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 使指定key的缓存失效，并摘除排队或调用中的结果，之后的请求重新查询
+     */
+    public void invalidate(K key) {
+        inFlight.remove(key);
+        cache.remove(key);
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        dispatcher.close();
+    }
+
+    private void enqueue(Pending<K, V> pending) {
+        List<Pending<K, V>> batch = null;
+        lock.lock();
+        try {
+            queued.add(pending);
+            if (queued.size() >= maxBatchSize) {
+                batch = drainLocked();
+            } else if (queued.size() == 1) {
+                long batchGeneration = generation;
+                timer.schedule(() -> flush(batchGeneration), windowNanos, TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (batch != null) {
+            dispatch(batch);
+        }
+    }
+
+    /**
+     * 时间窗口到期，发出对应批次（该批次已因攒满提前发出时忽略）
+     */
+    private void flush(long batchGeneration) {
+        List<Pending<K, V>> batch;
+        lock.lock();
+        try {
+            if (batchGeneration != generation || queued.isEmpty()) {
+                return;
+            }
+            batch = drainLocked();
+        } finally {
+            lock.unlock();
+        }
+        dispatch(batch);
+    }
+
+    private List<Pending<K, V>> drainLocked() {
+        List<Pending<K, V>> batch = queued;
+        queued = new ArrayList<>();
+        generation++;
+        return batch;
+    }
+
+    private void dispatch(List<Pending<K, V>> batch) {
+        dispatcher.execute(() -> {
+            // 失效后重新请求的key可能在同一批次中出现两次
+            List<K> keys = new ArrayList<>(new LinkedHashSet<>(batch.stream().map(Pending::key).toList()));
+            batchSize.record(keys.size());
+            try {
+                Map<K, V> results = batchLoader.apply(keys);
+                for (Pending<K, V> pending : batch) {
+                    V value = results.get(pending.key());
+                    CacheEntry<V> entry = putCache(pending.key(), value);
+                    // 只移除本批次登记的future；已被 invalidate 摘除时撤回刚写入的缓存
+                    if (!inFlight.remove(pending.key(), pending.future()) && entry != null) {
+                        cache.remove(pending.key(), entry);
+                    }
+                    pending.future().complete(value);
+                }
+            } catch (Throwable e) {
+                log.warn("批量调用失败: collapser={}, size={}", name, keys.size(), e);
+                for (Pending<K, V> pending : batch) {
+                    inFlight.remove(pending.key(), pending.future());
+                    pending.future().completeExceptionally(e);
+                }
+            }
+        });
+    }
+
+    /**
+     * 写入缓存，返回写入的条目（不缓存时返回null）
+     */
+    private CacheEntry<V> putCache(K key, V value) {
+        if (cacheTtlNanos <= 0) {
+            return null;
+        }
+        if (cache.size() >= cacheMaxSize) {
+            long now = System.nanoTime();
+            cache.values().removeIf(entry -> entry.expiresAt() - now <= 0);
+            if (cache.size() >= cacheMaxSize) {
+                cache.clear();
+            }
+        }
+        CacheEntry<V> entry = new CacheEntry<>(value, System.nanoTime() + cacheTtlNanos);
+        cache.put(key, entry);
+        return entry;
+    }
+
+    private static Counter cacheCounter(MeterRegistry meterRegistry, String name, String result) {
+        return Counter.builder("request.collapser.cache")
+                .tag("name", name)
+                .tag("result", result)
+                .description("合并器本地缓存命中情况")
+                .register(meterRegistry);
+    }
+
+    private record CacheEntry<V>(V value, long expiresAt) {
+    }
+
+    /**
+     * 排队中的key及其等待者共享的结果
+     */
+    private record Pending<K, V>(K key, CompletableFuture<V> future) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.kawaiichainwallet.api.user.client;
+
+import com.kawaiichainwallet.api.support.AsyncApiInvoker;
+import com.kawaiichainwallet.api.user.fallback.AuthServiceApiFallbackFactory;
+import com.kawaiichainwallet.common.core.response.R;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 认证服务API的异步门面
+ * 与 {@link AuthServiceApi} 方法一一对应，失败或超时时应用 {@link AuthServiceApiFallbackFactory}
+ */
+public class AuthServiceAsyncApi {
+
+    private final AuthServiceApi client;
+    private final AsyncApiInvoker<AuthServiceApi> invoker;
+
+    public AuthServiceAsyncApi(AuthServiceApi client, AuthServiceApiFallbackFactory fallbackFactory,
+                               Executor executor, Duration timeout) {
+        this(client, new AsyncApiInvoker<>(executor, timeout, fallbackFactory));
+    }
+
+    private AuthServiceAsyncApi(AuthServiceApi client, AsyncApiInvoker<AuthServiceApi> invoker) {
+        this.client = client;
+        this.invoker = invoker;
+    }
+
+    /**
+     * 使用其他超时时间的副本
+     */
+    public AuthServiceAsyncApi withTimeout(Duration timeout) {
+        return new AuthServiceAsyncApi(client, invoker.withTimeout(timeout));
+    }
+
+    public CompletableFuture<R<Boolean>> checkAuthentication(long userId) {
+        return invoker.call(() -> client.checkAuthentication(userId), fallback -> fallback.checkAuthentication(userId));
+    }
+
+    public CompletableFuture<R<Void>> revokeUserTokens(String userId, String reason) {
+        return invoker.call(() -> client.revokeUserTokens(userId, reason),
+                fallback -> fallback.revokeUserTokens(userId, reason));
+    }
+
+    public CompletableFuture<R<Boolean>> verifyPassword(String userId, String password) {
+        return invoker.call(() -> client.verifyPassword(userId, password),
+                fallback -> fallback.verifyPassword(userId, password));
+    }
+}
@@ -0,0 +1,122 @@
+package com.kawaiichainwallet.api.user.client;
+
+import com.kawaiichainwallet.api.support.RequestCollapser;
+import com.kawaiichainwallet.api.user.dto.UserInfoResponse;
+import com.kawaiichainwallet.api.user.dto.UserPaymentPermissionResponse;
+import com.kawaiichainwallet.common.core.enums.ApiCode;
+import com.kawaiichainwallet.common.core.exception.BusinessException;
+import com.kawaiichainwallet.common.core.response.R;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 合并单用户查询的用户服务客户端
+ *
+ * <p>订单处理等场景会以很高的频率对同一批用户逐个调用 getUserInfo / userExists / getUserPaymentPermission。
+ * 本客户端把时间窗口内的并发单用户查询合并为一次 {@link UserServiceApi#getBatchUsers} 调用，
+ * 并在本实例内短暂缓存结果，显著减少对用户服务的内部RPC次数。</p>
+ *
+ * <p>不是Spring组件：kawaii-user 自身也扫描本模块，需要合并的服务在自己的配置类中声明为Bean。</p>
+ */
+@Slf4j
+public class CollapsingUserServiceClient implements AutoCloseable {
+
+    /**
+     * 用户服务批量接口允许的最大用户数量
+     */
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private final RequestCollapser<Long, UserInfoResponse> collapser;
+
+    /**
+     * @param userServiceApi 用户服务Feign客户端
+     * @param window         合并窗口（建议1-5ms）
+     * @param timeout        单次查询等待批量结果的最长时间
+     * @param maxBatchSize   每批最多用户数，攒够后立即发出
+     * @param cacheTtl       结果缓存时间，0表示不缓存
+     * @param cacheMaxSize   缓存最大条目数
+     */
+    public CollapsingUserServiceClient(UserServiceApi userServiceApi, MeterRegistry meterRegistry, Duration window,
+                                       Duration timeout, int maxBatchSize, Duration cacheTtl, int cacheMaxSize) {
+        this.collapser = new RequestCollapser<>("user-info",
+                userIds -> loadUsers(userServiceApi, userIds),
+                window, timeout, Math.min(maxBatchSize, MAX_BATCH_SIZE), cacheTtl, cacheMaxSize, meterRegistry);
+    }
+
+    /**
+     * 根据用户ID获取用户信息
+     */
+    public R<UserInfoResponse> getUserInfo(long userId) {
+        try {
+            UserInfoResponse user = collapser.get(userId);
+            return user != null ? R.success(user) : R.error(ApiCode.USER_NOT_FOUND);
+        } catch (BusinessException e) {
+            log.error("获取用户信息失败: userId={}", userId, e);
+            return R.error(ApiCode.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    /**
+     * 检查用户是否存在
+     */
+    public R<Boolean> userExists(long userId) {
+        try {
+            return R.success(collapser.get(userId) != null);
+        } catch (BusinessException e) {
+            log.error("检查用户是否存在失败: userId={}", userId, e);
+            return R.error(ApiCode.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    /**
+     * 获取用户的支付权限信息（由批量用户信息派生，不包含限额）
+     */
+    public R<UserPaymentPermissionResponse> getUserPaymentPermission(long userId) {
+        R<UserInfoResponse> result = getUserInfo(userId);
+        if (!result.isSuccess()) {
+            return R.error(result.getCode(), result.getMsg());
+        }
+
+        UserInfoResponse user = result.getData();
+        UserPaymentPermissionResponse permission = new UserPaymentPermissionResponse();
+        permission.setPaymentEnabled(user.getPaymentEnabled() != null
+                ? user.getPaymentEnabled() : "active".equalsIgnoreCase(user.getStatus()));
+        permission.setKycLevel(user.getKycLevel());
+        permission.setEmailVerified(user.getEmailVerified());
+        permission.setPhoneVerified(user.getPhoneVerified());
+        permission.setTwoFactorEnabled(user.getTwoFactorEnabled());
+        return R.success(permission);
+    }
+
+    /**
+     * 用户信息变更后使本地缓存失效
+     */
+    public void invalidate(long userId) {
+        collapser.invalidate(userId);
+    }
+
+    @Override
+    public void close() {
+        collapser.close();
+    }
+
+    private static Map<Long, UserInfoResponse> loadUsers(UserServiceApi userServiceApi, List<Long> userIds) {
+        R<List<UserInfoResponse>> result = userServiceApi.getBatchUsers(userIds);
+        if (result == null || !result.isSuccess()) {
+            throw new BusinessException(result != null ? result.getCode() : ApiCode.SERVICE_UNAVAILABLE.getCode(),
+                    result != null ? result.getMsg() : "批量获取用户信息失败");
+        }
+
+        List<UserInfoResponse> users = result.getData() != null ? result.getData() : List.of();
+        Map<Long, UserInfoResponse> byId = new HashMap<>(users.size() * 2);
+        for (UserInfoResponse user : users) {
+            byId.put(Long.parseLong(user.getUserId()), user);
+        }
+        return byId;
+    }
+}
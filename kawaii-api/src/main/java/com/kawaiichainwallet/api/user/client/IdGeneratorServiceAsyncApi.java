@@ -0,0 +1,64 @@
+package com.kawaiichainwallet.api.user.client;
+
+import com.kawaiichainwallet.api.support.AsyncApiInvoker;
+import com.kawaiichainwallet.api.user.dto.IdGenerationRequest;
+import com.kawaiichainwallet.api.user.dto.IdGenerationResponse;
+import com.kawaiichainwallet.api.user.fallback.IdGeneratorServiceApiFallbackFactory;
+import com.kawaiichainwallet.common.core.response.R;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * ID生成器服务API的异步门面
+ * 与 {@link IdGeneratorServiceApi} 方法一一对应，失败或超时时应用 {@link IdGeneratorServiceApiFallbackFactory}
+ */
+public class IdGeneratorServiceAsyncApi {
+
+    private final IdGeneratorServiceApi client;
+    private final AsyncApiInvoker<IdGeneratorServiceApi> invoker;
+
+    public IdGeneratorServiceAsyncApi(IdGeneratorServiceApi client, IdGeneratorServiceApiFallbackFactory fallbackFactory,
+                                      Executor executor, Duration timeout) {
+        this(client, new AsyncApiInvoker<>(executor, timeout, fallbackFactory));
+    }
+
+    private IdGeneratorServiceAsyncApi(IdGeneratorServiceApi client, AsyncApiInvoker<IdGeneratorServiceApi> invoker) {
+        this.client = client;
+        this.invoker = invoker;
+    }
+
+    /**
+     * 使用其他超时时间的副本
+     */
+    public IdGeneratorServiceAsyncApi withTimeout(Duration timeout) {
+        return new IdGeneratorServiceAsyncApi(client, invoker.withTimeout(timeout));
+    }
+
+    public CompletableFuture<R<IdGenerationResponse>> generateSegmentId(String bizTag) {
+        return invoker.call(() -> client.generateSegmentId(bizTag), fallback -> fallback.generateSegmentId(bizTag));
+    }
+
+    public CompletableFuture<R<IdGenerationResponse>> generateSnowflakeId() {
+        return invoker.call(client::generateSnowflakeId, IdGeneratorServiceApi::generateSnowflakeId);
+    }
+
+    public CompletableFuture<R<IdGenerationResponse>> generateBatchSegmentIds(IdGenerationRequest request) {
+        return invoker.call(() -> client.generateBatchSegmentIds(request),
+                fallback -> fallback.generateBatchSegmentIds(request));
+    }
+
+    public CompletableFuture<R<Map<String, Object>>> getGeneratorStatus() {
+        return invoker.call(client::getGeneratorStatus, IdGeneratorServiceApi::getGeneratorStatus);
+    }
+
+    public CompletableFuture<R<Long>> getMaxId(String bizTag) {
+        return invoker.call(() -> client.getMaxId(bizTag), fallback -> fallback.getMaxId(bizTag));
+    }
+
+    public CompletableFuture<R<String>> warmupGenerator() {
+        return invoker.call(client::warmupGenerator, IdGeneratorServiceApi::warmupGenerator);
+    }
+}
@@ -42,9 +42,10 @@ public interface UserServiceApi {
 
     /**
      * 批量获取用户信息（内部调用）
+     * ID会被去重，结果按请求顺序返回，不存在的用户不会出现在结果中
      */
     @PostMapping("/batch")
-    R<java.util.List<UserInfoResponse>> getBatchUsers(@RequestBody java.util.List<String> userIds);
+    R<java.util.List<UserInfoResponse>> getBatchUsers(@RequestBody java.util.List<Long> userIds);
 
     /**
      * 检查用户是否存在
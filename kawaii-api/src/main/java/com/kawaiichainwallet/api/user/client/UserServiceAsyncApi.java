@@ -0,0 +1,64 @@
+package com.kawaiichainwallet.api.user.client;
+
+import com.kawaiichainwallet.api.support.AsyncApiInvoker;
+import com.kawaiichainwallet.api.user.dto.UserInfoResponse;
+import com.kawaiichainwallet.api.user.dto.UserPaymentPermissionResponse;
+import com.kawaiichainwallet.api.user.fallback.UserServiceApiFallbackFactory;
+import com.kawaiichainwallet.common.core.response.R;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 用户服务API的异步门面
+ * 与 {@link UserServiceApi} 方法一一对应，失败或超时时应用 {@link UserServiceApiFallbackFactory}
+ */
+public class UserServiceAsyncApi {
+
+    private final UserServiceApi client;
+    private final AsyncApiInvoker<UserServiceApi> invoker;
+
+    public UserServiceAsyncApi(UserServiceApi client, UserServiceApiFallbackFactory fallbackFactory,
+                               Executor executor, Duration timeout) {
+        this(client, new AsyncApiInvoker<>(executor, timeout, fallbackFactory));
+    }
+
+    private UserServiceAsyncApi(UserServiceApi client, AsyncApiInvoker<UserServiceApi> invoker) {
+        this.client = client;
+        this.invoker = invoker;
+    }
+
+    /**
+     * 使用其他超时时间的副本
+     */
+    public UserServiceAsyncApi withTimeout(Duration timeout) {
+        return new UserServiceAsyncApi(client, invoker.withTimeout(timeout));
+    }
+
+    public CompletableFuture<R<UserInfoResponse>> getUserInfo(long userId) {
+        return invoker.call(() -> client.getUserInfo(userId), fallback -> fallback.getUserInfo(userId));
+    }
+
+    public CompletableFuture<R<UserInfoResponse>> getUserByUsername(String username) {
+        return invoker.call(() -> client.getUserByUsername(username), fallback -> fallback.getUserByUsername(username));
+    }
+
+    public CompletableFuture<R<UserInfoResponse>> getUserByEmail(String email) {
+        return invoker.call(() -> client.getUserByEmail(email), fallback -> fallback.getUserByEmail(email));
+    }
+
+    public CompletableFuture<R<List<UserInfoResponse>>> getBatchUsers(List<Long> userIds) {
+        return invoker.call(() -> client.getBatchUsers(userIds), fallback -> fallback.getBatchUsers(userIds));
+    }
+
+    public CompletableFuture<R<Boolean>> userExists(long userId) {
+        return invoker.call(() -> client.userExists(userId), fallback -> fallback.userExists(userId));
+    }
+
+    public CompletableFuture<R<UserPaymentPermissionResponse>> getUserPaymentPermission(String userId) {
+        return invoker.call(() -> client.getUserPaymentPermission(userId),
+                fallback -> fallback.getUserPaymentPermission(userId));
+    }
+}
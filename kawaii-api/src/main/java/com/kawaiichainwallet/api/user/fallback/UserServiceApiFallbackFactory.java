@@ -40,7 +40,7 @@ public class UserServiceApiFallbackFactory implements FallbackFactory<UserServic
             }
 
             @Override
-            public R<List<UserInfoResponse>> getBatchUsers(List<String> userIds) {
+            public R<List<UserInfoResponse>> getBatchUsers(List<Long> userIds) {
                 log.error("批量获取用户信息失败: userIds={}", userIds, cause);
                 return R.error(ApiCode.SERVICE_UNAVAILABLE);
             }
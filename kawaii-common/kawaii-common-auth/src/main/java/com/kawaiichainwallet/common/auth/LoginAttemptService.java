@@ -0,0 +1,175 @@
+package com.kawaiichainwallet.common.auth;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登录失败计数与锁定服务（公共模块）
+ * <p>
+ * 失败次数按账户和IP两个维度记录在Redis中，不再每次密码错误都更新数据库行：
+ * - 每个维度一个计数器key，首次失败时设置统计窗口，达到阈值时把过期时间延长为锁定时长
+ * - 计数器值达到阈值即视为锁定，key过期即自动解锁
+ * - INCR、EXPIRE和阈值判断在同一个Lua脚本中原子完成
+ * <p>
+ * 调用方应在BCrypt校验之前调用 {@link #isLocked}，被锁定的请求不会消耗哈希CPU；
+ * 只有 {@link FailureResult#accountLockTriggered()} 为true时才需要写数据库 locked_until。
+ * <p>
+ * Redis不可用时放行（记录告警），数据库中的 locked_until 仍然生效。
+ */
+@Slf4j
+@Service
+public class LoginAttemptService {
+
+    private static final String KEY_PREFIX = "login:failures:";
+
+    /**
+     * KEYS[1]=计数器key；ARGV[1]=统计窗口秒数，ARGV[2]=阈值，ARGV[3]=锁定秒数
+     * 返回 {当前失败次数, 本次是否触发锁定}
+     */
+    private static final RedisScript<List> RECORD_FAILURE_SCRIPT = new DefaultRedisScript<>("""
+            local count = redis.call('INCR', KEYS[1])
+            if count == 1 then
+                redis.call('EXPIRE', KEYS[1], ARGV[1])
+            end
+            if count == tonumber(ARGV[2]) then
+                redis.call('EXPIRE', KEYS[1], ARGV[3])
+                return {count, 1}
+            end
+            return {count, 0}
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final int maxAccountAttempts;
+    private final int maxIpAttempts;
+    private final long lockSeconds;
+
+    public LoginAttemptService(StringRedisTemplate redisTemplate,
+                               @Value("${app.auth.max-login-attempts:5}") int maxAccountAttempts,
+                               @Value("${app.auth.max-login-attempts-per-ip:50}") int maxIpAttempts,
+                               @Value("${app.auth.account-lock-duration:30}") long lockMinutes) {
+        this.redisTemplate = redisTemplate;
+        this.maxAccountAttempts = maxAccountAttempts;
+        this.maxIpAttempts = maxIpAttempts;
+        this.lockSeconds = TimeUnit.MINUTES.toSeconds(lockMinutes);
+    }
+
+    /**
+     * 一次登录失败的记录结果
+     *
+     * @param accountAttempts      账户当前失败次数（账户未知时为0）
+     * @param accountLockTriggered 本次失败是否触发账户锁定
+     * @param ipLockTriggered      本次失败是否触发IP锁定
+     */
+    public record FailureResult(long accountAttempts, boolean accountLockTriggered, boolean ipLockTriggered) {
+    }
+
+    /**
+     * 检查IP是否已被锁定（可在查询账户之前调用）
+     */
+    public boolean isIpLocked(String userType, String clientIp) {
+        return isLocked(userType, null, clientIp);
+    }
+
+    /**
+     * 检查账户或IP是否已被锁定
+     *
+     * @param userType  用户类型（USER / ADMIN），用于隔离两套计数
+     * @param accountId 账户ID（可为null）
+     * @param clientIp  客户端IP（可为null）
+     */
+    public boolean isLocked(String userType, Long accountId, String clientIp) {
+        try {
+            if (accountId == null) {
+                return clientIp != null && reached(redisTemplate.opsForValue().get(ipKey(userType, clientIp)), maxIpAttempts);
+            }
+            if (clientIp == null) {
+                return reached(redisTemplate.opsForValue().get(accountKey(userType, accountId)), maxAccountAttempts);
+            }
+            List<String> values = redisTemplate.opsForValue()
+                    .multiGet(List.of(accountKey(userType, accountId), ipKey(userType, clientIp)));
+            return values != null
+                    && (reached(values.get(0), maxAccountAttempts) || reached(values.get(1), maxIpAttempts));
+        } catch (Exception e) {
+            log.warn("检查登录锁定状态失败，放行本次请求: userType={}, accountId={}", userType, accountId, e);
+            return false;
+        }
+    }
+
+    /**
+     * 记录一次登录失败
+     *
+     * @param userType  用户类型（USER / ADMIN）
+     * @param accountId 账户ID（账户不存在时为null，只计IP维度）
+     * @param clientIp  客户端IP
+     */
+    public FailureResult recordFailure(String userType, Long accountId, String clientIp) {
+        try {
+            long accountAttempts = 0;
+            boolean accountLockTriggered = false;
+            if (accountId != null) {
+                List<?> result = increment(accountKey(userType, accountId), maxAccountAttempts);
+                accountAttempts = toLong(result.get(0));
+                accountLockTriggered = toLong(result.get(1)) == 1;
+            }
+
+            boolean ipLockTriggered = false;
+            if (clientIp != null) {
+                List<?> result = increment(ipKey(userType, clientIp), maxIpAttempts);
+                ipLockTriggered = toLong(result.get(1)) == 1;
+            }
+
+            return new FailureResult(accountAttempts, accountLockTriggered, ipLockTriggered);
+        } catch (Exception e) {
+            log.warn("记录登录失败次数失败: userType={}, accountId={}", userType, accountId, e);
+            return new FailureResult(0, false, false);
+        }
+    }
+
+    /**
+     * 登录成功后清除账户失败计数
+     * IP维度不清除，避免攻击者用一个已知账户重置整个IP的计数
+     */
+    public void clearAccount(String userType, Long accountId) {
+        try {
+            redisTemplate.delete(accountKey(userType, accountId));
+        } catch (Exception e) {
+            log.warn("清除登录失败计数失败: userType={}, accountId={}", userType, accountId, e);
+        }
+    }
+
+    public int getMaxAccountAttempts() {
+        return maxAccountAttempts;
+    }
+
+    public long getLockMinutes() {
+        return TimeUnit.SECONDS.toMinutes(lockSeconds);
+    }
+
+    private List<?> increment(String key, int threshold) {
+        return redisTemplate.execute(RECORD_FAILURE_SCRIPT, List.of(key),
+                String.valueOf(lockSeconds), String.valueOf(threshold), String.valueOf(lockSeconds));
+    }
+
+    private static boolean reached(String value, int threshold) {
+        return value != null && Long.parseLong(value) >= threshold;
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : Long.parseLong(String.valueOf(value));
+    }
+
+    private static String accountKey(String userType, Long accountId) {
+        return KEY_PREFIX + userType + ":account:" + accountId;
+    }
+
+    private static String ipKey(String userType, String clientIp) {
+        return KEY_PREFIX + userType + ":ip:" + clientIp;
+    }
+}
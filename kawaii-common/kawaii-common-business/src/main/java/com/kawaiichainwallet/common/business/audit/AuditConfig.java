@@ -0,0 +1,49 @@
+package com.kawaiichainwallet.common.business.audit;
+
+import com.kawaiichainwallet.common.spring.config.ObjectMapperFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 审计日志写入配置
+ * 只在持有 audit_logs 表的服务中通过 app.audit.enabled=true 开启，并由该服务提供 {@link AuditIdAllocator}
+ */
+@Configuration
+@ConditionalOnClass(JdbcTemplate.class)
+@ConditionalOnProperty(name = "app.audit.enabled", havingValue = "true")
+@EnableConfigurationProperties(AuditProperties.class)
+public class AuditConfig {
+
+    @Bean
+    public AuditSpillJournal auditSpillJournal(AuditProperties properties) {
+        return new AuditSpillJournal(properties.getSpillDirectory(), properties.getSpillSegmentBytes(),
+                properties.getSpillMaxBytes(), ObjectMapperFactory.createObjectMapper());
+    }
+
+    @Bean
+    public AuditPartitionManager auditPartitionManager(JdbcTemplate jdbcTemplate, AuditProperties properties) {
+        return new AuditPartitionManager(jdbcTemplate, properties.getPartitionMonthsAhead(),
+                properties.getPartitionRetentionMonths());
+    }
+
+    @Bean
+    public AuditLogWriter auditLogWriter(AuditProperties properties,
+                                         JdbcTemplate jdbcTemplate,
+                                         ObjectProvider<AuditIdAllocator> idAllocator,
+                                         AuditSpillJournal auditSpillJournal,
+                                         AuditPartitionManager auditPartitionManager,
+                                         MeterRegistry meterRegistry) {
+        AuditIdAllocator allocator = idAllocator.getIfAvailable();
+        if (allocator == null) {
+            throw new IllegalStateException("app.audit.enabled=true 时需要提供 AuditIdAllocator Bean");
+        }
+        return new AuditLogWriter(properties, jdbcTemplate, allocator, auditSpillJournal,
+                auditPartitionManager, meterRegistry);
+    }
+}
@@ -0,0 +1,79 @@
+package com.kawaiichainwallet.common.business.audit;
+
+import com.kawaiichainwallet.common.core.utils.TimeUtil;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.time.LocalDateTime;
+
+/**
+ * 审计事件（不可变）
+ *
+ * <p>对应 audit_logs 表的一行。调用方构建后交给 {@link AuditLogWriter} 异步写入，
+ * old/new/metadata 字段为已序列化的JSON字符串。</p>
+ */
+@Value
+@Builder(toBuilder = true)
+@Jacksonized
+public class AuditEvent {
+
+    /**
+     * 日志ID，由写入器批量租用后分配，调用方无需设置
+     */
+    Long logId;
+
+    /**
+     * 操作人ID
+     */
+    Long userId;
+
+    /**
+     * 操作类型：CREATE, UPDATE, DELETE, LOGIN, LOGOUT等
+     */
+    String action;
+
+    /**
+     * 资源类型：user, wallet, transaction等
+     */
+    String resourceType;
+
+    /**
+     * 资源ID
+     */
+    Long resourceId;
+
+    String ipAddress;
+
+    String userAgent;
+
+    String requestPath;
+
+    String requestMethod;
+
+    /**
+     * 修改前的值（JSON）
+     */
+    String oldValues;
+
+    /**
+     * 修改后的值（JSON）
+     */
+    String newValues;
+
+    /**
+     * 额外元数据（JSON）
+     */
+    String metadata;
+
+    @Builder.Default
+    boolean success = true;
+
+    String errorMessage;
+
+    /**
+     * 事件发生时间（UTC），决定写入的月分区
+     */
+    @Builder.Default
+    LocalDateTime createdAt = TimeUtil.nowUtc();
+}
@@ -0,0 +1,14 @@
+package com.kawaiichainwallet.common.business.audit;
+
+/**
+ * 审计事件投递入口
+ * 实现必须是非阻塞的：调用方通常是请求线程
+ */
+@FunctionalInterface
+public interface AuditEventPublisher {
+
+    /**
+     * 投递审计事件
+     */
+    void publish(AuditEvent event);
+}
@@ -0,0 +1,18 @@
+package com.kawaiichainwallet.common.business.audit;
+
+import java.util.List;
+
+/**
+ * 审计日志ID分配器，由持有 audit_logs 表的服务提供实现（通常对接分布式ID生成服务的批量接口）
+ */
+@FunctionalInterface
+public interface AuditIdAllocator {
+
+    /**
+     * 批量租用日志ID
+     *
+     * @param count 需要的ID数量
+     * @return ID列表，数量可以少于count但不能为空
+     */
+    List<Long> allocate(int count);
+}
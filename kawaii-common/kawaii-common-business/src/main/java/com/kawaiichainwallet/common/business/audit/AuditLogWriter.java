@@ -0,0 +1,446 @@
+package com.kawaiichainwallet.common.business.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 审计日志异步批量写入器
+ *
+ * <p>调用方通过 {@link #publish} 投递事件：入队是一次非阻塞的 offer，请求线程永远不会等待数据库或磁盘。
+ * 主队列满时（数据库不可用、写入线程退避等）事件转入溢出缓冲，由独立的追加线程写入溢出日志，之后回放；
+ * 只有溢出缓冲也满或溢出日志不可用、超过上限时才丢弃并计数（audit.events{result=dropped}）。</p>
+ *
+ * <p>后台写入线程按"攒满 batchSize 条或等待 flushInterval"的规则取出一批事件，
+ * 用一条多行 INSERT 写入 audit_logs（每行15个参数，500条约7500个绑定参数）。
+ * 日志ID通过 {@link AuditIdAllocator} 批量租用，每租一次可用于多个批次。</p>
+ *
+ * <ul>
+ *   <li>写库失败的批次（已分配ID）追加到溢出日志，之后按 ON CONFLICT DO NOTHING 回放</li>
+ *   <li>ID租用失败或停机时溢出的事件不带ID；回放前先为整个文件分配ID并覆盖写回，
+ *       回放中途失败后重试使用相同ID，重复回放不会产生重复行</li>
+ *   <li>队列空闲时回放溢出日志，回放成功的文件被删除</li>
+ *   <li>连续失败时指数退避（最长5秒），退避期间新事件继续入队或溢出</li>
+ *   <li>停机时在超时内写完队列，剩余事件写入溢出日志，下次启动后回放</li>
+ * </ul>
+ */
+@Slf4j
+public class AuditLogWriter implements AuditEventPublisher, SmartLifecycle {
+
+    private static final String INSERT_PREFIX = "INSERT INTO audit_logs (log_id, user_id, action, resource_type, resource_id, " +
+            "ip_address, user_agent, request_path, request_method, old_values, new_values, metadata, " +
+            "success, error_message, created_at) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?::jsonb, ?::jsonb, ?::jsonb, ?, ?, ?)";
+    private static final String INSERT_SUFFIX = " ON CONFLICT DO NOTHING";
+
+    private static final long MAX_BACKOFF_MILLIS = 5000;
+    private static final long DROP_WARN_INTERVAL_MILLIS = 10_000;
+
+    private final AuditProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditIdAllocator idAllocator;
+    private final AuditSpillJournal journal;
+    private final AuditPartitionManager partitionManager;
+    private final BlockingQueue<AuditEvent> queue;
+
+    /**
+     * 主队列满时的溢出缓冲，由追加线程写入溢出日志
+     */
+    private final BlockingQueue<AuditEvent> overflow;
+
+    /**
+     * 已租用未使用的日志ID（仅写入线程访问）
+     */
+    private final ArrayDeque<Long> leasedIds = new ArrayDeque<>();
+
+    private final Counter queuedCounter;
+    private final Counter spilledCounter;
+    private final Counter droppedCounter;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizeSummary;
+
+    private final AtomicLong lastDropWarnAt = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writerThread;
+    private Thread spillThread;
+    private long consecutiveFailures;
+
+    public AuditLogWriter(AuditProperties properties,
+                          JdbcTemplate jdbcTemplate,
+                          AuditIdAllocator idAllocator,
+                          AuditSpillJournal journal,
+                          AuditPartitionManager partitionManager,
+                          MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.idAllocator = idAllocator;
+        this.journal = journal;
+        this.partitionManager = partitionManager;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.overflow = new ArrayBlockingQueue<>(properties.getOverflowCapacity());
+
+        Gauge.builder("audit.queue.size", queue, BlockingQueue::size)
+                .description("审计事件内存队列长度")
+                .register(meterRegistry);
+        Gauge.builder("audit.overflow.size", overflow, BlockingQueue::size)
+                .description("等待写入溢出日志的事件数")
+                .register(meterRegistry);
+        Gauge.builder("audit.spill.bytes", journal, AuditSpillJournal::totalBytes)
+                .description("审计溢出日志待回放字节数")
+                .register(meterRegistry);
+        this.queuedCounter = eventCounter(meterRegistry, "queued");
+        this.spilledCounter = eventCounter(meterRegistry, "spilled");
+        this.droppedCounter = eventCounter(meterRegistry, "dropped");
+        this.writtenCounter = eventCounter(meterRegistry, "written");
+        this.failedCounter = eventCounter(meterRegistry, "failed");
+        this.flushTimer = Timer.builder("audit.flush")
+                .description("审计日志单批写库耗时")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("audit.batch.size")
+                .description("审计日志单批写入条数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 投递审计事件（不阻塞）
+     *
+     * <p>队列已满时转入溢出缓冲，由追加线程写磁盘，缓冲也满时丢弃计数；
+     * 写入器未运行（启动前或停机后）时直接追加到溢出日志，下次启动回放。</p>
+     */
+    @Override
+    public void publish(AuditEvent event) {
+        if (!running) {
+            spill(event);
+            return;
+        }
+        if (queue.offer(event)) {
+            queuedCounter.increment();
+            return;
+        }
+        if (overflow.offer(event)) {
+            return;
+        }
+        droppedCounter.increment();
+        long now = System.currentTimeMillis();
+        long last = lastDropWarnAt.get();
+        if (now - last >= DROP_WARN_INTERVAL_MILLIS && lastDropWarnAt.compareAndSet(last, now)) {
+            log.warn("审计事件队列和溢出缓冲均已满，事件被丢弃: queueCapacity={}, overflowCapacity={}, action={}",
+                    properties.getQueueCapacity(), properties.getOverflowCapacity(), event.getAction());
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writerThread = Thread.ofPlatform().name("audit-log-writer").daemon().start(this::runLoop);
+        spillThread = Thread.ofPlatform().name("audit-spill-appender").daemon().start(this::spillLoop);
+        log.info("审计日志写入器已启动: queueCapacity={}, overflowCapacity={}, batchSize={}, flushInterval={}",
+                properties.getQueueCapacity(), properties.getOverflowCapacity(),
+                properties.getBatchSize(), properties.getFlushInterval());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        long deadline = System.nanoTime() + properties.getShutdownTimeout().toNanos();
+        for (Thread thread : new Thread[]{writerThread, spillThread}) {
+            if (thread == null) {
+                continue;
+            }
+            try {
+                thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (thread.isAlive()) {
+                thread.interrupt();
+            }
+        }
+
+        // 未写完的事件留给下次启动回放
+        List<AuditEvent> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        overflow.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            remaining.forEach(this::spill);
+            log.warn("审计日志写入器停止，{}条事件写入溢出日志", remaining.size());
+        }
+        journal.close();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 先于Web服务器启动、晚于Web服务器停止（Web服务器阶段为 DEFAULT_PHASE - 2048），
+     * 处理中的请求在停机期间仍可投递事件；数据源在所有生命周期组件停止后才关闭
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void runLoop() {
+        try {
+            partitionManager.ensureCovered(YearMonth.now(ZoneOffset.UTC));
+        } catch (Exception e) {
+            log.error("审计日志分区初始化失败", e);
+        }
+
+        List<AuditEvent> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                collectBatch(batch);
+                if (batch.isEmpty()) {
+                    replayJournal();
+                    continue;
+                }
+                writeOrSpill(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("审计日志写入线程异常", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 溢出缓冲追加线程：把主队列放不下的事件写入溢出日志，由写入线程稍后回放
+     */
+    private void spillLoop() {
+        long intervalNanos = properties.getFlushInterval().toNanos();
+        List<AuditEvent> pending = new ArrayList<>();
+        while (running || !overflow.isEmpty()) {
+            try {
+                AuditEvent first = overflow.poll(intervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                pending.add(first);
+                overflow.drainTo(pending);
+                pending.forEach(this::spill);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("审计溢出缓冲追加线程异常", e);
+            } finally {
+                pending.clear();
+            }
+        }
+    }
+
+    /**
+     * 攒批：等待第一条事件，之后在 flushInterval 内继续收集直到 batchSize
+     */
+    private void collectBatch(List<AuditEvent> batch) throws InterruptedException {
+        long intervalNanos = properties.getFlushInterval().toNanos();
+        AuditEvent first = queue.poll(intervalNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + intervalNanos;
+        int batchSize = properties.getBatchSize();
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                break;
+            }
+            AuditEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void writeOrSpill(List<AuditEvent> batch) throws InterruptedException {
+        List<AuditEvent> withIds;
+        try {
+            withIds = assignIds(batch);
+        } catch (Exception e) {
+            // ID租用失败，事件不带ID溢出，回放时再分配
+            log.error("审计日志ID租用失败，{}条事件写入溢出日志", batch.size(), e);
+            batch.forEach(this::spill);
+            backoff();
+            return;
+        }
+
+        try {
+            write(withIds);
+            writtenCounter.increment(withIds.size());
+            consecutiveFailures = 0;
+        } catch (Exception e) {
+            log.error("审计日志写库失败，{}条事件写入溢出日志", withIds.size(), e);
+            failedCounter.increment(withIds.size());
+            withIds.forEach(this::spill);
+            backoff();
+        }
+    }
+
+    /**
+     * 回放溢出日志；任何一批失败时停止，文件保留到下次
+     *
+     * <p>文件中有不带ID的事件时，先为整个文件分配ID并覆盖写回，再按批写库。
+     * 中途失败后重试读到的是同一批ID，已写入的批次被 ON CONFLICT DO NOTHING 跳过。</p>
+     */
+    private void replayJournal() throws InterruptedException {
+        if (journal.totalBytes() == 0 || !running) {
+            return;
+        }
+
+        for (Path file : journal.rollAndListClosed()) {
+            List<AuditEvent> events = journal.read(file);
+            if (events.stream().anyMatch(event -> event.getLogId() == null)) {
+                try {
+                    events = assignIds(events);
+                    journal.rewrite(file, events);
+                } catch (Exception e) {
+                    log.warn("审计溢出日志分配ID失败，稍后重试: file={}", file.getFileName(), e);
+                    backoff();
+                    return;
+                }
+            }
+
+            int batchSize = properties.getBatchSize();
+            for (int from = 0; from < events.size(); from += batchSize) {
+                List<AuditEvent> chunk = events.subList(from, Math.min(from + batchSize, events.size()));
+                try {
+                    write(chunk);
+                    writtenCounter.increment(chunk.size());
+                } catch (Exception e) {
+                    log.warn("审计溢出日志回放失败，稍后重试: file={}", file.getFileName(), e);
+                    backoff();
+                    return;
+                }
+            }
+            journal.delete(file);
+            consecutiveFailures = 0;
+            log.info("审计溢出日志回放完成: file={}, events={}", file.getFileName(), events.size());
+
+            // 回放期间优先处理实时事件
+            if (!queue.isEmpty() || !running) {
+                return;
+            }
+        }
+    }
+
+    private List<AuditEvent> assignIds(List<AuditEvent> events) {
+        List<AuditEvent> result = new ArrayList<>(events.size());
+        for (AuditEvent event : events) {
+            if (event.getLogId() != null) {
+                result.add(event);
+                continue;
+            }
+            if (leasedIds.isEmpty()) {
+                List<Long> ids = idAllocator.allocate(Math.max(properties.getIdLeaseSize(), events.size()));
+                if (ids == null || ids.isEmpty()) {
+                    throw new IllegalStateException("审计日志ID分配器未返回ID");
+                }
+                leasedIds.addAll(ids);
+            }
+            result.add(event.toBuilder().logId(leasedIds.poll()).build());
+        }
+        return result;
+    }
+
+    private void write(List<AuditEvent> events) {
+        for (AuditEvent event : events) {
+            partitionManager.ensureCovered(YearMonth.from(event.getCreatedAt()));
+        }
+
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + events.size() * (ROW_PLACEHOLDERS.length() + 1));
+        sql.append(INSERT_PREFIX);
+        for (int i = 0; i < events.size(); i++) {
+            if (i > 0) {
+                sql.append(',');
+            }
+            sql.append(ROW_PLACEHOLDERS);
+        }
+        sql.append(INSERT_SUFFIX);
+
+        long startTime = System.nanoTime();
+        jdbcTemplate.update(sql.toString(), ps -> {
+            int index = 1;
+            for (AuditEvent event : events) {
+                index = bind(ps, index, event);
+            }
+        });
+        flushTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        batchSizeSummary.record(events.size());
+    }
+
+    private static int bind(PreparedStatement ps, int index, AuditEvent event) throws SQLException {
+        ps.setLong(index++, event.getLogId());
+        ps.setObject(index++, event.getUserId(), Types.BIGINT);
+        ps.setString(index++, event.getAction());
+        ps.setString(index++, event.getResourceType());
+        ps.setObject(index++, event.getResourceId(), Types.BIGINT);
+        ps.setString(index++, event.getIpAddress());
+        ps.setString(index++, event.getUserAgent());
+        ps.setString(index++, event.getRequestPath());
+        ps.setString(index++, event.getRequestMethod());
+        ps.setString(index++, event.getOldValues());
+        ps.setString(index++, event.getNewValues());
+        ps.setString(index++, event.getMetadata());
+        ps.setBoolean(index++, event.isSuccess());
+        ps.setString(index++, event.getErrorMessage());
+        ps.setObject(index++, event.getCreatedAt());
+        return index;
+    }
+
+    private void spill(AuditEvent event) {
+        if (journal.append(event)) {
+            spilledCounter.increment();
+        } else {
+            droppedCounter.increment();
+            log.warn("审计事件被丢弃（溢出日志不可用或已满）: action={}, resourceType={}, userId={}",
+                    event.getAction(), event.getResourceType(), event.getUserId());
+        }
+    }
+
+    private void backoff() throws InterruptedException {
+        consecutiveFailures++;
+        long millis = Math.min(MAX_BACKOFF_MILLIS, 100L << Math.min(consecutiveFailures, 10));
+        if (running) {
+            Thread.sleep(millis);
+        }
+    }
+
+    private static Counter eventCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("audit.events")
+                .tag("result", result)
+                .description("审计事件处理数量（queued入队，spilled溢出到磁盘，dropped丢弃，written写库，failed写库失败）")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,103 @@
+package com.kawaiichainwallet.common.business.audit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * audit_logs 月分区维护
+ *
+ * <p>audit_logs 按 created_at 做 RANGE 分区，每月一个子表（audit_logs_y2025m01）。
+ * 写入线程在启动时和每次跨入新的月份时调用 {@link #ensureCovered}，提前创建当前月和未来若干个月的分区；
+ * 超出范围的事件落入 audit_logs_default，不会写入失败。</p>
+ *
+ * <p>配置了保留月数时，早于保留期的整月分区直接 DROP，代替逐行 DELETE。</p>
+ */
+@Slf4j
+public class AuditPartitionManager {
+
+    private static final String PARENT_TABLE = "audit_logs";
+    private static final String PARTITION_PREFIX = PARENT_TABLE + "_y";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy'm'MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    /**
+     * 已确认存在分区的最后一个月（仅写入线程访问）
+     */
+    private YearMonth coveredUntil;
+
+    public AuditPartitionManager(JdbcTemplate jdbcTemplate, int monthsAhead, int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = Math.max(0, monthsAhead);
+        this.retentionMonths = retentionMonths;
+    }
+
+    /**
+     * 确保指定月份（及当前月往后 monthsAhead 个月）的分区已存在，已覆盖时直接返回
+     */
+    public void ensureCovered(YearMonth month) {
+        if (coveredUntil != null && !month.isAfter(coveredUntil)) {
+            return;
+        }
+
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        YearMonth last = current.plusMonths(monthsAhead);
+        if (month.isAfter(last)) {
+            last = month;
+        }
+        YearMonth first = coveredUntil == null ? current : coveredUntil.plusMonths(1);
+        for (YearMonth m = first; !m.isAfter(last); m = m.plusMonths(1)) {
+            createPartition(m);
+        }
+        coveredUntil = last;
+        dropExpiredPartitions(current);
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+        String sql = String.format("CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                name, PARENT_TABLE, month.atDay(1), month.plusMonths(1).atDay(1));
+        try {
+            jdbcTemplate.execute(sql);
+        } catch (Exception e) {
+            // 默认分区里已有该月数据时无法创建，事件继续写入默认分区
+            log.error("创建审计日志分区失败: partition={}", name, e);
+        }
+    }
+
+    private void dropExpiredPartitions(YearMonth current) {
+        if (retentionMonths <= 0) {
+            return;
+        }
+
+        YearMonth oldestKept = current.minusMonths(retentionMonths);
+        List<String> partitions = jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = ?
+                """, String.class, PARENT_TABLE);
+        for (String partition : partitions) {
+            if (!partition.startsWith(PARTITION_PREFIX)) {
+                continue;
+            }
+            try {
+                YearMonth month = YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+                if (month.isBefore(oldestKept)) {
+                    jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                    log.info("删除过期审计日志分区: partition={}", partition);
+                }
+            } catch (DateTimeParseException e) {
+                // 不是按本规则命名的分区，不处理
+            }
+        }
+    }
+}
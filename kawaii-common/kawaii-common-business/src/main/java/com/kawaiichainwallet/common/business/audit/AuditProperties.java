@@ -0,0 +1,76 @@
+package com.kawaiichainwallet.common.business.audit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * 审计日志写入配置属性
+ */
+@Data
+@ConfigurationProperties(prefix = "app.audit")
+public class AuditProperties {
+
+    /**
+     * 是否启用审计日志写库（只有持有 audit_logs 表的服务开启）
+     */
+    private boolean enabled = false;
+
+    /**
+     * 内存队列容量，队列满时新事件转入溢出缓冲
+     */
+    private int queueCapacity = 10000;
+
+    /**
+     * 溢出缓冲容量：主队列满时（如数据库不可用、写入线程退避）事件先进入该缓冲，
+     * 由独立线程追加到溢出日志，请求线程不写磁盘；缓冲也满时才丢弃并计数
+     */
+    private int overflowCapacity = 10000;
+
+    /**
+     * 单批最多写入的事件数
+     */
+    private int batchSize = 500;
+
+    /**
+     * 批次最长攒批时间，到时即使未满也写入
+     */
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    /**
+     * 每次租用的日志ID数量（ID生成服务单次上限1000）
+     */
+    private int idLeaseSize = 1000;
+
+    /**
+     * 溢出日志目录
+     */
+    private Path spillDirectory = Path.of(System.getProperty("java.io.tmpdir"), "kawaii-audit-spill");
+
+    /**
+     * 单个溢出日志文件的滚动大小（字节）
+     */
+    private long spillSegmentBytes = 8L * 1024 * 1024;
+
+    /**
+     * 溢出日志总大小上限（字节），超过后丢弃新事件并计数
+     */
+    private long spillMaxBytes = 512L * 1024 * 1024;
+
+    /**
+     * 预先创建的未来月分区数量
+     */
+    private int partitionMonthsAhead = 2;
+
+    /**
+     * 月分区保留月数，0表示不自动删除
+     */
+    private int partitionRetentionMonths = 0;
+
+    /**
+     * 停机时等待队列写完的最长时间，剩余事件写入溢出日志
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+}
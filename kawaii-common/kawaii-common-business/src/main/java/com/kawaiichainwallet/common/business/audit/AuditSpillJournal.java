@@ -0,0 +1,265 @@
+package com.kawaiichainwallet.common.business.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * 审计事件磁盘溢出日志
+ *
+ * <p>数据库写入失败、ID租用失败或写入器未运行时，事件以NDJSON追加到本地文件，之后由写入线程回放。
+ * 追加只写入操作系统页缓存（不fsync）。</p>
+ *
+ * <ul>
+ *   <li>当前文件以 .active 结尾，达到滚动大小后改名为 .ndjson，交给写入线程回放</li>
+ *   <li>启动时遗留的 .active 文件（上次异常退出）直接视为已关闭的文件</li>
+ *   <li>总大小超过上限时拒绝追加，由调用方计数丢弃</li>
+ * </ul>
+ */
+@Slf4j
+public class AuditSpillJournal {
+
+    private static final String ACTIVE_SUFFIX = ".active";
+    private static final String CLOSED_SUFFIX = ".ndjson";
+    private static final String REWRITE_SUFFIX = ".rewrite";
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final long maxBytes;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 串行化追加和滚动；使用ReentrantLock而不是synchronized，文件写入不会钉住虚拟线程的载体线程
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicLong totalBytes = new AtomicLong();
+
+    private OutputStream activeWriter;
+    private Path activePath;
+    private long activeBytes;
+    private long sequence;
+
+    public AuditSpillJournal(Path directory, long segmentBytes, long maxBytes, ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxBytes = maxBytes;
+        this.objectMapper = objectMapper;
+        recover();
+    }
+
+    /**
+     * 追加一个事件
+     *
+     * @return 是否写入成功；超过总大小上限或磁盘错误时返回false
+     */
+    public boolean append(AuditEvent event) {
+        byte[] line;
+        try {
+            line = (objectMapper.writeValueAsString(event) + "\n").getBytes(StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            log.error("审计事件序列化失败: action={}", event.getAction(), e);
+            return false;
+        }
+        if (totalBytes.get() + line.length > maxBytes) {
+            return false;
+        }
+
+        lock.lock();
+        try {
+            if (activeWriter == null) {
+                openActive();
+            }
+            activeWriter.write(line);
+            activeWriter.flush();
+            activeBytes += line.length;
+            totalBytes.addAndGet(line.length);
+            if (activeBytes >= segmentBytes) {
+                closeActive();
+            }
+            return true;
+        } catch (IOException e) {
+            log.error("审计事件写入溢出日志失败: dir={}", directory, e);
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 批量追加，返回写入成功的数量
+     */
+    public int appendAll(Collection<AuditEvent> events) {
+        int written = 0;
+        for (AuditEvent event : events) {
+            if (append(event)) {
+                written++;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * 关闭当前文件并返回所有待回放的文件（按创建顺序）
+     */
+    public List<Path> rollAndListClosed() {
+        lock.lock();
+        try {
+            if (activeWriter != null && activeBytes > 0) {
+                closeActive();
+            }
+        } catch (IOException e) {
+            log.error("审计溢出日志滚动失败: file={}", activePath, e);
+        } finally {
+            lock.unlock();
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(CLOSED_SUFFIX))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            log.error("读取审计溢出日志目录失败: dir={}", directory, e);
+            return List.of();
+        }
+    }
+
+    /**
+     * 读取文件中的全部事件，无法解析的行被跳过
+     */
+    public List<AuditEvent> read(Path file) {
+        List<AuditEvent> events = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    events.add(objectMapper.readValue(line, AuditEvent.class));
+                } catch (JsonProcessingException e) {
+                    // 异常退出时最后一行可能不完整
+                    log.warn("跳过无法解析的审计溢出记录: file={}", file.getFileName());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return events;
+    }
+
+    /**
+     * 用已分配ID的事件覆盖已关闭的文件：先写临时文件再原子改名，中途失败时原文件保持不变
+     */
+    public void rewrite(Path file, List<AuditEvent> events) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + REWRITE_SUFFIX);
+        long oldSize = Files.size(file);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))) {
+            for (AuditEvent event : events) {
+                out.write((objectMapper.writeValueAsString(event) + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        totalBytes.addAndGet(Files.size(file) - oldSize);
+    }
+
+    /**
+     * 删除已回放完成的文件
+     */
+    public void delete(Path file) {
+        try {
+            long size = Files.size(file);
+            Files.deleteIfExists(file);
+            totalBytes.addAndGet(-size);
+        } catch (IOException e) {
+            log.error("删除审计溢出日志失败: file={}", file, e);
+        }
+    }
+
+    /**
+     * 溢出日志当前总大小（字节）
+     */
+    public long totalBytes() {
+        return totalBytes.get();
+    }
+
+    /**
+     * 停机时关闭当前文件
+     */
+    public void close() {
+        lock.lock();
+        try {
+            if (activeWriter != null) {
+                closeActive();
+            }
+        } catch (IOException e) {
+            log.error("关闭审计溢出日志失败: file={}", activePath, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recover() {
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    String name = file.getFileName().toString();
+                    if (name.endsWith(REWRITE_SUFFIX)) {
+                        // 覆盖写回未完成，原文件仍完整
+                        Files.deleteIfExists(file);
+                        continue;
+                    }
+                    if (name.endsWith(ACTIVE_SUFFIX)) {
+                        Path closed = directory.resolve(name.substring(0, name.length() - ACTIVE_SUFFIX.length()) + CLOSED_SUFFIX);
+                        Files.move(file, closed, StandardCopyOption.ATOMIC_MOVE);
+                        file = closed;
+                    }
+                    if (file.getFileName().toString().endsWith(CLOSED_SUFFIX)) {
+                        totalBytes.addAndGet(Files.size(file));
+                    }
+                }
+            }
+            if (totalBytes.get() > 0) {
+                log.warn("发现未回放的审计溢出日志: dir={}, bytes={}", directory, totalBytes.get());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("初始化审计溢出日志目录失败: " + directory, e);
+        }
+    }
+
+    private void openActive() throws IOException {
+        // 文件名以时间戳开头，按字典序即按创建顺序回放
+        activePath = directory.resolve(String.format("audit-%d-%06d%s", System.currentTimeMillis(), sequence++, ACTIVE_SUFFIX));
+        activeWriter = new BufferedOutputStream(Files.newOutputStream(activePath,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+        activeBytes = 0;
+    }
+
+    private void closeActive() throws IOException {
+        activeWriter.close();
+        String name = activePath.getFileName().toString();
+        Path closed = directory.resolve(name.substring(0, name.length() - ACTIVE_SUFFIX.length()) + CLOSED_SUFFIX);
+        Files.move(activePath, closed, StandardCopyOption.ATOMIC_MOVE);
+        activeWriter = null;
+        activePath = null;
+        activeBytes = 0;
+    }
+}
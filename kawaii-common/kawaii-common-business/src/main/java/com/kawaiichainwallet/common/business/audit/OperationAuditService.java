@@ -1,18 +1,51 @@
 package com.kawaiichainwallet.common.business.audit;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kawaiichainwallet.common.core.utils.TimeUtil;
+import com.kawaiichainwallet.common.spring.config.ObjectMapperFactory;
 import com.kawaiichainwallet.common.spring.context.UserContextHolder;
+import com.kawaiichainwallet.common.spring.utils.RequestUtil;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * 操作审计服务
  * 记录用户关键操作
+ *
+ * <p>所有记录都会写入应用日志；服务开启 app.audit.enabled 时同时投递到 {@link AuditEventPublisher}，
+ * 由后台线程批量写入 audit_logs。投递不阻塞调用线程。</p>
  */
 @Slf4j
 @Service
 public class OperationAuditService {
 
+    private static final ObjectMapper OBJECT_MAPPER = ObjectMapperFactory.createObjectMapper();
+
+    private final ObjectProvider<AuditEventPublisher> publisher;
+
+    public OperationAuditService(ObjectProvider<AuditEventPublisher> publisher) {
+        this.publisher = publisher;
+    }
+
+    /**
+     * 记录审计事件（调用方自行构建，未设置请求信息时从当前请求补全）
+     */
+    public void record(AuditEvent event) {
+        AuditEventPublisher target = publisher.getIfAvailable();
+        if (target != null) {
+            target.publish(withRequestInfo(event));
+        }
+    }
+
     /**
      * 记录用户操作
      */
@@ -21,9 +54,9 @@ public class OperationAuditService {
         String userEmail = UserContextHolder.getCurrentUserEmail();
         String timestamp = TimeUtil.formatToIso(TimeUtil.nowInstant());
 
-        // 这里可以扩展为写入数据库或发送到日志系统
         log.info("USER_OPERATION | userId={} | email={} | operation={} | details={} | timestamp={}",
                 userId, userEmail, operation, details, timestamp);
+        record(event(userId, operation, "user", Map.of("details", nullToEmpty(details))));
     }
 
     /**
@@ -34,6 +67,7 @@ public class OperationAuditService {
 
         log.info("AUTH_EVENT | userId={} | email={} | eventType={} | details={} | timestamp={}",
                 userId, email, eventType, details, timestamp);
+        record(event(userId, eventType, "auth", Map.of("details", nullToEmpty(details))));
     }
 
     /**
@@ -44,6 +78,11 @@ public class OperationAuditService {
 
         log.info("PAYMENT_OPERATION | userId={} | operation={} | amount={} | currency={} | details={} | timestamp={}",
                 userId, operation, amount, currency, details, timestamp);
+        Map<String, String> metadata = new LinkedHashMap<>();
+        metadata.put("amount", nullToEmpty(amount));
+        metadata.put("currency", nullToEmpty(currency));
+        metadata.put("details", nullToEmpty(details));
+        record(event(userId, operation, "payment", metadata));
     }
 
     /**
@@ -54,6 +93,8 @@ public class OperationAuditService {
 
         log.info("WALLET_OPERATION | userId={} | operation={} | walletAddress={} | details={} | timestamp={}",
                 userId, operation, walletAddress, details, timestamp);
+        record(event(userId, operation, "wallet",
+                Map.of("walletAddress", nullToEmpty(walletAddress), "details", nullToEmpty(details))));
     }
 
     /**
@@ -64,5 +105,48 @@ public class OperationAuditService {
 
         log.info("SYSTEM_EVENT | eventType={} | service={} | details={} | timestamp={}",
                 eventType, service, details, timestamp);
+        record(event(null, eventType, "system",
+                Map.of("service", nullToEmpty(service), "details", nullToEmpty(details))));
+    }
+
+    private static AuditEvent event(Long userId, String action, String resourceType, Map<String, String> metadata) {
+        return AuditEvent.builder()
+                .userId(userId)
+                .action(action)
+                .resourceType(resourceType)
+                .metadata(toJson(metadata))
+                .build();
+    }
+
+    /**
+     * 在请求线程中补全IP、UA、路径和方法（异步线程中没有请求上下文时保持原样）
+     */
+    private static AuditEvent withRequestInfo(AuditEvent event) {
+        if (event.getIpAddress() != null || event.getRequestPath() != null) {
+            return event;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return event;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        return event.toBuilder()
+                .ipAddress(RequestUtil.getClientIpAddress(request))
+                .userAgent(RequestUtil.getUserAgent(request))
+                .requestPath(request.getRequestURI())
+                .requestMethod(request.getMethod())
+                .build();
+    }
+
+    private static String toJson(Map<String, String> values) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(values);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
     }
-}
\ No newline at end of file
+}
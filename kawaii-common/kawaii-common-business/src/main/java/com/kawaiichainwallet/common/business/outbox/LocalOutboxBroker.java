@@ -0,0 +1,47 @@
+package com.kawaiichainwallet.common.business.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 进程内投递通道：按事件类型同步调用 {@link OutboxEventHandler}
+ *
+ * <p>未接入消息中间件时作为替身使用。没有处理器的事件类型直接视为已投递，
+ * 避免无人消费的事件在表里无限重试。</p>
+ */
+@Slf4j
+public class LocalOutboxBroker implements OutboxBroker {
+
+    private final Map<String, OutboxEventHandler> handlers;
+
+    public LocalOutboxBroker(List<OutboxEventHandler> handlers) {
+        this.handlers = handlers.stream()
+                .collect(Collectors.toUnmodifiableMap(OutboxEventHandler::eventType, h -> h, (a, b) -> {
+                    throw new IllegalStateException("发件箱事件类型存在多个处理器: " + a.eventType());
+                }));
+    }
+
+    @Override
+    public Map<Long, String> deliver(List<OutboxEvent> events) {
+        Map<Long, String> failures = new HashMap<>();
+        for (OutboxEvent event : events) {
+            OutboxEventHandler handler = handlers.get(event.getEventType());
+            if (handler == null) {
+                log.debug("发件箱事件没有处理器，跳过: eventId={}, eventType={}", event.getEventId(), event.getEventType());
+                continue;
+            }
+            try {
+                handler.handle(event);
+            } catch (Exception e) {
+                log.warn("发件箱事件处理失败: eventId={}, eventType={}, attempts={}",
+                        event.getEventId(), event.getEventType(), event.getAttempts(), e);
+                failures.put(event.getEventId(), String.valueOf(e.getMessage()));
+            }
+        }
+        return failures;
+    }
+}
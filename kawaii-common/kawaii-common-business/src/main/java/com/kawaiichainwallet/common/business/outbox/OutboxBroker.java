@@ -0,0 +1,21 @@
+package com.kawaiichainwallet.common.business.outbox;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 发件箱事件投递通道
+ *
+ * <p>默认实现 {@link LocalOutboxBroker} 在进程内分发给 {@link OutboxEventHandler}；
+ * 接入消息中间件时由服务自行提供此接口的 Bean，把整批事件发送到中间件即可。</p>
+ */
+public interface OutboxBroker {
+
+    /**
+     * 投递一批事件（按 eventId 升序）
+     *
+     * @param events 本批事件
+     * @return 投递失败的事件ID及失败原因，空Map表示全部成功；未出现在结果中的事件视为成功
+     */
+    Map<Long, String> deliver(List<OutboxEvent> events);
+}
@@ -0,0 +1,39 @@
+package com.kawaiichainwallet.common.business.outbox;
+
+import com.kawaiichainwallet.common.spring.config.ObjectMapperFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 事务发件箱配置
+ * 只在持有 outbox_events 表的服务中通过 app.outbox.enabled=true 开启；
+ * 服务提供 {@link OutboxBroker} Bean 时投递到该通道，否则使用进程内的 {@link LocalOutboxBroker}
+ */
+@Configuration
+@ConditionalOnClass(JdbcTemplate.class)
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "true")
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.outbox.relay-enabled", havingValue = "true", matchIfMissing = true)
+    public OutboxRelay outboxRelay(OutboxProperties properties,
+                                   JdbcTemplate jdbcTemplate,
+                                   ObjectProvider<OutboxBroker> broker,
+                                   ObjectProvider<OutboxEventHandler> handlers,
+                                   MeterRegistry meterRegistry) {
+        OutboxBroker target = broker.getIfAvailable(() -> new LocalOutboxBroker(handlers.orderedStream().toList()));
+        return new OutboxRelay(properties, jdbcTemplate, target, meterRegistry);
+    }
+
+    @Bean
+    public OutboxPublisher outboxPublisher(JdbcTemplate jdbcTemplate, ObjectProvider<OutboxRelay> relay) {
+        return new OutboxPublisher(jdbcTemplate, ObjectMapperFactory.createObjectMapper(), relay.getIfAvailable());
+    }
+}
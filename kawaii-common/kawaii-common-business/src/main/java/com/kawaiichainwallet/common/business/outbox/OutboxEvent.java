@@ -0,0 +1,52 @@
+package com.kawaiichainwallet.common.business.outbox;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * 发件箱事件（不可变）
+ *
+ * <p>对应 outbox_events 表的一行，由 {@link OutboxRelay} 认领后交给 {@link OutboxBroker} 投递。
+ * payload 为已序列化的JSON字符串，处理方按事件类型自行反序列化。</p>
+ */
+@Value
+@Builder
+public class OutboxEvent {
+
+    /**
+     * 事件ID（数据库自增，同一聚合的事件按ID先后写入）
+     */
+    Long eventId;
+
+    /**
+     * 聚合类型：user, wallet, transaction等
+     */
+    String aggregateType;
+
+    /**
+     * 聚合ID
+     */
+    String aggregateId;
+
+    /**
+     * 事件类型：USER_REGISTERED等
+     */
+    String eventType;
+
+    /**
+     * 事件内容（JSON）
+     */
+    String payload;
+
+    /**
+     * 已尝试投递次数（含本次）
+     */
+    int attempts;
+
+    /**
+     * 事件写入时间（UTC）
+     */
+    LocalDateTime createdAt;
+}
@@ -0,0 +1,20 @@
+package com.kawaiichainwallet.common.business.outbox;
+
+/**
+ * 进程内发件箱事件处理器
+ *
+ * <p>由 {@link LocalOutboxBroker} 按事件类型分发。事件为"至少一次"投递：
+ * 处理器抛出异常时整条事件稍后重试，已成功的副作用可能被重复执行，实现需保证幂等（可用 eventId 去重）。</p>
+ */
+public interface OutboxEventHandler {
+
+    /**
+     * 处理的事件类型
+     */
+    String eventType();
+
+    /**
+     * 处理事件，抛出异常表示失败并稍后重试
+     */
+    void handle(OutboxEvent event) throws Exception;
+}
@@ -0,0 +1,59 @@
+package com.kawaiichainwallet.common.business.outbox;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 事务发件箱配置属性
+ */
+@Data
+@ConfigurationProperties(prefix = "app.outbox")
+public class OutboxProperties {
+
+    /**
+     * 是否启用发件箱（只有持有 outbox_events 表的服务开启）
+     */
+    private boolean enabled = false;
+
+    /**
+     * 是否在本实例运行投递线程；多实例可同时开启，认领时互相跳过已锁定的行
+     */
+    private boolean relayEnabled = true;
+
+    /**
+     * 单次认领的事件数
+     */
+    private int batchSize = 200;
+
+    /**
+     * 没有待投递事件时的轮询间隔（本实例提交的事件会立即唤醒投递线程）
+     */
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    /**
+     * 认领租期：认领后在此时间内未标记完成（实例崩溃等），事件重新变为可认领
+     */
+    private Duration lease = Duration.ofSeconds(30);
+
+    /**
+     * 最大投递次数，超过后标记为 failed 不再重试
+     */
+    private int maxAttempts = 10;
+
+    /**
+     * 重试基础延迟，按投递次数指数增长
+     */
+    private Duration retryBaseDelay = Duration.ofSeconds(1);
+
+    /**
+     * 重试最大延迟
+     */
+    private Duration retryMaxDelay = Duration.ofMinutes(10);
+
+    /**
+     * 已完成事件的保留时间，过期后由投递线程分批删除
+     */
+    private Duration doneRetention = Duration.ofDays(1);
+}
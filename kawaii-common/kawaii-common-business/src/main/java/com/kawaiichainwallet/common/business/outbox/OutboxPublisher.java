@@ -0,0 +1,78 @@
+package com.kawaiichainwallet.common.business.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kawaiichainwallet.common.core.utils.TimeUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+/**
+ * 发件箱事件写入
+ *
+ * <p>在业务事务内调用 {@link #publish}：事件与业务数据在同一事务中写入 outbox_events，
+ * 业务回滚时事件一起回滚，提交后由 {@link OutboxRelay} 异步投递，不会出现"数据已改但通知丢失"或"通知已发但数据回滚"。</p>
+ *
+ * <p>JdbcTemplate 与 MyBatis 共用 Spring 管理的连接，因此可以和 Mapper 写入放在同一个
+ * {@code @Transactional} 或 TransactionTemplate 中。没有事务时每次调用单独提交。</p>
+ */
+@Slf4j
+public class OutboxPublisher {
+
+    private static final String INSERT_SQL = "INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, payload, " +
+            "status, attempts, available_at, created_at) VALUES (?, ?, ?, ?::jsonb, 'pending', 0, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final OutboxRelay relay;
+
+    /**
+     * @param relay 本实例的投递线程，未启用时为 null（事件由其他实例投递）
+     */
+    public OutboxPublisher(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, OutboxRelay relay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.relay = relay;
+    }
+
+    /**
+     * 在当前事务中写入一条事件
+     *
+     * @param aggregateType 聚合类型
+     * @param aggregateId   聚合ID
+     * @param eventType     事件类型
+     * @param payload       事件内容，序列化为JSON
+     */
+    public void publish(String aggregateType, Object aggregateId, String eventType, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("发件箱事件序列化失败: " + eventType, e);
+        }
+
+        LocalDateTime now = TimeUtil.nowUtc();
+        jdbcTemplate.update(INSERT_SQL, aggregateType, String.valueOf(aggregateId), eventType, json, now, now);
+        log.debug("写入发件箱事件: aggregateType={}, aggregateId={}, eventType={}", aggregateType, aggregateId, eventType);
+
+        if (relay != null) {
+            afterCommit(relay::wakeUp);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
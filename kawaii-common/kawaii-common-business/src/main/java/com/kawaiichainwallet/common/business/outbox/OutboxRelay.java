@@ -0,0 +1,298 @@
+package com.kawaiichainwallet.common.business.outbox;
+
+import com.kawaiichainwallet.common.core.utils.TimeUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 发件箱投递线程
+ *
+ * <p>循环执行"认领 → 投递 → 批量标记"：</p>
+ * <ul>
+ *   <li>认领：一条语句用 {@code FOR UPDATE SKIP LOCKED} 选出一批到期的 pending 事件，并把 available_at
+ *       推后一个租期。多个实例并发认领时互相跳过，认领语句单独提交，投递期间不持有行锁和事务</li>
+ *   <li>投递：整批交给 {@link OutboxBroker}</li>
+ *   <li>标记：成功的事件用一条 {@code event_id = ANY(?)} 更新为 done；失败的按投递次数指数退避后重新变为可认领，
+ *       超过最大次数标记为 failed</li>
+ * </ul>
+ *
+ * <p>认领时已计入投递次数，只认领未达最大次数的事件。最后一次投递在标记前中断（进程崩溃、超过租期）的事件
+ * 不会再被认领，租期到后由每轮开始时的清理标记为 failed，避免反复使投递线程崩溃的事件无限重试。</p>
+ *
+ * <p>实例在投递中途崩溃时，租期到后事件自动重新可认领，因此投递语义为"至少一次"，处理方需幂等。
+ * 重试会打乱同一聚合内事件的先后顺序，依赖顺序的处理方应自行比较 eventId。</p>
+ *
+ * <p>本实例提交事件后通过 {@link #wakeUp} 立即唤醒，其余情况按 pollInterval 轮询；整批认领满时不等待继续认领。</p>
+ */
+@Slf4j
+public class OutboxRelay implements SmartLifecycle {
+
+    private static final String CLAIM_SQL = "UPDATE outbox_events e SET available_at = ?, attempts = e.attempts + 1 " +
+            "FROM (SELECT event_id FROM outbox_events WHERE status = 'pending' AND available_at <= ? AND attempts < ? " +
+            "ORDER BY available_at, event_id LIMIT ? FOR UPDATE SKIP LOCKED) c " +
+            "WHERE e.event_id = c.event_id " +
+            "RETURNING e.event_id, e.aggregate_type, e.aggregate_id, e.event_type, e.payload::text AS payload, " +
+            "e.attempts, e.created_at";
+    private static final String MARK_DONE_SQL = "UPDATE outbox_events SET status = 'done', processed_at = ?, last_error = NULL " +
+            "WHERE event_id = ANY(?)";
+    private static final String MARK_FAILED_SQL = "UPDATE outbox_events SET status = ?, available_at = ?, last_error = ? " +
+            "WHERE event_id = ?";
+    private static final String EXPIRE_EXHAUSTED_SQL = "UPDATE outbox_events SET status = 'failed', last_error = ? " +
+            "WHERE event_id IN (SELECT event_id FROM outbox_events WHERE status = 'pending' AND available_at <= ? " +
+            "AND attempts >= ? LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING event_id, event_type, attempts";
+    private static final String EXHAUSTED_ERROR = "超过最大投递次数：最后一次投递未完成（进程崩溃或超过租期）";
+    private static final String PURGE_DONE_SQL = "DELETE FROM outbox_events WHERE event_id IN (" +
+            "SELECT event_id FROM outbox_events WHERE status = 'done' AND processed_at < ? LIMIT ?)";
+
+    private static final int PURGE_BATCH_SIZE = 1000;
+    private static final long PURGE_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final long MAX_BACKOFF_MILLIS = 5000;
+
+    private final OutboxProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxBroker broker;
+
+    private final Counter deliveredCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+    private final Timer lagTimer;
+
+    private volatile boolean running;
+    private volatile Thread relayThread;
+    private long lastPurgeNanos;
+    private long consecutiveFailures;
+
+    public OutboxRelay(OutboxProperties properties, JdbcTemplate jdbcTemplate, OutboxBroker broker,
+                       MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.broker = broker;
+
+        this.deliveredCounter = eventCounter(meterRegistry, "delivered");
+        this.retriedCounter = eventCounter(meterRegistry, "retried");
+        this.failedCounter = eventCounter(meterRegistry, "failed");
+        this.batchTimer = Timer.builder("outbox.relay.batch")
+                .description("发件箱单批认领、投递、标记总耗时")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("outbox.delivery.lag")
+                .description("发件箱事件从写入到投递成功的延迟")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 唤醒投递线程（事务提交后调用，不阻塞）
+     */
+    public void wakeUp() {
+        Thread thread = relayThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        lastPurgeNanos = System.nanoTime();
+        relayThread = Thread.ofPlatform().name("outbox-relay").daemon().start(this::runLoop);
+        log.info("发件箱投递线程已启动: batchSize={}, pollInterval={}, lease={}, broker={}",
+                properties.getBatchSize(), properties.getPollInterval(), properties.getLease(),
+                broker.getClass().getSimpleName());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = relayThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                // 中途停止的批次在租期到后由其他实例或下次启动重新投递
+                thread.join(properties.getLease().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        relayThread = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void runLoop() {
+        long pollNanos = properties.getPollInterval().toNanos();
+        while (running) {
+            try {
+                int claimed = relayOnce();
+                consecutiveFailures = 0;
+                if (claimed >= properties.getBatchSize()) {
+                    continue;
+                }
+                purgeIfDue();
+                LockSupport.parkNanos(this, pollNanos);
+            } catch (Exception e) {
+                consecutiveFailures++;
+                long backoff = Math.min(MAX_BACKOFF_MILLIS, 100L << Math.min(consecutiveFailures, 6));
+                log.error("发件箱投递异常，{}ms后重试: consecutiveFailures={}", backoff, consecutiveFailures, e);
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(backoff));
+            }
+        }
+    }
+
+    /**
+     * 认领并投递一批事件
+     *
+     * @return 本次认领的事件数
+     */
+    int relayOnce() {
+        long start = System.nanoTime();
+        expireExhausted();
+        List<OutboxEvent> batch = claim();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, String> failures = broker.deliver(batch);
+
+        LocalDateTime now = TimeUtil.nowUtc();
+        List<Long> done = new ArrayList<>(batch.size());
+        List<Object[]> failed = new ArrayList<>(failures.size());
+        for (OutboxEvent event : batch) {
+            if (!failures.containsKey(event.getEventId())) {
+                done.add(event.getEventId());
+                lagTimer.record(Duration.between(event.getCreatedAt(), now));
+                continue;
+            }
+            boolean exhausted = event.getAttempts() >= properties.getMaxAttempts();
+            failed.add(new Object[]{
+                    exhausted ? "failed" : "pending",
+                    exhausted ? now : now.plus(retryDelay(event.getAttempts())),
+                    truncate(failures.get(event.getEventId())),
+                    event.getEventId()});
+            if (exhausted) {
+                failedCounter.increment();
+                log.error("发件箱事件超过最大投递次数，标记为失败: eventId={}, eventType={}, attempts={}",
+                        event.getEventId(), event.getEventType(), event.getAttempts());
+            } else {
+                retriedCounter.increment();
+            }
+        }
+
+        if (!done.isEmpty()) {
+            markDone(done, now);
+            deliveredCounter.increment(done.size());
+        }
+        if (!failed.isEmpty()) {
+            jdbcTemplate.batchUpdate(MARK_FAILED_SQL, failed);
+        }
+        batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return batch.size();
+    }
+
+    private List<OutboxEvent> claim() {
+        LocalDateTime now = TimeUtil.nowUtc();
+        List<OutboxEvent> batch = new ArrayList<>(jdbcTemplate.query(CLAIM_SQL, this::mapEvent,
+                now.plus(properties.getLease()), now, properties.getMaxAttempts(), properties.getBatchSize()));
+        // RETURNING 不保证顺序
+        batch.sort(Comparator.comparing(OutboxEvent::getEventId));
+        return batch;
+    }
+
+    /**
+     * 将已用完投递次数且租期已过的 pending 事件标记为 failed
+     */
+    private void expireExhausted() {
+        jdbcTemplate.query(EXPIRE_EXHAUSTED_SQL, (ResultSet rs) -> {
+            while (rs.next()) {
+                failedCounter.increment();
+                log.error("发件箱事件最后一次投递未完成，标记为失败: eventId={}, eventType={}, attempts={}",
+                        rs.getLong("event_id"), rs.getString("event_type"), rs.getInt("attempts"));
+            }
+            return null;
+        }, EXHAUSTED_ERROR, TimeUtil.nowUtc(), properties.getMaxAttempts(), properties.getBatchSize());
+    }
+
+    private void markDone(List<Long> eventIds, LocalDateTime now) {
+        jdbcTemplate.update(MARK_DONE_SQL, ps -> {
+            Array ids = ps.getConnection().createArrayOf("bigint", eventIds.toArray());
+            ps.setObject(1, now);
+            ps.setArray(2, ids);
+        });
+    }
+
+    /**
+     * 分批删除过期的已完成事件，每分钟最多一轮，避免表持续膨胀
+     */
+    private void purgeIfDue() {
+        long nowNanos = System.nanoTime();
+        if (nowNanos - lastPurgeNanos < PURGE_INTERVAL_NANOS) {
+            return;
+        }
+        lastPurgeNanos = nowNanos;
+
+        LocalDateTime cutoff = TimeUtil.nowUtc().minus(properties.getDoneRetention());
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(PURGE_DONE_SQL, cutoff, PURGE_BATCH_SIZE);
+            total += deleted;
+        } while (running && deleted >= PURGE_BATCH_SIZE);
+        if (total > 0) {
+            log.debug("清理已完成发件箱事件: count={}", total);
+        }
+    }
+
+    private Duration retryDelay(int attempts) {
+        Duration base = properties.getRetryBaseDelay();
+        Duration max = properties.getRetryMaxDelay();
+        int shift = Math.min(Math.max(attempts - 1, 0), 20);
+        Duration delay = base.multipliedBy(1L << shift);
+        return delay.compareTo(max) > 0 ? max : delay;
+    }
+
+    private OutboxEvent mapEvent(ResultSet rs, int rowNum) throws SQLException {
+        return OutboxEvent.builder()
+                .eventId(rs.getLong("event_id"))
+                .aggregateType(rs.getString("aggregate_type"))
+                .aggregateId(rs.getString("aggregate_id"))
+                .eventType(rs.getString("event_type"))
+                .payload(rs.getString("payload"))
+                .attempts(rs.getInt("attempts"))
+                .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                .build();
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private static Counter eventCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("outbox.events")
+                .description("发件箱事件投递结果")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
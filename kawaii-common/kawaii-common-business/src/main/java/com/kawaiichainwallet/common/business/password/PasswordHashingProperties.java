@@ -0,0 +1,34 @@
+package com.kawaiichainwallet.common.business.password;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 密码哈希配置属性
+ */
+@Data
+@ConfigurationProperties(prefix = "app.security.password-hashing")
+public class PasswordHashingProperties {
+
+    /**
+     * BCrypt计算强度（log2轮数），低于该强度的存量哈希在登录成功时自动升级
+     */
+    private int bcryptStrength = 10;
+
+    /**
+     * 哈希工作线程数（CPU预算），默认使用一半的CPU核数
+     */
+    private int workers = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * 等待队列容量，队列满时直接拒绝
+     */
+    private int queueCapacity = 64;
+
+    /**
+     * 单次哈希的最长等待时间（排队 + 计算），超时按繁忙处理
+     */
+    private Duration maxWait = Duration.ofSeconds(2);
+}
@@ -0,0 +1,164 @@
+package com.kawaiichainwallet.common.business.password;
+
+import com.kawaiichainwallet.common.core.enums.ApiCode;
+import com.kawaiichainwallet.common.core.exception.RateLimitException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 密码哈希服务
+ *
+ * <p>BCrypt 是刻意设计的 CPU 密集型计算。请求线程（尤其是虚拟线程）直接调用
+ * {@link PasswordEncoder} 时并发数没有上限，登录高峰会占满所有核心并拖慢其他接口。
+ * 这里把哈希计算放到固定大小的平台线程池中执行：</p>
+ * <ul>
+ *   <li>工作线程数即 CPU 预算，超出的请求进入有界队列排队</li>
+ *   <li>队列满或等待超时时快速失败，返回可重试的 {@link ApiCode#SERVICE_UNAVAILABLE}</li>
+ *   <li>暴露队列深度、执行中任务数、排队耗时、计算耗时和拒绝次数指标</li>
+ * </ul>
+ *
+ * <p>由各服务的 SecurityConfig 声明为 Bean，不依赖组件扫描。</p>
+ */
+@Slf4j
+public class PasswordHashingService implements DisposableBean {
+
+    private static final String METRIC_PREFIX = "password.hash";
+
+    private final PasswordEncoder passwordEncoder;
+    private final long maxWaitNanos;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer matchesTimer;
+    private final Timer encodeTimer;
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  PasswordHashingProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.maxWaitNanos = properties.getMaxWait().toNanos();
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                properties.getWorkers(), properties.getWorkers(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.prestartAllCoreThreads();
+
+        Gauge.builder(METRIC_PREFIX + ".queue.size", executor, e -> e.getQueue().size())
+                .description("等待执行的密码哈希任务数")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("正在执行的密码哈希任务数")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder(METRIC_PREFIX + ".duration")
+                .tag("operation", "matches")
+                .description("密码哈希计算耗时")
+                .register(meterRegistry);
+        this.encodeTimer = Timer.builder(METRIC_PREFIX + ".duration")
+                .tag("operation", "encode")
+                .description("密码哈希计算耗时")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder(METRIC_PREFIX + ".wait")
+                .description("密码哈希任务排队耗时")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder(METRIC_PREFIX + ".rejected")
+                .description("因队列已满或等待超时被拒绝的密码哈希任务数")
+                .register(meterRegistry);
+
+        log.info("密码哈希线程池初始化完成: workers={}, queueCapacity={}, maxWait={}",
+                properties.getWorkers(), properties.getQueueCapacity(), properties.getMaxWait());
+    }
+
+    /**
+     * 校验明文密码与哈希是否匹配
+     *
+     * @throws RateLimitException 哈希线程池繁忙时抛出（可重试）
+     */
+    public boolean matches(CharSequence rawPassword, String passwordHash) {
+        return execute(matchesTimer, () -> passwordEncoder.matches(rawPassword, passwordHash));
+    }
+
+    /**
+     * 计算密码哈希
+     *
+     * @throws RateLimitException 哈希线程池繁忙时抛出（可重试）
+     */
+    public String encode(CharSequence rawPassword) {
+        return execute(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * 登录成功后按当前配置的强度重新计算哈希
+     *
+     * <p>存量哈希强度已满足要求、或线程池繁忙时返回空，调用方保持原哈希即可，
+     * 不应因为升级失败影响本次登录。</p>
+     */
+    public Optional<String> rehashIfNeeded(CharSequence rawPassword, String passwordHash) {
+        if (!passwordEncoder.upgradeEncoding(passwordHash)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(encode(rawPassword));
+        } catch (RateLimitException e) {
+            log.debug("密码哈希线程池繁忙，跳过本次哈希升级");
+            return Optional.empty();
+        }
+    }
+
+    private <T> T execute(Timer timer, Callable<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return timer.recordCallable(task);
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw busy();
+        }
+
+        try {
+            return future.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw busy();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("密码哈希计算失败", e.getCause());
+        }
+    }
+
+    private RateLimitException busy() {
+        return new RateLimitException(ApiCode.SERVICE_UNAVAILABLE, "系统繁忙，请稍后重试");
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,209 @@
+package com.kawaiichainwallet.common.business.sysconfig;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 系统配置本地缓存
+ *
+ * <p>每个配置组在内存中保存一份不可变的 {@link SystemConfigGroup}，所有配置组放在一个整体替换的不可变Map中。
+ * 请求线程读取配置只有一次volatile读和两次HashMap查找，不访问数据库、Redis或Nacos。</p>
+ *
+ * <ul>
+ *   <li>配置组版本在每次写入时单调递增，写入方在事务提交后通过 Redis pub/sub 广播"配置组|版本"</li>
+ *   <li>收到比本地更新的版本时在虚拟线程中从 {@link SystemConfigSource} 重新加载该组，其他组保持不变</li>
+ *   <li>距上次全量对账超过 resync-interval 时，下一次读取触发后台对账，兜底错过的通知</li>
+ *   <li>加载失败时继续使用旧快照</li>
+ * </ul>
+ */
+@Slf4j
+public class SystemConfigCache implements MessageListener {
+
+    public static final String CHANNEL = "system:config:changed";
+    private static final String MESSAGE_SEPARATOR = "|";
+
+    private final SystemConfigSource source;
+    private final StringRedisTemplate redisTemplate;
+    private final long resyncIntervalNanos;
+
+    /**
+     * 串行化快照的读-改-写；使用ReentrantLock而不是synchronized，加载配置时的IO不会钉住虚拟线程的载体线程
+     */
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private final AtomicBoolean resyncing = new AtomicBoolean();
+    private final Counter refreshCounter;
+    private final Counter refreshFailureCounter;
+
+    /**
+     * 当前生效的全部配置组（整体替换，不原地修改）
+     */
+    private volatile Map<String, SystemConfigGroup> groups = Map.of();
+
+    private volatile long lastResyncNanos = System.nanoTime();
+
+    public SystemConfigCache(SystemConfigSource source,
+                             StringRedisTemplate redisTemplate,
+                             Duration resyncInterval,
+                             MeterRegistry meterRegistry) {
+        this.source = source;
+        this.redisTemplate = redisTemplate;
+        this.resyncIntervalNanos = resyncInterval.toNanos();
+
+        Gauge.builder("system.config.groups", this, c -> c.groups.size())
+                .description("本地缓存的系统配置组数量")
+                .register(meterRegistry);
+        this.refreshCounter = Counter.builder("system.config.refresh")
+                .tag("result", "success")
+                .description("系统配置组重新加载次数")
+                .register(meterRegistry);
+        this.refreshFailureCounter = Counter.builder("system.config.refresh")
+                .tag("result", "failure")
+                .description("系统配置组重新加载次数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 获取配置组快照（未加载或不存在时返回 {@link SystemConfigGroup#EMPTY}）
+     */
+    public SystemConfigGroup group(String group) {
+        if (System.nanoTime() - lastResyncNanos > resyncIntervalNanos) {
+            resyncAsync();
+        }
+        return groups.getOrDefault(group, SystemConfigGroup.EMPTY);
+    }
+
+    /**
+     * 本地缓存的配置组版本（未加载时为0）
+     */
+    public long version(String group) {
+        return groups.getOrDefault(group, SystemConfigGroup.EMPTY).version();
+    }
+
+    /**
+     * 广播配置组的新版本（写入方在事务提交后调用）
+     */
+    public void publish(String group, long version) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, group + MESSAGE_SEPARATOR + version);
+        } catch (Exception e) {
+            // 其他实例会在下一次对账时加载
+            log.warn("广播系统配置变更失败: group={}, version={}", group, version, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.lastIndexOf(MESSAGE_SEPARATOR);
+        if (separator <= 0) {
+            return;
+        }
+
+        String group = body.substring(0, separator);
+        try {
+            long version = Long.parseLong(body.substring(separator + 1));
+            if (version > version(group)) {
+                Thread.ofVirtual().name("system-config-refresh").start(() -> refresh(group));
+            }
+        } catch (NumberFormatException e) {
+            log.warn("无法识别的系统配置变更消息: {}", body);
+        }
+    }
+
+    /**
+     * 应用启动后在后台加载全部配置组，不阻塞启动
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        resyncAsync();
+    }
+
+    /**
+     * 全量对账：加载版本落后的配置组，移除已不存在的配置组
+     */
+    public void resync() {
+        Map<String, Long> versions;
+        try {
+            versions = source.loadVersions();
+        } catch (Exception e) {
+            log.error("读取系统配置版本失败，继续使用本地缓存", e);
+            return;
+        } finally {
+            lastResyncNanos = System.nanoTime();
+        }
+
+        versions.forEach((group, version) -> {
+            if (version > version(group)) {
+                refresh(group);
+            }
+        });
+
+        if (!versions.keySet().containsAll(groups.keySet())) {
+            updateLock.lock();
+            try {
+                Map<String, SystemConfigGroup> next = new HashMap<>(groups);
+                next.keySet().retainAll(versions.keySet());
+                groups = Map.copyOf(next);
+            } finally {
+                updateLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 重新加载单个配置组，只在加载到更新的版本时替换
+     */
+    public void refresh(String group) {
+        SystemConfigGroup loaded;
+        try {
+            loaded = source.loadGroup(group);
+        } catch (Exception e) {
+            refreshFailureCounter.increment();
+            log.error("加载系统配置组失败，继续使用旧快照: group={}", group, e);
+            return;
+        }
+
+        updateLock.lock();
+        try {
+            SystemConfigGroup current = groups.get(group);
+            if (current != null && current.version() >= loaded.version()) {
+                return;
+            }
+            Map<String, SystemConfigGroup> next = new HashMap<>(groups);
+            next.put(group, loaded);
+            groups = Map.copyOf(next);
+        } finally {
+            updateLock.unlock();
+        }
+
+        refreshCounter.increment();
+        log.info("系统配置组已更新: group={}, version={}, size={}", group, loaded.version(), loaded.size());
+    }
+
+    private void resyncAsync() {
+        if (!resyncing.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofVirtual().name("system-config-resync").start(() -> {
+            try {
+                resync();
+            } finally {
+                resyncing.set(false);
+            }
+        });
+    }
+}
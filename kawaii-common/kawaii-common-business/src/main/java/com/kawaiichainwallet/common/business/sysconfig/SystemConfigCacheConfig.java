@@ -0,0 +1,37 @@
+package com.kawaiichainwallet.common.business.sysconfig;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+
+/**
+ * 系统配置缓存配置
+ * 通过 app.system-config.enabled=true 开启，使用方需提供 {@link SystemConfigSource} 和 RedisMessageListenerContainer Bean
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.system-config.enabled", havingValue = "true")
+public class SystemConfigCacheConfig {
+
+    @Bean
+    public SystemConfigCache systemConfigCache(ObjectProvider<SystemConfigSource> source,
+                                               StringRedisTemplate redisTemplate,
+                                               RedisMessageListenerContainer listenerContainer,
+                                               MeterRegistry meterRegistry,
+                                               @Value("${app.system-config.resync-interval:5m}") Duration resyncInterval) {
+        SystemConfigSource configSource = source.getIfAvailable();
+        if (configSource == null) {
+            throw new IllegalStateException("app.system-config.enabled=true 时需要提供 SystemConfigSource Bean");
+        }
+        SystemConfigCache cache = new SystemConfigCache(configSource, redisTemplate, resyncInterval, meterRegistry);
+        listenerContainer.addMessageListener(cache, new ChannelTopic(SystemConfigCache.CHANNEL));
+        return cache;
+    }
+}
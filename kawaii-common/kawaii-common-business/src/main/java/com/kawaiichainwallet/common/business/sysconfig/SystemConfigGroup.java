@@ -0,0 +1,151 @@
+package com.kawaiichainwallet.common.business.sysconfig;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kawaiichainwallet.common.spring.config.ObjectMapperFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 单个配置组（config_group）的不可变快照
+ *
+ * <p>构建时按 config_type 把配置值解析为最终类型（number → BigDecimal，boolean → Boolean，json → JsonNode），
+ * 读取时只做一次 HashMap 查找和类型判断，不加锁、不解析、不分配对象。</p>
+ *
+ * <p>json 类型返回的 {@link JsonNode} 由所有读取方共享，调用方不得修改。</p>
+ */
+@Slf4j
+public final class SystemConfigGroup {
+
+    /**
+     * 尚未加载或不存在的配置组，所有读取都返回默认值
+     */
+    public static final SystemConfigGroup EMPTY = new SystemConfigGroup("", 0, Map.of());
+
+    private static final ObjectMapper OBJECT_MAPPER = ObjectMapperFactory.createObjectMapper();
+
+    /**
+     * 配置项
+     *
+     * @param key   配置键
+     * @param value 配置值（原始文本）
+     * @param type  配置类型：string / number / boolean / json
+     */
+    public record Entry(String key, String value, String type) {
+    }
+
+    /**
+     * 已解析的配置值，typed 为按类型解析后的对象（解析失败时为null）
+     */
+    private record Value(String raw, Object typed) {
+    }
+
+    private final String group;
+    private final long version;
+    private final Map<String, Value> values;
+
+    private SystemConfigGroup(String group, long version, Map<String, Value> values) {
+        this.group = group;
+        this.version = version;
+        this.values = values;
+    }
+
+    /**
+     * 由配置项构建快照
+     *
+     * @param group   配置组
+     * @param version 配置组版本（每次写入单调递增）
+     * @param entries 配置项
+     */
+    public static SystemConfigGroup of(String group, long version, Collection<Entry> entries) {
+        Map<String, Value> values = new HashMap<>(Math.max(16, entries.size() * 2));
+        for (Entry entry : entries) {
+            values.put(entry.key(), new Value(entry.value(), parse(group, entry)));
+        }
+        return new SystemConfigGroup(group, version, Map.copyOf(values));
+    }
+
+    public String group() {
+        return group;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public Set<String> keys() {
+        return values.keySet();
+    }
+
+    public boolean contains(String key) {
+        return values.containsKey(key);
+    }
+
+    /**
+     * 原始文本值，适用于任意类型
+     */
+    public String getString(String key, String defaultValue) {
+        Value value = values.get(key);
+        return value != null && value.raw() != null ? value.raw() : defaultValue;
+    }
+
+    public long getLong(String key, long defaultValue) {
+        return typed(key) instanceof BigDecimal number ? number.longValue() : defaultValue;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        return typed(key) instanceof BigDecimal number ? number.intValue() : defaultValue;
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        return typed(key) instanceof BigDecimal number ? number.doubleValue() : defaultValue;
+    }
+
+    public BigDecimal getDecimal(String key, BigDecimal defaultValue) {
+        return typed(key) instanceof BigDecimal number ? number : defaultValue;
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        return typed(key) instanceof Boolean flag ? flag : defaultValue;
+    }
+
+    /**
+     * json 类型配置（只读共享对象），不存在或解析失败时返回null
+     */
+    public JsonNode getJson(String key) {
+        return typed(key) instanceof JsonNode json ? json : null;
+    }
+
+    private Object typed(String key) {
+        Value value = values.get(key);
+        return value != null ? value.typed() : null;
+    }
+
+    private static Object parse(String group, Entry entry) {
+        String raw = entry.value();
+        if (raw == null) {
+            return null;
+        }
+        try {
+            return switch (entry.type() == null ? "string" : entry.type()) {
+                case "number" -> new BigDecimal(raw.trim());
+                case "boolean" -> Boolean.valueOf(raw.trim());
+                case "json" -> OBJECT_MAPPER.readTree(raw);
+                default -> raw;
+            };
+        } catch (NumberFormatException | JsonProcessingException e) {
+            log.warn("系统配置值与类型不匹配，只能按字符串读取: group={}, key={}, type={}", group, entry.key(), entry.type());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.kawaiichainwallet.common.business.sysconfig;
+
+import java.util.Map;
+
+/**
+ * 系统配置数据源
+ * 管理服务直接读取 system_configs 表，其他服务通过内部接口从管理服务拉取
+ */
+public interface SystemConfigSource {
+
+    /**
+     * 读取所有配置组的当前版本
+     *
+     * @return 配置组 → 版本
+     */
+    Map<String, Long> loadVersions();
+
+    /**
+     * 读取单个配置组的完整快照（配置项与版本需来自同一时刻）
+     *
+     * @param group 配置组
+     */
+    SystemConfigGroup loadGroup(String group);
+}
@@ -1,42 +1,96 @@
 package com.kawaiichainwallet.common.core.context;
 
-import lombok.Data;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+
 import java.util.List;
+import java.util.Set;
 
 /**
  * 用户上下文信息
- * 从Gateway传递过来的用户信息
+ * 从Gateway传递过来的用户信息，每个请求只解析一次，创建后不可变，可以安全地在线程间共享
  */
-@Data
-public class UserContext {
+@Getter
+public final class UserContext {
 
     /**
      * 用户ID
      */
-    private Long userId;
+    private final Long userId;
 
     /**
      * 用户邮箱
      */
-    private String email;
+    private final String email;
 
     /**
-     * 用户角色列表
+     * 用户角色列表（按请求头中的顺序）
      */
-    private List<String> roles;
+    private final List<String> roles;
 
     /**
      * 是否已认证
      */
-    private boolean authenticated;
+    private final boolean authenticated;
 
     /**
      * 请求来源
      */
-    private String requestSource;
+    private final String requestSource;
 
     /**
      * 请求时间戳
      */
-    private Long requestTimestamp;
-}
\ No newline at end of file
+    private final Long requestTimestamp;
+
+    /**
+     * 请求追踪ID
+     */
+    private final String traceId;
+
+    /**
+     * 角色集合，用于O(1)的角色判断
+     */
+    @Getter(AccessLevel.NONE)
+    private final Set<String> roleSet;
+
+    @Builder
+    private UserContext(Long userId, String email, List<String> roles, boolean authenticated,
+                        String requestSource, Long requestTimestamp, String traceId) {
+        this.userId = userId;
+        this.email = email;
+        this.roles = roles == null ? List.of() : List.copyOf(roles);
+        this.authenticated = authenticated;
+        this.requestSource = requestSource;
+        this.requestTimestamp = requestTimestamp;
+        this.traceId = traceId;
+        this.roleSet = Set.copyOf(this.roles);
+    }
+
+    /**
+     * 是否具有指定角色
+     */
+    public boolean hasRole(String role) {
+        return role != null && roleSet.contains(role);
+    }
+
+    /**
+     * 是否具有任一指定角色
+     */
+    public boolean hasAnyRole(String... roles) {
+        for (String role : roles) {
+            if (hasRole(role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 是否为管理员
+     */
+    public boolean isAdmin() {
+        return hasRole("ADMIN");
+    }
+}
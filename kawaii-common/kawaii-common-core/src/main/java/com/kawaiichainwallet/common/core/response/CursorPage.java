@@ -0,0 +1,41 @@
+package com.kawaiichainwallet.common.core.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 游标（Keyset）分页结果封装
+ *
+ * <p>与 OFFSET 分页不同，下一页通过 {@link #nextCursor} 定位，
+ * 翻页成本与页码无关，适合大表的列表查询。</p>
+ *
+ * @param <T> 列表元素类型
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    /**
+     * 当前页数据
+     */
+    private List<T> items;
+
+    /**
+     * 下一页游标（没有更多数据时为null）
+     */
+    private String nextCursor;
+
+    /**
+     * 是否还有更多数据
+     */
+    private boolean hasMore;
+
+    /**
+     * 总数估算值（来自数据库统计信息，非精确COUNT，可能为null）
+     */
+    private Long estimatedTotal;
+}
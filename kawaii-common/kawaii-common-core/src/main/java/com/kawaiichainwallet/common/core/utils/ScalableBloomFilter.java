@@ -0,0 +1,201 @@
+package com.kawaiichainwallet.common.core.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 可扩容布隆过滤器（线程安全）
+ *
+ * <p>由若干层普通布隆过滤器组成：当前层写满后追加一层，容量翻倍、误判率减半，
+ * 整体误判率收敛于初始误判率的2倍以内，不需要预先知道元素总数。</p>
+ *
+ * <p>{@link #mightContain} 返回 false 表示元素一定不存在；返回 true 表示可能存在，需要回源确认。
+ * 不支持删除元素。</p>
+ */
+public class ScalableBloomFilter {
+
+    /**
+     * 每新增一层的容量增长倍数
+     */
+    private static final int GROWTH_FACTOR = 2;
+
+    /**
+     * 每新增一层的误判率收紧比例
+     */
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private final List<Layer> layers = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param initialCapacity 第一层的预期元素数量
+     * @param targetFpp       第一层的目标误判率（0-1之间）
+     */
+    public ScalableBloomFilter(long initialCapacity, double targetFpp) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("initialCapacity必须大于0");
+        }
+        if (targetFpp <= 0 || targetFpp >= 1) {
+            throw new IllegalArgumentException("targetFpp必须在0和1之间");
+        }
+        layers.add(new Layer(initialCapacity, targetFpp));
+    }
+
+    /**
+     * 添加元素
+     */
+    public void put(String value) {
+        long hash = hash(value);
+        currentLayer().put(hash);
+    }
+
+    /**
+     * 判断元素是否可能存在
+     */
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        for (Layer layer : layers) {
+            if (layer.mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 已添加的元素数量（重复添加会重复计数）
+     */
+    public long approximateElementCount() {
+        long count = 0;
+        for (Layer layer : layers) {
+            count += layer.count.get();
+        }
+        return count;
+    }
+
+    /**
+     * 按当前各层填充情况估算的整体误判率
+     */
+    public double expectedFpp() {
+        double notFalsePositive = 1.0;
+        for (Layer layer : layers) {
+            notFalsePositive *= 1.0 - layer.expectedFpp();
+        }
+        return 1.0 - notFalsePositive;
+    }
+
+    /**
+     * 占用的位数组总大小（字节）
+     */
+    public long bitSizeInBytes() {
+        long bits = 0;
+        for (Layer layer : layers) {
+            bits += layer.numBits;
+        }
+        return bits / Byte.SIZE;
+    }
+
+    public int layerCount() {
+        return layers.size();
+    }
+
+    private Layer currentLayer() {
+        Layer last = layers.get(layers.size() - 1);
+        if (last.count.get() < last.capacity) {
+            return last;
+        }
+        synchronized (layers) {
+            last = layers.get(layers.size() - 1);
+            if (last.count.get() >= last.capacity) {
+                last = new Layer(last.capacity * GROWTH_FACTOR, last.fpp * TIGHTENING_RATIO);
+                layers.add(last);
+            }
+            return last;
+        }
+    }
+
+    /**
+     * 字符串的64位哈希（FNV-1a + SplitMix64 混淆）
+     */
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * 单层布隆过滤器
+     */
+    private static final class Layer {
+
+        private final long capacity;
+        private final double fpp;
+        private final long numBits;
+        private final int numHashes;
+        private final AtomicLongArray bits;
+        private final AtomicLong count = new AtomicLong();
+
+        private Layer(long capacity, double fpp) {
+            this.capacity = capacity;
+            this.fpp = fpp;
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.min(Integer.MAX_VALUE - 8, (optimalBits + Long.SIZE - 1) / Long.SIZE);
+            this.numBits = (long) words * Long.SIZE;
+            this.numHashes = Math.max(1, (int) Math.round((double) numBits / capacity * Math.log(2)));
+            this.bits = new AtomicLongArray(words);
+        }
+
+        private void put(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= numHashes; i++) {
+                setBit(index(h1 + i * h2));
+            }
+            count.incrementAndGet();
+        }
+
+        private boolean mightContain(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= numHashes; i++) {
+                long bitIndex = index(h1 + i * h2);
+                if ((bits.get((int) (bitIndex >>> 6)) & (1L << bitIndex)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long index(int combinedHash) {
+            // 取非负值后对位数取模
+            return (combinedHash & Integer.MAX_VALUE) % numBits;
+        }
+
+        private void setBit(long bitIndex) {
+            int wordIndex = (int) (bitIndex >>> 6);
+            long mask = 1L << bitIndex;
+            long word;
+            do {
+                word = bits.get(wordIndex);
+                if ((word & mask) != 0) {
+                    return;
+                }
+            } while (!bits.compareAndSet(wordIndex, word, word | mask));
+        }
+
+        private double expectedFpp() {
+            return Math.pow(1.0 - Math.exp(-(double) numHashes * count.get() / numBits), numHashes);
+        }
+    }
+}
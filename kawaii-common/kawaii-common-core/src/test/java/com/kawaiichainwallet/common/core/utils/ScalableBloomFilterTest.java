@@ -0,0 +1,120 @@
+package com.kawaiichainwallet.common.core.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 可扩容布隆过滤器：无漏判、扩容、误判率上限和并发写入
+ */
+class ScalableBloomFilterTest {
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(100, 1));
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+
+        assertFalse(filter.mightContain("alice@example.com"));
+        assertEquals(0, filter.approximateElementCount());
+        assertEquals(0.0, filter.expectedFpp());
+    }
+
+    @Test
+    void neverReportsAddedElementAsAbsent() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user-" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("user-" + i), "user-" + i);
+        }
+        assertEquals(10_000, filter.approximateElementCount());
+    }
+
+    @Test
+    void addsLayerWhenCurrentLayerIsFull() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+        for (int i = 0; i < 100; i++) {
+            filter.put("user-" + i);
+        }
+        assertEquals(1, filter.layerCount());
+        long firstLayerBytes = filter.bitSizeInBytes();
+
+        filter.put("user-100");
+        assertEquals(2, filter.layerCount());
+        // 第二层容量翻倍、误判率减半，位数组大于第一层的两倍
+        assertTrue(filter.bitSizeInBytes() - firstLayerBytes > 2 * firstLayerBytes);
+
+        // 100 + 200 + 400 个元素填满前三层
+        for (int i = 101; i < 700; i++) {
+            filter.put("user-" + i);
+        }
+        assertEquals(3, filter.layerCount());
+    }
+
+    @Test
+    void falsePositiveRateStaysWithinTwiceTarget() {
+        double targetFpp = 0.01;
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, targetFpp);
+        // 恰好填满前三层（1000 + 2000 + 4000），理论误判率约 0.01 + 0.005 + 0.0025
+        for (int i = 0; i < 7_000; i++) {
+            filter.put("member-" + i);
+        }
+
+        int probes = 100_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("stranger-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        double observed = (double) falsePositives / probes;
+        assertEquals(3, filter.layerCount());
+        assertTrue(observed < 2 * targetFpp, "observed fpp " + observed);
+        assertTrue(filter.expectedFpp() < 2 * targetFpp, "expected fpp " + filter.expectedFpp());
+    }
+
+    @Test
+    void concurrentPutsAreAllVisible() throws Exception {
+        ScalableBloomFilter filter = new ScalableBloomFilter(500, 0.01);
+        int threads = 8;
+        int perThread = 5_000;
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t * perThread;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        filter.put("user-" + (offset + i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        for (int i = 0; i < threads * perThread; i++) {
+            assertTrue(filter.mightContain("user-" + i), "user-" + i);
+        }
+        assertEquals((long) threads * perThread, filter.approximateElementCount());
+    }
+}
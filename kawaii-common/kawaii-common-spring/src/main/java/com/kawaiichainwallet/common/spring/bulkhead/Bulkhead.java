@@ -0,0 +1,26 @@
+package com.kawaiichainwallet.common.spring.bulkhead;
+
+import java.lang.annotation.*;
+
+/**
+ * 舱壁隔离注解
+ * <p>
+ * 限制同时访问某个共享资源（数据库连接池、Redis、外部服务等）的并发调用数。
+ * 开启虚拟线程后请求线程数不再受限，需要用舱壁把并发控制在资源容量以内，
+ * 超出的调用快速失败或有限等待，而不是在连接池上无界排队。
+ * <p>
+ * 资源的并发上限和等待时间在 app.bulkhead.resources.&lt;name&gt; 中配置；
+ * 未配置的资源使用 app.bulkhead 下的默认值。
+ * <p>
+ * 可以标注在方法或类上，方法上的注解优先。
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Bulkhead {
+
+    /**
+     * 资源名称，同名资源共享同一组许可
+     */
+    String value();
+}
@@ -0,0 +1,45 @@
+package com.kawaiichainwallet.common.spring.bulkhead;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+
+/**
+ * 舱壁隔离切面
+ * 在 {@link Bulkhead} 标注的方法（或类中所有公共方法）执行前获取许可，执行结束后释放
+ * <p>
+ * 优先级高于事务切面（默认最低优先级），先拿到许可再开启事务，排队的调用不会占用数据库连接
+ */
+@Aspect
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@RequiredArgsConstructor
+public class BulkheadAspect {
+
+    private final BulkheadRegistry bulkheadRegistry;
+
+    @Around("@annotation(com.kawaiichainwallet.common.spring.bulkhead.Bulkhead) "
+            + "|| @within(com.kawaiichainwallet.common.spring.bulkhead.Bulkhead)")
+    public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Bulkhead bulkhead = AnnotatedElementUtils.findMergedAnnotation(signature.getMethod(), Bulkhead.class);
+        if (bulkhead == null) {
+            bulkhead = AnnotatedElementUtils.findMergedAnnotation(joinPoint.getTarget().getClass(), Bulkhead.class);
+        }
+        if (bulkhead == null) {
+            return joinPoint.proceed();
+        }
+
+        BulkheadRegistry.Compartment compartment = bulkheadRegistry.get(bulkhead.value());
+        compartment.acquire();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            compartment.release();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.kawaiichainwallet.common.spring.bulkhead;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 舱壁隔离配置
+ * 所有微服务共享，使用方只需在方法或类上标注 {@link Bulkhead}
+ */
+@Configuration
+@EnableConfigurationProperties(BulkheadProperties.class)
+public class BulkheadConfig {
+
+    @Bean
+    public BulkheadRegistry bulkheadRegistry(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        return new BulkheadRegistry(properties, meterRegistry);
+    }
+
+    @Bean
+    public BulkheadAspect bulkheadAspect(BulkheadRegistry bulkheadRegistry) {
+        return new BulkheadAspect(bulkheadRegistry);
+    }
+}
@@ -0,0 +1,45 @@
+package com.kawaiichainwallet.common.spring.bulkhead;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 舱壁隔离配置属性
+ */
+@Data
+@ConfigurationProperties(prefix = "app.bulkhead")
+public class BulkheadProperties {
+
+    /**
+     * 默认最大并发调用数
+     */
+    private int maxConcurrent = 20;
+
+    /**
+     * 默认最长等待时间，0表示许可用尽时立即失败
+     */
+    private Duration maxWait = Duration.ZERO;
+
+    /**
+     * 按资源名称覆盖的配置
+     */
+    private Map<String, Resource> resources = new HashMap<>();
+
+    @Data
+    public static class Resource {
+
+        /**
+         * 最大并发调用数（为空时使用默认值）
+         */
+        private Integer maxConcurrent;
+
+        /**
+         * 最长等待时间（为空时使用默认值）
+         */
+        private Duration maxWait;
+    }
+}
@@ -0,0 +1,126 @@
+package com.kawaiichainwallet.common.spring.bulkhead;
+
+import com.kawaiichainwallet.common.core.enums.ApiCode;
+import com.kawaiichainwallet.common.core.exception.RateLimitException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 舱壁注册表 - 按资源名称管理信号量和指标
+ */
+@Slf4j
+public class BulkheadRegistry {
+
+    private final BulkheadProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Compartment> compartments = new ConcurrentHashMap<>();
+
+    public BulkheadRegistry(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 获取指定资源的舱壁（首次使用时按配置创建）
+     */
+    public Compartment get(String name) {
+        return compartments.computeIfAbsent(name, this::create);
+    }
+
+    private Compartment create(String name) {
+        BulkheadProperties.Resource resource = properties.getResources().get(name);
+        int maxConcurrent = resource != null && resource.getMaxConcurrent() != null
+                ? resource.getMaxConcurrent() : properties.getMaxConcurrent();
+        Duration maxWait = resource != null && resource.getMaxWait() != null
+                ? resource.getMaxWait() : properties.getMaxWait();
+
+        log.info("创建舱壁: name={}, maxConcurrent={}, maxWait={}", name, maxConcurrent, maxWait);
+        return new Compartment(name, maxConcurrent, maxWait, meterRegistry);
+    }
+
+    /**
+     * 单个资源的舱壁
+     */
+    public static final class Compartment {
+
+        private final String name;
+        private final int maxConcurrent;
+        private final long maxWaitNanos;
+        private final Semaphore semaphore;
+        private final Timer waitTimer;
+        private final Counter rejectedCounter;
+
+        private Compartment(String name, int maxConcurrent, Duration maxWait, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.maxConcurrent = maxConcurrent;
+            this.maxWaitNanos = maxWait.toNanos();
+            this.semaphore = new Semaphore(maxConcurrent, true);
+
+            Gauge.builder("bulkhead.active", semaphore, s -> maxConcurrent - s.availablePermits())
+                    .tag("name", name)
+                    .description("舱壁内正在执行的调用数")
+                    .register(meterRegistry);
+            Gauge.builder("bulkhead.waiting", semaphore, Semaphore::getQueueLength)
+                    .tag("name", name)
+                    .description("等待舱壁许可的调用数")
+                    .register(meterRegistry);
+            Gauge.builder("bulkhead.max", () -> maxConcurrent)
+                    .tag("name", name)
+                    .description("舱壁最大并发调用数")
+                    .register(meterRegistry);
+            this.waitTimer = Timer.builder("bulkhead.wait")
+                    .tag("name", name)
+                    .description("获取舱壁许可的等待耗时")
+                    .register(meterRegistry);
+            this.rejectedCounter = Counter.builder("bulkhead.rejected")
+                    .tag("name", name)
+                    .description("因舱壁已满被拒绝的调用数")
+                    .register(meterRegistry);
+        }
+
+        /**
+         * 获取许可，快速失败或在最长等待时间内等待
+         *
+         * @throws RateLimitException 许可用尽时抛出（可重试）
+         */
+        public void acquire() {
+            if (semaphore.tryAcquire()) {
+                waitTimer.record(0, TimeUnit.NANOSECONDS);
+                return;
+            }
+
+            boolean acquired = false;
+            if (maxWaitNanos > 0) {
+                long startTime = System.nanoTime();
+                try {
+                    acquired = semaphore.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                waitTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            }
+
+            if (!acquired) {
+                rejectedCounter.increment();
+                log.warn("舱壁已满，拒绝调用: name={}, maxConcurrent={}", name, maxConcurrent);
+                throw new RateLimitException(ApiCode.SERVICE_UNAVAILABLE, "系统繁忙，请稍后重试");
+            }
+        }
+
+        /**
+         * 释放许可
+         */
+        public void release() {
+            semaphore.release();
+        }
+    }
+}
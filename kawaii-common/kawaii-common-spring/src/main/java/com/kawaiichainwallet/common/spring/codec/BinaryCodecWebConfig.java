@@ -0,0 +1,28 @@
+package com.kawaiichainwallet.common.spring.codec;
+
+import com.kawaiichainwallet.common.spring.config.ObjectMapperFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * 内部接口二进制编码的服务端配置
+ *
+ * <p>Smile依赖在类路径上时Spring MVC会默认注册一个对所有接口生效、使用默认配置的Smile转换器，
+ * 这里替换为只对 /internal/** 生效、序列化规则与JSON一致的转换器。
+ * 转换器排在JSON之后，未明确要求Smile的请求（包括 Accept: *&#47;*）仍返回JSON。</p>
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class BinaryCodecWebConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter);
+        converters.add(new InternalSmileHttpMessageConverter(ObjectMapperFactory.createSmileObjectMapper()));
+    }
+}
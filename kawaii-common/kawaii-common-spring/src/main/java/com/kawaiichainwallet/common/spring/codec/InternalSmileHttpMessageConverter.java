@@ -0,0 +1,58 @@
+package com.kawaiichainwallet.common.spring.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.Type;
+
+/**
+ * 只对内部接口（/internal/**）生效的Smile消息转换器
+ *
+ * <p>调用方通过 Accept / Content-Type: application/x-jackson-smile 协商使用二进制编码；
+ * 对外接口和未声明Smile的请求仍然只使用JSON。</p>
+ */
+public class InternalSmileHttpMessageConverter extends MappingJackson2SmileHttpMessageConverter {
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType SMILE = MediaType.parseMediaType(SMILE_VALUE);
+
+    private static final String INTERNAL_PATH = "/internal/";
+
+    public InternalSmileHttpMessageConverter(ObjectMapper smileObjectMapper) {
+        super(smileObjectMapper);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return isInternalRequest() && super.canRead(clazz, mediaType);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return isInternalRequest() && super.canRead(type, contextClass, mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return isInternalRequest() && super.canWrite(clazz, mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return isInternalRequest() && super.canWrite(type, clazz, mediaType);
+    }
+
+    private static boolean isInternalRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return false;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        return request.getRequestURI().contains(INTERNAL_PATH);
+    }
+}
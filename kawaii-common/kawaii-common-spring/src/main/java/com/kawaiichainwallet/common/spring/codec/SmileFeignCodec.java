@@ -0,0 +1,93 @@
+package com.kawaiichainwallet.common.spring.codec;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.codec.DecodeException;
+import feign.codec.Decoder;
+import feign.codec.EncodeException;
+import feign.codec.Encoder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.MultiValueMap;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/**
+ * Feign的Smile编解码器
+ *
+ * <ul>
+ *   <li>编码：发往 /internal/** 的请求体使用Smile，其他请求、字符串/字节/表单请求体交给默认编码器</li>
+ *   <li>解码：响应 Content-Type 为Smile时用Smile解析，否则交给默认解码器（JSON兜底）</li>
+ * </ul>
+ */
+public final class SmileFeignCodec {
+
+    private static final String INTERNAL_PATH = "/internal/";
+
+    private SmileFeignCodec() {
+    }
+
+    /**
+     * 请求体编码器
+     */
+    public static Encoder encoder(Encoder delegate, ObjectMapper smileObjectMapper) {
+        return (object, bodyType, template) -> {
+            if (object == null || object instanceof String || object instanceof byte[]
+                    || object instanceof MultiValueMap || !isInternal(template)) {
+                delegate.encode(object, bodyType, template);
+                return;
+            }
+            try {
+                JavaType javaType = smileObjectMapper.getTypeFactory().constructType(bodyType);
+                byte[] body = smileObjectMapper.writerFor(javaType).writeValueAsBytes(object);
+                template.removeHeader(HttpHeaders.CONTENT_TYPE);
+                template.header(HttpHeaders.CONTENT_TYPE, InternalSmileHttpMessageConverter.SMILE_VALUE);
+                template.body(body, null);
+            } catch (IOException e) {
+                throw new EncodeException("Smile编码请求体失败: " + e.getMessage(), e);
+            }
+        };
+    }
+
+    /**
+     * 响应解码器
+     */
+    public static Decoder decoder(Decoder delegate, ObjectMapper smileObjectMapper) {
+        return (response, type) -> {
+            if (response.body() == null || !isSmile(response)) {
+                return delegate.decode(response, type);
+            }
+            try (InputStream body = response.body().asInputStream()) {
+                return smileObjectMapper.readValue(body, smileObjectMapper.getTypeFactory().constructType(type));
+            } catch (IOException e) {
+                throw new DecodeException(response.status(), "Smile解码响应失败: " + e.getMessage(), response.request(), e);
+            }
+        };
+    }
+
+    /**
+     * 请求是否发往内部接口（包含 @FeignClient 的 path 前缀）
+     */
+    private static boolean isInternal(RequestTemplate template) {
+        String base = template.feignTarget() != null ? template.feignTarget().url() : "";
+        return (base + template.url()).contains(INTERNAL_PATH);
+    }
+
+    private static boolean isSmile(Response response) {
+        // Feign的响应头Map不区分大小写
+        Collection<String> contentTypes = response.headers().get(HttpHeaders.CONTENT_TYPE);
+        if (contentTypes == null) {
+            return false;
+        }
+        for (String contentType : contentTypes) {
+            if (contentType.startsWith(InternalSmileHttpMessageConverter.SMILE_VALUE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,15 +1,28 @@
 package com.kawaiichainwallet.common.spring.config;
 
+import com.kawaiichainwallet.common.core.context.UserContext;
+import com.kawaiichainwallet.common.spring.codec.InternalSmileHttpMessageConverter;
+import com.kawaiichainwallet.common.spring.codec.SmileFeignCodec;
+import com.kawaiichainwallet.common.spring.context.UserContextHolder;
 import feign.Logger;
 import feign.RequestInterceptor;
 import feign.RequestTemplate;
+import feign.codec.Decoder;
+import feign.codec.Encoder;
+import feign.optionals.OptionalDecoder;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.HttpMessageConverterCustomizer;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.context.request.RequestContextHolder;
-import org.springframework.web.context.request.ServletRequestAttributes;
-
-import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 
 /**
  * Feign客户端通用配置
@@ -34,8 +47,47 @@ public class FeignConfig {
         return new InternalServiceRequestInterceptor();
     }
 
+    /**
+     * 内部调用Smile编码器（app.feign.binary-encoding.enabled=true 时启用）
+     * 发往 /internal/** 的请求体使用Smile，其他请求仍由默认的JSON编码器处理
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.feign.binary-encoding", name = "enabled", havingValue = "true")
+    public Encoder feignEncoder(ObjectFactory<HttpMessageConverters> messageConverters) {
+        return SmileFeignCodec.encoder(new SpringEncoder(messageConverters), ObjectMapperFactory.createSmileObjectMapper());
+    }
+
+    /**
+     * 内部调用Smile解码器（app.feign.binary-encoding.enabled=true 时启用）
+     * 响应为Smile时用Smile解析，否则回退到默认的JSON解码
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.feign.binary-encoding", name = "enabled", havingValue = "true")
+    public Decoder feignDecoder(ObjectFactory<HttpMessageConverters> messageConverters,
+                                ObjectProvider<HttpMessageConverterCustomizer> customizers) {
+        Decoder smileDecoder = SmileFeignCodec.decoder(new SpringDecoder(messageConverters, customizers),
+                ObjectMapperFactory.createSmileObjectMapper());
+        return new OptionalDecoder(new ResponseEntityDecoder(smileDecoder));
+    }
+
+    /**
+     * 内部调用优先请求Smile响应，服务端不支持时按q值回退到JSON
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.feign.binary-encoding", name = "enabled", havingValue = "true")
+    public RequestInterceptor smileAcceptInterceptor() {
+        return template -> {
+            if (!template.headers().containsKey(HttpHeaders.ACCEPT)) {
+                template.header(HttpHeaders.ACCEPT,
+                        InternalSmileHttpMessageConverter.SMILE_VALUE + ", " + MediaType.APPLICATION_JSON_VALUE + ";q=0.9");
+            }
+        };
+    }
+
     /**
      * 内部服务请求拦截器 - 传递服务标识和用户上下文
+     * 用户上下文从 {@link UserContextHolder} 读取，在通过 {@link com.kawaiichainwallet.common.spring.context.UserContextExecutors}
+     * 并行发起的调用中同样可用，不依赖当前线程是否持有HTTP请求
      */
     public static class InternalServiceRequestInterceptor implements RequestInterceptor {
 
@@ -43,37 +95,23 @@ public class FeignConfig {
         public void apply(RequestTemplate template) {
             // 1. 添加内部服务标识
             template.header("X-Service-Source", "internal");
-            template.header("X-Request-Source", "feign-client");
+            template.header(UserContextHolder.HEADER_REQUEST_SOURCE, "feign-client");
 
             // 2. 传递用户上下文（如果存在）
-            try {
-                ServletRequestAttributes attributes =
-                    (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-                if (attributes != null) {
-                    HttpServletRequest request = attributes.getRequest();
-
-                    // 传递用户ID
-                    String userId = request.getHeader("X-User-Id");
-                    if (userId != null) {
-                        template.header("X-User-Id", userId);
-                    }
-
-                    // 传递用户角色
-                    String userRoles = request.getHeader("X-User-Roles");
-                    if (userRoles != null) {
-                        template.header("X-User-Roles", userRoles);
-                    }
+            UserContext context = UserContextHolder.getCurrentUserContext();
+            if (context == null) {
+                return;
+            }
 
-                    // 传递请求追踪ID
-                    String traceId = request.getHeader("X-Trace-Id");
-                    if (traceId != null) {
-                        template.header("X-Trace-Id", traceId);
-                    }
-                }
-            } catch (Exception e) {
-                // 静默处理获取请求上下文失败的情况
-                // 在微服务内部调用时，这种情况是正常的
+            if (context.getUserId() != null) {
+                template.header(UserContextHolder.HEADER_USER_ID, String.valueOf(context.getUserId()));
+            }
+            if (!context.getRoles().isEmpty()) {
+                template.header(UserContextHolder.HEADER_USER_ROLES, String.join(",", context.getRoles()));
+            }
+            if (context.getTraceId() != null) {
+                template.header(UserContextHolder.HEADER_TRACE_ID, context.getTraceId());
             }
         }
     }
-}
\ No newline at end of file
+}
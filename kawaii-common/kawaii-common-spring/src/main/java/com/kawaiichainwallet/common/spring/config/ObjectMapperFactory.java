@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 import java.util.TimeZone;
@@ -18,8 +19,18 @@ public class ObjectMapperFactory {
      * 创建统一配置的ObjectMapper实例
      */
     public static ObjectMapper createObjectMapper() {
-        ObjectMapper mapper = new ObjectMapper();
+        return configure(new ObjectMapper());
+    }
+
+    /**
+     * 创建Smile二进制格式的ObjectMapper实例，序列化规则与JSON完全一致
+     * 用于服务间内部调用（/internal/**）的可选二进制编码
+     */
+    public static ObjectMapper createSmileObjectMapper() {
+        return configure(new ObjectMapper(new SmileFactory()));
+    }
 
+    private static ObjectMapper configure(ObjectMapper mapper) {
         // 注册Java 8时间模块
         mapper.registerModule(new JavaTimeModule());
 
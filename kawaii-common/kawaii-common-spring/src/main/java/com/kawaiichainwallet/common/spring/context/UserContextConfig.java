@@ -0,0 +1,34 @@
+package com.kawaiichainwallet.common.spring.context;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * 用户上下文配置
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class UserContextConfig {
+
+    /**
+     * 在Spring Security之前绑定用户上下文，鉴权表达式中即可使用
+     */
+    @Bean
+    public FilterRegistrationBean<UserContextFilter> userContextFilter() {
+        FilterRegistrationBean<UserContextFilter> registration = new FilterRegistrationBean<>(new UserContextFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    /**
+     * Spring Boot 自动配置的任务执行器（@Async、MVC异步请求）会使用该装饰器，任务携带提交时的用户上下文
+     */
+    @Bean
+    public TaskDecorator userContextTaskDecorator() {
+        return UserContextHolder::wrap;
+    }
+}
@@ -0,0 +1,120 @@
+package com.kawaiichainwallet.common.spring.context;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 传递用户上下文的线程池包装
+ * 任务在提交时捕获调用线程的 {@link com.kawaiichainwallet.common.core.context.UserContext}，在执行线程上绑定
+ */
+public final class UserContextExecutors {
+
+    private UserContextExecutors() {
+    }
+
+    /**
+     * 包装 Executor
+     */
+    public static Executor wrap(Executor executor) {
+        return command -> executor.execute(UserContextHolder.wrap(command));
+    }
+
+    /**
+     * 包装 ExecutorService（如 Executors.newVirtualThreadPerTaskExecutor()）
+     */
+    public static ExecutorService wrap(ExecutorService executorService) {
+        return new PropagatingExecutorService(executorService);
+    }
+
+    private static final class PropagatingExecutorService implements ExecutorService {
+
+        private final ExecutorService delegate;
+
+        private PropagatingExecutorService(ExecutorService delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            delegate.execute(UserContextHolder.wrap(command));
+        }
+
+        @Override
+        public <T> Future<T> submit(Callable<T> task) {
+            return delegate.submit(UserContextHolder.wrap(task));
+        }
+
+        @Override
+        public <T> Future<T> submit(Runnable task, T result) {
+            return delegate.submit(UserContextHolder.wrap(task), result);
+        }
+
+        @Override
+        public Future<?> submit(Runnable task) {
+            return delegate.submit(UserContextHolder.wrap(task));
+        }
+
+        @Override
+        public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+            return delegate.invokeAll(wrapAll(tasks));
+        }
+
+        @Override
+        public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+                throws InterruptedException {
+            return delegate.invokeAll(wrapAll(tasks), timeout, unit);
+        }
+
+        @Override
+        public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
+            return delegate.invokeAny(wrapAll(tasks));
+        }
+
+        @Override
+        public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+                throws InterruptedException, ExecutionException, TimeoutException {
+            return delegate.invokeAny(wrapAll(tasks), timeout, unit);
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+
+        private static <T> List<Callable<T>> wrapAll(Collection<? extends Callable<T>> tasks) {
+            return tasks.stream().map(UserContextHolder::wrap).toList();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.kawaiichainwallet.common.spring.context;
+
+import com.kawaiichainwallet.common.core.context.UserContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 用户上下文过滤器
+ * 请求开始时解析一次Gateway传递的用户信息并绑定到当前线程，请求结束时解除绑定
+ */
+public class UserContextFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        UserContext previous = UserContextHolder.bind(UserContextHolder.parse(request));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            UserContextHolder.restore(previous);
+        }
+    }
+}
@@ -2,132 +2,225 @@ package com.kawaiichainwallet.common.spring.context;
 
 import com.kawaiichainwallet.common.core.context.UserContext;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 /**
  * 用户上下文持有者
- * 从HTTP请求头中获取Gateway传递的用户信息
+ *
+ * <p>Gateway传递的用户信息由 {@link UserContextFilter} 在每个请求开始时解析一次，
+ * 作为不可变的 {@link UserContext} 绑定到当前线程，请求结束时解除绑定。</p>
+ *
+ * <p>绑定采用作用域语义（与 ScopedValue 的 where(...).run(...) 一致）：
+ * 只在 {@link #runWith}/{@link #callWith} 的执行范围内可见，结束后恢复之前的值。
+ * JDK 21 的 ScopedValue 仍是预览特性，项目未开启 --enable-preview，因此目前由 ThreadLocal 实现；
+ * 调用方只依赖作用域API，转正后可直接替换实现。</p>
+ *
+ * <p>切换到其他线程（@Async、线程池、虚拟线程并行调用）时使用 {@link #wrap(Runnable)}、
+ * {@link #wrap(Callable)} 或 {@link UserContextExecutors} 携带当前上下文。
+ * 没有绑定上下文但处于HTTP请求线程中时（如过滤器之前执行的代码），从请求头解析并缓存在请求属性中。</p>
  */
 public class UserContextHolder {
 
+    public static final String HEADER_USER_ID = "X-User-Id";
+    public static final String HEADER_USER_EMAIL = "X-User-Email";
+    public static final String HEADER_USER_ROLES = "X-User-Roles";
+    public static final String HEADER_AUTHENTICATED = "X-Authenticated";
+    public static final String HEADER_REQUEST_SOURCE = "X-Request-Source";
+    public static final String HEADER_REQUEST_TIMESTAMP = "X-Request-Timestamp";
+    public static final String HEADER_TRACE_ID = "X-Trace-Id";
+
+    private static final String ROLE_SEPARATOR = ",";
+    private static final String REQUEST_ATTRIBUTE = UserContextHolder.class.getName() + ".CONTEXT";
+
+    private static final ThreadLocal<UserContext> CURRENT = new ThreadLocal<>();
+
     /**
      * 获取当前用户ID
      */
     public static Long getCurrentUserId() {
-        HttpServletRequest request = getCurrentRequest();
-        if (request == null) {
-            return null;
-        }
-        String userIdStr = request.getHeader("X-User-Id");
-        if (userIdStr == null || userIdStr.isEmpty()) {
-            return null;
-        }
-        try {
-            return Long.parseLong(userIdStr);
-        } catch (NumberFormatException e) {
-            return null;
-        }
+        UserContext context = getCurrentUserContext();
+        return context != null ? context.getUserId() : null;
     }
 
     /**
      * 获取当前用户邮箱
      */
     public static String getCurrentUserEmail() {
-        HttpServletRequest request = getCurrentRequest();
-        return request != null ? request.getHeader("X-User-Email") : null;
+        UserContext context = getCurrentUserContext();
+        return context != null ? context.getEmail() : null;
     }
 
     /**
      * 获取当前用户角色列表
      */
     public static List<String> getCurrentUserRoles() {
-        HttpServletRequest request = getCurrentRequest();
-        if (request == null) {
-            return Collections.emptyList();
-        }
-
-        String rolesHeader = request.getHeader("X-User-Roles");
-        if (rolesHeader == null || rolesHeader.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        return Arrays.asList(rolesHeader.split(","));
+        UserContext context = getCurrentUserContext();
+        return context != null ? context.getRoles() : Collections.emptyList();
     }
 
     /**
      * 检查当前用户是否已认证
      */
     public static boolean isAuthenticated() {
-        HttpServletRequest request = getCurrentRequest();
-        return request != null && "true".equals(request.getHeader("X-Authenticated"));
+        UserContext context = getCurrentUserContext();
+        return context != null && context.isAuthenticated();
     }
 
     /**
-     * 获取完整的用户上下文
+     * 获取完整的用户上下文，不在请求范围内且未绑定时返回null
      */
     public static UserContext getCurrentUserContext() {
-        HttpServletRequest request = getCurrentRequest();
-        if (request == null) {
-            return null;
-        }
-
-        UserContext context = new UserContext();
-        context.setUserId(getCurrentUserId());
-        context.setEmail(request.getHeader("X-User-Email"));
-        context.setRoles(getCurrentUserRoles());
-        context.setAuthenticated("true".equals(request.getHeader("X-Authenticated")));
-        context.setRequestSource(request.getHeader("X-Request-Source"));
-
-        String timestampHeader = request.getHeader("X-Request-Timestamp");
-        if (timestampHeader != null && !timestampHeader.isEmpty()) {
-            try {
-                context.setRequestTimestamp(Long.parseLong(timestampHeader));
-            } catch (NumberFormatException e) {
-                // 忽略时间戳解析错误
-            }
-        }
-
-        return context;
+        UserContext context = CURRENT.get();
+        return context != null ? context : fromCurrentRequest();
     }
 
     /**
      * 检查当前用户是否具有指定角色
      */
     public static boolean hasRole(String role) {
-        List<String> roles = getCurrentUserRoles();
-        return roles.contains(role);
+        UserContext context = getCurrentUserContext();
+        return context != null && context.hasRole(role);
     }
 
     /**
      * 检查当前用户是否具有任一指定角色
      */
     public static boolean hasAnyRole(String... roles) {
-        List<String> userRoles = getCurrentUserRoles();
-        return Arrays.stream(roles).anyMatch(userRoles::contains);
+        UserContext context = getCurrentUserContext();
+        return context != null && context.hasAnyRole(roles);
     }
 
     /**
      * 检查当前用户是否为管理员
      */
     public static boolean isAdmin() {
-        return hasRole("ADMIN");
+        UserContext context = getCurrentUserContext();
+        return context != null && context.isAdmin();
+    }
+
+    /**
+     * 在绑定指定上下文的作用域内执行，结束后恢复之前的上下文
+     */
+    public static void runWith(UserContext context, Runnable task) {
+        UserContext previous = bind(context);
+        try {
+            task.run();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * 在绑定指定上下文的作用域内执行并返回结果，结束后恢复之前的上下文
+     */
+    public static <T> T callWith(UserContext context, Callable<T> task) throws Exception {
+        UserContext previous = bind(context);
+        try {
+            return task.call();
+        } finally {
+            restore(previous);
+        }
     }
 
     /**
-     * 获取当前HTTP请求
+     * 包装任务，使其在执行线程上携带提交时的用户上下文
      */
-    private static HttpServletRequest getCurrentRequest() {
+    public static Runnable wrap(Runnable task) {
+        UserContext context = getCurrentUserContext();
+        if (context == null) {
+            return task;
+        }
+        return () -> runWith(context, task);
+    }
+
+    /**
+     * 包装任务，使其在执行线程上携带提交时的用户上下文
+     */
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        UserContext context = getCurrentUserContext();
+        if (context == null) {
+            return task;
+        }
+        return () -> callWith(context, task);
+    }
+
+    /**
+     * 从请求头解析用户上下文
+     */
+    public static UserContext parse(HttpServletRequest request) {
+        return UserContext.builder()
+                .userId(parseLong(request.getHeader(HEADER_USER_ID)))
+                .email(request.getHeader(HEADER_USER_EMAIL))
+                .roles(parseRoles(request.getHeader(HEADER_USER_ROLES)))
+                .authenticated("true".equals(request.getHeader(HEADER_AUTHENTICATED)))
+                .requestSource(request.getHeader(HEADER_REQUEST_SOURCE))
+                .requestTimestamp(parseLong(request.getHeader(HEADER_REQUEST_TIMESTAMP)))
+                .traceId(request.getHeader(HEADER_TRACE_ID))
+                .build();
+    }
+
+    static UserContext bind(UserContext context) {
+        UserContext previous = CURRENT.get();
+        CURRENT.set(context);
+        return previous;
+    }
+
+    static void restore(UserContext previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * 从当前HTTP请求解析上下文，结果缓存在请求属性中
+     */
+    private static UserContext fromCurrentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            // 非Web上下文（如Swagger文档生成、定时任务）
+            return null;
+        }
+
+        Object cached = attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (cached instanceof UserContext context) {
+            return context;
+        }
+        UserContext context = parse(servletAttributes.getRequest());
+        attributes.setAttribute(REQUEST_ATTRIBUTE, context, RequestAttributes.SCOPE_REQUEST);
+        return context;
+    }
+
+    private static List<String> parseRoles(String rolesHeader) {
+        if (rolesHeader == null || rolesHeader.isEmpty()) {
+            return List.of();
+        }
+        List<String> roles = new ArrayList<>();
+        for (String role : rolesHeader.split(ROLE_SEPARATOR)) {
+            String trimmed = role.trim();
+            if (!trimmed.isEmpty()) {
+                roles.add(trimmed);
+            }
+        }
+        return roles;
+    }
+
+    private static Long parseLong(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
         try {
-            ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-            return attributes.getRequest();
-        } catch (Exception e) {
-            // 在非Web上下文中调用时会抛出异常，如Swagger文档生成时
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
             return null;
         }
     }
-}
\ No newline at end of file
+}
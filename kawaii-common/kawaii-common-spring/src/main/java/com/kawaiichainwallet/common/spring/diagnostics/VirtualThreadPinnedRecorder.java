@@ -0,0 +1,159 @@
+package com.kawaiichainwallet.common.spring.diagnostics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 虚拟线程钉住（pinning）监控
+ *
+ * <p>虚拟线程在 synchronized 块或本地方法中阻塞时无法从载体线程卸载，
+ * 会占住载体线程直到阻塞结束；载体线程数量有限（默认等于CPU核数），
+ * 持续的钉住会让整个服务的吞吐退化为平台线程池。</p>
+ *
+ * <p>应用启动后开启 JFR 事件流订阅 jdk.VirtualThreadPinned，按应用代码中最靠近阻塞点的栈帧归类：</p>
+ * <ul>
+ *   <li>jvm.virtual.thread.pinned（计数）和 jvm.virtual.thread.pinned.duration（耗时），tag为 frame</li>
+ *   <li>每个栈帧位置首次出现及此后每隔 log-interval 打印一次完整堆栈</li>
+ * </ul>
+ *
+ * <p>通过 app.diagnostics.virtual-thread-pinned.enabled=false 关闭。</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.diagnostics.virtual-thread-pinned", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class VirtualThreadPinnedRecorder {
+
+    private static final String EVENT_NAME = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.kawaiichainwallet.";
+    private static final String UNKNOWN_FRAME = "unknown";
+    private static final int MAX_LOGGED_FRAMES = 32;
+
+    /**
+     * frame tag 的基数上限，超过后归入 other，避免指标无限增长
+     */
+    private static final int MAX_DISTINCT_FRAMES = 200;
+    private static final String OTHER_FRAME = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private final long logIntervalMillis;
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastLoggedAt = new ConcurrentHashMap<>();
+
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinnedRecorder(MeterRegistry meterRegistry,
+                                       @Value("${app.diagnostics.virtual-thread-pinned.threshold:20ms}") Duration threshold,
+                                       @Value("${app.diagnostics.virtual-thread-pinned.log-interval:60s}") Duration logInterval) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+        this.logIntervalMillis = logInterval.toMillis();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            RecordingStream recordingStream = new RecordingStream();
+            recordingStream.enable(EVENT_NAME).withThreshold(threshold).withStackTrace();
+            recordingStream.onEvent(EVENT_NAME, this::onPinned);
+            recordingStream.startAsync();
+            this.stream = recordingStream;
+            log.info("虚拟线程钉住监控已启动: threshold={}", threshold);
+        } catch (Exception e) {
+            // JFR 不可用（如被JVM参数禁用）时不影响应用运行
+            log.warn("虚拟线程钉住监控启动失败", e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        RecordingStream recordingStream = stream;
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace == null ? List.of() : stackTrace.getFrames();
+        String frame = boundedFrame(topApplicationFrame(frames));
+        Duration duration = event.getDuration();
+
+        counters.computeIfAbsent(frame, f -> Counter.builder("jvm.virtual.thread.pinned")
+                .tag("frame", f)
+                .description("虚拟线程阻塞时钉住载体线程的次数")
+                .register(meterRegistry)).increment();
+        timers.computeIfAbsent(frame, f -> Timer.builder("jvm.virtual.thread.pinned.duration")
+                .tag("frame", f)
+                .description("虚拟线程钉住载体线程的持续时间")
+                .register(meterRegistry)).record(duration);
+
+        long now = System.currentTimeMillis();
+        Long last = lastLoggedAt.get(frame);
+        if (last == null || now - last >= logIntervalMillis) {
+            lastLoggedAt.put(frame, now);
+            log.warn("虚拟线程钉住载体线程: frame={}, durationMs={}, stack=\n{}",
+                    frame, TimeUnit.NANOSECONDS.toMillis(duration.toNanos()), formatStack(frames));
+        }
+    }
+
+    private String boundedFrame(String frame) {
+        if (counters.containsKey(frame) || counters.size() < MAX_DISTINCT_FRAMES) {
+            return frame;
+        }
+        return OTHER_FRAME;
+    }
+
+    /**
+     * 取栈中第一个应用代码帧；没有应用代码时取栈顶帧
+     */
+    private static String topApplicationFrame(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            if (frame.isJavaFrame() && frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE)) {
+                return describe(frame);
+            }
+        }
+        return frames.isEmpty() ? UNKNOWN_FRAME : describe(frames.get(0));
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+
+    private static String formatStack(List<RecordedFrame> frames) {
+        StringBuilder sb = new StringBuilder();
+        int limit = Math.min(frames.size(), MAX_LOGGED_FRAMES);
+        for (int i = 0; i < limit; i++) {
+            RecordedFrame frame = frames.get(i);
+            sb.append("\tat ").append(describe(frame));
+            if (frame.getLineNumber() > 0) {
+                sb.append(':').append(frame.getLineNumber());
+            }
+            sb.append('\n');
+        }
+        if (frames.size() > limit) {
+            sb.append("\t... ").append(frames.size() - limit).append(" more\n");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,113 @@
+package com.kawaiichainwallet.common.spring.codec;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kawaiichainwallet.common.core.response.R;
+import com.kawaiichainwallet.common.spring.config.ObjectMapperFactory;
+import lombok.Data;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 内部调用JSON与Smile编码的负载大小和序列化CPU对比
+ * 默认跳过，运行方式：mvn -pl kawaii-common/kawaii-common-spring test -Dtest=SmileCodecBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SmileCodecBenchmarkTest {
+
+    private static final int WARMUP_ROUNDS = 2_000;
+    private static final int MEASURE_ROUNDS = 5_000;
+
+    private final ObjectMapper json = ObjectMapperFactory.createObjectMapper();
+    private final ObjectMapper smile = ObjectMapperFactory.createSmileObjectMapper();
+
+    @Test
+    void userBatch() throws Exception {
+        List<UserPayload> users = new ArrayList<>();
+        for (long i = 0; i < 100; i++) {
+            users.add(UserPayload.sample(1_800_000_000_000_000_000L + i));
+        }
+        compare("用户批量(100)", R.success(users), new TypeReference<R<List<UserPayload>>>() { });
+    }
+
+    @Test
+    void idRange() throws Exception {
+        List<Long> ids = LongStream.range(0, 1_000)
+                .map(i -> 1_800_000_000_000_000_000L + i * 7)
+                .boxed()
+                .toList();
+        compare("ID号段(1000)", R.success(ids), new TypeReference<R<List<Long>>>() { });
+    }
+
+    private <T> void compare(String name, T value, TypeReference<T> type) throws Exception {
+        byte[] jsonBytes = json.writeValueAsBytes(value);
+        byte[] smileBytes = smile.writeValueAsBytes(value);
+        assertEquals(json.writeValueAsString(json.readValue(jsonBytes, type)),
+                json.writeValueAsString(smile.readValue(smileBytes, type)));
+
+        long jsonNanos = measure(json, value, type);
+        long smileNanos = measure(smile, value, type);
+        System.out.printf("%s: JSON %d 字节 / %.1f µs, Smile %d 字节 / %.1f µs (编码+解码每次)%n",
+                name, jsonBytes.length, jsonNanos / 1000.0, smileBytes.length, smileNanos / 1000.0);
+    }
+
+    private static <T> long measure(ObjectMapper mapper, T value, TypeReference<T> type) throws Exception {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(value), type);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(value), type);
+        }
+        return (System.nanoTime() - start) / MEASURE_ROUNDS;
+    }
+
+    /**
+     * 与 UserInfoResponse 字段一致的负载
+     */
+    @Data
+    static class UserPayload {
+        private String userId;
+        private String username;
+        private String email;
+        private String phone;
+        private String status;
+        private String kycLevel;
+        private Boolean emailVerified;
+        private Boolean phoneVerified;
+        private Boolean twoFactorEnabled;
+        private String displayName;
+        private String language;
+        private String timezone;
+        private String currency;
+        private LocalDateTime createdAt;
+        private LocalDateTime lastLoginAt;
+
+        static UserPayload sample(long id) {
+            UserPayload user = new UserPayload();
+            user.setUserId(String.valueOf(id));
+            user.setUsername("user" + id % 100_000);
+            user.setEmail("u***" + id % 100 + "@example.com");
+            user.setPhone("138****" + id % 10_000);
+            user.setStatus("active");
+            user.setKycLevel("BASIC");
+            user.setEmailVerified(true);
+            user.setPhoneVerified(false);
+            user.setTwoFactorEnabled(false);
+            user.setDisplayName("User " + id % 1_000);
+            user.setLanguage("zh-CN");
+            user.setTimezone("Asia/Shanghai");
+            user.setCurrency("USD");
+            user.setCreatedAt(LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(id % 100_000));
+            user.setLastLoginAt(LocalDateTime.of(2025, 6, 1, 12, 0).plusSeconds(id % 100_000));
+            return user;
+        }
+    }
+}
@@ -2,10 +2,29 @@ package com.kawaiichainwallet.notification;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.cloud.openfeign.EnableFeignClients;
 
+import java.util.TimeZone;
+
+/**
+ * 通知服务启动类
+ *
+ * <p><b>时区设置</b>：
+ * 应用启动时强制设置 JVM 默认时区为 UTC，
+ * 确保所有时间操作统一使用 UTC 时区，避免时区相关的 bug。
+ * </p>
+ */
 @SpringBootApplication(scanBasePackages = "com.kawaiichainwallet")
+@EnableDiscoveryClient
+@EnableFeignClients(basePackages = "com.kawaiichainwallet.api")
 public class NotificationStarter {
 
+    static {
+        // 强制设置 JVM 默认时区为 UTC
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+    }
+
     public static void main(String[] args) {
         SpringApplication.run(NotificationStarter.class, args);
     }
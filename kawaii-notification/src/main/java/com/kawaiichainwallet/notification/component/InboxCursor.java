@@ -0,0 +1,51 @@
+package com.kawaiichainwallet.notification.component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 收件箱游标
+ *
+ * <p>编码 (created_at, notification_id) 位置，收件箱分页的 nextCursor 和推送流的事件ID使用同一格式，
+ * 客户端断线重连时带上的 Last-Event-ID 可直接定位补发起点。</p>
+ */
+public final class InboxCursor {
+
+    private InboxCursor() {
+    }
+
+    /**
+     * 游标位置
+     */
+    public record Position(LocalDateTime createdAt, Long notificationId) {
+    }
+
+    /**
+     * 编码游标
+     */
+    public static String encode(LocalDateTime createdAt, Long notificationId) {
+        String raw = createdAt + "|" + notificationId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标
+     *
+     * @throws IllegalArgumentException 游标格式错误
+     */
+    public static Position decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("cursor parts: " + parts.length);
+            }
+            return new Position(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("invalid cursor", e);
+        }
+    }
+}
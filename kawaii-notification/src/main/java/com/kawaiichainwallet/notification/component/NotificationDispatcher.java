@@ -0,0 +1,377 @@
+package com.kawaiichainwallet.notification.component;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kawaiichainwallet.common.core.utils.TimeUtil;
+import com.kawaiichainwallet.notification.config.NotificationDispatchProperties;
+import com.kawaiichainwallet.notification.entity.DeliveryTask;
+import com.kawaiichainwallet.notification.mapper.NotificationDeliveryMapper;
+import com.kawaiichainwallet.notification.mapper.NotificationMapper;
+import com.kawaiichainwallet.notification.provider.DeliveryFailure;
+import com.kawaiichainwallet.notification.provider.NotificationChannel;
+import com.kawaiichainwallet.notification.provider.NotificationProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 通知分渠道发送器
+ *
+ * <p>每个启用的渠道一个发送线程，notification_deliveries 是各渠道的持久化队列。线程循环执行：</p>
+ * <ol>
+ *   <li>收尾：尝试次数已用完、租期已过的任务（最后一次发送时实例崩溃或超过租期）转入死信</li>
+ *   <li>认领：一条语句用 FOR UPDATE SKIP LOCKED 取出本渠道一批到期且未达最大次数的任务并推后一个租期，多实例互不重复</li>
+ *   <li>过期的任务（验证码等）直接转入死信，不再发送；其余任务把敏感模板变量（验证码等）替换进内容，
+ *       变量只保存在投递行上，发送成功后清除，过期后由每轮的清理清除</li>
+ *   <li>按提供方限速取令牌后整批交给 {@link NotificationProvider}</li>
+ *   <li>成功的任务一条语句批量标记为 sent；失败的按"指数退避 + 随机抖动"重新排期，
+ *       不可重试或超过最大次数的转入死信（status = 'dead'）</li>
+ * </ol>
+ *
+ * <p>本实例提交通知后通过 {@link #wakeUp} 立即唤醒对应渠道，其余情况按 pollInterval 轮询；整批认领满时不等待继续认领。
+ * 随机抖动避免网关故障恢复时大量任务在同一时刻集中重试。</p>
+ */
+@Slf4j
+public class NotificationDispatcher implements SmartLifecycle {
+
+    private static final String STATUS_PENDING = "pending";
+    private static final String STATUS_DEAD = "dead";
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final long MAX_LOOP_BACKOFF_MILLIS = 5000;
+    private static final TypeReference<Map<String, String>> SECRETS_TYPE = new TypeReference<>() { };
+    private static final String EXHAUSTED_ERROR = "超过最大尝试次数：最后一次发送未完成（实例崩溃或超过租期）";
+
+    private final NotificationDispatchProperties properties;
+    private final NotificationDeliveryMapper deliveryMapper;
+    private final NotificationMapper notificationMapper;
+    private final ObjectMapper objectMapper;
+    private final Map<NotificationChannel, ChannelWorker> workers = new EnumMap<>(NotificationChannel.class);
+
+    private volatile boolean running;
+
+    public NotificationDispatcher(NotificationDispatchProperties properties,
+                                  NotificationDeliveryMapper deliveryMapper,
+                                  NotificationMapper notificationMapper,
+                                  Collection<NotificationProvider> providers,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.deliveryMapper = deliveryMapper;
+        this.notificationMapper = notificationMapper;
+        this.objectMapper = objectMapper;
+        for (NotificationProvider provider : providers) {
+            NotificationDispatchProperties.Channel config = properties.channel(provider.channel().getCode());
+            if (config.isEnabled()) {
+                workers.put(provider.channel(), new ChannelWorker(provider, config, meterRegistry));
+            }
+        }
+    }
+
+    /**
+     * 唤醒指定渠道的发送线程（事务提交后调用，不阻塞）
+     */
+    public void wakeUp(Collection<NotificationChannel> channels) {
+        for (NotificationChannel channel : channels) {
+            ChannelWorker worker = workers.get(channel);
+            if (worker != null && worker.thread != null) {
+                LockSupport.unpark(worker.thread);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        for (ChannelWorker worker : workers.values()) {
+            worker.thread = Thread.ofPlatform()
+                    .name("notification-" + worker.channel.getCode())
+                    .daemon()
+                    .start(worker::runLoop);
+        }
+        log.info("通知发送器已启动: channels={}, pollInterval={}, lease={}, maxAttempts={}",
+                workers.keySet(), properties.getPollInterval(), properties.getLease(), properties.getMaxAttempts());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        long deadline = System.nanoTime() + properties.getShutdownTimeout().toNanos();
+        for (ChannelWorker worker : workers.values()) {
+            if (worker.thread != null) {
+                LockSupport.unpark(worker.thread);
+            }
+        }
+        for (ChannelWorker worker : workers.values()) {
+            if (worker.thread == null) {
+                continue;
+            }
+            try {
+                // 未完成的批次在租期到后由其他实例或下次启动重新发送
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                worker.thread.join(Math.max(1, remainingMillis));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            worker.thread = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 第 attempts 次失败后的重试延迟：baseDelay * 2^(attempts-1)，不超过 maxDelay，实际取值在其一半到全部之间
+     */
+    static Duration retryDelay(int attempts, Duration baseDelay, Duration maxDelay) {
+        long baseMillis = baseDelay.toMillis();
+        long maxMillis = maxDelay.toMillis();
+        int shift = Math.min(Math.max(attempts - 1, 0), 20);
+        long delay = Math.min(maxMillis, baseMillis << shift);
+        // 一半固定、一半随机，既保证退避下限又打散重试时刻
+        long half = delay / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    /**
+     * 单个渠道的发送线程
+     */
+    private final class ChannelWorker {
+
+        private final NotificationChannel channel;
+        private final NotificationProvider provider;
+        private final int batchSize;
+        private final TokenBucket rateLimiter;
+
+        private final Counter sentCounter;
+        private final Counter retriedCounter;
+        private final Counter deadCounter;
+        private final Counter expiredCounter;
+        private final Timer sendTimer;
+        private final Timer lagTimer;
+        private final DistributionSummary batchSizeSummary;
+
+        private volatile Thread thread;
+        private long consecutiveFailures;
+
+        private ChannelWorker(NotificationProvider provider, NotificationDispatchProperties.Channel config,
+                              MeterRegistry meterRegistry) {
+            this.channel = provider.channel();
+            this.provider = provider;
+            this.batchSize = Math.max(1, config.getBatchSize());
+            this.rateLimiter = config.getRatePerSecond() > 0
+                    ? new TokenBucket(config.getRatePerSecond(), config.getBurst())
+                    : null;
+
+            String code = channel.getCode();
+            this.sentCounter = resultCounter(meterRegistry, code, "sent");
+            this.retriedCounter = resultCounter(meterRegistry, code, "retried");
+            this.deadCounter = resultCounter(meterRegistry, code, "dead");
+            this.expiredCounter = resultCounter(meterRegistry, code, "expired");
+            this.sendTimer = Timer.builder("notification.provider.send")
+                    .description("提供方单批发送耗时")
+                    .tag("channel", code)
+                    .register(meterRegistry);
+            this.lagTimer = Timer.builder("notification.delivery.lag")
+                    .description("通知从提交到发送成功的延迟")
+                    .tag("channel", code)
+                    .register(meterRegistry);
+            this.batchSizeSummary = DistributionSummary.builder("notification.batch.size")
+                    .description("单批认领的任务数")
+                    .tag("channel", code)
+                    .register(meterRegistry);
+        }
+
+        private void runLoop() {
+            long pollNanos = properties.getPollInterval().toNanos();
+            while (running) {
+                try {
+                    int claimed = dispatchOnce();
+                    consecutiveFailures = 0;
+                    if (claimed < batchSize) {
+                        LockSupport.parkNanos(this, pollNanos);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (Exception e) {
+                    consecutiveFailures++;
+                    long backoff = Math.min(MAX_LOOP_BACKOFF_MILLIS, 100L << Math.min(consecutiveFailures, 6));
+                    log.error("通知发送线程异常，{}ms后重试: channel={}, consecutiveFailures={}",
+                            backoff, channel.getCode(), consecutiveFailures, e);
+                    LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(backoff));
+                }
+            }
+        }
+
+        /**
+         * 认领并发送一批任务
+         *
+         * @return 本次认领的任务数
+         */
+        private int dispatchOnce() throws InterruptedException {
+            LocalDateTime now = TimeUtil.nowUtc();
+            deliveryMapper.purgeExpiredSecrets(channel.getCode(), now, batchSize);
+            // 本批状态发生终态变化的通知，最后统一检查是否已全部渠道完成
+            Set<Long> touchedNotifications = new LinkedHashSet<>(expireExhausted(now));
+
+            List<DeliveryTask> batch = deliveryMapper.claim(channel.getCode(), now,
+                    now.plus(properties.getLease()), properties.getMaxAttempts(), batchSize);
+            if (batch.isEmpty()) {
+                if (!touchedNotifications.isEmpty()) {
+                    notificationMapper.markSentIfComplete(touchedNotifications.toArray(Long[]::new), now);
+                }
+                return 0;
+            }
+            batchSizeSummary.record(batch.size());
+
+            List<DeliveryTask> live = new ArrayList<>(batch.size());
+            for (DeliveryTask task : batch) {
+                if (task.getExpiresAt() != null && !task.getExpiresAt().isAfter(now)) {
+                    deliveryMapper.reschedule(task.getDeliveryId(), STATUS_DEAD, now, "expired");
+                    touchedNotifications.add(task.getNotificationId());
+                    expiredCounter.increment();
+                } else if (!renderSecrets(task)) {
+                    deliveryMapper.reschedule(task.getDeliveryId(), STATUS_DEAD, now, "invalid secret params");
+                    touchedNotifications.add(task.getNotificationId());
+                    deadCounter.increment();
+                } else {
+                    live.add(task);
+                }
+            }
+
+            if (!live.isEmpty()) {
+                send(live, touchedNotifications);
+            }
+            if (!touchedNotifications.isEmpty()) {
+                notificationMapper.markSentIfComplete(touchedNotifications.toArray(Long[]::new), TimeUtil.nowUtc());
+            }
+            return batch.size();
+        }
+
+        /**
+         * 把敏感模板变量替换进本次发送的内容（只在内存中，不回写通知），变量格式错误时返回 false
+         */
+        private boolean renderSecrets(DeliveryTask task) {
+            if (task.getSecretParams() == null || task.getMessage() == null) {
+                return true;
+            }
+            try {
+                String message = task.getMessage();
+                for (Map.Entry<String, String> secret : objectMapper.readValue(task.getSecretParams(), SECRETS_TYPE).entrySet()) {
+                    message = message.replace("{" + secret.getKey() + "}", String.valueOf(secret.getValue()));
+                }
+                task.setMessage(message);
+                task.setSecretParams(null);
+                return true;
+            } catch (Exception e) {
+                log.error("敏感模板变量解析失败，转入死信: deliveryId={}, channel={}",
+                        task.getDeliveryId(), channel.getCode());
+                return false;
+            }
+        }
+
+        /**
+         * 把尝试次数已用完、最后一次发送未完成的任务转入死信
+         */
+        private List<Long> expireExhausted(LocalDateTime now) {
+            List<Long> notificationIds = deliveryMapper.expireExhausted(channel.getCode(), now,
+                    properties.getMaxAttempts(), batchSize, EXHAUSTED_ERROR);
+            if (!notificationIds.isEmpty()) {
+                deadCounter.increment(notificationIds.size());
+                log.error("通知最后一次发送未完成，转入死信: channel={}, count={}, notificationIds={}",
+                        channel.getCode(), notificationIds.size(), notificationIds);
+            }
+            return notificationIds;
+        }
+
+        private void send(List<DeliveryTask> live, Set<Long> touchedNotifications) throws InterruptedException {
+            if (rateLimiter != null) {
+                rateLimiter.acquire(live.size());
+            }
+
+            Map<Long, DeliveryFailure> failures = new HashMap<>();
+            long start = System.nanoTime();
+            try {
+                List<DeliveryFailure> result = provider.send(live);
+                if (result != null) {
+                    result.forEach(f -> failures.put(f.deliveryId(), f));
+                }
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                log.warn("提供方整批发送失败: channel={}, size={}", channel.getCode(), live.size(), e);
+                for (DeliveryTask task : live) {
+                    failures.put(task.getDeliveryId(), DeliveryFailure.retryable(task.getDeliveryId(),
+                            String.valueOf(e.getMessage())));
+                }
+            } finally {
+                sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+
+            LocalDateTime now = TimeUtil.nowUtc();
+            List<Long> sent = new ArrayList<>(live.size());
+            for (DeliveryTask task : live) {
+                DeliveryFailure failure = failures.get(task.getDeliveryId());
+                if (failure == null) {
+                    sent.add(task.getDeliveryId());
+                    touchedNotifications.add(task.getNotificationId());
+                    lagTimer.record(Duration.between(task.getCreatedAt(), now));
+                    continue;
+                }
+                if (!failure.retryable() || task.getAttempts() >= properties.getMaxAttempts()) {
+                    deliveryMapper.reschedule(task.getDeliveryId(), STATUS_DEAD, now, truncate(failure.error()));
+                    touchedNotifications.add(task.getNotificationId());
+                    deadCounter.increment();
+                    log.error("通知转入死信: deliveryId={}, notificationId={}, channel={}, attempts={}, error={}",
+                            task.getDeliveryId(), task.getNotificationId(), channel.getCode(),
+                            task.getAttempts(), failure.error());
+                } else {
+                    Duration delay = retryDelay(task.getAttempts(),
+                            properties.getRetryBaseDelay(), properties.getRetryMaxDelay());
+                    deliveryMapper.reschedule(task.getDeliveryId(), STATUS_PENDING,
+                            now.plus(delay), truncate(failure.error()));
+                    retriedCounter.increment();
+                }
+            }
+
+            if (!sent.isEmpty()) {
+                deliveryMapper.markSent(sent.toArray(Long[]::new), now);
+                sentCounter.increment(sent.size());
+            }
+        }
+    }
+
+    private static Counter resultCounter(MeterRegistry meterRegistry, String channel, String result) {
+        return Counter.builder("notification.deliveries")
+                .description("通知投递结果")
+                .tag("channel", channel)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,164 @@
+package com.kawaiichainwallet.notification.component;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * 一条站内信推送连接（SSE）
+ *
+ * <p>Redis 订阅线程只把事件放入本连接的有界缓冲，不做任何网络写入；由每个连接自己的虚拟线程取出并写给客户端，
+ * 慢客户端只会阻塞自己的写线程。缓冲写满时连接被断开，客户端带 Last-Event-ID 重连后从数据库补发，
+ * 单个连接占用的内存始终有上限。</p>
+ *
+ * <p>写线程在连接空闲超过心跳间隔时发送注释行，既保持网关和负载均衡的连接不被回收，也能及时发现已断开的客户端；
+ * 连接存活超过最长时间后由服务端关闭，客户端重连时重新经过网关认证。</p>
+ */
+@Slf4j
+public class PushConnection {
+
+    /**
+     * 通知事件
+     */
+    public static final String EVENT_NOTIFICATION = "notification";
+
+    /**
+     * 无法补发时发送的事件，客户端收到后应重新拉取收件箱
+     */
+    public static final String EVENT_RESYNC = "resync";
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    @Getter
+    private final long connectionId = SEQUENCE.incrementAndGet();
+    @Getter
+    private final Long userId;
+    private final SseEmitter emitter;
+    private final ArrayBlockingQueue<PushEvent> buffer;
+    private final AtomicReference<String> closeReason = new AtomicReference<>();
+
+    private volatile Thread writer;
+
+    /**
+     * 待发送事件
+     *
+     * @param id   事件ID（收件箱游标），心跳和 resync 事件为空
+     * @param name 事件名
+     * @param data 事件数据（JSON）
+     */
+    public record PushEvent(String id, String name, String data) {
+    }
+
+    public PushConnection(Long userId, SseEmitter emitter, int bufferSize) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        emitter.onCompletion(() -> close("completed"));
+        emitter.onTimeout(() -> close("timeout"));
+        emitter.onError(e -> close("client_error"));
+    }
+
+    /**
+     * 放入待发送事件（不阻塞）
+     *
+     * @return 缓冲已满或连接已关闭时返回 false
+     */
+    public boolean offer(PushEvent event) {
+        return closeReason.get() == null && buffer.offer(event);
+    }
+
+    /**
+     * 启动写线程
+     *
+     * @param initial           连接建立后最先发送的事件（重连补发）
+     * @param heartbeatInterval 心跳间隔
+     * @param maxAge            最长存活时间
+     * @param reconnectDelay    建议客户端重连间隔
+     * @param onClosed          写线程退出后的回调（从注册表移除）
+     */
+    public void start(List<PushEvent> initial, Duration heartbeatInterval, Duration maxAge, Duration reconnectDelay,
+                      Consumer<PushConnection> onClosed) {
+        writer = Thread.ofVirtual()
+                .name("notification-stream-" + connectionId)
+                .start(() -> run(initial, heartbeatInterval, maxAge, reconnectDelay, onClosed));
+    }
+
+    /**
+     * 关闭连接（可在任意线程调用，只有第一次调用的原因生效）
+     */
+    public void close(String reason) {
+        if (closeReason.compareAndSet(null, reason)) {
+            Thread thread = writer;
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+    }
+
+    /**
+     * 关闭原因，未关闭时为空
+     */
+    public String getCloseReason() {
+        return closeReason.get();
+    }
+
+    private void run(List<PushEvent> initial, Duration heartbeatInterval, Duration maxAge, Duration reconnectDelay,
+                     Consumer<PushConnection> onClosed) {
+        long deadline = System.nanoTime() + maxAge.toNanos();
+        long heartbeatNanos = heartbeatInterval.toNanos();
+        try {
+            // 立即写出首行，网关和客户端据此确认连接已建立
+            emitter.send(SseEmitter.event().reconnectTime(reconnectDelay.toMillis()).comment("connected"));
+            for (PushEvent event : initial) {
+                send(event);
+            }
+            while (closeReason.get() == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    close("max_age");
+                    break;
+                }
+                PushEvent event = buffer.poll(Math.min(heartbeatNanos, remaining), TimeUnit.NANOSECONDS);
+                if (event != null) {
+                    send(event);
+                } else if (closeReason.get() == null && deadline - System.nanoTime() > 0) {
+                    emitter.send(SseEmitter.event().comment("ping"));
+                }
+            }
+        } catch (InterruptedException e) {
+            // close() 中断写线程
+            close("interrupted");
+        } catch (IOException | IllegalStateException e) {
+            // 客户端已断开或请求已结束
+            close("client_gone");
+        } catch (Exception e) {
+            log.warn("推送连接写线程异常: connectionId={}, userId={}", connectionId, userId, e);
+            close("error");
+        } finally {
+            buffer.clear();
+            try {
+                emitter.complete();
+            } catch (Exception ignored) {
+                // 连接已结束
+            }
+            onClosed.accept(this);
+        }
+    }
+
+    private void send(PushEvent event) throws IOException {
+        SseEmitter.SseEventBuilder builder = SseEmitter.event().name(event.name()).data(event.data());
+        if (event.id() != null) {
+            builder.id(event.id());
+        }
+        emitter.send(builder);
+    }
+}
@@ -0,0 +1,145 @@
+package com.kawaiichainwallet.notification.component;
+
+import com.kawaiichainwallet.notification.config.NotificationStreamProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 本实例的推送连接注册表
+ *
+ * <p>站内信发送后由 in_app 渠道提供方发布到 Redis 频道 {@value #CHANNEL}，每个实例都会收到，
+ * 只转发给本实例上该用户的连接；用户不在本实例时只是一次 Map 查询。</p>
+ *
+ * <p>消息格式：{@code userId|eventId|json}，订阅线程只把事件放入连接的有界缓冲，缓冲已满的连接直接关闭。</p>
+ *
+ * <p>停机时先于 Web 服务器的优雅停机关闭全部连接，长连接不会拖住停机，客户端会重连到其他实例。</p>
+ */
+@Slf4j
+public class PushConnectionRegistry implements MessageListener, SmartLifecycle {
+
+    public static final String CHANNEL = "notification:push";
+
+    private final NotificationStreamProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<Long, List<PushConnection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    private volatile boolean running;
+
+    public PushConnectionRegistry(NotificationStreamProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("notification.stream.connections", connectionCount, AtomicInteger::get)
+                .description("本实例当前的推送连接数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 注册连接，超出单用户上限时关闭该用户最早的连接
+     *
+     * @return 本实例连接数已满或正在停机时返回 false
+     */
+    public boolean register(PushConnection connection) {
+        if (!running) {
+            return false;
+        }
+        if (connectionCount.incrementAndGet() > properties.getMaxConnections()) {
+            connectionCount.decrementAndGet();
+            return false;
+        }
+
+        List<PushConnection> evicted = new ArrayList<>();
+        connections.compute(connection.getUserId(), (userId, list) -> {
+            List<PushConnection> current = list != null ? list : new CopyOnWriteArrayList<>();
+            current.add(connection);
+            while (current.size() > properties.getMaxConnectionsPerUser()) {
+                evicted.add(current.remove(0));
+                connectionCount.decrementAndGet();
+            }
+            return current;
+        });
+        evicted.forEach(old -> old.close("evicted"));
+        return true;
+    }
+
+    /**
+     * 连接写线程退出后调用：从注册表移除并记录关闭原因
+     */
+    public void onClosed(PushConnection connection) {
+        connections.computeIfPresent(connection.getUserId(), (userId, list) -> {
+            if (list.remove(connection)) {
+                connectionCount.decrementAndGet();
+            }
+            return list.isEmpty() ? null : list;
+        });
+        String reason = connection.getCloseReason() != null ? connection.getCloseReason() : "unknown";
+        meterRegistry.counter("notification.stream.closed", "reason", reason).increment();
+        log.debug("推送连接已关闭: connectionId={}, userId={}, reason={}",
+                connection.getConnectionId(), connection.getUserId(), reason);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length != 3) {
+            log.warn("忽略格式错误的推送消息");
+            return;
+        }
+
+        Long userId;
+        try {
+            userId = Long.valueOf(parts[0]);
+        } catch (NumberFormatException e) {
+            log.warn("忽略格式错误的推送消息: userId={}", parts[0]);
+            return;
+        }
+        List<PushConnection> userConnections = connections.get(userId);
+        if (userConnections == null) {
+            return;
+        }
+
+        PushConnection.PushEvent event = new PushConnection.PushEvent(parts[1], PushConnection.EVENT_NOTIFICATION,
+                parts[2]);
+        for (PushConnection connection : userConnections) {
+            if (!connection.offer(event)) {
+                // 客户端消费过慢：断开后由客户端带 Last-Event-ID 重连补发
+                connection.close("overflow");
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        int closed = 0;
+        for (List<PushConnection> list : connections.values()) {
+            for (PushConnection connection : list) {
+                connection.close("shutdown");
+                closed++;
+            }
+        }
+        log.info("推送连接注册表已停止，关闭连接 {} 条", closed);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,52 @@
+package com.kawaiichainwallet.notification.component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 令牌桶限速器
+ *
+ * <p>{@link #acquire} 允许一次取走超过当前余量的令牌（记为欠额），调用方按欠额补足所需的时间等待，
+ * 因此整批发送只需一次限速等待，长期速率仍不超过 ratePerSecond。
+ * 使用 ReentrantLock 而非 synchronized，等待在锁外进行。</p>
+ */
+public class TokenBucket {
+
+    private final double ratePerNano;
+    private final double capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    /**
+     * @param ratePerSecond 每秒补充的令牌数，必须大于0
+     * @param burst         桶容量
+     */
+    public TokenBucket(double ratePerSecond, int burst) {
+        this.ratePerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = Math.max(1, burst);
+        this.tokens = this.capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * 取走指定数量的令牌，余量不足时阻塞到补足为止
+     */
+    public void acquire(int permits) throws InterruptedException {
+        long waitNanos;
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * ratePerNano);
+            lastRefillNanos = now;
+            tokens -= permits;
+            waitNanos = tokens >= 0 ? 0 : (long) (-tokens / ratePerNano);
+        } finally {
+            lock.unlock();
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
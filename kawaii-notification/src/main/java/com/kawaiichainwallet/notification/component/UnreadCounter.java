@@ -0,0 +1,127 @@
+package com.kawaiichainwallet.notification.component;
+
+import com.kawaiichainwallet.notification.mapper.NotificationMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 站内信未读数计数器（Redis）
+ *
+ * <p>打开应用时渲染角标是最频繁的通知调用，未读数直接读 Redis 计数，不对 notifications 做 COUNT：</p>
+ * <ul>
+ *   <li>新通知提交后、标记已读后按实际变化的条数增减，只在计数已存在时调整，缺失的计数不会被增减成错误的值</li>
+ *   <li>计数不存在时从部分索引 idx_notifications_inbox_unread 重新统计（最多数到上限），写回并设置过期时间</li>
+ *   <li>计数到期后下次读取重新统计，即按 reconcile-interval 周期性对账，
+ *       进程崩溃或 Redis 写失败造成的偏差最多保留一个周期</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class UnreadCounter {
+
+    private static final String KEY_PREFIX = "notification:unread:";
+
+    /**
+     * 计数存在时增减；结果为负说明已失准，删除后由下次读取重新统计
+     * KEYS[1]=计数key，ARGV[1]=增量
+     */
+    private static final RedisScript<Long> ADJUST_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return -1
+            end
+            local value = redis.call('INCRBY', KEYS[1], ARGV[1])
+            if value < 0 then
+                redis.call('DEL', KEYS[1])
+                return -1
+            end
+            return value
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final NotificationMapper notificationMapper;
+    private final Duration reconcileInterval;
+    private final int countCap;
+
+    public UnreadCounter(StringRedisTemplate redisTemplate,
+                         NotificationMapper notificationMapper,
+                         @Value("${app.notification.inbox.unread-reconcile-interval:1h}") Duration reconcileInterval,
+                         @Value("${app.notification.inbox.unread-count-cap:1000}") int countCap) {
+        this.redisTemplate = redisTemplate;
+        this.notificationMapper = notificationMapper;
+        this.reconcileInterval = reconcileInterval;
+        this.countCap = countCap;
+    }
+
+    /**
+     * 读取未读数（达到上限时返回上限值，由前端显示为"999+"等）
+     */
+    public long get(Long userId) {
+        String key = key(userId);
+        try {
+            String cached = redisTemplate.opsForValue().get(key);
+            if (cached != null) {
+                return Math.min(Long.parseLong(cached), countCap);
+            }
+        } catch (Exception e) {
+            log.warn("读取未读数缓存失败，直接统计: userId={}", userId, e);
+            return notificationMapper.countUnread(userId, countCap);
+        }
+
+        long count = notificationMapper.countUnread(userId, countCap);
+        try {
+            // NX：并发读取时只保留第一个写入的统计结果
+            redisTemplate.opsForValue().setIfAbsent(key, String.valueOf(count), reconcileInterval);
+        } catch (Exception e) {
+            log.warn("写入未读数缓存失败: userId={}", userId, e);
+        }
+        return count;
+    }
+
+    /**
+     * 未读数增加（新通知提交后调用）
+     */
+    public void increment(Long userId, long delta) {
+        adjust(userId, delta);
+    }
+
+    /**
+     * 未读数减少（标记已读后按实际更新的条数调用）
+     */
+    public void decrement(Long userId, long delta) {
+        adjust(userId, -delta);
+    }
+
+    /**
+     * 丢弃计数，下次读取时重新统计
+     */
+    public void invalidate(Long userId) {
+        try {
+            redisTemplate.delete(key(userId));
+        } catch (Exception e) {
+            log.warn("删除未读数缓存失败: userId={}", userId, e);
+        }
+    }
+
+    private void adjust(Long userId, long delta) {
+        if (userId == null || delta == 0) {
+            return;
+        }
+        try {
+            redisTemplate.execute(ADJUST_SCRIPT, List.of(key(userId)), String.valueOf(delta));
+        } catch (Exception e) {
+            // 计数偏差在下次对账时修正
+            log.warn("调整未读数失败: userId={}, delta={}", userId, delta, e);
+        }
+    }
+
+    private static String key(Long userId) {
+        return KEY_PREFIX + userId;
+    }
+}
@@ -0,0 +1,52 @@
+package com.kawaiichainwallet.notification.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kawaiichainwallet.notification.component.NotificationDispatcher;
+import com.kawaiichainwallet.notification.mapper.NotificationDeliveryMapper;
+import com.kawaiichainwallet.notification.mapper.NotificationMapper;
+import com.kawaiichainwallet.notification.provider.NotificationChannel;
+import com.kawaiichainwallet.notification.provider.NotificationProvider;
+import com.kawaiichainwallet.notification.provider.StubNotificationProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 通知发送配置
+ * 每个渠道取容器中对应的 {@link NotificationProvider} Bean，没有时使用只记录日志的本地桩实现
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(NotificationDispatchProperties.class)
+public class NotificationDispatchConfig {
+
+    @Bean
+    public NotificationDispatcher notificationDispatcher(NotificationDispatchProperties properties,
+                                                         NotificationDeliveryMapper deliveryMapper,
+                                                         NotificationMapper notificationMapper,
+                                                         ObjectProvider<NotificationProvider> providers,
+                                                         ObjectMapper objectMapper,
+                                                         MeterRegistry meterRegistry) {
+        Map<NotificationChannel, NotificationProvider> byChannel = new EnumMap<>(NotificationChannel.class);
+        providers.orderedStream().forEach(provider -> {
+            if (byChannel.putIfAbsent(provider.channel(), provider) != null) {
+                throw new IllegalStateException("通知渠道存在多个提供方: " + provider.channel().getCode());
+            }
+        });
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            byChannel.computeIfAbsent(channel, c -> {
+                log.warn("通知渠道未配置提供方，使用本地桩实现: channel={}", c.getCode());
+                return new StubNotificationProvider(c, properties.getStub().getLatency(),
+                        properties.getStub().getFailureRate());
+            });
+        }
+        return new NotificationDispatcher(properties, deliveryMapper, notificationMapper, byChannel.values(),
+                objectMapper, meterRegistry);
+    }
+}
@@ -0,0 +1,101 @@
+package com.kawaiichainwallet.notification.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 通知发送配置属性
+ */
+@Data
+@ConfigurationProperties(prefix = "app.notification.dispatch")
+public class NotificationDispatchProperties {
+
+    /**
+     * 没有待发送任务时的轮询间隔（本实例提交的通知会立即唤醒对应渠道）
+     */
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    /**
+     * 认领租期：需覆盖限速等待和单批发送耗时，超过后任务重新可认领
+     */
+    private Duration lease = Duration.ofSeconds(60);
+
+    /**
+     * 最大发送次数，超过后转入死信
+     */
+    private int maxAttempts = 8;
+
+    /**
+     * 重试基础延迟，按发送次数指数增长并加随机抖动
+     */
+    private Duration retryBaseDelay = Duration.ofSeconds(2);
+
+    /**
+     * 重试最大延迟
+     */
+    private Duration retryMaxDelay = Duration.ofMinutes(10);
+
+    /**
+     * 停机时等待当前批次发送完成的最长时间
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+    /**
+     * 各渠道配置，key 为渠道编码（in_app / email / sms / push），未配置的渠道使用默认值
+     */
+    private Map<String, Channel> channels = new LinkedHashMap<>();
+
+    /**
+     * 本地桩提供方配置（渠道没有真实提供方时使用）
+     */
+    private Stub stub = new Stub();
+
+    /**
+     * 取渠道配置，未配置时返回默认值
+     */
+    public Channel channel(String code) {
+        return channels.getOrDefault(code, new Channel());
+    }
+
+    @Data
+    public static class Channel {
+
+        /**
+         * 是否启用本渠道的发送线程
+         */
+        private boolean enabled = true;
+
+        /**
+         * 单次认领并交给提供方的任务数
+         */
+        private int batchSize = 100;
+
+        /**
+         * 提供方限速（每秒条数），0 表示不限速
+         */
+        private double ratePerSecond = 0;
+
+        /**
+         * 限速令牌桶容量（允许的瞬时突发条数）
+         */
+        private int burst = 100;
+    }
+
+    @Data
+    public static class Stub {
+
+        /**
+         * 模拟的单批发送耗时
+         */
+        private Duration latency = Duration.ZERO;
+
+        /**
+         * 模拟的失败率（0~1）
+         */
+        private double failureRate = 0;
+    }
+}
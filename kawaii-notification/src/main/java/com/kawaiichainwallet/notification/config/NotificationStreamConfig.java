@@ -0,0 +1,35 @@
+package com.kawaiichainwallet.notification.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kawaiichainwallet.notification.component.PushConnectionRegistry;
+import com.kawaiichainwallet.notification.provider.InAppPushProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * 站内信推送流配置
+ * in_app 渠道由 {@link InAppPushProvider} 发布到 Redis，各实例的 {@link PushConnectionRegistry} 订阅后转发给本地连接
+ */
+@Configuration
+@EnableConfigurationProperties(NotificationStreamProperties.class)
+public class NotificationStreamConfig {
+
+    @Bean
+    public PushConnectionRegistry pushConnectionRegistry(NotificationStreamProperties properties,
+                                                         RedisMessageListenerContainer listenerContainer,
+                                                         MeterRegistry meterRegistry) {
+        PushConnectionRegistry registry = new PushConnectionRegistry(properties, meterRegistry);
+        listenerContainer.addMessageListener(registry, new ChannelTopic(PushConnectionRegistry.CHANNEL));
+        return registry;
+    }
+
+    @Bean
+    public InAppPushProvider inAppPushProvider(StringRedisTemplate redisTemplate, ObjectMapper objectMapper) {
+        return new InAppPushProvider(redisTemplate, objectMapper);
+    }
+}
@@ -0,0 +1,59 @@
+package com.kawaiichainwallet.notification.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 站内信推送流（SSE）配置属性
+ */
+@Data
+@ConfigurationProperties(prefix = "app.notification.stream")
+public class NotificationStreamProperties {
+
+    /**
+     * 心跳间隔：连接空闲超过该时间发送一条注释行，需小于网关和负载均衡的空闲超时
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(25);
+
+    /**
+     * 单个连接的最长存活时间，到期由服务端关闭，客户端带 Last-Event-ID 重连并重新认证
+     */
+    private Duration maxConnectionAge = Duration.ofMinutes(30);
+
+    /**
+     * 客户端断线后的建议重连间隔（SSE retry 字段）
+     */
+    private Duration reconnectDelay = Duration.ofSeconds(3);
+
+    /**
+     * 每个连接的待发送事件缓冲条数，写满说明客户端消费过慢，直接断开由客户端重连补发
+     */
+    private int bufferSize = 64;
+
+    /**
+     * 单个用户在本实例上的最大连接数，超出时关闭该用户最早的连接
+     */
+    private int maxConnectionsPerUser = 5;
+
+    /**
+     * 本实例最大连接数，超出时拒绝新连接（503）
+     */
+    private int maxConnections = 10000;
+
+    /**
+     * 补发窗口：Last-Event-ID 早于该时间范围时不再补发，改为通知客户端重新拉取收件箱
+     */
+    private Duration replayWindow = Duration.ofMinutes(10);
+
+    /**
+     * 单次补发的最大条数，超出同样改为通知客户端重新拉取收件箱
+     */
+    private int replayLimit = 100;
+
+    /**
+     * 补发起点向前多取的时间，覆盖提交时间与推送顺序不一致的通知（客户端按 notificationId 去重）
+     */
+    private Duration replayOverlap = Duration.ofSeconds(5);
+}
@@ -0,0 +1,77 @@
+package com.kawaiichainwallet.notification.controller;
+
+import com.kawaiichainwallet.common.core.enums.ApiCode;
+import com.kawaiichainwallet.common.core.response.CursorPage;
+import com.kawaiichainwallet.common.core.response.R;
+import com.kawaiichainwallet.common.spring.context.UserContextHolder;
+import com.kawaiichainwallet.notification.dto.InboxNotificationDto;
+import com.kawaiichainwallet.notification.dto.MarkReadRequest;
+import com.kawaiichainwallet.notification.service.InboxService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 站内信收件箱控制器
+ */
+@Tag(name = "站内信", description = "收件箱列表、未读数和标记已读")
+@Slf4j
+@RestController
+@RequestMapping("/inbox")
+@RequiredArgsConstructor
+public class InboxController {
+
+    private final InboxService inboxService;
+
+    @Operation(summary = "收件箱列表", description = "按时间倒序的游标分页，传入上一页返回的nextCursor获取下一页")
+    @GetMapping
+    public R<CursorPage<InboxNotificationDto>> getInbox(
+            @Parameter(description = "只看未读") @RequestParam(defaultValue = "false") boolean unreadOnly,
+            @Parameter(description = "分页游标") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页条数（最大100）") @RequestParam(required = false) Integer size) {
+        Long userId = UserContextHolder.getCurrentUserId();
+        if (userId == null) {
+            return R.error(ApiCode.UNAUTHORIZED);
+        }
+        return R.success(inboxService.getInbox(userId, unreadOnly, cursor, size));
+    }
+
+    @Operation(summary = "未读数", description = "读取缓存计数，用于应用角标")
+    @GetMapping("/unread-count")
+    public R<Long> getUnreadCount() {
+        Long userId = UserContextHolder.getCurrentUserId();
+        if (userId == null) {
+            return R.error(ApiCode.UNAUTHORIZED);
+        }
+        return R.success(inboxService.getUnreadCount(userId));
+    }
+
+    @Operation(summary = "批量标记已读")
+    @PostMapping("/read")
+    public R<Integer> markRead(@Valid @RequestBody MarkReadRequest request) {
+        Long userId = UserContextHolder.getCurrentUserId();
+        if (userId == null) {
+            return R.error(ApiCode.UNAUTHORIZED);
+        }
+        return R.success(inboxService.markRead(userId, request.getNotificationIds()));
+    }
+
+    @Operation(summary = "全部标记已读")
+    @PostMapping("/read-all")
+    public R<Integer> markAllRead() {
+        Long userId = UserContextHolder.getCurrentUserId();
+        if (userId == null) {
+            return R.error(ApiCode.UNAUTHORIZED);
+        }
+        return R.success(inboxService.markAllRead(userId));
+    }
+}
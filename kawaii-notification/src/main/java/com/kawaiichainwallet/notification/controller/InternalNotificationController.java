@@ -0,0 +1,41 @@
+package com.kawaiichainwallet.notification.controller;
+
+import com.kawaiichainwallet.api.notification.client.NotificationServiceApi;
+import com.kawaiichainwallet.api.notification.dto.SendNotificationRequest;
+import com.kawaiichainwallet.common.core.response.R;
+import com.kawaiichainwallet.notification.service.NotificationDispatchService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 通知内部服务控制器 - 实现NotificationServiceApi接口
+ * 仅供内部服务调用，提交后立即返回，各渠道异步发送
+ */
+@Slf4j
+@RestController
+@RequestMapping("/internal/notifications")
+@RequiredArgsConstructor
+public class InternalNotificationController implements NotificationServiceApi {
+
+    private final NotificationDispatchService notificationDispatchService;
+
+    @Override
+    public R<Long> send(@Valid @RequestBody SendNotificationRequest request) {
+        return R.success(notificationDispatchService.submit(request));
+    }
+
+    /**
+     * 重放指定渠道的死信（运维使用）
+     */
+    @PostMapping("/dead-letters/requeue")
+    public R<Integer> requeueDeadLetters(@RequestParam String channel,
+                                         @RequestParam(defaultValue = "1000") int limit) {
+        return R.success(notificationDispatchService.requeueDeadLetters(channel, limit));
+    }
+}
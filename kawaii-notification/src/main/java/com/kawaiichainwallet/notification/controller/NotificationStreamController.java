@@ -0,0 +1,56 @@
+package com.kawaiichainwallet.notification.controller;
+
+import com.kawaiichainwallet.common.spring.context.UserContextHolder;
+import com.kawaiichainwallet.notification.service.NotificationStreamService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * 站内信推送流控制器
+ */
+@Tag(name = "站内信")
+@Slf4j
+@RestController
+@RequestMapping("/stream")
+@RequiredArgsConstructor
+public class NotificationStreamController {
+
+    private final NotificationStreamService streamService;
+
+    @Operation(summary = "订阅站内信推送",
+            description = "SSE长连接，事件名为notification（数据同收件箱条目）和resync（需重新拉取收件箱）；"
+                    + "重连时携带Last-Event-ID补发断线期间的通知")
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(
+            @Parameter(description = "最后收到的事件ID") @RequestHeader(value = "Last-Event-ID", required = false)
+            String lastEventId) {
+        Long userId = UserContextHolder.getCurrentUserId();
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        SseEmitter emitter = streamService.connect(userId, lastEventId);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "10")
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                // 禁止前置 Nginx 缓冲事件流
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+}
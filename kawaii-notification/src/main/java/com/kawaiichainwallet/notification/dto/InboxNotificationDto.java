@@ -0,0 +1,61 @@
+package com.kawaiichainwallet.notification.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 收件箱通知DTO
+ *
+ * <p><b>时间字段约定</b>：所有时间字段统一使用 UTC 时区</p>
+ */
+@Data
+public class InboxNotificationDto {
+
+    /**
+     * 通知ID
+     */
+    private Long notificationId;
+
+    /**
+     * 标题
+     */
+    private String title;
+
+    /**
+     * 内容
+     */
+    private String message;
+
+    /**
+     * 通知类型：transaction, system, security, promotion
+     */
+    private String notificationType;
+
+    /**
+     * 关联业务ID
+     */
+    private Long relatedId;
+
+    /**
+     * 关联业务类型
+     */
+    private String relatedType;
+
+    /**
+     * 是否已读
+     */
+    private Boolean isRead;
+
+    /**
+     * 附加数据（原样输出JSON）
+     */
+    @JsonRawValue
+    private String metadata;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdAt;
+}
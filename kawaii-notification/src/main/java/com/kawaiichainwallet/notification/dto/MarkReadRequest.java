@@ -0,0 +1,21 @@
+package com.kawaiichainwallet.notification.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量标记已读请求DTO
+ */
+@Data
+public class MarkReadRequest {
+
+    /**
+     * 通知ID列表
+     */
+    @NotEmpty(message = "通知ID不能为空")
+    @Size(max = 200, message = "单次最多标记200条")
+    private List<Long> notificationIds;
+}
@@ -0,0 +1,89 @@
+package com.kawaiichainwallet.notification.entity;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 已认领的投递任务 - 投递行与所属通知内容的组合，交给渠道提供方发送
+ *
+ * <p><b>时间字段约定</b>：所有时间字段统一使用 UTC 时区</p>
+ */
+@Data
+public class DeliveryTask {
+
+    /**
+     * 投递ID
+     */
+    private Long deliveryId;
+
+    /**
+     * 通知ID（可作为提供方侧的幂等键）
+     */
+    private Long notificationId;
+
+    /**
+     * 渠道
+     */
+    private String channel;
+
+    /**
+     * 接收地址
+     */
+    private String recipient;
+
+    /**
+     * 已尝试发送次数（含本次）
+     */
+    private Integer attempts;
+
+    /**
+     * 过期时间
+     */
+    private LocalDateTime expiresAt;
+
+    /**
+     * 敏感模板变量（JSON），发送前替换进 message，为空表示没有
+     */
+    private String secretParams;
+
+    /**
+     * 投递行创建时间
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 接收用户ID
+     */
+    private Long userId;
+
+    /**
+     * 标题
+     */
+    private String title;
+
+    /**
+     * 内容
+     */
+    private String message;
+
+    /**
+     * 通知类型
+     */
+    private String notificationType;
+
+    /**
+     * 关联业务ID
+     */
+    private Long relatedId;
+
+    /**
+     * 关联业务类型
+     */
+    private String relatedType;
+
+    /**
+     * 附加数据（JSON）
+     */
+    private String metadata;
+}
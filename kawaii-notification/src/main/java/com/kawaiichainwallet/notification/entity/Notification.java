@@ -0,0 +1,99 @@
+package com.kawaiichainwallet.notification.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import org.apache.ibatis.type.ArrayTypeHandler;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 通知实体类 - 对应 notifications 表
+ *
+ * <p>metadata 为 JSONB 列，以JSON文本读写。</p>
+ *
+ * <p><b>时间字段约定</b>：所有时间字段统一使用 UTC 时区</p>
+ */
+@Data
+@TableName(value = "notifications", autoResultMap = true)
+public class Notification implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 3518306274919120644L;
+
+    /**
+     * 通知ID
+     */
+    @TableId(value = "notification_id", type = IdType.AUTO)
+    private Long notificationId;
+
+    /**
+     * 接收用户ID（发给未注册的联系方式时为空）
+     */
+    private Long userId;
+
+    /**
+     * 标题
+     */
+    private String title;
+
+    /**
+     * 内容
+     */
+    private String message;
+
+    /**
+     * 通知类型：transaction, system, security, promotion, verification
+     */
+    private String notificationType;
+
+    /**
+     * 发送渠道：in_app, email, sms, push
+     */
+    @TableField(value = "channels", typeHandler = ArrayTypeHandler.class)
+    private String[] channels;
+
+    /**
+     * 关联业务ID
+     */
+    private Long relatedId;
+
+    /**
+     * 关联业务类型
+     */
+    private String relatedType;
+
+    /**
+     * 是否已读
+     */
+    private Boolean isRead;
+
+    /**
+     * 是否已发送（没有待发送渠道，且至少一个渠道已发出；所有渠道都进入死信时保持 false）
+     */
+    private Boolean isSent;
+
+    /**
+     * 发送完成时间
+     */
+    private LocalDateTime sentAt;
+
+    /**
+     * 附加数据（JSON）
+     */
+    private String metadata;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updatedAt;
+}
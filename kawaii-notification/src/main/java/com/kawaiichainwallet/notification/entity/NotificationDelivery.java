@@ -0,0 +1,86 @@
+package com.kawaiichainwallet.notification.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 通知投递实体类 - 对应 notification_deliveries 表
+ *
+ * <p>每条通知的每个渠道一行，status 取值 pending / sent / dead（死信）。</p>
+ *
+ * <p><b>时间字段约定</b>：所有时间字段统一使用 UTC 时区</p>
+ */
+@Data
+@TableName("notification_deliveries")
+public class NotificationDelivery implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -2071853392746013518L;
+
+    /**
+     * 投递ID（数据库自增）
+     */
+    @TableId(value = "delivery_id", type = IdType.AUTO)
+    private Long deliveryId;
+
+    /**
+     * 通知ID
+     */
+    private Long notificationId;
+
+    /**
+     * 渠道：in_app, email, sms, push
+     */
+    private String channel;
+
+    /**
+     * 接收地址：email为邮箱，sms为手机号，in_app/push为用户ID
+     */
+    private String recipient;
+
+    /**
+     * 投递状态：pending, sent, dead
+     */
+    private String status;
+
+    /**
+     * 已尝试发送次数
+     */
+    private Integer attempts;
+
+    /**
+     * 下次可认领时间
+     */
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * 过期时间，超过后不再发送
+     */
+    private LocalDateTime expiresAt;
+
+    /**
+     * 敏感模板变量（JSON，如验证码），发送成功或过期后清空
+     */
+    private String secretParams;
+
+    /**
+     * 最近一次失败原因
+     */
+    private String lastError;
+
+    /**
+     * 发送成功时间
+     */
+    private LocalDateTime sentAt;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdAt;
+}
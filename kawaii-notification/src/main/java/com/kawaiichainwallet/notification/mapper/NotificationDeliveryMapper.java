@@ -0,0 +1,148 @@
+package com.kawaiichainwallet.notification.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.kawaiichainwallet.notification.entity.DeliveryTask;
+import com.kawaiichainwallet.notification.entity.NotificationDelivery;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 通知投递数据访问接口
+ *
+ * <p>notification_deliveries 兼作各渠道的持久化发送队列：待发送的行由部分索引
+ * idx_notification_deliveries_pending (channel, next_attempt_at) WHERE status = 'pending' 支撑认领，
+ * 已发送和死信的行不进入该索引。</p>
+ */
+@Mapper
+public interface NotificationDeliveryMapper extends BaseMapper<NotificationDelivery> {
+
+    /**
+     * 批量写入投递行（一条多行 INSERT）
+     */
+    @Insert({
+        "<script>",
+        "INSERT INTO notification_deliveries (notification_id, channel, recipient, status, attempts,",
+        "                                     next_attempt_at, expires_at, secret_params, created_at)",
+        "VALUES",
+        "<foreach collection='list' item='d' separator=','>",
+        "  (#{d.notificationId}, #{d.channel}, #{d.recipient}, 'pending', 0,",
+        "   #{d.nextAttemptAt}, #{d.expiresAt}, #{d.secretParams}::jsonb, #{d.createdAt})",
+        "</foreach>",
+        "</script>"
+    })
+    int insertBatch(@Param("list") List<NotificationDelivery> deliveries);
+
+    /**
+     * 认领一批到期的待发送任务
+     *
+     * <p>一条语句完成：FOR UPDATE SKIP LOCKED 选出本渠道的到期行，把 next_attempt_at 推后一个租期并累加尝试次数，
+     * 同时带出通知内容。语句单独提交，发送期间不持有行锁；实例崩溃时租期到后任务重新可认领。
+     * 认领时已计入尝试次数，只认领未达最大次数的行，达到上限的由 {@link #expireExhausted} 转入死信。</p>
+     */
+    @Select("""
+        UPDATE notification_deliveries d
+        SET next_attempt_at = #{leaseUntil}, attempts = d.attempts + 1
+        FROM (SELECT delivery_id FROM notification_deliveries
+              WHERE channel = #{channel} AND status = 'pending' AND next_attempt_at <= #{now}
+                AND attempts < #{maxAttempts}
+              ORDER BY next_attempt_at
+              LIMIT #{limit}
+              FOR UPDATE SKIP LOCKED) c,
+             notifications n
+        WHERE d.delivery_id = c.delivery_id
+          AND n.notification_id = d.notification_id
+        RETURNING d.delivery_id, d.notification_id, d.channel, d.recipient, d.attempts, d.expires_at,
+                  d.secret_params::text AS secret_params, d.created_at,
+                  n.user_id, n.title, n.message, n.notification_type, n.related_id, n.related_type,
+                  n.metadata::text AS metadata
+        """)
+    @Options(flushCache = Options.FlushCachePolicy.TRUE, useCache = false)
+    List<DeliveryTask> claim(@Param("channel") String channel,
+                             @Param("now") LocalDateTime now,
+                             @Param("leaseUntil") LocalDateTime leaseUntil,
+                             @Param("maxAttempts") int maxAttempts,
+                             @Param("limit") int limit);
+
+    /**
+     * 把已用完尝试次数且租期已过的待发送行转入死信，返回涉及的通知ID
+     *
+     * <p>最后一次发送在标记结果前中断（实例崩溃、超过租期）的行不会再被 {@link #claim} 认领，由这里收尾，
+     * 避免反复使实例崩溃的任务被无限重试。</p>
+     */
+    @Select("""
+        UPDATE notification_deliveries
+        SET status = 'dead', last_error = #{lastError}
+        WHERE delivery_id IN (SELECT delivery_id FROM notification_deliveries
+                              WHERE channel = #{channel} AND status = 'pending' AND next_attempt_at <= #{now}
+                                AND attempts >= #{maxAttempts}
+                              LIMIT #{limit}
+                              FOR UPDATE SKIP LOCKED)
+        RETURNING notification_id
+        """)
+    @Options(flushCache = Options.FlushCachePolicy.TRUE, useCache = false)
+    List<Long> expireExhausted(@Param("channel") String channel,
+                               @Param("now") LocalDateTime now,
+                               @Param("maxAttempts") int maxAttempts,
+                               @Param("limit") int limit,
+                               @Param("lastError") String lastError);
+
+    /**
+     * 批量标记发送成功（单条语句），同时清除敏感模板变量
+     */
+    @Update("""
+        UPDATE notification_deliveries
+        SET status = 'sent', sent_at = #{now}, last_error = NULL, secret_params = NULL
+        WHERE delivery_id = ANY(#{deliveryIds, typeHandler=org.apache.ibatis.type.ArrayTypeHandler})
+        """)
+    int markSent(@Param("deliveryIds") Long[] deliveryIds, @Param("now") LocalDateTime now);
+
+    /**
+     * 清除本渠道已过期投递行上的敏感模板变量（不论状态），返回清除的行数
+     *
+     * <p>未过期的死信保留变量以便重放；过期后既不会再发送也不能重放，变量不再保留。</p>
+     */
+    @Update("""
+        UPDATE notification_deliveries
+        SET secret_params = NULL
+        WHERE delivery_id IN (SELECT delivery_id FROM notification_deliveries
+                              WHERE channel = #{channel} AND secret_params IS NOT NULL AND expires_at <= #{now}
+                              LIMIT #{limit})
+        """)
+    int purgeExpiredSecrets(@Param("channel") String channel,
+                            @Param("now") LocalDateTime now,
+                            @Param("limit") int limit);
+
+    /**
+     * 失败后重新排期或转入死信（status = 'dead'）
+     */
+    @Update("""
+        UPDATE notification_deliveries
+        SET status = #{status}, next_attempt_at = #{nextAttemptAt}, last_error = #{lastError}
+        WHERE delivery_id = #{deliveryId}
+        """)
+    int reschedule(@Param("deliveryId") Long deliveryId,
+                   @Param("status") String status,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                   @Param("lastError") String lastError);
+
+    /**
+     * 把指定渠道的一批死信重新放回待发送队列（重置尝试次数）
+     */
+    @Update("""
+        UPDATE notification_deliveries
+        SET status = 'pending', attempts = 0, next_attempt_at = #{now}
+        WHERE delivery_id IN (SELECT delivery_id FROM notification_deliveries
+                              WHERE channel = #{channel} AND status = 'dead'
+                                AND (expires_at IS NULL OR expires_at > #{now})
+                              ORDER BY delivery_id
+                              LIMIT #{limit})
+        """)
+    int requeueDead(@Param("channel") String channel, @Param("now") LocalDateTime now, @Param("limit") int limit);
+}
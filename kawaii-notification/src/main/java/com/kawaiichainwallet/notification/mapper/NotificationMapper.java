@@ -0,0 +1,132 @@
+package com.kawaiichainwallet.notification.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.kawaiichainwallet.notification.entity.Notification;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 通知数据访问接口
+ *
+ * <p>收件箱只包含带 in_app 渠道的通知，查询条件都带 {@code 'in_app' = ANY(channels)}，
+ * 与部分索引 idx_notifications_inbox / idx_notifications_inbox_unread 的谓词一致。</p>
+ */
+@Mapper
+public interface NotificationMapper extends BaseMapper<Notification> {
+
+    /**
+     * 写入通知（channels 为数组列，metadata 为 JSONB 列），自增的 notification_id 回填到实体
+     */
+    @Insert("""
+        INSERT INTO notifications (user_id, title, message, notification_type, channels,
+                                   related_id, related_type, is_read, is_sent, metadata, created_at, updated_at)
+        VALUES (#{userId}, #{title}, #{message}, #{notificationType},
+                #{channels, typeHandler=org.apache.ibatis.type.ArrayTypeHandler},
+                #{relatedId}, #{relatedType}, FALSE, FALSE, #{metadata}::jsonb, #{createdAt}, #{updatedAt})
+        """)
+    @Options(useGeneratedKeys = true, keyProperty = "notificationId", keyColumn = "notification_id")
+    int insertNotification(Notification notification);
+
+    /**
+     * 批量标记已没有待发送渠道的通知为已发送（单条语句）
+     * 至少要有一个渠道已发出，所有渠道都进入死信的通知不算已发送
+     */
+    @Update("""
+        UPDATE notifications n
+        SET is_sent = TRUE, sent_at = #{now}
+        WHERE n.notification_id = ANY(#{notificationIds, typeHandler=org.apache.ibatis.type.ArrayTypeHandler})
+          AND n.is_sent = FALSE
+          AND NOT EXISTS (SELECT 1 FROM notification_deliveries d
+                          WHERE d.notification_id = n.notification_id AND d.status = 'pending')
+          AND EXISTS (SELECT 1 FROM notification_deliveries d
+                      WHERE d.notification_id = n.notification_id AND d.status = 'sent')
+        """)
+    int markSentIfComplete(@Param("notificationIds") Long[] notificationIds, @Param("now") LocalDateTime now);
+
+    /**
+     * 收件箱 - 按 (created_at, notification_id) 倒序的游标分页查询
+     * 全部消息走 idx_notifications_inbox，仅未读走 idx_notifications_inbox_unread，翻页成本与页码无关
+     */
+    @Select({
+        "<script>",
+        "SELECT notification_id, user_id, title, message, notification_type, related_id, related_type,",
+        "       is_read, metadata::text AS metadata, created_at",
+        "FROM notifications",
+        "WHERE user_id = #{userId} AND 'in_app' = ANY(channels)",
+        "  <if test='unreadOnly'>",
+        "    AND is_read = FALSE",
+        "  </if>",
+        "  <if test='cursorCreatedAt != null'>",
+        "    AND (created_at, notification_id) &lt; (#{cursorCreatedAt}, #{cursorId})",
+        "  </if>",
+        "ORDER BY created_at DESC, notification_id DESC",
+        "LIMIT #{limit}",
+        "</script>"
+    })
+    List<Notification> findInboxPage(@Param("userId") Long userId,
+                                     @Param("unreadOnly") boolean unreadOnly,
+                                     @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                     @Param("cursorId") Long cursorId,
+                                     @Param("limit") int limit);
+
+    /**
+     * 推送流补发 - 查询 since 之后创建的收件箱通知，按时间正序（倒序扫描 idx_notifications_inbox）
+     */
+    @Select("""
+        SELECT notification_id, user_id, title, message, notification_type, related_id, related_type,
+               is_read, metadata::text AS metadata, created_at
+        FROM notifications
+        WHERE user_id = #{userId} AND 'in_app' = ANY(channels)
+          AND created_at > #{since}
+        ORDER BY created_at, notification_id
+        LIMIT #{limit}
+        """)
+    List<Notification> findInboxSince(@Param("userId") Long userId,
+                                      @Param("since") LocalDateTime since,
+                                      @Param("limit") int limit);
+
+    /**
+     * 统计未读数（最多数到 cap），只扫描 idx_notifications_inbox_unread 中该用户的条目
+     */
+    @Select("""
+        SELECT COUNT(*) FROM (
+            SELECT 1 FROM notifications
+            WHERE user_id = #{userId} AND is_read = FALSE AND 'in_app' = ANY(channels)
+            LIMIT #{cap}
+        ) t
+        """)
+    long countUnread(@Param("userId") Long userId, @Param("cap") int cap);
+
+    /**
+     * 批量标记已读（单条语句），返回实际由未读变为已读的条数
+     */
+    @Update("""
+        UPDATE notifications
+        SET is_read = TRUE
+        WHERE user_id = #{userId}
+          AND notification_id = ANY(#{notificationIds, typeHandler=org.apache.ibatis.type.ArrayTypeHandler})
+          AND is_read = FALSE
+          AND 'in_app' = ANY(channels)
+        """)
+    int markRead(@Param("userId") Long userId, @Param("notificationIds") Long[] notificationIds);
+
+    /**
+     * 全部标记已读（单条语句），只处理 upTo 之前创建的通知，避免误标并发到达的新通知
+     */
+    @Update("""
+        UPDATE notifications
+        SET is_read = TRUE
+        WHERE user_id = #{userId}
+          AND is_read = FALSE
+          AND 'in_app' = ANY(channels)
+          AND created_at <= #{upTo}
+        """)
+    int markAllRead(@Param("userId") Long userId, @Param("upTo") LocalDateTime upTo);
+}
@@ -0,0 +1,19 @@
+package com.kawaiichainwallet.notification.provider;
+
+/**
+ * 单条投递失败结果
+ *
+ * @param deliveryId 投递ID
+ * @param retryable  是否可重试；不可重试的失败（如号码无效）直接进入死信
+ * @param error      失败原因
+ */
+public record DeliveryFailure(long deliveryId, boolean retryable, String error) {
+
+    public static DeliveryFailure retryable(long deliveryId, String error) {
+        return new DeliveryFailure(deliveryId, true, error);
+    }
+
+    public static DeliveryFailure permanent(long deliveryId, String error) {
+        return new DeliveryFailure(deliveryId, false, error);
+    }
+}
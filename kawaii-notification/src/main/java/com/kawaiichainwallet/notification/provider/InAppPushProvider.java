@@ -0,0 +1,64 @@
+package com.kawaiichainwallet.notification.provider;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kawaiichainwallet.notification.component.InboxCursor;
+import com.kawaiichainwallet.notification.component.PushConnectionRegistry;
+import com.kawaiichainwallet.notification.dto.InboxNotificationDto;
+import com.kawaiichainwallet.notification.entity.DeliveryTask;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 站内信提供方：通知已在提交事务中写入收件箱，这里只负责向在线客户端推送
+ *
+ * <p>每条任务发布一条消息到 Redis 频道 {@link PushConnectionRegistry#CHANNEL}，由持有该用户连接的实例转发给客户端；
+ * 用户不在线时消息无人接收，客户端下次打开收件箱或重连补发时仍能看到。发布失败时整批重试。</p>
+ */
+public class InAppPushProvider implements NotificationProvider {
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    public InAppPushProvider(StringRedisTemplate redisTemplate, ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public NotificationChannel channel() {
+        return NotificationChannel.IN_APP;
+    }
+
+    @Override
+    public List<DeliveryFailure> send(List<DeliveryTask> batch) throws Exception {
+        List<DeliveryFailure> failures = new ArrayList<>();
+        for (DeliveryTask task : batch) {
+            if (task.getUserId() == null) {
+                failures.add(DeliveryFailure.permanent(task.getDeliveryId(), "站内信缺少接收用户"));
+                continue;
+            }
+            String eventId = InboxCursor.encode(task.getCreatedAt(), task.getNotificationId());
+            String payload = objectMapper.writeValueAsString(toDto(task));
+            redisTemplate.convertAndSend(PushConnectionRegistry.CHANNEL,
+                    task.getUserId() + "|" + eventId + "|" + payload);
+        }
+        return failures;
+    }
+
+    private InboxNotificationDto toDto(DeliveryTask task) {
+        InboxNotificationDto dto = new InboxNotificationDto();
+        dto.setNotificationId(task.getNotificationId());
+        dto.setTitle(task.getTitle());
+        dto.setMessage(task.getMessage());
+        dto.setNotificationType(task.getNotificationType());
+        dto.setRelatedId(task.getRelatedId());
+        dto.setRelatedType(task.getRelatedType());
+        dto.setIsRead(false);
+        dto.setMetadata(task.getMetadata());
+        // 投递行与通知在同一次提交中写入，创建时间相同
+        dto.setCreatedAt(task.getCreatedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,31 @@
+package com.kawaiichainwallet.notification.provider;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 通知渠道（与 notifications.channels / notification_deliveries.channel 的取值一致）
+ */
+@Getter
+@RequiredArgsConstructor
+public enum NotificationChannel {
+
+    IN_APP("in_app"),
+    EMAIL("email"),
+    SMS("sms"),
+    PUSH("push");
+
+    private final String code;
+
+    /**
+     * 按渠道编码查找，未知编码返回 null
+     */
+    public static NotificationChannel fromCode(String code) {
+        for (NotificationChannel channel : values()) {
+            if (channel.code.equals(code)) {
+                return channel;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.kawaiichainwallet.notification.provider;
+
+import com.kawaiichainwallet.notification.entity.DeliveryTask;
+
+import java.util.List;
+
+/**
+ * 通知渠道提供方（邮件网关、短信网关、推送服务等）
+ *
+ * <p>每个渠道一个提供方，接入真实网关时声明对应渠道的 Bean 即可替换本地桩实现。
+ * 发送线程已按渠道限速后再调用 {@link #send}，提供方内部不需要再做限流。</p>
+ *
+ * <p>投递为"至少一次"：超时或进程崩溃后同一任务可能再次发送，提供方可用 notificationId 作为网关侧的幂等键。</p>
+ */
+public interface NotificationProvider {
+
+    /**
+     * 负责的渠道
+     */
+    NotificationChannel channel();
+
+    /**
+     * 发送一批任务
+     *
+     * @param batch 本批任务
+     * @return 失败的任务，空列表表示全部成功；抛出异常视为整批可重试失败
+     */
+    List<DeliveryFailure> send(List<DeliveryTask> batch) throws Exception;
+}
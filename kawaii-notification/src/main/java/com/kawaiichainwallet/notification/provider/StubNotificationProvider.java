@@ -0,0 +1,54 @@
+package com.kawaiichainwallet.notification.provider;
+
+import com.kawaiichainwallet.common.core.utils.ValidationUtil;
+import com.kawaiichainwallet.notification.entity.DeliveryTask;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 本地桩提供方：只记录日志，不调用外部网关
+ *
+ * <p>未配置真实提供方的渠道使用此实现。可配置模拟的单批耗时和失败率，
+ * 用于在本地和压测环境验证限速、重试和死信流程。</p>
+ */
+@Slf4j
+public class StubNotificationProvider implements NotificationProvider {
+
+    private final NotificationChannel channel;
+    private final Duration latency;
+    private final double failureRate;
+
+    public StubNotificationProvider(NotificationChannel channel, Duration latency, double failureRate) {
+        this.channel = channel;
+        this.latency = latency;
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public NotificationChannel channel() {
+        return channel;
+    }
+
+    @Override
+    public List<DeliveryFailure> send(List<DeliveryTask> batch) throws InterruptedException {
+        if (!latency.isZero()) {
+            Thread.sleep(latency);
+        }
+
+        List<DeliveryFailure> failures = new ArrayList<>();
+        for (DeliveryTask task : batch) {
+            if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+                failures.add(DeliveryFailure.retryable(task.getDeliveryId(), "模拟发送失败"));
+                continue;
+            }
+            log.info("{}_NOTIFICATION | deliveryId={} | recipient={} | type={} | title={}",
+                    channel.name(), task.getDeliveryId(), ValidationUtil.maskSensitiveInfo(task.getRecipient()),
+                    task.getNotificationType(), task.getTitle());
+        }
+        return failures;
+    }
+}
@@ -0,0 +1,141 @@
+package com.kawaiichainwallet.notification.service;
+
+import com.kawaiichainwallet.common.core.enums.ApiCode;
+import com.kawaiichainwallet.common.core.exception.BusinessException;
+import com.kawaiichainwallet.common.core.response.CursorPage;
+import com.kawaiichainwallet.common.core.utils.TimeUtil;
+import com.kawaiichainwallet.notification.component.InboxCursor;
+import com.kawaiichainwallet.notification.component.UnreadCounter;
+import com.kawaiichainwallet.notification.dto.InboxNotificationDto;
+import com.kawaiichainwallet.notification.entity.Notification;
+import com.kawaiichainwallet.notification.mapper.NotificationMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 站内信收件箱服务
+ *
+ * <p>列表按 (created_at, notification_id) 倒序游标分页；未读数读 Redis 计数，
+ * 标记已读为单条 UPDATE，并按实际更新的条数调整计数。</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InboxService {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final NotificationMapper notificationMapper;
+    private final UnreadCounter unreadCounter;
+
+    /**
+     * 查询收件箱
+     *
+     * @param userId     当前用户ID
+     * @param unreadOnly 是否只看未读
+     * @param cursor     上一页返回的游标，首页为空
+     * @param size       每页条数
+     */
+    public CursorPage<InboxNotificationDto> getInbox(Long userId, boolean unreadOnly, String cursor, Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        LocalDateTime cursorCreatedAt = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            InboxCursor.Position position = decodeCursor(cursor);
+            cursorCreatedAt = position.createdAt();
+            cursorId = position.notificationId();
+        }
+
+        // 多查一条用于判断是否还有下一页
+        List<Notification> rows = notificationMapper.findInboxPage(userId, unreadOnly, cursorCreatedAt, cursorId,
+                pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            Notification last = rows.get(rows.size() - 1);
+            nextCursor = InboxCursor.encode(last.getCreatedAt(), last.getNotificationId());
+        }
+
+        List<InboxNotificationDto> items = rows.stream()
+                .map(this::convertToDto)
+                .toList();
+        return new CursorPage<>(items, nextCursor, hasMore, null);
+    }
+
+    /**
+     * 查询 since 之后创建的通知（按时间正序），用于推送流断线重连时补发
+     */
+    public List<InboxNotificationDto> getInboxSince(Long userId, LocalDateTime since, int limit) {
+        return notificationMapper.findInboxSince(userId, since, limit).stream()
+                .map(this::convertToDto)
+                .toList();
+    }
+
+    /**
+     * 未读数
+     */
+    public long getUnreadCount(Long userId) {
+        return unreadCounter.get(userId);
+    }
+
+    /**
+     * 批量标记已读
+     *
+     * @return 实际由未读变为已读的条数
+     */
+    public int markRead(Long userId, List<Long> notificationIds) {
+        Long[] ids = notificationIds.stream().distinct().toArray(Long[]::new);
+        int updated = notificationMapper.markRead(userId, ids);
+        unreadCounter.decrement(userId, updated);
+        log.debug("标记已读: userId={}, requested={}, updated={}", userId, ids.length, updated);
+        return updated;
+    }
+
+    /**
+     * 全部标记已读
+     *
+     * @return 实际由未读变为已读的条数
+     */
+    public int markAllRead(Long userId) {
+        int updated = notificationMapper.markAllRead(userId, TimeUtil.nowUtc());
+        // 标记期间可能有新通知到达，直接丢弃计数由下次读取重新统计
+        unreadCounter.invalidate(userId);
+        log.debug("全部标记已读: userId={}, updated={}", userId, updated);
+        return updated;
+    }
+
+    private InboxNotificationDto convertToDto(Notification notification) {
+        InboxNotificationDto dto = new InboxNotificationDto();
+        dto.setNotificationId(notification.getNotificationId());
+        dto.setTitle(notification.getTitle());
+        dto.setMessage(notification.getMessage());
+        dto.setNotificationType(notification.getNotificationType());
+        dto.setRelatedId(notification.getRelatedId());
+        dto.setRelatedType(notification.getRelatedType());
+        dto.setIsRead(notification.getIsRead());
+        dto.setMetadata(notification.getMetadata());
+        dto.setCreatedAt(notification.getCreatedAt());
+        return dto;
+    }
+
+    /**
+     * 解码分页游标
+     */
+    private InboxCursor.Position decodeCursor(String cursor) {
+        try {
+            return InboxCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(ApiCode.VALIDATION_ERROR, "无效的分页游标");
+        }
+    }
+}
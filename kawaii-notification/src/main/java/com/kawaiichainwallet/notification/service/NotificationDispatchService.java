@@ -0,0 +1,188 @@
+package com.kawaiichainwallet.notification.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kawaiichainwallet.api.notification.dto.SendNotificationRequest;
+import com.kawaiichainwallet.common.core.enums.ApiCode;
+import com.kawaiichainwallet.common.core.exception.BusinessException;
+import com.kawaiichainwallet.common.core.utils.TimeUtil;
+import com.kawaiichainwallet.common.core.utils.ValidationUtil;
+import com.kawaiichainwallet.notification.component.NotificationDispatcher;
+import com.kawaiichainwallet.notification.component.UnreadCounter;
+import com.kawaiichainwallet.notification.entity.Notification;
+import com.kawaiichainwallet.notification.entity.NotificationDelivery;
+import com.kawaiichainwallet.notification.mapper.NotificationDeliveryMapper;
+import com.kawaiichainwallet.notification.mapper.NotificationMapper;
+import com.kawaiichainwallet.notification.provider.NotificationChannel;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 通知提交服务
+ *
+ * <p>提交只做两件事：在一个短事务中写入 notifications 和每个渠道一行 notification_deliveries，
+ * 提交后唤醒对应渠道的发送线程（站内信同时增加收件人的未读数）。调用方（如发送验证码接口）不等待任何外部网关。</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationDispatchService {
+
+    /**
+     * 单次重放死信的上限
+     */
+    private static final int MAX_REQUEUE_LIMIT = 10000;
+
+    private final NotificationMapper notificationMapper;
+    private final NotificationDeliveryMapper deliveryMapper;
+    private final NotificationDispatcher dispatcher;
+    private final UnreadCounter unreadCounter;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 提交通知
+     *
+     * @return 通知ID
+     */
+    public Long submit(SendNotificationRequest request) {
+        Set<NotificationChannel> channels = resolveChannels(request.getChannels());
+        LocalDateTime now = TimeUtil.nowUtc();
+        LocalDateTime expiresAt = request.getTtlSeconds() != null ? now.plusSeconds(request.getTtlSeconds()) : null;
+        String secretParams = secretsToJson(request);
+
+        Notification notification = new Notification();
+        notification.setUserId(request.getUserId());
+        notification.setTitle(request.getTitle());
+        notification.setMessage(request.getMessage());
+        notification.setNotificationType(request.getNotificationType());
+        notification.setChannels(channels.stream().map(NotificationChannel::getCode).toArray(String[]::new));
+        notification.setRelatedId(request.getRelatedId());
+        notification.setRelatedType(request.getRelatedType());
+        notification.setMetadata(toJson(request));
+        notification.setCreatedAt(now);
+        notification.setUpdatedAt(now);
+
+        List<NotificationDelivery> deliveries = new ArrayList<>(channels.size());
+        for (NotificationChannel channel : channels) {
+            NotificationDelivery delivery = new NotificationDelivery();
+            delivery.setChannel(channel.getCode());
+            delivery.setRecipient(recipient(channel, request));
+            delivery.setNextAttemptAt(now);
+            delivery.setExpiresAt(expiresAt);
+            delivery.setSecretParams(secretParams);
+            delivery.setCreatedAt(now);
+            deliveries.add(delivery);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            notificationMapper.insertNotification(notification);
+            deliveries.forEach(delivery -> delivery.setNotificationId(notification.getNotificationId()));
+            deliveryMapper.insertBatch(deliveries);
+        });
+        dispatcher.wakeUp(channels);
+        if (channels.contains(NotificationChannel.IN_APP)) {
+            unreadCounter.increment(request.getUserId(), 1);
+        }
+
+        meterRegistry.counter("notification.submitted", "type", request.getNotificationType()).increment();
+        log.info("通知已提交: notificationId={}, userId={}, type={}, channels={}",
+                notification.getNotificationId(), request.getUserId(), request.getNotificationType(), channels);
+        return notification.getNotificationId();
+    }
+
+    /**
+     * 把指定渠道的死信重新放回待发送队列（未过期的）
+     *
+     * @return 重放的条数
+     */
+    public int requeueDeadLetters(String channelCode, int limit) {
+        NotificationChannel channel = NotificationChannel.fromCode(channelCode);
+        if (channel == null) {
+            throw new BusinessException(ApiCode.VALIDATION_ERROR, "不支持的通知渠道: " + channelCode);
+        }
+        int count = deliveryMapper.requeueDead(channel.getCode(), TimeUtil.nowUtc(),
+                Math.clamp(limit, 1, MAX_REQUEUE_LIMIT));
+        if (count > 0) {
+            dispatcher.wakeUp(Set.of(channel));
+        }
+        log.info("重放通知死信: channel={}, count={}", channel.getCode(), count);
+        return count;
+    }
+
+    private Set<NotificationChannel> resolveChannels(List<String> codes) {
+        Set<NotificationChannel> channels = EnumSet.noneOf(NotificationChannel.class);
+        for (String code : codes) {
+            NotificationChannel channel = NotificationChannel.fromCode(code);
+            if (channel == null) {
+                throw new BusinessException(ApiCode.VALIDATION_ERROR, "不支持的通知渠道: " + code);
+            }
+            channels.add(channel);
+        }
+        return channels;
+    }
+
+    /**
+     * 各渠道的接收地址：in_app / push 使用用户ID，email / sms 使用请求中的邮箱和手机号
+     */
+    private static String recipient(NotificationChannel channel, SendNotificationRequest request) {
+        return switch (channel) {
+            case IN_APP, PUSH -> {
+                if (request.getUserId() == null) {
+                    throw new BusinessException(ApiCode.VALIDATION_ERROR, channel.getCode() + "渠道需要指定用户ID");
+                }
+                yield String.valueOf(request.getUserId());
+            }
+            case EMAIL -> {
+                if (!ValidationUtil.isValidEmail(request.getEmail())) {
+                    throw new BusinessException(ApiCode.INVALID_EMAIL_FORMAT);
+                }
+                yield request.getEmail();
+            }
+            case SMS -> {
+                if (!ValidationUtil.isValidPhone(request.getPhone())) {
+                    throw new BusinessException(ApiCode.INVALID_PHONE_FORMAT);
+                }
+                yield request.getPhone();
+            }
+        };
+    }
+
+    /**
+     * 敏感模板变量只随投递行保存，必须带有效期，过期后由发送线程清除
+     */
+    private String secretsToJson(SendNotificationRequest request) {
+        if (request.getSecrets() == null || request.getSecrets().isEmpty()) {
+            return null;
+        }
+        if (request.getTtlSeconds() == null) {
+            throw new BusinessException(ApiCode.VALIDATION_ERROR, "包含敏感模板变量的通知必须设置有效期");
+        }
+        try {
+            return objectMapper.writeValueAsString(request.getSecrets());
+        } catch (JsonProcessingException e) {
+            throw new BusinessException(ApiCode.VALIDATION_ERROR, "敏感模板变量格式错误");
+        }
+    }
+
+    private String toJson(SendNotificationRequest request) {
+        if (request.getMetadata() == null || request.getMetadata().isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(request.getMetadata());
+        } catch (JsonProcessingException e) {
+            throw new BusinessException(ApiCode.VALIDATION_ERROR, "附加数据格式错误");
+        }
+    }
+}
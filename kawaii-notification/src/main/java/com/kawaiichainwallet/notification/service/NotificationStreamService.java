@@ -0,0 +1,115 @@
+package com.kawaiichainwallet.notification.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kawaiichainwallet.common.core.utils.TimeUtil;
+import com.kawaiichainwallet.notification.component.InboxCursor;
+import com.kawaiichainwallet.notification.component.PushConnection;
+import com.kawaiichainwallet.notification.component.PushConnectionRegistry;
+import com.kawaiichainwallet.notification.config.NotificationStreamProperties;
+import com.kawaiichainwallet.notification.dto.InboxNotificationDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 站内信推送流服务
+ *
+ * <p>客户端建立 SSE 连接后，新通知由 Redis 扇出实时推送，不再需要轮询收件箱。认证只在网关建立连接时做一次，
+ * 连接到达最长存活时间后由服务端关闭，客户端重连时重新认证。</p>
+ *
+ * <p>事件ID为收件箱游标。重连时客户端带上 Last-Event-ID，服务端从数据库补发补发窗口内错过的通知；
+ * 超出窗口或条数上限时发送 resync 事件，客户端改为重新拉取收件箱。推送为"至少一次"，客户端按 notificationId 去重。</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationStreamService {
+
+    private final PushConnectionRegistry connectionRegistry;
+    private final InboxService inboxService;
+    private final NotificationStreamProperties properties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 建立推送连接
+     *
+     * @param userId      当前用户ID
+     * @param lastEventId 客户端最后收到的事件ID，首次连接为空
+     * @return 本实例连接数已满时返回 null
+     */
+    public SseEmitter connect(Long userId, String lastEventId) {
+        // 比服务端主动关闭稍晚超时，正常情况下不会触发容器超时
+        long timeoutMillis = properties.getMaxConnectionAge().plus(properties.getHeartbeatInterval()).toMillis();
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        PushConnection connection = new PushConnection(userId, emitter, properties.getBufferSize());
+
+        // 先注册再查询补发，补发查询期间到达的新通知进入缓冲，排在补发之后发送
+        if (!connectionRegistry.register(connection)) {
+            meterRegistry.counter("notification.stream.rejected").increment();
+            log.warn("推送连接数已达上限，拒绝新连接: userId={}", userId);
+            return null;
+        }
+        List<PushConnection.PushEvent> replay = replay(userId, lastEventId);
+        connection.start(replay, properties.getHeartbeatInterval(), properties.getMaxConnectionAge(),
+                properties.getReconnectDelay(), connectionRegistry::onClosed);
+
+        log.debug("推送连接已建立: connectionId={}, userId={}, replayed={}",
+                connection.getConnectionId(), userId, replay.size());
+        return emitter;
+    }
+
+    /**
+     * 计算重连补发的事件
+     */
+    private List<PushConnection.PushEvent> replay(Long userId, String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return List.of();
+        }
+
+        InboxCursor.Position position;
+        try {
+            position = InboxCursor.decode(lastEventId);
+        } catch (IllegalArgumentException e) {
+            return resync("invalid_id");
+        }
+        LocalDateTime now = TimeUtil.nowUtc();
+        if (position.createdAt().isBefore(now.minus(properties.getReplayWindow()))) {
+            return resync("out_of_window");
+        }
+
+        try {
+            LocalDateTime since = position.createdAt().minus(properties.getReplayOverlap());
+            int limit = properties.getReplayLimit();
+            List<InboxNotificationDto> missed = inboxService.getInboxSince(userId, since, limit + 1);
+            if (missed.size() > limit) {
+                return resync("too_many");
+            }
+
+            List<PushConnection.PushEvent> events = new ArrayList<>(missed.size());
+            for (InboxNotificationDto dto : missed) {
+                events.add(new PushConnection.PushEvent(
+                        InboxCursor.encode(dto.getCreatedAt(), dto.getNotificationId()),
+                        PushConnection.EVENT_NOTIFICATION,
+                        objectMapper.writeValueAsString(dto)));
+            }
+            meterRegistry.counter("notification.stream.replay", "result", "replayed").increment();
+            return events;
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("推送连接补发失败，通知客户端重新拉取: userId={}", userId, e);
+            return resync("error");
+        }
+    }
+
+    private List<PushConnection.PushEvent> resync(String reason) {
+        meterRegistry.counter("notification.stream.replay", "result", reason).increment();
+        return List.of(new PushConnection.PushEvent(null, PushConnection.EVENT_RESYNC, "{\"reason\":\"" + reason + "\"}"));
+    }
+}
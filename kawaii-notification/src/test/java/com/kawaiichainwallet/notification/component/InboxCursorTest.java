@@ -0,0 +1,61 @@
+package com.kawaiichainwallet.notification.component;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 收件箱游标：编码解码往返和非法游标
+ */
+class InboxCursorTest {
+
+    @Test
+    void roundTripKeepsNanosecondPrecision() {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 10, 18, 12, 30, 45, 123_456_789);
+
+        InboxCursor.Position position = InboxCursor.decode(InboxCursor.encode(createdAt, 1_800_000_000_000_000_123L));
+
+        assertEquals(createdAt, position.createdAt());
+        assertEquals(1_800_000_000_000_000_123L, position.notificationId());
+    }
+
+    @Test
+    void roundTripWithZeroSeconds() {
+        // LocalDateTime.toString 省略为0的秒，解析时仍能还原
+        LocalDateTime createdAt = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+        InboxCursor.Position position = InboxCursor.decode(InboxCursor.encode(createdAt, 1L));
+
+        assertEquals(createdAt, position.createdAt());
+        assertEquals(1L, position.notificationId());
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String cursor = InboxCursor.encode(LocalDateTime.of(2026, 10, 18, 23, 59, 59, 999_999_999), Long.MAX_VALUE);
+
+        assertFalse(cursor.contains("+"));
+        assertFalse(cursor.contains("/"));
+        assertFalse(cursor.contains("="));
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThrows(IllegalArgumentException.class, () -> InboxCursor.decode(null));
+        assertThrows(IllegalArgumentException.class, () -> InboxCursor.decode("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> InboxCursor.decode(encodeRaw("2026-10-18T12:30:45")));
+        assertThrows(IllegalArgumentException.class, () -> InboxCursor.decode(encodeRaw("2026-10-18T12:30:45|1|2")));
+        assertThrows(IllegalArgumentException.class, () -> InboxCursor.decode(encodeRaw("yesterday|1")));
+        assertThrows(IllegalArgumentException.class, () -> InboxCursor.decode(encodeRaw("2026-10-18T12:30:45|abc")));
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,59 @@
+package com.kawaiichainwallet.notification.component;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 投递失败的重试延迟：指数增长、上限和随机抖动范围
+ */
+class NotificationRetryDelayTest {
+
+    private static final Duration BASE = Duration.ofSeconds(2);
+    private static final Duration MAX = Duration.ofMinutes(10);
+    private static final int SAMPLES = 1_000;
+
+    @Test
+    void delayDoublesPerAttemptWithinJitterRange() {
+        for (int attempts = 1; attempts <= 8; attempts++) {
+            long nominal = BASE.toMillis() << (attempts - 1);
+            assertWithin(attempts, nominal / 2, nominal);
+        }
+    }
+
+    @Test
+    void delayIsCappedAtMax() {
+        for (int attempts : new int[]{10, 20, 21, 64, Integer.MAX_VALUE}) {
+            assertWithin(attempts, MAX.toMillis() / 2, MAX.toMillis());
+        }
+    }
+
+    @Test
+    void nonPositiveAttemptsUseBaseDelay() {
+        assertWithin(0, BASE.toMillis() / 2, BASE.toMillis());
+        assertWithin(-1, BASE.toMillis() / 2, BASE.toMillis());
+    }
+
+    @Test
+    void jitterSpreadsRetries() {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long delay = NotificationDispatcher.retryDelay(5, BASE, MAX).toMillis();
+            min = Math.min(min, delay);
+            max = Math.max(max, delay);
+        }
+        // 32s 的一半是随机部分，1000 次取样应覆盖其大部分
+        assertTrue(max - min > 8_000, "spread " + (max - min));
+    }
+
+    private static void assertWithin(int attempts, long lowerMillis, long upperMillis) {
+        for (int i = 0; i < SAMPLES; i++) {
+            long delay = NotificationDispatcher.retryDelay(attempts, BASE, MAX).toMillis();
+            assertTrue(delay >= lowerMillis && delay <= upperMillis,
+                    "attempts=" + attempts + ", delay=" + delay);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.kawaiichainwallet.notification.component;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 令牌桶：突发额度、欠额等待和容量上限（只断言等待时间的下限，上限留足余量）
+ */
+class TokenBucketTest {
+
+    @Test
+    void burstIsAvailableImmediately() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(10, 50);
+
+        long elapsed = timeMillis(() -> bucket.acquire(50));
+
+        assertTrue(elapsed < 500, "elapsed " + elapsed);
+    }
+
+    @Test
+    void oversizedBatchWaitsForDeficit() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1000, 10);
+
+        // 取走 110 个，欠 100 个，按每秒1000个约需 100ms
+        long elapsed = timeMillis(() -> bucket.acquire(110));
+
+        assertTrue(elapsed >= 90, "elapsed " + elapsed);
+        assertTrue(elapsed < 1000, "elapsed " + elapsed);
+    }
+
+    @Test
+    void deficitIsChargedToNextCaller() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(100, 5);
+        bucket.acquire(5);
+
+        // 桶已空，再取 5 个约需 50ms
+        long elapsed = timeMillis(() -> bucket.acquire(5));
+
+        assertTrue(elapsed >= 40, "elapsed " + elapsed);
+        assertTrue(elapsed < 1000, "elapsed " + elapsed);
+    }
+
+    @Test
+    void idleRefillIsCappedAtBurst() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(100, 5);
+        bucket.acquire(5);
+        // 空闲 200ms 可补充 20 个，但桶里最多只有 5 个
+        TimeUnit.MILLISECONDS.sleep(200);
+        bucket.acquire(5);
+
+        long elapsed = timeMillis(() -> bucket.acquire(5));
+
+        assertTrue(elapsed >= 40, "elapsed " + elapsed);
+    }
+
+    private static long timeMillis(Acquire acquire) throws InterruptedException {
+        long start = System.nanoTime();
+        acquire.run();
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    @FunctionalInterface
+    private interface Acquire {
+        void run() throws InterruptedException;
+    }
+}
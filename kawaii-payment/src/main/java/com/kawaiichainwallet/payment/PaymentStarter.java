@@ -5,7 +5,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 
 @SpringBootApplication(scanBasePackages = "com.kawaiichainwallet")
-@EnableFeignClients
+@EnableFeignClients(basePackages = {"com.kawaiichainwallet.payment", "com.kawaiichainwallet.api"})
 public class PaymentStarter {
 
     public static void main(String[] args) {
@@ -0,0 +1,47 @@
+package com.kawaiichainwallet.payment.config;
+
+import com.kawaiichainwallet.api.core.client.CoreServiceApi;
+import com.kawaiichainwallet.api.core.client.CoreServiceAsyncApi;
+import com.kawaiichainwallet.api.user.client.UserServiceApi;
+import com.kawaiichainwallet.api.user.client.UserServiceAsyncApi;
+import com.kawaiichainwallet.api.user.fallback.UserServiceApiFallbackFactory;
+import com.kawaiichainwallet.common.spring.context.UserContextExecutors;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 内部服务异步调用配置
+ * 支付流程需要的用户信息、钱包余额、支付权限可以并行查询，耗时取最大值而不是总和
+ */
+@Configuration
+public class AsyncApiConfig {
+
+    /**
+     * 执行内部调用的虚拟线程执行器，任务携带调用方的用户上下文（Feign拦截器据此传递用户和追踪请求头）
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService internalApiExecutor() {
+        return UserContextExecutors.wrap(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean
+    public UserServiceAsyncApi userServiceAsyncApi(UserServiceApi userServiceApi,
+                                                   UserServiceApiFallbackFactory fallbackFactory,
+                                                   @Qualifier("internalApiExecutor") ExecutorService executor,
+                                                   @Value("${app.async-api.timeout:3s}") Duration timeout) {
+        return new UserServiceAsyncApi(userServiceApi, fallbackFactory, executor, timeout);
+    }
+
+    @Bean
+    public CoreServiceAsyncApi coreServiceAsyncApi(CoreServiceApi coreServiceApi,
+                                                   @Qualifier("internalApiExecutor") ExecutorService executor,
+                                                   @Value("${app.async-api.timeout:3s}") Duration timeout) {
+        return new CoreServiceAsyncApi(coreServiceApi, executor, timeout);
+    }
+}
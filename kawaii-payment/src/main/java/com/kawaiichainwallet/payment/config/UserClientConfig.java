@@ -0,0 +1,32 @@
+package com.kawaiichainwallet.payment.config;
+
+import com.kawaiichainwallet.api.user.client.CollapsingUserServiceClient;
+import com.kawaiichainwallet.api.user.client.UserServiceApi;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 用户服务客户端配置
+ */
+@Configuration
+public class UserClientConfig {
+
+    /**
+     * 合并单用户查询的用户服务客户端，订单处理中的用户查询统一走这里
+     */
+    @Bean
+    public CollapsingUserServiceClient collapsingUserServiceClient(
+            UserServiceApi userServiceApi,
+            MeterRegistry meterRegistry,
+            @Value("${app.user-client.collapse-window:2ms}") Duration window,
+            @Value("${app.user-client.timeout:5s}") Duration timeout,
+            @Value("${app.user-client.max-batch-size:100}") int maxBatchSize,
+            @Value("${app.user-client.cache-ttl:1s}") Duration cacheTtl,
+            @Value("${app.user-client.cache-max-size:10000}") int cacheMaxSize) {
+        return new CollapsingUserServiceClient(userServiceApi, meterRegistry, window, timeout, maxBatchSize, cacheTtl, cacheMaxSize);
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.util.TimeZone;
 
@@ -22,6 +23,7 @@ import java.util.TimeZone;
 @EnableFeignClients(basePackages = {"com.kawaiichainwallet.api"})
 @MapperScan("com.kawaiichainwallet.user.mapper")
 @EnableAsync
+@EnableScheduling
 public class UserStarter {
 
     static {
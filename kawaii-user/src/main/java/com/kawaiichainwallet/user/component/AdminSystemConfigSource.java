@@ -0,0 +1,47 @@
+package com.kawaiichainwallet.user.component;
+
+import com.kawaiichainwallet.api.admin.client.SystemConfigServiceApi;
+import com.kawaiichainwallet.api.admin.dto.SystemConfigGroupResponse;
+import com.kawaiichainwallet.common.business.sysconfig.SystemConfigGroup;
+import com.kawaiichainwallet.common.business.sysconfig.SystemConfigSource;
+import com.kawaiichainwallet.common.core.response.R;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 从管理服务拉取系统配置的数据源
+ * 只在收到配置变更通知和定期对账时调用，请求线程读取配置走本地缓存
+ */
+@Component
+@RequiredArgsConstructor
+public class AdminSystemConfigSource implements SystemConfigSource {
+
+    private final SystemConfigServiceApi systemConfigServiceApi;
+
+    @Override
+    public Map<String, Long> loadVersions() {
+        return unwrap(systemConfigServiceApi.getGroupVersions(), "获取系统配置版本失败");
+    }
+
+    @Override
+    public SystemConfigGroup loadGroup(String group) {
+        SystemConfigGroupResponse response = unwrap(systemConfigServiceApi.getGroup(group), "获取系统配置组失败: " + group);
+        List<SystemConfigGroup.Entry> entries = response.getItems() == null ? List.of() : response.getItems().stream()
+                .map(item -> new SystemConfigGroup.Entry(item.getConfigKey(), item.getConfigValue(), item.getConfigType()))
+                .toList();
+        return SystemConfigGroup.of(group, response.getVersion() != null ? response.getVersion() : 0L, entries);
+    }
+
+    /**
+     * 调用失败时抛出异常，由配置缓存保留旧快照
+     */
+    private static <T> T unwrap(R<T> result, String message) {
+        if (result == null || !result.isSuccess() || result.getData() == null) {
+            throw new IllegalStateException(message + (result != null ? ", msg=" + result.getMsg() : ""));
+        }
+        return result.getData();
+    }
+}
@@ -0,0 +1,86 @@
+package com.kawaiichainwallet.user.component;
+
+import com.kawaiichainwallet.user.entity.LastLoginRecord;
+import com.kawaiichainwallet.user.mapper.UserMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 最后登录信息延迟写入组件
+ *
+ * <p>last_login_at / last_login_ip 只用于展示，不参与鉴权判断。
+ * 登录时只在内存中按用户合并最新一次登录，由定时任务批量落库，
+ * 避免每次登录都对 users 行产生一次写入（以及触发器、WAL 和行锁开销）。</p>
+ *
+ * <p>进程异常退出时最多丢失一个刷新周期内的最后登录信息；正常停机时会在销毁前刷新。</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LastLoginWriteBehind {
+
+    /**
+     * 单条批量UPDATE语句包含的最大行数
+     */
+    private static final int FLUSH_CHUNK_SIZE = 500;
+
+    private final UserMapper userMapper;
+
+    private final Map<Long, LastLoginRecord> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 记录一次登录，同一用户在刷新周期内只保留最新的一次
+     */
+    public void record(Long userId, LocalDateTime loginTime, String ipAddress) {
+        pending.merge(userId, new LastLoginRecord(userId, loginTime, ipAddress),
+                (old, latest) -> latest.loginTime().isBefore(old.loginTime()) ? old : latest);
+    }
+
+    /**
+     * 定时批量刷新到数据库
+     */
+    @Scheduled(fixedDelayString = "${app.auth.last-login-flush-interval:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<LastLoginRecord> batch = new ArrayList<>(pending.size());
+        for (LastLoginRecord record : pending.values()) {
+            // 仅在值未被并发更新时移除，较新的登录记录留到下一轮刷新
+            if (pending.remove(record.userId(), record)) {
+                batch.add(record);
+            }
+        }
+
+        for (int from = 0; from < batch.size(); from += FLUSH_CHUNK_SIZE) {
+            List<LastLoginRecord> chunk = batch.subList(from, Math.min(from + FLUSH_CHUNK_SIZE, batch.size()));
+            try {
+                userMapper.batchUpdateLoginInfo(chunk);
+            } catch (Exception e) {
+                log.error("批量写入最后登录信息失败，放回队列等待重试: size={}", chunk.size(), e);
+                chunk.forEach(r -> pending.merge(r.userId(), r,
+                        (current, failed) -> current.loginTime().isBefore(failed.loginTime()) ? failed : current));
+            }
+        }
+
+        log.debug("最后登录信息刷新完成: size={}", batch.size());
+    }
+
+    /**
+     * 停机前刷新剩余记录
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,92 @@
+package com.kawaiichainwallet.user.component;
+
+import com.kawaiichainwallet.api.notification.client.NotificationServiceApi;
+import com.kawaiichainwallet.api.notification.dto.SendNotificationRequest;
+import com.kawaiichainwallet.common.core.response.R;
+import com.kawaiichainwallet.common.core.utils.ValidationUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 验证码下发组件
+ *
+ * <p>把验证码提交给通知服务：通知服务落库后立即返回，短信/邮件由其后台按渠道限速异步发送，
+ * 发送验证码接口不等待短信或邮件网关。验证码消息带有效期，过期未发出的不再发送。</p>
+ *
+ * <p>验证码作为敏感模板变量提交，通知内容中只保存 {code} 占位符，明文验证码不会留在通知记录和收件箱中。</p>
+ */
+@Slf4j
+@Component
+public class OtpNotificationSender {
+
+    private static final String NOTIFICATION_TYPE = "verification";
+    private static final String CODE_PLACEHOLDER = "{code}";
+
+    private final NotificationServiceApi notificationServiceApi;
+    private final int expirySeconds;
+
+    public OtpNotificationSender(NotificationServiceApi notificationServiceApi,
+                                 @Value("${app.otp.expiration:300}") int expirySeconds) {
+        this.notificationServiceApi = notificationServiceApi;
+        this.expirySeconds = expirySeconds;
+    }
+
+    /**
+     * 提交验证码通知
+     *
+     * @param userId  接收用户ID（注册时为空）
+     * @param target  手机号或邮箱
+     * @param type    类型（phone / email）
+     * @param purpose 用途（login / register 等）
+     * @param code    验证码
+     * @return 是否已被通知服务受理
+     */
+    public boolean send(Long userId, String target, String type, String purpose, String code) {
+        String purposeName = purposeName(purpose);
+        long minutes = Math.max(1, expirySeconds / 60);
+
+        SendNotificationRequest request = new SendNotificationRequest();
+        request.setUserId(userId);
+        request.setTitle("验证码");
+        request.setNotificationType(NOTIFICATION_TYPE);
+        request.setTtlSeconds(expirySeconds);
+        request.setSecrets(Map.of("code", code));
+        if ("email".equals(type)) {
+            request.setChannels(List.of("email"));
+            request.setEmail(target);
+            request.setMessage(String.format("您的%s验证码是：%s，有效期%d分钟。", purposeName, CODE_PLACEHOLDER, minutes));
+        } else {
+            request.setChannels(List.of("sms"));
+            request.setPhone(target);
+            request.setMessage(String.format("【KawaiiChain】您的%s验证码是：%s，有效期%d分钟。",
+                    purposeName, CODE_PLACEHOLDER, minutes));
+        }
+
+        try {
+            R<Long> result = notificationServiceApi.send(request);
+            if (result.isSuccess()) {
+                log.debug("验证码通知已提交: target={}, purpose={}, notificationId={}",
+                        ValidationUtil.maskSensitiveInfo(target), purpose, result.getData());
+                return true;
+            }
+            log.error("验证码通知提交失败: target={}, purpose={}, msg={}",
+                    ValidationUtil.maskSensitiveInfo(target), purpose, result.getMsg());
+        } catch (Exception e) {
+            log.error("验证码通知提交失败: target={}, purpose={}", ValidationUtil.maskSensitiveInfo(target), purpose, e);
+        }
+        return false;
+    }
+
+    private static String purposeName(String purpose) {
+        return switch (purpose) {
+            case "login" -> "登录";
+            case "register" -> "注册";
+            case "reset_password" -> "重置密码";
+            default -> "身份";
+        };
+    }
+}
@@ -0,0 +1,300 @@
+package com.kawaiichainwallet.user.component;
+
+import com.kawaiichainwallet.common.core.utils.ScalableBloomFilter;
+import com.kawaiichainwallet.user.entity.User;
+import com.kawaiichainwallet.user.mapper.UserMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * 用户名/邮箱/手机号存在性布隆过滤器
+ *
+ * <p>注册表单的实时校验和注册流程都会检查登录标识是否已被占用。
+ * 过滤器判定"一定不存在"时直接在内存中返回，只有"可能存在"时才查询数据库确认，
+ * 绝大多数可用名的检查不会到达主库。</p>
+ *
+ * <ul>
+ *   <li>每个实例在启动后通过流式扫描 users 表构建本地过滤器，并定期重建以清除已删除/已修改的旧值</li>
+ *   <li>注册或修改登录标识时先写入本地过滤器，再通过 Redis pub/sub 通知其他实例</li>
+ *   <li>过滤器未构建完成前所有检查都回源数据库</li>
+ * </ul>
+ *
+ * <p>过滤器只能产生误判"可能存在"（由数据库兜底），不会把已存在的值判为不存在；
+ * 唯一性最终由数据库唯一索引保证。</p>
+ */
+@Slf4j
+@Component
+public class UserExistenceFilter implements MessageListener {
+
+    /**
+     * 登录标识类型
+     */
+    public enum Field {
+        USERNAME, EMAIL, PHONE
+    }
+
+    private static final String CHANNEL = "user:existence-filter:add";
+    private static final String MESSAGE_SEPARATOR = "|";
+
+    private final UserMapper userMapper;
+    private final StringRedisTemplate redisTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long initialCapacity;
+    private final double targetFpp;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    /**
+     * 串行化重建；使用ReentrantLock而不是synchronized，流式扫描期间的数据库IO不会钉住虚拟线程的载体线程
+     */
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private final Map<Field, Counter> negativeCounters = new EnumMap<>(Field.class);
+    private final Map<Field, Counter> positiveCounters = new EnumMap<>(Field.class);
+    private final Map<Field, Counter> falsePositiveCounters = new EnumMap<>(Field.class);
+
+    /**
+     * 当前生效的过滤器（构建完成前为null）
+     */
+    private volatile Snapshot current;
+
+    /**
+     * 正在重建的过滤器，重建期间的新增值同时写入，避免切换时丢失
+     */
+    private volatile Snapshot building;
+
+    public UserExistenceFilter(UserMapper userMapper,
+                               StringRedisTemplate redisTemplate,
+                               PlatformTransactionManager transactionManager,
+                               RedisMessageListenerContainer listenerContainer,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.user.existence-filter.initial-capacity:1000000}") long initialCapacity,
+                               @Value("${app.user.existence-filter.fpp:0.01}") double targetFpp) {
+        this.userMapper = userMapper;
+        this.redisTemplate = redisTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.initialCapacity = initialCapacity;
+        this.targetFpp = targetFpp;
+
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+
+        for (Field field : Field.values()) {
+            String tag = field.name().toLowerCase(Locale.ROOT);
+            Gauge.builder("user.existence.filter.fpp", this, f -> f.expectedFpp(field))
+                    .tag("field", tag)
+                    .description("存在性布隆过滤器按填充率估算的误判率")
+                    .register(meterRegistry);
+            Gauge.builder("user.existence.filter.elements", this, f -> f.elementCount(field))
+                    .tag("field", tag)
+                    .description("存在性布隆过滤器已写入的元素数")
+                    .register(meterRegistry);
+            negativeCounters.put(field, checkCounter(meterRegistry, tag, "negative"));
+            positiveCounters.put(field, checkCounter(meterRegistry, tag, "positive"));
+            falsePositiveCounters.put(field, checkCounter(meterRegistry, tag, "false_positive"));
+        }
+    }
+
+    /**
+     * 检查登录标识是否已存在
+     *
+     * @param field   标识类型
+     * @param value   标识值
+     * @param dbCheck 过滤器判定可能存在时的数据库确认查询
+     */
+    public boolean exists(Field field, String value, Predicate<String> dbCheck) {
+        if (!mightExist(field, value)) {
+            negativeCounters.get(field).increment();
+            return false;
+        }
+
+        boolean exists = dbCheck.test(value);
+        (exists ? positiveCounters : falsePositiveCounters).get(field).increment();
+        return exists;
+    }
+
+    /**
+     * 记录新占用的登录标识（注册、修改用户名/邮箱/手机号后调用）
+     */
+    public void add(Field field, String value) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+
+        putLocal(field, value);
+        try {
+            redisTemplate.convertAndSend(CHANNEL, String.join(MESSAGE_SEPARATOR, instanceId, field.name(), value));
+        } catch (Exception e) {
+            // 其他实例会在下一次定时重建时补上
+            log.warn("广播存在性过滤器新增值失败: field={}", field, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length != 3 || instanceId.equals(parts[0])) {
+            return;
+        }
+
+        try {
+            putLocal(Field.valueOf(parts[1]), parts[2]);
+        } catch (IllegalArgumentException e) {
+            log.warn("无法识别的存在性过滤器消息: field={}", parts[1]);
+        }
+    }
+
+    /**
+     * 应用启动后在后台构建过滤器，不阻塞启动
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        Thread.ofVirtual().name("user-existence-filter-build").start(this::rebuild);
+    }
+
+    /**
+     * 定期重建，清除已删除或已修改的旧值并按实际数据量重新分配容量
+     */
+    @Scheduled(fixedDelayString = "${app.user.existence-filter.rebuild-interval:21600000}",
+            initialDelayString = "${app.user.existence-filter.rebuild-interval:21600000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * 流式扫描 users 表重建过滤器
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            doRebuild();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void doRebuild() {
+        long startTime = System.currentTimeMillis();
+        Snapshot next = new Snapshot(initialCapacity, targetFpp);
+        building = next;
+        try {
+            Long rows = readOnlyTransaction.execute(status -> {
+                long count = 0;
+                try (Cursor<User> cursor = userMapper.streamLoginIdentifiers()) {
+                    for (User user : cursor) {
+                        next.put(Field.USERNAME, user.getUsername());
+                        next.put(Field.EMAIL, user.getEmail());
+                        next.put(Field.PHONE, user.getPhone());
+                        count++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return count;
+            });
+
+            current = next;
+            log.info("用户存在性过滤器构建完成: rows={}, fpp(username/email/phone)={}/{}/{}, costMs={}",
+                    rows, expectedFpp(Field.USERNAME), expectedFpp(Field.EMAIL), expectedFpp(Field.PHONE),
+                    System.currentTimeMillis() - startTime);
+        } catch (Exception e) {
+            log.error("用户存在性过滤器构建失败，继续使用{}", current == null ? "数据库查询" : "旧过滤器", e);
+        } finally {
+            building = null;
+        }
+    }
+
+    private boolean mightExist(Field field, String value) {
+        Snapshot snapshot = current;
+        return snapshot == null || snapshot.mightContain(field, value);
+    }
+
+    private void putLocal(Field field, String value) {
+        // 先读 building 再读 current：重建在清空 building 之前已切换 current，两者顺序保证新值不会丢失
+        Snapshot next = building;
+        if (next != null) {
+            next.put(field, value);
+        }
+        Snapshot snapshot = current;
+        if (snapshot != null && snapshot != next) {
+            snapshot.put(field, value);
+        }
+    }
+
+    private double expectedFpp(Field field) {
+        Snapshot snapshot = current;
+        return snapshot == null ? Double.NaN : snapshot.filter(field).expectedFpp();
+    }
+
+    private double elementCount(Field field) {
+        Snapshot snapshot = current;
+        return snapshot == null ? 0 : snapshot.filter(field).approximateElementCount();
+    }
+
+    private static Counter checkCounter(MeterRegistry meterRegistry, String field, String result) {
+        return Counter.builder("user.existence.filter.checks")
+                .tag("field", field)
+                .tag("result", result)
+                .description("存在性检查次数（negative为内存直接返回，false_positive为回源后确认不存在）")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 一组三个字段的过滤器
+     */
+    private static final class Snapshot {
+
+        private final Map<Field, ScalableBloomFilter> filters = new EnumMap<>(Field.class);
+
+        private Snapshot(long initialCapacity, double targetFpp) {
+            for (Field field : Field.values()) {
+                filters.put(field, new ScalableBloomFilter(initialCapacity, targetFpp));
+            }
+        }
+
+        private ScalableBloomFilter filter(Field field) {
+            return filters.get(field);
+        }
+
+        private void put(Field field, String value) {
+            if (value != null && !value.isEmpty()) {
+                filters.get(field).put(normalize(field, value));
+            }
+        }
+
+        private boolean mightContain(Field field, String value) {
+            return value != null && filters.get(field).mightContain(normalize(field, value));
+        }
+
+        /**
+         * 邮箱唯一索引建在 lower(email) 上，过滤器也按小写存储
+         */
+        private static String normalize(Field field, String value) {
+            return field == Field.EMAIL ? value.toLowerCase(Locale.ROOT) : value;
+        }
+    }
+}
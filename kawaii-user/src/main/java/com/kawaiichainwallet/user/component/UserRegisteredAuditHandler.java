@@ -0,0 +1,56 @@
+package com.kawaiichainwallet.user.component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kawaiichainwallet.common.business.audit.OperationAuditService;
+import com.kawaiichainwallet.common.business.outbox.OutboxEvent;
+import com.kawaiichainwallet.common.business.outbox.OutboxEventHandler;
+import com.kawaiichainwallet.user.dto.UserRegisteredEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 注册成功事件处理：记录注册审计日志
+ *
+ * <p>事件与用户数据在同一事务写入发件箱，注册回滚时不会留下审计记录，注册成功后也不会漏记。
+ * 发件箱是至少一次投递，按 eventId 在 Redis 中占位去重，同一事件重投时不会重复记审计；记录失败时释放占位以便重试。</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserRegisteredAuditHandler implements OutboxEventHandler {
+
+    private final OperationAuditService operationAuditService;
+    private final ObjectMapper objectMapper;
+    private final StringRedisTemplate redisTemplate;
+
+    private static final String HANDLED_KEY_PREFIX = "outbox:handled:" + UserRegisteredEvent.EVENT_TYPE + ":";
+    /** 去重占位保留时间，远大于发件箱的重试窗口 */
+    private static final Duration HANDLED_TTL = Duration.ofDays(7);
+
+    @Override
+    public String eventType() {
+        return UserRegisteredEvent.EVENT_TYPE;
+    }
+
+    @Override
+    public void handle(OutboxEvent event) throws Exception {
+        UserRegisteredEvent registered = objectMapper.readValue(event.getPayload(), UserRegisteredEvent.class);
+        String handledKey = HANDLED_KEY_PREFIX + event.getEventId();
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(handledKey, "1", HANDLED_TTL))) {
+            log.debug("注册事件已处理，跳过重复投递: eventId={}", event.getEventId());
+            return;
+        }
+        try {
+            operationAuditService.logAuthEvent(registered.getUserId(), registered.getEmail(), "REGISTER",
+                    String.format("type=%s, ip=%s, eventId=%d",
+                            registered.getRegisterType(), registered.getClientIp(), event.getEventId()));
+        } catch (RuntimeException e) {
+            redisTemplate.delete(handledKey);
+            throw e;
+        }
+    }
+}
@@ -7,9 +7,16 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Leaf分布式ID生成器配置类
@@ -46,34 +53,70 @@ public class LeafConfiguration {
 
     /**
      * 简化版Segment ID生成器实现
+     * 每次从 leaf_alloc 租用一个号段（step个ID）缓存在内存中，号段用完前不访问数据库
      */
     public static class SimpleSegmentIdGenerator {
         private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate leaseTransaction;
+        private final Map<String, Segment> segments = new ConcurrentHashMap<>();
 
         public SimpleSegmentIdGenerator(DataSource dataSource) {
             this.jdbcTemplate = new JdbcTemplate(dataSource);
+            // 号段租用必须独立提交：若随调用方事务回滚，已发出的ID会被其他实例再次租到
+            this.leaseTransaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+            this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
         }
 
         public Long generate(String bizTag) {
+            Segment segment = segments.computeIfAbsent(bizTag, tag -> new Segment());
+            // 使用ReentrantLock而不是synchronized，号段耗尽时的数据库访问不会钉住虚拟线程的载体线程
+            segment.lock.lock();
             try {
-                // 获取并更新ID段
-                String updateSql = "UPDATE leaf_alloc SET max_id = max_id + step WHERE biz_tag = ?";
-                int updated = jdbcTemplate.update(updateSql, bizTag);
+                if (segment.next > segment.max) {
+                    lease(bizTag, segment);
+                }
+                return segment.next++;
+            } finally {
+                segment.lock.unlock();
+            }
+        }
 
-                if (updated == 0) {
+        /**
+         * 单条 UPDATE ... RETURNING 租用新号段 (max_id - step, max_id]
+         */
+        private void lease(String bizTag, Segment segment) {
+            try {
+                long[] range = leaseTransaction.execute(status -> {
+                    List<long[]> rows = jdbcTemplate.query(
+                            "UPDATE leaf_alloc SET max_id = max_id + step WHERE biz_tag = ? RETURNING max_id, step",
+                            (rs, rowNum) -> new long[]{rs.getLong("max_id"), rs.getLong("step")},
+                            bizTag);
+                    return rows.isEmpty() ? null : rows.get(0);
+                });
+
+                if (range == null) {
                     throw new IdGenerationException("BizTag not found: " + bizTag);
                 }
 
-                // 获取更新后的max_id
-                String selectSql = "SELECT max_id FROM leaf_alloc WHERE biz_tag = ?";
-                Long maxId = jdbcTemplate.queryForObject(selectSql, Long.class, bizTag);
-
-                return maxId;
+                segment.max = range[0];
+                segment.next = range[0] - range[1] + 1;
+                log.debug("Leased segment for bizTag: {}, range: [{}, {}]", bizTag, segment.next, segment.max);
+            } catch (IdGenerationException e) {
+                throw e;
             } catch (Exception e) {
                 log.error("Generate segment ID failed for bizTag: {}", bizTag, e);
                 throw new IdGenerationException("Generate ID failed", e);
             }
         }
+
+        /**
+         * 内存中的号段，初始为空（next > max），首次使用时租用
+         */
+        private static final class Segment {
+            private final ReentrantLock lock = new ReentrantLock();
+            private long next = 1;
+            private long max = 0;
+        }
     }
 
     /**
@@ -90,6 +133,8 @@ public class LeafConfiguration {
         private static final long TIMESTAMP_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS;
 
         private final long workerId;
+        // 使用ReentrantLock而不是synchronized，避免在虚拟线程上钉住载体线程
+        private final ReentrantLock lock = new ReentrantLock();
         private long sequence = 0L;
         private long lastTimestamp = -1L;
 
@@ -101,27 +146,32 @@ public class LeafConfiguration {
             this.workerId = workerId;
         }
 
-        public synchronized Long generate() {
-            long timestamp = System.currentTimeMillis();
+        public Long generate() {
+            lock.lock();
+            try {
+                long timestamp = System.currentTimeMillis();
 
-            if (timestamp < lastTimestamp) {
-                throw new IdGenerationException("Clock moved backwards");
-            }
+                if (timestamp < lastTimestamp) {
+                    throw new IdGenerationException("Clock moved backwards");
+                }
 
-            if (lastTimestamp == timestamp) {
-                sequence = (sequence + 1) & SEQUENCE_MASK;
-                if (sequence == 0) {
-                    timestamp = waitNextMillis(lastTimestamp);
+                if (lastTimestamp == timestamp) {
+                    sequence = (sequence + 1) & SEQUENCE_MASK;
+                    if (sequence == 0) {
+                        timestamp = waitNextMillis(lastTimestamp);
+                    }
+                } else {
+                    sequence = 0L;
                 }
-            } else {
-                sequence = 0L;
-            }
 
-            lastTimestamp = timestamp;
+                lastTimestamp = timestamp;
 
-            return ((timestamp - EPOCH) << TIMESTAMP_SHIFT) |
-                   (workerId << WORKER_ID_SHIFT) |
-                   sequence;
+                return ((timestamp - EPOCH) << TIMESTAMP_SHIFT) |
+                       (workerId << WORKER_ID_SHIFT) |
+                       sequence;
+            } finally {
+                lock.unlock();
+            }
         }
 
         private long waitNextMillis(long lastTimestamp) {
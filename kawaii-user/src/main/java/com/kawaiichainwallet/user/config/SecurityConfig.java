@@ -1,6 +1,10 @@
 package com.kawaiichainwallet.user.config;
 
+import com.kawaiichainwallet.common.business.password.PasswordHashingProperties;
+import com.kawaiichainwallet.common.business.password.PasswordHashingService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -20,15 +24,26 @@ import org.springframework.security.web.SecurityFilterChain;
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
+@EnableConfigurationProperties(PasswordHashingProperties.class)
 @RequiredArgsConstructor
 public class SecurityConfig {
 
     /**
-     * 密码编码器
+     * 密码编码器（强度由 app.security.password-hashing.bcrypt-strength 配置）
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties properties) {
+        return new BCryptPasswordEncoder(properties.getBcryptStrength());
+    }
+
+    /**
+     * 密码哈希服务 - 在有界线程池中执行BCrypt计算，业务代码应使用它而不是直接调用PasswordEncoder
+     */
+    @Bean
+    public PasswordHashingService passwordHashingService(PasswordEncoder passwordEncoder,
+                                                         PasswordHashingProperties properties,
+                                                         MeterRegistry meterRegistry) {
+        return new PasswordHashingService(passwordEncoder, properties, meterRegistry);
     }
 
     /**
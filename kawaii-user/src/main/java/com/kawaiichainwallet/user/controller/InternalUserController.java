@@ -26,6 +26,11 @@ import java.util.List;
 @RequiredArgsConstructor
 public class InternalUserController implements UserServiceApi {
 
+    /**
+     * 单次批量查询允许的最大用户数量
+     */
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final UserService userService;
     private final ServiceApiConverter serviceApiConverter;
 
@@ -92,17 +97,23 @@ public class InternalUserController implements UserServiceApi {
     }
 
     @Override
-    public R<List<UserInfoResponse>> getBatchUsers(List<String> userIds) {
-        log.info("内部服务批量获取用户信息: userIds={}", userIds);
+    public R<List<UserInfoResponse>> getBatchUsers(List<Long> userIds) {
+        int requested = userIds != null ? userIds.size() : 0;
+        log.info("内部服务批量获取用户信息: count={}", requested);
+
+        if (requested > MAX_BATCH_SIZE) {
+            return R.error(ApiCode.VALIDATION_ERROR.getCode(), "批量获取用户数量不能超过" + MAX_BATCH_SIZE);
+        }
 
         try {
 
-            // TODO: 实现批量获取用户信息逻辑
-            List<UserInfoResponse> users = List.of(); // 暂时返回空列表
+            List<UserInfoResponse> users = userService.getUserAggregates(userIds).stream()
+                    .map(serviceApiConverter::aggregateToApiDto)
+                    .toList();
 
             return R.success(users);
         } catch (Exception e) {
-            log.error("批量获取用户信息失败: userIds={}, error={}", userIds, e.getMessage());
+            log.error("批量获取用户信息失败: count={}, error={}", requested, e.getMessage());
             return R.error(ApiCode.BATCH_USER_FETCH_FAILED);
         }
     }
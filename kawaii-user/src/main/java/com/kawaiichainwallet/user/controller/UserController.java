@@ -1,6 +1,7 @@
 package com.kawaiichainwallet.user.controller;
 
 import com.kawaiichainwallet.common.core.enums.ApiCode;
+import com.kawaiichainwallet.common.core.response.CursorPage;
 import com.kawaiichainwallet.common.core.response.R;
 import com.kawaiichainwallet.common.core.utils.ValidationUtil;
 import com.kawaiichainwallet.common.spring.context.UserContextHolder;
@@ -13,10 +14,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.BufferedOutputStream;
 
 /**
  * 用户控制器 - 提供外部HTTP API
@@ -28,6 +33,9 @@ import java.util.List;
 @Tag(name = "用户管理", description = "用户信息管理相关接口")
 public class UserController {
 
+    private static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     private final UserService userService;
 
     /**
@@ -146,21 +154,39 @@ public class UserController {
     }
 
     /**
-     * 获取用户列表（管理员功能） - 使用@PreAuthorize注解进行权限控制
+     * 获取用户列表（管理员功能） - 游标分页，使用@PreAuthorize注解进行权限控制
      */
     @GetMapping
-    @Operation(summary = "获取用户列表", description = "管理员获取用户列表")
-    @PreAuthorize("T(com.kawaiichainwallet.common.context.UserContextHolder).isAdmin()")
-    public R<List<UserDetailsDto>> getUserList(
-            @RequestParam(defaultValue = "1") int page,
+    @Operation(summary = "获取用户列表", description = "管理员获取用户列表，使用上一页返回的nextCursor翻页")
+    @PreAuthorize("T(com.kawaiichainwallet.common.spring.context.UserContextHolder).isAdmin()")
+    public R<CursorPage<UserDetailsDto>> getUserList(
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(required = false) String status) {
 
-        log.info("获取用户列表请求: page={}, size={}, status={}", page, size, status);
-        List<UserDetailsDto> users = userService.getUserList(page, size, status);
+        log.info("获取用户列表请求: cursor={}, size={}, status={}", cursor, size, status);
+        CursorPage<UserDetailsDto> users = userService.getUserList(cursor, size, status);
         return R.success(users);
     }
 
+    /**
+     * 流式导出用户列表（管理员功能） - NDJSON格式，每行一个用户
+     */
+    @GetMapping(value = "/export", produces = NDJSON_MEDIA_TYPE)
+    @Operation(summary = "导出用户列表", description = "管理员以NDJSON格式流式导出用户列表")
+    @PreAuthorize("T(com.kawaiichainwallet.common.spring.context.UserContextHolder).isAdmin()")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(required = false) String status) {
+        log.info("导出用户列表请求: status={}, 操作人: {}", status, UserContextHolder.getCurrentUserId());
+
+        StreamingResponseBody body = outputStream ->
+                userService.exportUsers(status, new BufferedOutputStream(outputStream, EXPORT_BUFFER_SIZE));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_MEDIA_TYPE))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.ndjson\"")
+                .body(body);
+    }
+
     /**
      * 删除用户（管理员功能）
      */
@@ -182,7 +208,7 @@ public class UserController {
      */
     @PutMapping("/{userId}/status")
     @Operation(summary = "修改用户状态", description = "修改指定用户的状态")
-    @PreAuthorize("T(com.kawaiichainwallet.common.context.UserContextHolder).hasAnyRole('ADMIN', 'USER_MANAGER')")
+    @PreAuthorize("T(com.kawaiichainwallet.common.spring.context.UserContextHolder).hasAnyRole('ADMIN', 'USER_MANAGER')")
     public R<Void> updateUserStatus(
             @PathVariable String userId,
             @RequestParam String status) {
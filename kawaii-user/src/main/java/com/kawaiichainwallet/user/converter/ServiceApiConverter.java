@@ -3,6 +3,7 @@ package com.kawaiichainwallet.user.converter;
 import com.kawaiichainwallet.api.user.dto.UserInfoResponse;
 import com.kawaiichainwallet.user.dto.UserDetailsDto;
 import com.kawaiichainwallet.user.entity.User;
+import com.kawaiichainwallet.user.entity.UserAggregate;
 import com.kawaiichainwallet.user.entity.UserProfile;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -64,6 +65,16 @@ public interface ServiceApiConverter {
     // 需要单独设置
     UserInfoResponse userAndProfileToApiDto(User user, UserProfile userProfile);
 
+    /**
+     * 用户聚合视图转换为UserInfoResponse（含脱敏处理）
+     */
+    @Mapping(target = "phone", source = "phone", qualifiedByName = "maskPhone")
+    @Mapping(target = "email", source = "email", qualifiedByName = "maskEmail")
+    @Mapping(target = "kycLevel", source = "kycLevel", qualifiedByName = "kycLevelName")
+    @Mapping(target = "roles", ignore = true) // 需要单独设置
+    @Mapping(target = "paymentEnabled", ignore = true) // 需要单独设置
+    UserInfoResponse aggregateToApiDto(UserAggregate aggregate);
+
     /**
      * UserDetailsDto转换为UserInfoResponse (API层)
      */
@@ -140,6 +151,14 @@ public interface ServiceApiConverter {
         return username.substring(0, 2) + "***@" + domain;
     }
 
+    /**
+     * KYC级别转换为展示名称，未认证时为 LEVEL_0
+     */
+    @Named("kycLevelName")
+    default String kycLevelName(Integer kycLevel) {
+        return "LEVEL_" + (kycLevel != null ? kycLevel : 0);
+    }
+
     /**
      * 时间戳转LocalDateTime
      */
@@ -4,6 +4,7 @@ import com.kawaiichainwallet.user.dto.LoginResponse;
 import com.kawaiichainwallet.user.dto.RegisterResponse;
 import com.kawaiichainwallet.user.dto.UserDetailsDto;
 import com.kawaiichainwallet.user.entity.User;
+import com.kawaiichainwallet.user.entity.UserAggregate;
 import com.kawaiichainwallet.user.entity.UserProfile;
 import org.mapstruct.*;
 
@@ -43,6 +44,14 @@ public interface UserConverter {
     @Mapping(target = "email", ignore = true)  // 邮箱需要脱敏处理
     UserDetailsDto userAndProfileToUserDetailsDto(User user, UserProfile userProfile);
 
+    /**
+     * 用户聚合视图转换为UserDetailsDto（含脱敏和KYC级别处理）
+     */
+    @Mapping(target = "phone", source = "phone", qualifiedByName = "maskPhone")
+    @Mapping(target = "email", source = "email", qualifiedByName = "maskEmail")
+    @Mapping(target = "kycLevel", source = "kycLevel", qualifiedByName = "kycLevelName")
+    UserDetailsDto aggregateToUserDetailsDto(UserAggregate aggregate);
+
     /**
      * User实体转换为LoginResponse
      */
@@ -103,6 +112,14 @@ public interface UserConverter {
         }
     }
 
+    /**
+     * KYC级别转换为展示名称，未认证时为 LEVEL_0
+     */
+    @Named("kycLevelName")
+    default String kycLevelName(Integer kycLevel) {
+        return "LEVEL_" + (kycLevel != null ? kycLevel : 0);
+    }
+
     /**
      * 手机号脱敏
      */
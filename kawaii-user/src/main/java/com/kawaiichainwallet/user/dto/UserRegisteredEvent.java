@@ -0,0 +1,49 @@
+package com.kawaiichainwallet.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 用户注册成功事件（发件箱 payload）
+ *
+ * <p><b>时间字段约定</b>：所有时间字段统一使用 UTC 时区</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserRegisteredEvent {
+
+    public static final String AGGREGATE_TYPE = "user";
+    public static final String EVENT_TYPE = "USER_REGISTERED";
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 用户名
+     */
+    private String username;
+
+    /**
+     * 邮箱
+     */
+    private String email;
+
+    /**
+     * 注册方式：email / phone
+     */
+    private String registerType;
+
+    /**
+     * 注册IP
+     */
+    private String clientIp;
+
+    /**
+     * 注册时的User-Agent
+     */
+    private String userAgent;
+}
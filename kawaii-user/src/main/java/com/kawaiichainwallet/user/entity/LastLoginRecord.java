@@ -0,0 +1,18 @@
+package com.kawaiichainwallet.user.entity;
+
+import java.time.LocalDateTime;
+
+/**
+ * 待写入的最后登录信息（由 {@link com.kawaiichainwallet.user.component.LastLoginWriteBehind} 合并后批量落库）
+ *
+ * <p><b>时间字段约定</b>：所有时间字段统一使用 UTC 时区</p>
+ *
+ * @param userId    用户ID
+ * @param loginTime 登录时间（UTC）
+ * @param ipAddress 登录IP
+ */
+public record LastLoginRecord(
+        Long userId,
+        LocalDateTime loginTime,
+        String ipAddress) {
+}
@@ -0,0 +1,47 @@
+package com.kawaiichainwallet.user.entity;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户聚合视图 - users + user_profiles + user_kyc 单次 LEFT JOIN 查询结果
+ *
+ * <p>只包含 {@link com.kawaiichainwallet.user.dto.UserDetailsDto} 和服务间 UserInfoResponse 需要的列，
+ * 不读取 password_hash、two_factor_secret 等敏感或无用字段。</p>
+ *
+ * <p><b>时间字段约定</b>：所有时间字段统一使用 UTC 时区</p>
+ *
+ * @param userId           用户ID
+ * @param username         用户名
+ * @param email            邮箱（未脱敏）
+ * @param phone            手机号（未脱敏）
+ * @param status           用户状态
+ * @param emailVerified    邮箱是否已验证
+ * @param phoneVerified    手机号是否已验证
+ * @param twoFactorEnabled 是否启用双因子认证
+ * @param createdAt        创建时间（UTC）
+ * @param lastLoginAt      最后登录时间（UTC）
+ * @param displayName      显示名称（资料不存在时为null）
+ * @param avatarUrl        头像URL
+ * @param language         语言偏好
+ * @param timezone         时区
+ * @param currency         货币偏好
+ * @param kycLevel         KYC认证级别（未提交KYC时为null）
+ */
+public record UserAggregate(
+        Long userId,
+        String username,
+        String email,
+        String phone,
+        String status,
+        Boolean emailVerified,
+        Boolean phoneVerified,
+        Boolean twoFactorEnabled,
+        LocalDateTime createdAt,
+        LocalDateTime lastLoginAt,
+        String displayName,
+        String avatarUrl,
+        String language,
+        String timezone,
+        String currency,
+        Integer kycLevel) {
+}
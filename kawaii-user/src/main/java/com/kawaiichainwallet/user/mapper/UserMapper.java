@@ -1,10 +1,15 @@
 package com.kawaiichainwallet.user.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.kawaiichainwallet.user.entity.LastLoginRecord;
 import com.kawaiichainwallet.user.entity.User;
+import com.kawaiichainwallet.user.entity.UserAggregate;
 import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 用户数据访问接口 - 包含认证和用户信息管理
@@ -13,25 +18,157 @@ import java.time.LocalDateTime;
 public interface UserMapper extends BaseMapper<User> {
 
     /**
-     * 根据登录标识查询用户 (支持用户名、邮箱、手机号)
+     * 单次查询加载用户聚合信息（用户 + 资料 + KYC级别）
+     * 只选取DTO需要的列，不读取 password_hash 等字段
      */
-    @Select("SELECT * FROM users WHERE (username = #{identifier} OR email = #{identifier} OR phone = #{identifier}) AND status != 'deleted'")
-    User findByIdentifier(@Param("identifier") String identifier);
+    @Select("""
+        SELECT u.user_id, u.username, u.email, u.phone, u.status,
+               u.email_verified, u.phone_verified, u.two_factor_enabled,
+               u.created_at, u.last_login_at,
+               p.display_name, p.avatar_url, p.language, p.timezone, p.currency,
+               k.kyc_level
+        FROM users u
+        LEFT JOIN user_profiles p ON p.user_id = u.user_id
+        LEFT JOIN user_kyc k ON k.user_id = u.user_id
+        WHERE u.user_id = #{userId}
+        """)
+    @ConstructorArgs({
+        @Arg(column = "user_id", javaType = Long.class),
+        @Arg(column = "username", javaType = String.class),
+        @Arg(column = "email", javaType = String.class),
+        @Arg(column = "phone", javaType = String.class),
+        @Arg(column = "status", javaType = String.class),
+        @Arg(column = "email_verified", javaType = Boolean.class),
+        @Arg(column = "phone_verified", javaType = Boolean.class),
+        @Arg(column = "two_factor_enabled", javaType = Boolean.class),
+        @Arg(column = "created_at", javaType = LocalDateTime.class),
+        @Arg(column = "last_login_at", javaType = LocalDateTime.class),
+        @Arg(column = "display_name", javaType = String.class),
+        @Arg(column = "avatar_url", javaType = String.class),
+        @Arg(column = "language", javaType = String.class),
+        @Arg(column = "timezone", javaType = String.class),
+        @Arg(column = "currency", javaType = String.class),
+        @Arg(column = "kyc_level", javaType = Integer.class)
+    })
+    @Results(id = "userAggregateMap")
+    UserAggregate findAggregateById(@Param("userId") Long userId);
 
     /**
-     * 根据用户名查询用户
+     * 批量加载用户聚合信息（user_id = ANY(数组)，单个绑定参数）
+     * 调用方负责分批，避免数组过大
+     */
+    @Select("""
+        SELECT u.user_id, u.username, u.email, u.phone, u.status,
+               u.email_verified, u.phone_verified, u.two_factor_enabled,
+               u.created_at, u.last_login_at,
+               p.display_name, p.avatar_url, p.language, p.timezone, p.currency,
+               k.kyc_level
+        FROM users u
+        LEFT JOIN user_profiles p ON p.user_id = u.user_id
+        LEFT JOIN user_kyc k ON k.user_id = u.user_id
+        WHERE u.user_id = ANY(#{userIds, typeHandler=org.apache.ibatis.type.ArrayTypeHandler})
+        """)
+    @ResultMap("userAggregateMap")
+    List<UserAggregate> findAggregatesByIds(@Param("userIds") Long[] userIds);
+
+    /**
+     * 管理员用户列表 - 按 (created_at, user_id) 倒序的游标分页查询
+     * 由 idx_users_created_at_user_id / idx_users_status_created_at 索引支撑，翻页成本与页码无关
+     */
+    @Select({
+        "<script>",
+        "SELECT u.user_id, u.username, u.email, u.phone, u.status,",
+        "       u.email_verified, u.phone_verified, u.two_factor_enabled,",
+        "       u.created_at, u.last_login_at,",
+        "       p.display_name, p.avatar_url, p.language, p.timezone, p.currency,",
+        "       k.kyc_level",
+        "FROM users u",
+        "LEFT JOIN user_profiles p ON p.user_id = u.user_id",
+        "LEFT JOIN user_kyc k ON k.user_id = u.user_id",
+        "WHERE u.status != 'deleted'",
+        "  <if test='status != null and status != \"\"'>",
+        "    AND u.status = #{status}",
+        "  </if>",
+        "  <if test='cursorCreatedAt != null and cursorUserId != null'>",
+        "    AND (u.created_at, u.user_id) &lt; (#{cursorCreatedAt}, #{cursorUserId})",
+        "  </if>",
+        "ORDER BY u.created_at DESC, u.user_id DESC",
+        "LIMIT #{limit}",
+        "</script>"
+    })
+    @ResultMap("userAggregateMap")
+    List<UserAggregate> findAggregatePage(@Param("status") String status,
+                                          @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                          @Param("cursorUserId") Long cursorUserId,
+                                          @Param("limit") int limit);
+
+    /**
+     * 估算用户数量（基于 pg_class.reltuples 和 status 列统计信息，避免 COUNT(*) 全表扫描）
+     */
+    @Select({
+        "<script>",
+        "SELECT (GREATEST(c.reltuples, 0) *",
+        "  <choose>",
+        "    <when test='status != null and status != \"\"'>",
+        "      COALESCE(s.most_common_freqs[array_position(s.most_common_vals::text::text[], #{status})], 0)",
+        "    </when>",
+        "    <otherwise>",
+        "      (1 - COALESCE(s.most_common_freqs[array_position(s.most_common_vals::text::text[], 'deleted')], 0))",
+        "    </otherwise>",
+        "  </choose>",
+        ")::BIGINT",
+        "FROM pg_class c",
+        "LEFT JOIN pg_stats s ON s.schemaname = current_schema() AND s.tablename = 'users' AND s.attname = 'status'",
+        "WHERE c.oid = 'users'::regclass",
+        "</script>"
+    })
+    Long estimateUserCount(@Param("status") String status);
+
+    /**
+     * 流式导出用户聚合信息（服务端游标，按批次抓取，需在事务中消费）
+     */
+    @Select({
+        "<script>",
+        "SELECT u.user_id, u.username, u.email, u.phone, u.status,",
+        "       u.email_verified, u.phone_verified, u.two_factor_enabled,",
+        "       u.created_at, u.last_login_at,",
+        "       p.display_name, p.avatar_url, p.language, p.timezone, p.currency,",
+        "       k.kyc_level",
+        "FROM users u",
+        "LEFT JOIN user_profiles p ON p.user_id = u.user_id",
+        "LEFT JOIN user_kyc k ON k.user_id = u.user_id",
+        "WHERE u.status != 'deleted'",
+        "  <if test='status != null and status != \"\"'>",
+        "    AND u.status = #{status}",
+        "  </if>",
+        "ORDER BY u.user_id",
+        "</script>"
+    })
+    @Options(fetchSize = 1000, resultSetType = ResultSetType.FORWARD_ONLY)
+    @ResultMap("userAggregateMap")
+    Cursor<UserAggregate> streamAggregates(@Param("status") String status);
+
+    /**
+     * 流式读取全部有效用户的登录标识（用于重建存在性布隆过滤器）
+     */
+    @Select("SELECT username, email, phone FROM users WHERE status != 'deleted'")
+    @Options(fetchSize = 1000, resultSetType = ResultSetType.FORWARD_ONLY)
+    Cursor<User> streamLoginIdentifiers();
+
+    /**
+     * 根据用户名查询用户（命中 uk_users_username 部分索引）
      */
     @Select("SELECT * FROM users WHERE username = #{username} AND status != 'deleted'")
     User findByUsername(String username);
 
     /**
-     * 根据邮箱查询用户
+     * 根据邮箱查询用户，不区分大小写（命中 uk_users_email 表达式部分索引）
      */
-    @Select("SELECT * FROM users WHERE email = #{email} AND status != 'deleted'")
+    @Select("SELECT * FROM users WHERE lower(email) = lower(#{email}) AND status != 'deleted'")
     User findByEmail(String email);
 
     /**
-     * 根据手机号查询用户
+     * 根据手机号查询用户（命中 uk_users_phone 部分索引）
      */
     @Select("SELECT * FROM users WHERE phone = #{phone} AND status != 'deleted'")
     User findByPhone(String phone);
@@ -39,50 +176,61 @@ public interface UserMapper extends BaseMapper<User> {
     /**
      * 检查用户名是否存在
      */
-    @Select("SELECT COUNT(1) FROM users WHERE username = #{username} AND status != 'deleted'")
+    @Select("SELECT EXISTS (SELECT 1 FROM users WHERE username = #{username} AND status != 'deleted')")
     boolean existsByUsername(String username);
 
     /**
-     * 检查邮箱是否存在
+     * 检查邮箱是否存在（不区分大小写）
      */
-    @Select("SELECT COUNT(1) FROM users WHERE email = #{email} AND status != 'deleted'")
+    @Select("SELECT EXISTS (SELECT 1 FROM users WHERE lower(email) = lower(#{email}) AND status != 'deleted')")
     boolean existsByEmail(String email);
 
     /**
      * 检查手机号是否存在
      */
-    @Select("SELECT COUNT(1) FROM users WHERE phone = #{phone} AND status != 'deleted'")
+    @Select("SELECT EXISTS (SELECT 1 FROM users WHERE phone = #{phone} AND status != 'deleted')")
     boolean existsByPhone(String phone);
 
     /**
-     * 增加登录失败次数
-     */
-    @Update("UPDATE users SET login_attempts = login_attempts + 1, updated_at = NOW() WHERE user_id = #{userId}")
-    int incrementLoginAttempts(@Param("userId") Long userId);
-
-    /**
-     * 重置登录失败次数
+     * 锁定用户账户（时间为 UTC）
+     * 失败计数保存在Redis中，只有触发锁定时才写数据库
      */
-    @Update("UPDATE users SET login_attempts = 0, updated_at = NOW() WHERE user_id = #{userId}")
-    int resetLoginAttempts(@Param("userId") Long userId);
+    @Update("UPDATE users SET locked_until = #{lockUntil} WHERE user_id = #{userId}")
+    int lockUser(@Param("userId") Long userId, @Param("lockUntil") LocalDateTime lockUntil);
 
     /**
-     * 锁定用户账户（时间为 UTC）
+     * 登录成功后清除数据库中的失败计数和锁定状态（仅在确有状态需要清除时才写行）
      */
-    @Update("UPDATE users SET locked_until = #{lockUntil}, updated_at = NOW() WHERE user_id = #{userId}")
-    int lockUser(@Param("userId") Long userId, @Param("lockUntil") LocalDateTime lockUntil);
+    @Update("""
+        UPDATE users SET login_attempts = 0, locked_until = NULL
+        WHERE user_id = #{userId}
+          AND (login_attempts <> 0 OR locked_until IS NOT NULL)
+        """)
+    int clearLoginFailures(@Param("userId") Long userId);
 
     /**
-     * 解锁用户账户
+     * 升级密码哈希（仅当哈希未被并发修改时生效）
      */
-    @Update("UPDATE users SET locked_until = NULL, login_attempts = 0, updated_at = NOW() WHERE user_id = #{userId}")
-    int unlockUser(@Param("userId") Long userId);
+    @Update("UPDATE users SET password_hash = #{newHash} WHERE user_id = #{userId} AND password_hash = #{oldHash}")
+    int upgradePasswordHash(@Param("userId") Long userId,
+                            @Param("oldHash") String oldHash,
+                            @Param("newHash") String newHash);
 
     /**
-     * 更新最后登录信息（时间为 UTC）
+     * 批量写入最后登录信息（时间为 UTC）
+     * 只会用更新的登录时间覆盖旧值
      */
-    @Update("UPDATE users SET last_login_at = #{loginTime}, last_login_ip = #{ipAddress}, updated_at = NOW() WHERE user_id = #{userId}")
-    int updateLoginInfo(@Param("userId") Long userId,
-                       @Param("loginTime") LocalDateTime loginTime,
-                       @Param("ipAddress") String ipAddress);
+    @Update({
+        "<script>",
+        "UPDATE users AS u SET last_login_at = v.login_at, last_login_ip = v.login_ip",
+        "FROM (VALUES",
+        "<foreach collection='records' item='r' separator=','>",
+        "  (CAST(#{r.userId} AS BIGINT), CAST(#{r.loginTime} AS TIMESTAMP), CAST(#{r.ipAddress} AS VARCHAR))",
+        "</foreach>",
+        ") AS v(user_id, login_at, login_ip)",
+        "WHERE u.user_id = v.user_id",
+        "  AND (u.last_login_at IS NULL OR u.last_login_at &lt; v.login_at)",
+        "</script>"
+    })
+    int batchUpdateLoginInfo(@Param("records") List<LastLoginRecord> records);
 }
\ No newline at end of file
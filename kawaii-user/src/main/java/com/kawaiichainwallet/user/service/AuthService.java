@@ -1,23 +1,24 @@
 package com.kawaiichainwallet.user.service;
 
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.kawaiichainwallet.common.auth.JwtTokenService;
 import com.kawaiichainwallet.common.auth.JwtValidationService;
+import com.kawaiichainwallet.common.auth.LoginAttemptService;
 import com.kawaiichainwallet.common.auth.TokenBlacklistService;
+import com.kawaiichainwallet.common.business.password.PasswordHashingService;
 import com.kawaiichainwallet.common.core.enums.ApiCode;
 import com.kawaiichainwallet.common.core.exception.BusinessException;
+import com.kawaiichainwallet.common.core.exception.RateLimitException;
 import com.kawaiichainwallet.common.core.utils.TimeUtil;
 import com.kawaiichainwallet.common.core.utils.ValidationUtil;
+import com.kawaiichainwallet.user.component.LastLoginWriteBehind;
+import com.kawaiichainwallet.user.component.OtpNotificationSender;
 import com.kawaiichainwallet.user.converter.AuthConverter;
 import com.kawaiichainwallet.user.dto.*;
 import com.kawaiichainwallet.user.entity.User;
 import com.kawaiichainwallet.user.mapper.UserMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 
@@ -38,34 +39,44 @@ import java.time.LocalDateTime;
 @RequiredArgsConstructor
 public class AuthService {
 
+    /**
+     * 登录失败计数的用户类型维度
+     */
+    private static final String USER_TYPE = "USER";
+
     private final UserMapper userMapper;
     private final AuthConverter authConverter;
     private final OtpService otpService;
     private final JwtTokenService jwtTokenService;
     private final JwtValidationService jwtValidationService;
     private final UserService userService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final VerificationTokenService verificationTokenService;
     private final TokenBlacklistService tokenBlacklistService;
-
-    @Value("${app.auth.max-login-attempts:5}")
-    private int maxLoginAttempts;
-
-    @Value("${app.auth.account-lock-duration:30}")
-    private int accountLockDurationMinutes;
+    private final LastLoginWriteBehind lastLoginWriteBehind;
+    private final LoginAttemptService loginAttemptService;
+    private final OtpNotificationSender otpNotificationSender;
 
     /**
      * 用户名/邮箱/手机号 + 密码登录
+     *
+     * <p>不开启事务：成功/失败各只有一条自身原子的 UPDATE，
+     * 避免在 BCrypt 校验期间占用数据库连接，也避免抛出异常时回滚掉失败计数。</p>
      */
-    @Transactional(rollbackFor = Exception.class)
     public LoginResponse login(LoginRequest request, String clientIp, String userAgent) {
         // 验证请求参数
         validateLoginRequest(request);
 
-        // 查找用户
-        User user = userMapper.findByIdentifier(request.getIdentifier());
+        // 同一IP失败次数过多时直接拒绝，不查库也不做BCrypt计算
+        if (loginAttemptService.isIpLocked(USER_TYPE, clientIp)) {
+            throw new RateLimitException("登录失败次数过多，请稍后再试");
+        }
+
+        // 查找用户（先识别登录标识类型，只命中一个索引）
+        User user = findUserByIdentifier(request.getIdentifier().trim());
         if (user == null) {
-            // 记录登录失败
+            // 记录登录失败（只计IP维度）
+            loginAttemptService.recordFailure(USER_TYPE, null, clientIp);
             log.warn("Login failed: user not found - identifier: {}, IP: {}",
                     ValidationUtil.maskSensitiveInfo(request.getIdentifier()), clientIp);
             throw new BusinessException(ApiCode.INVALID_CREDENTIALS, "用户名或密码错误");
@@ -74,14 +85,24 @@ public class AuthService {
         // 检查账户状态
         checkAccountStatus(user, clientIp, userAgent);
 
-        // 验证密码
-        boolean passwordValid = passwordEncoder.matches(request.getPassword(), user.getPasswordHash());
+        // 检查Redis中的失败锁定状态（在BCrypt校验之前）
+        if (loginAttemptService.isLocked(USER_TYPE, user.getUserId(), clientIp)) {
+            throw new BusinessException(ApiCode.ACCOUNT_LOCKED,
+                    String.format("登录失败次数过多，账户已被锁定%d分钟", loginAttemptService.getLockMinutes()));
+        }
+
+        // 验证密码（在有界哈希线程池中执行，繁忙时快速失败）
+        boolean passwordValid = passwordHashingService.matches(request.getPassword(), user.getPasswordHash());
         if (!passwordValid) {
             // 增加登录失败次数
             handleLoginFailure(user, clientIp, userAgent, "密码错误");
             throw new BusinessException(ApiCode.INVALID_CREDENTIALS, "用户名或密码错误");
         }
 
+        // 存量哈希强度低于当前配置时顺带升级
+        passwordHashingService.rehashIfNeeded(request.getPassword(), user.getPasswordHash())
+                .ifPresent(newHash -> userMapper.upgradePasswordHash(user.getUserId(), user.getPasswordHash(), newHash));
+
         // 登录成功，处理后续逻辑
         return handleLoginSuccess(user, clientIp, userAgent, "PASSWORD_LOGIN");
     }
@@ -89,7 +110,6 @@ public class AuthService {
     /**
      * 手机验证码登录
      */
-    @Transactional(rollbackFor = Exception.class)
     public LoginResponse loginWithOtp(OtpLoginRequest request, String clientIp, String userAgent) {
         // 验证请求参数
         validateOtpLoginRequest(request);
@@ -101,10 +121,7 @@ public class AuthService {
         }
 
         // 查找用户
-        User user = userMapper.selectOne(
-                new LambdaQueryWrapper<User>()
-                        .eq(User::getPhone, request.getPhone())
-                        .ne(User::getStatus, "deleted"));
+        User user = userMapper.findByPhone(request.getPhone());
         if (user == null) {
             throw new BusinessException(ApiCode.USER_NOT_FOUND, "用户不存在");
         }
@@ -126,10 +143,7 @@ public class AuthService {
         }
 
         // 检查用户是否存在
-        User user = userMapper.selectOne(
-                new LambdaQueryWrapper<User>()
-                        .eq(User::getPhone, phone)
-                        .ne(User::getStatus, "deleted"));
+        User user = userMapper.findByPhone(phone);
         if (user == null) {
             // 为了安全，不暴露用户是否存在，但记录日志
             // 仍然返回成功，不暴露用户是否存在
@@ -137,8 +151,9 @@ public class AuthService {
             // 检查账户状态
             checkAccountStatus(user, clientIp, userAgent);
 
-            // 发送验证码
-            otpService.sendOtp(phone, "phone", "login");
+            // 生成验证码并提交通知（通知服务异步发送短信，提交失败时也不向调用方暴露用户是否存在）
+            String otp = otpService.sendOtp(phone, "phone", "login");
+            otpNotificationSender.send(user.getUserId(), phone, "phone", "login", otp);
 
             // 记录审计日志
         }
@@ -210,9 +225,8 @@ public class AuthService {
     }
 
     /**
-     * 用户注册
+     * 用户注册（事务边界由 UserService.register 内部控制）
      */
-    @Transactional(rollbackFor = Exception.class)
     public RegisterResponse register(RegisterRequest request, String clientIp, String userAgent) {
         return userService.register(request, clientIp, userAgent);
     }
@@ -250,6 +264,28 @@ public class AuthService {
         }
     }
 
+    /**
+     * 按登录标识类型查询用户
+     * 先用ValidationUtil识别邮箱/手机号/用户名，每种类型只走对应的一个索引，
+     * 避免 username = ? OR email = ? OR phone = ? 导致的 BitmapOr 或全表扫描
+     */
+    private User findUserByIdentifier(String identifier) {
+        if (ValidationUtil.isValidEmail(identifier)) {
+            return userMapper.findByEmail(identifier);
+        }
+
+        if (ValidationUtil.isValidPhone(identifier)) {
+            User user = userMapper.findByPhone(identifier);
+            // 纯数字用户名可能与手机号格式重叠，未命中时回退到用户名查询
+            if (user == null && ValidationUtil.isValidUsername(identifier)) {
+                user = userMapper.findByUsername(identifier);
+            }
+            return user;
+        }
+
+        return userMapper.findByUsername(identifier);
+    }
+
     /**
      * 检查账户状态
      */
@@ -273,31 +309,25 @@ public class AuthService {
                     String.format("账户已被锁定，解锁时间: %s", user.getLockedUntil()));
         }
 
-        // 如果锁定时间已过，解锁账户
-        if (user.getLockedUntil() != null && user.getLockedUntil().isBefore(now)) {
-            userMapper.unlockUser(user.getUserId());
-            log.info("账户自动解锁: userId={}", user.getUserId());
-        }
+        // 锁定时间已过无需单独解锁：登录成功时清除锁定，登录失败时计数从1重新开始
     }
 
     /**
      * 处理登录失败
      */
     private void handleLoginFailure(User user, String clientIp, String userAgent, String reason) {
-        // 增加登录失败次数
-        userMapper.incrementLoginAttempts(user.getUserId());
+        // 在Redis中原子计数，只有本次触发锁定时才写数据库
+        LoginAttemptService.FailureResult result = loginAttemptService.recordFailure(USER_TYPE, user.getUserId(), clientIp);
 
-        int currentAttempts = user.getLoginAttempts() + 1;
-
-        // 检查是否需要锁定账户（使用 UTC 时间）
-        if (currentAttempts >= maxLoginAttempts) {
-            LocalDateTime lockUntil = TimeUtil.nowUtc().plusMinutes(accountLockDurationMinutes);
+        if (result.accountLockTriggered()) {
+            LocalDateTime lockUntil = TimeUtil.nowUtc().plusMinutes(loginAttemptService.getLockMinutes());
             userMapper.lockUser(user.getUserId(), lockUntil);
 
-
             log.warn("账户被锁定: userId={}, attempts={}, lockUntil={}",
-                    user.getUserId(), currentAttempts, lockUntil);
+                    user.getUserId(), result.accountAttempts(), lockUntil);
         } else {
+            log.warn("登录失败: userId={}, attempts={}/{}, reason={}, IP={}",
+                    user.getUserId(), result.accountAttempts(), loginAttemptService.getMaxAccountAttempts(), reason, clientIp);
         }
     }
 
@@ -305,11 +335,14 @@ public class AuthService {
      * 处理登录成功
      */
     private LoginResponse handleLoginSuccess(User user, String clientIp, String userAgent, String loginMethod) {
-        // 重置登录失败次数
-        userMapper.resetLoginAttempts(user.getUserId());
+        // 清除Redis失败计数；只有存在锁定记录时才需要写 users 行
+        loginAttemptService.clearAccount(USER_TYPE, user.getUserId());
+        if ((user.getLoginAttempts() != null && user.getLoginAttempts() > 0) || user.getLockedUntil() != null) {
+            userMapper.clearLoginFailures(user.getUserId());
+        }
 
-        // 更新最后登录信息（使用 UTC 时间）
-        userMapper.updateLoginInfo(user.getUserId(), TimeUtil.nowUtc(), clientIp);
+        // 最后登录信息延迟批量写入（使用 UTC 时间）
+        lastLoginWriteBehind.record(user.getUserId(), TimeUtil.nowUtc(), clientIp);
 
         // 生成JWT令牌（指定用户类型为USER）
         String accessToken = jwtTokenService.generateAccessToken(user.getUserId(), user.getUsername(), "USER", "USER");
@@ -344,8 +377,8 @@ public class AuthService {
             ValidationUtil.isValidEmail(target);
         }
 
-        // 调用OTP服务验证
-        boolean isValid = otpService.verifyOtp(target, otpCode, type, clientIp);
+        // 调用OTP服务验证（验证码按用途隔离）
+        boolean isValid = otpService.verifyOtp(target, type, purpose, otpCode);
 
         if (isValid) {
             log.info("OTP验证成功: target={}, purpose={}", target, purpose);
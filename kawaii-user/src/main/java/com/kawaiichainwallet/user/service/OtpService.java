@@ -1,147 +1,246 @@
 package com.kawaiichainwallet.user.service;
 
+import com.kawaiichainwallet.common.core.enums.ApiCode;
 import com.kawaiichainwallet.common.core.exception.RateLimitException;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
-import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
 
 /**
  * 一次性密码服务
+ *
+ * <p>签发和校验各自由一个 Lua 脚本在 Redis 端原子完成，每次只需一次往返：</p>
+ * <ul>
+ *   <li>签发：检查失败阻止和重发间隔后写入验证码</li>
+ *   <li>校验：检查阻止状态、比对验证码、成功时删除验证码和失败记录、失败时累加次数并在达到上限时阻止</li>
+ * </ul>
+ *
+ * <p>并发猜测无法越过最大尝试次数。Redis 中只保存验证码的 SHA-256 摘要，
+ * 脚本以定长摘要逐字节异或比较（恒定时间）。
+ * 同一标识的验证码、失败计数和重发间隔 key 使用相同的 hash tag，保证在集群中落在同一个 slot。</p>
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class OtpService {
 
-    private final StringRedisTemplate redisTemplate;
-
     private static final String OTP_KEY_PREFIX = "otp:";
     private static final String ATTEMPT_KEY_PREFIX = "otp_attempts:";
-    private static final int OTP_LENGTH = 6;
-    private static final int OTP_EXPIRY_MINUTES = 5;
-    private static final int MAX_ATTEMPTS = 3;
-    private static final int BLOCK_DURATION_MINUTES = 15;
+    private static final String COOLDOWN_KEY_PREFIX = "otp_cooldown:";
+    private static final int BLOCK_DURATION_SECONDS = 15 * 60;
+
+    private static final long ISSUED = 1;
+    private static final long ISSUE_BLOCKED = -1;
+    private static final long ISSUE_TOO_FREQUENT = -2;
+
+    private static final long VERIFIED = 1;
+    private static final long MISMATCH = 0;
+    private static final long NOT_FOUND = -1;
+    private static final long VERIFY_BLOCKED = -2;
 
     /**
-     * 生成并发送OTP验证码
+     * 签发验证码
+     * KEYS[1]=验证码key，KEYS[2]=失败计数key，KEYS[3]=重发间隔key
+     * ARGV[1]=验证码摘要，ARGV[2]=有效期秒数，ARGV[3]=最大失败次数，ARGV[4]=重发间隔秒数
      */
-    public String generateAndStoreOtp(String identifier) {
-        // 检查是否被阻止
-        if (isBlocked(identifier)) {
-            throw new RateLimitException("验证码发送过于频繁，请稍后重试");
-        }
+    private static final RedisScript<Long> ISSUE_SCRIPT = new DefaultRedisScript<>("""
+            local attempts = tonumber(redis.call('GET', KEYS[2]) or '0')
+            if attempts >= tonumber(ARGV[3]) then
+                return -1
+            end
+            if tonumber(ARGV[4]) > 0 then
+                if not redis.call('SET', KEYS[3], '1', 'EX', ARGV[4], 'NX') then
+                    return -2
+                end
+            end
+            redis.call('SET', KEYS[1], ARGV[1], 'EX', ARGV[2])
+            return 1
+            """, Long.class);
 
-        String otp = generateOtp();
-        String key = OTP_KEY_PREFIX + identifier;
-
-        // 存储OTP，设置5分钟过期
-        redisTemplate.opsForValue().set(key, otp, Duration.ofMinutes(OTP_EXPIRY_MINUTES));
+    /**
+     * 校验并消费验证码
+     * KEYS[1]=验证码key，KEYS[2]=失败计数key
+     * ARGV[1]=提交的验证码摘要，ARGV[2]=最大失败次数，ARGV[3]=阻止秒数，ARGV[4]=失败计数窗口秒数
+     */
+    private static final RedisScript<Long> VERIFY_SCRIPT = new DefaultRedisScript<>("""
+            local maxAttempts = tonumber(ARGV[2])
+            if tonumber(redis.call('GET', KEYS[2]) or '0') >= maxAttempts then
+                return -2
+            end
+            local stored = redis.call('GET', KEYS[1])
+            if not stored then
+                return -1
+            end
+            local provided = ARGV[1]
+            local diff = 0
+            if #stored ~= #provided then
+                diff = 1
+            end
+            for i = 1, #stored do
+                diff = bit.bor(diff, bit.bxor(string.byte(stored, i), string.byte(provided, i) or 0))
+            end
+            if diff == 0 then
+                redis.call('DEL', KEYS[1], KEYS[2])
+                return 1
+            end
+            local attempts = redis.call('INCR', KEYS[2])
+            if attempts >= maxAttempts then
+                redis.call('EXPIRE', KEYS[2], ARGV[3])
+                redis.call('DEL', KEYS[1])
+                return -2
+            end
+            if attempts == 1 then
+                redis.call('EXPIRE', KEYS[2], ARGV[4])
+            end
+            return 0
+            """, Long.class);
 
-        log.info("生成OTP验证码: identifier={}, otp={}", identifier, otp);
-        return otp;
+    private final StringRedisTemplate redisTemplate;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final int otpLength;
+    private final long expirySeconds;
+    private final int maxAttempts;
+    private final long resendIntervalSeconds;
+
+    public OtpService(StringRedisTemplate redisTemplate,
+                      @Value("${app.otp.length:6}") int otpLength,
+                      @Value("${app.otp.expiration:300}") long expirySeconds,
+                      @Value("${app.otp.max-attempts:3}") int maxAttempts,
+                      @Value("${app.otp.rate-limit:0}") long resendIntervalSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.otpLength = otpLength;
+        this.expirySeconds = expirySeconds;
+        this.maxAttempts = maxAttempts;
+        this.resendIntervalSeconds = resendIntervalSeconds;
     }
 
     /**
-     * 验证OTP验证码
+     * 启动时预加载脚本，首次调用即可直接走 EVALSHA
      */
-    public boolean validateOtp(String identifier, String providedOtp) {
-        String key = OTP_KEY_PREFIX + identifier;
-        String storedOtp = redisTemplate.opsForValue().get(key);
-
-        if (storedOtp == null) {
-            log.warn("OTP验证失败 - 验证码不存在或已过期: identifier={}", identifier);
-            return false;
-        }
-
-        if (storedOtp.equals(providedOtp)) {
-            // 验证成功，删除验证码和失败记录
-            redisTemplate.delete(key);
-            clearAttempts(identifier);
-            log.info("OTP验证成功: identifier={}", identifier);
-            return true;
-        } else {
-            // 验证失败，记录尝试次数
-            incrementAttempts(identifier);
-            log.warn("OTP验证失败 - 验证码不匹配: identifier={}", identifier);
-            return false;
+    @PostConstruct
+    public void preloadScripts() {
+        try {
+            for (RedisScript<?> script : List.of(ISSUE_SCRIPT, VERIFY_SCRIPT)) {
+                redisTemplate.execute((RedisCallback<String>) connection ->
+                        connection.scriptingCommands().scriptLoad(script.getScriptAsString().getBytes(StandardCharsets.UTF_8)));
+            }
+            log.info("OTP Lua脚本预加载完成");
+        } catch (Exception e) {
+            // EVALSHA 遇到 NOSCRIPT 时会自动回退为 EVAL，预加载失败不影响使用
+            log.warn("OTP Lua脚本预加载失败", e);
         }
     }
 
     /**
-     * 生成6位数字验证码
+     * 发送OTP验证码
+     *
+     * @param identifier 手机号或邮箱
+     * @param type       类型（phone / email）
+     * @param purpose    用途（login / register 等），不同用途的验证码互不通用
+     * @return 生成的验证码
      */
-    private String generateOtp() {
-        SecureRandom random = new SecureRandom();
-        StringBuilder otp = new StringBuilder();
+    public String sendOtp(String identifier, String type, String purpose) {
+        String otp = generateOtp();
 
-        for (int i = 0; i < OTP_LENGTH; i++) {
-            otp.append(random.nextInt(10));
+        Long result = redisTemplate.execute(ISSUE_SCRIPT,
+                List.of(otpKey(identifier, purpose), attemptKey(identifier), cooldownKey(identifier, purpose)),
+                digest(identifier, purpose, otp), String.valueOf(expirySeconds),
+                String.valueOf(maxAttempts), String.valueOf(resendIntervalSeconds));
+
+        if (result == null || result == ISSUE_BLOCKED) {
+            throw new RateLimitException(ApiCode.OTP_VERIFY_TOO_MANY_ATTEMPTS, "验证失败次数过多，请稍后重试");
+        }
+        if (result == ISSUE_TOO_FREQUENT) {
+            throw new RateLimitException(ApiCode.OTP_SEND_TOO_FREQUENT, "验证码发送过于频繁，请稍后重试");
         }
 
-        return otp.toString();
+        log.info("生成OTP验证码: identifier={}, type={}, purpose={}", identifier, type, purpose);
+        return otp;
     }
 
     /**
-     * 检查是否被阻止
+     * 校验并消费OTP验证码（校验成功后验证码立即失效）
+     *
+     * @param identifier 手机号或邮箱
+     * @param type       类型（phone / email）
+     * @param purpose    用途，必须与发送时一致
+     * @param otp        用户提交的验证码
+     * @return 是否校验成功
+     * @throws RateLimitException 失败次数达到上限时抛出
      */
-    private boolean isBlocked(String identifier) {
-        String attemptKey = ATTEMPT_KEY_PREFIX + identifier;
-        String attempts = redisTemplate.opsForValue().get(attemptKey);
-
-        if (attempts != null) {
-            int attemptCount = Integer.parseInt(attempts);
-            return attemptCount >= MAX_ATTEMPTS;
+    public boolean verifyOtp(String identifier, String type, String purpose, String otp) {
+        if (otp == null || otp.isEmpty()) {
+            return false;
         }
 
+        Long result = redisTemplate.execute(VERIFY_SCRIPT,
+                List.of(otpKey(identifier, purpose), attemptKey(identifier)),
+                digest(identifier, purpose, otp), String.valueOf(maxAttempts),
+                String.valueOf(BLOCK_DURATION_SECONDS), String.valueOf(expirySeconds));
+
+        if (result == null) {
+            return false;
+        }
+        if (result == VERIFIED) {
+            log.info("OTP验证成功: identifier={}, type={}, purpose={}", identifier, type, purpose);
+            return true;
+        }
+        if (result == VERIFY_BLOCKED) {
+            log.warn("OTP验证失败 - 失败次数过多: identifier={}, purpose={}", identifier, purpose);
+            throw new RateLimitException(ApiCode.OTP_VERIFY_TOO_MANY_ATTEMPTS, "验证失败次数过多，请稍后重试");
+        }
+        if (result == NOT_FOUND) {
+            log.warn("OTP验证失败 - 验证码不存在或已过期: identifier={}, purpose={}", identifier, purpose);
+        } else if (result == MISMATCH) {
+            log.warn("OTP验证失败 - 验证码不匹配: identifier={}, purpose={}", identifier, purpose);
+        }
         return false;
     }
 
     /**
-     * 增加失败尝试次数
+     * 生成数字验证码
      */
-    private void incrementAttempts(String identifier) {
-        String attemptKey = ATTEMPT_KEY_PREFIX + identifier;
-        String attempts = redisTemplate.opsForValue().get(attemptKey);
-
-        int currentAttempts = attempts != null ? Integer.parseInt(attempts) : 0;
-        currentAttempts++;
-
-        if (currentAttempts >= MAX_ATTEMPTS) {
-            // 达到最大尝试次数，阻止15分钟
-            redisTemplate.opsForValue().set(attemptKey, String.valueOf(currentAttempts),
-                    Duration.ofMinutes(BLOCK_DURATION_MINUTES));
-        } else {
-            // 未达到最大次数，设置5分钟过期
-            redisTemplate.opsForValue().set(attemptKey, String.valueOf(currentAttempts),
-                    Duration.ofMinutes(OTP_EXPIRY_MINUTES));
+    private String generateOtp() {
+        StringBuilder otp = new StringBuilder(otpLength);
+        for (int i = 0; i < otpLength; i++) {
+            otp.append(secureRandom.nextInt(10));
         }
+        return otp.toString();
     }
 
     /**
-     * 验证OTP验证码（带类型和IP参数）
+     * 验证码摘要（绑定标识和用途，Redis 中不保存明文验证码）
      */
-    public boolean verifyOtp(String identifier, String otp, String type, String clientIp) {
-        log.info("验证OTP: identifier={}, type={}, clientIp={}", identifier, type, clientIp);
-        return validateOtp(identifier, otp);
+    private static String digest(String identifier, String purpose, String otp) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest((identifier + ':' + purpose + ':' + otp).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
     }
 
-    /**
-     * 发送OTP验证码
-     */
-    public String sendOtp(String identifier, String type, String clientIp) {
-        log.info("发送OTP: identifier={}, type={}, clientIp={}", identifier, type, clientIp);
-        return generateAndStoreOtp(identifier);
+    private static String otpKey(String identifier, String purpose) {
+        return OTP_KEY_PREFIX + "{" + identifier + "}:" + purpose;
     }
 
-    /**
-     * 清除失败尝试记录
-     */
-    private void clearAttempts(String identifier) {
-        String attemptKey = ATTEMPT_KEY_PREFIX + identifier;
-        redisTemplate.delete(attemptKey);
+    private static String attemptKey(String identifier) {
+        return ATTEMPT_KEY_PREFIX + "{" + identifier + "}";
+    }
+
+    private static String cooldownKey(String identifier, String purpose) {
+        return COOLDOWN_KEY_PREFIX + "{" + identifier + "}:" + purpose;
     }
-}
\ No newline at end of file
+}
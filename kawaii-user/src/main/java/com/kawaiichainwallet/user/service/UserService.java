@@ -1,29 +1,55 @@
 package com.kawaiichainwallet.user.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kawaiichainwallet.common.auth.JwtTokenService;
+import com.kawaiichainwallet.common.business.audit.OperationAuditService;
+import com.kawaiichainwallet.common.business.outbox.OutboxPublisher;
+import com.kawaiichainwallet.common.business.password.PasswordHashingService;
 import com.kawaiichainwallet.common.core.enums.ApiCode;
 import com.kawaiichainwallet.common.core.exception.BusinessException;
+import com.kawaiichainwallet.common.core.response.CursorPage;
 import com.kawaiichainwallet.common.core.utils.ValidationUtil;
+import com.kawaiichainwallet.common.spring.bulkhead.Bulkhead;
+import com.kawaiichainwallet.common.spring.context.UserContextExecutors;
+import com.kawaiichainwallet.user.component.OtpNotificationSender;
+import com.kawaiichainwallet.user.component.UserExistenceFilter;
 import com.kawaiichainwallet.user.converter.UserConverter;
 import com.kawaiichainwallet.user.dto.RegisterRequest;
 import com.kawaiichainwallet.user.dto.RegisterResponse;
 import com.kawaiichainwallet.user.dto.UpdateUserInfoRequest;
 import com.kawaiichainwallet.user.dto.UserDetailsDto;
+import com.kawaiichainwallet.user.dto.UserRegisteredEvent;
 import com.kawaiichainwallet.user.entity.User;
-import com.kawaiichainwallet.user.entity.UserKyc;
+import com.kawaiichainwallet.user.entity.UserAggregate;
 import com.kawaiichainwallet.user.entity.UserProfile;
-import com.kawaiichainwallet.user.mapper.UserKycMapper;
 import com.kawaiichainwallet.user.mapper.UserMapper;
 import com.kawaiichainwallet.user.mapper.UserProfileMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * 用户服务 - 专注用户信息管理
@@ -35,13 +61,28 @@ public class UserService {
 
     private final UserMapper userMapper;
     private final UserProfileMapper userProfileMapper;
-    private final UserKycMapper userKycMapper;
     private final UserConverter userConverter;
     private final OtpService otpService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtTokenService jwtTokenService;
     private final VerificationTokenService verificationTokenService;
     private final DistributedIdService distributedIdService;
+    private final ObjectMapper objectMapper;
+    private final UserExistenceFilter userExistenceFilter;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<OutboxPublisher> outboxPublisher;
+    private final OperationAuditService operationAuditService;
+    private final OtpNotificationSender otpNotificationSender;
+
+    /**
+     * 批量查询时单条SQL的最大ID数量
+     */
+    private static final int BATCH_QUERY_CHUNK_SIZE = 500;
+
+    /**
+     * 用户列表每页最大数量
+     */
+    private static final int MAX_PAGE_SIZE = 100;
 
     /**
      * 根据用户ID获取用户基本信息
@@ -76,55 +117,71 @@ public class UserService {
     }
 
     /**
-     * 检查用户名是否存在
+     * 检查用户名是否存在（布隆过滤器判定不存在时不查库）
      */
     public boolean isUsernameExists(String username) {
-        return userMapper.existsByUsername(username);
+        return userExistenceFilter.exists(UserExistenceFilter.Field.USERNAME, username, userMapper::existsByUsername);
     }
 
     /**
      * 检查邮箱是否存在
      */
     public boolean isEmailExists(String email) {
-        return userMapper.existsByEmail(email);
+        return userExistenceFilter.exists(UserExistenceFilter.Field.EMAIL, email, userMapper::existsByEmail);
     }
 
     /**
      * 检查手机号是否存在
      */
     public boolean isPhoneExists(String phone) {
-        return userMapper.existsByPhone(phone);
+        return userExistenceFilter.exists(UserExistenceFilter.Field.PHONE, phone, userMapper::existsByPhone);
     }
 
     /**
-     * 获取用户详细信息（包含用户资料）
+     * 获取用户详细信息（包含用户资料和KYC级别）
+     * 通过单次 LEFT JOIN 查询加载，避免三次顺序查询
      */
     public UserDetailsDto getUserInfo(long userId) {
-        User user = getUserById(userId);
-
-        UserProfile userProfile = userProfileMapper.selectOne(
-                new LambdaQueryWrapper<UserProfile>()
-                        .eq(UserProfile::getUserId, userId));
-
-        // 查询KYC信息
-        UserKyc userKyc = userKycMapper.findByUserId(userId);
+        UserAggregate aggregate = userMapper.findAggregateById(userId);
+        if (aggregate == null) {
+            throw new BusinessException(ApiCode.USER_NOT_FOUND);
+        }
 
         // 使用MapStruct进行对象转换和脱敏处理
-        UserDetailsDto response;
-        if (userProfile != null) {
-            response = userConverter.userAndProfileToUserDetailsDto(user, userProfile);
-        } else {
-            response = userConverter.userToUserDetailsDto(user);
+        return userConverter.aggregateToUserDetailsDto(aggregate);
+    }
+
+    /**
+     * 批量获取用户聚合信息
+     * ID去重后按批次使用 user_id = ANY(?) 查询，结果按请求顺序返回，不存在的用户被忽略
+     */
+    @Bulkhead("user-batch-query")
+    public List<UserAggregate> getUserAggregates(List<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return List.of();
         }
 
-        // 设置KYC级别
-        if (userKyc != null && userKyc.getKycLevel() != null) {
-            response.setKycLevel("LEVEL_" + userKyc.getKycLevel());
-        } else {
-            response.setKycLevel("LEVEL_0");  // 默认未认证
+        List<Long> distinctIds = userIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        Map<Long, UserAggregate> loaded = new HashMap<>(distinctIds.size() * 2);
+        for (int from = 0; from < distinctIds.size(); from += BATCH_QUERY_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + BATCH_QUERY_CHUNK_SIZE, distinctIds.size()));
+            for (UserAggregate aggregate : userMapper.findAggregatesByIds(chunk.toArray(Long[]::new))) {
+                loaded.put(aggregate.userId(), aggregate);
+            }
         }
 
-        return response;
+        List<UserAggregate> result = new ArrayList<>(loaded.size());
+        for (Long userId : distinctIds) {
+            UserAggregate aggregate = loaded.get(userId);
+            if (aggregate != null) {
+                result.add(aggregate);
+            }
+        }
+        return result;
     }
 
     /**
@@ -170,6 +227,14 @@ public class UserService {
         user.setUpdatedAt(LocalDateTime.now());
         userMapper.updateById(user);
 
+        // 新占用的登录标识在事务提交后写入存在性过滤器（旧值在定时重建时清除）
+        // 提交前写入时，若恰好有一次重建的读快照早于提交开始，重建切换后新值会丢失
+        afterCommit(() -> {
+            userExistenceFilter.add(UserExistenceFilter.Field.USERNAME, user.getUsername());
+            userExistenceFilter.add(UserExistenceFilter.Field.EMAIL, user.getEmail());
+            userExistenceFilter.add(UserExistenceFilter.Field.PHONE, user.getPhone());
+        });
+
         // 更新用户资料
         updateUserProfile(userId, request);
 
@@ -179,31 +244,83 @@ public class UserService {
 
     /**
      * 获取用户列表（管理员功能）
+     * 基于 (created_at, user_id) 的游标分页，总数使用统计信息估算而非 COUNT(*)
+     *
+     * @param cursor 上一页返回的游标，首页传null
+     * @param size   每页数量（1-100）
+     * @param status 状态筛选（可选）
      */
-    public List<UserDetailsDto> getUserList(int page, int size, String status) {
-        LambdaQueryWrapper<User> wrapper = new LambdaQueryWrapper<User>()
-                .ne(User::getStatus, "deleted");
+    @Bulkhead("user-batch-query")
+    public CursorPage<UserDetailsDto> getUserList(String cursor, int size, String status) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        LocalDateTime cursorCreatedAt = null;
+        Long cursorUserId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] parts = decodeCursor(cursor);
+            cursorCreatedAt = LocalDateTime.parse(parts[0]);
+            cursorUserId = Long.parseLong(parts[1]);
+        }
+
+        // 多查一条用于判断是否还有下一页
+        List<UserAggregate> rows = userMapper.findAggregatePage(status, cursorCreatedAt, cursorUserId, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
 
-        if (status != null && !status.isEmpty()) {
-            wrapper.eq(User::getStatus, status);
+        String nextCursor = null;
+        if (hasMore) {
+            UserAggregate last = rows.get(rows.size() - 1);
+            nextCursor = encodeCursor(last.createdAt(), last.userId());
         }
 
-        List<User> users = userMapper.selectList(wrapper);
-        return users.stream()
-                .map(userConverter::userToUserDetailsDto)
+        List<UserDetailsDto> items = rows.stream()
+                .map(userConverter::aggregateToUserDetailsDto)
                 .toList();
+
+        return new CursorPage<>(items, nextCursor, hasMore, userMapper.estimateUserCount(status));
+    }
+
+    /**
+     * 以NDJSON格式流式导出用户列表（管理员功能）
+     * 使用服务端游标按批次抓取，内存占用与用户总数无关；游标需要在事务内消费
+     * 导出会长时间占用一个数据库连接，通过舱壁限制同时进行的导出数
+     */
+    @Bulkhead("user-export")
+    @Transactional(readOnly = true)
+    public long exportUsers(String status, OutputStream outputStream) throws IOException {
+        long count = 0;
+        try (Cursor<UserAggregate> cursor = userMapper.streamAggregates(status)) {
+            for (UserAggregate aggregate : cursor) {
+                outputStream.write(objectMapper.writeValueAsBytes(userConverter.aggregateToUserDetailsDto(aggregate)));
+                outputStream.write('\n');
+                count++;
+            }
+        }
+        outputStream.flush();
+
+        log.info("用户列表导出完成: status={}, count={}", status, count);
+        return count;
     }
 
     /**
      * 用户注册
+     *
+     * <p>不在整个流程上开启事务：</p>
+     * <ol>
+     *   <li>校验参数并消费验证Token（Redis）</li>
+     *   <li>BCrypt计算和两个ID的租用在虚拟线程上并行执行，不占用数据库连接</li>
+     *   <li>事务只包含 users、user_profiles 和发件箱事件三条 INSERT，用户名/邮箱/手机号的唯一性由部分唯一索引保证，冲突映射为业务错误</li>
+     *   <li>事务提交后再签发JWT</li>
+     * </ol>
      */
-    @Transactional(rollbackFor = Exception.class)
     public RegisterResponse register(RegisterRequest request, String clientIp, String userAgent) {
         // 1. 验证请求参数
         validateRegisterRequest(request);
 
-        // 2. 验证Token (替代OTP验证)
-        boolean tokenValid = verificationTokenService.verifyToken(
+        // 2. 验证并消费Token (替代OTP验证，防止重复使用)
+        boolean tokenValid = verificationTokenService.verifyAndConsume(
                 request.getVerificationToken(),
                 request.getTarget(),
                 "register"
@@ -212,42 +329,58 @@ public class UserService {
             throw new BusinessException(ApiCode.INVALID_TOKEN, "验证Token无效或已过期");
         }
 
-        // 3. 使用Token(防止重复使用)
-        verificationTokenService.consumeToken(request.getVerificationToken());
-
-        // 3. 检查用户名是否已存在
-        if (isUsernameExists(request.getUsername())) {
-            throw new BusinessException(ApiCode.USER_ALREADY_EXISTS, "用户名已被使用");
+        // 3. 并行计算密码哈希、租用用户ID和资料ID
+        String passwordHash;
+        long userId;
+        long profileId;
+        try (ExecutorService executor = UserContextExecutors.wrap(Executors.newVirtualThreadPerTaskExecutor())) {
+            Future<String> passwordHashFuture = executor.submit(() -> passwordHashingService.encode(request.getPassword()));
+            Future<Long> userIdFuture = executor.submit(() -> distributedIdService.generateSegmentId("user-id").getId());
+            Future<Long> profileIdFuture = executor.submit(() -> distributedIdService.generateSegmentId("user-id").getId());
+
+            passwordHash = await(passwordHashFuture);
+            userId = await(userIdFuture);
+            profileId = await(profileIdFuture);
         }
 
-        // 4. 检查邮箱或手机号是否已存在
-        if ("email".equals(request.getType())) {
-            if (isEmailExists(request.getTarget())) {
-                throw new BusinessException(ApiCode.EMAIL_ALREADY_EXISTS, "邮箱已被注册");
-            }
-        } else if ("phone".equals(request.getType())) {
-            if (isPhoneExists(request.getTarget())) {
-                throw new BusinessException(ApiCode.PHONE_ALREADY_EXISTS, "手机号已被注册");
-            }
+        User user = createUser(request, clientIp, userId, passwordHash);
+        UserProfile userProfile = createInitialUserProfile(profileId, userId);
+
+        // 4. 短事务：用户、资料和注册事件一起提交，审计等副作用由发件箱投递
+        UserRegisteredEvent registeredEvent = new UserRegisteredEvent(user.getUserId(), user.getUsername(),
+                user.getEmail(), request.getType(), clientIp, userAgent);
+        OutboxPublisher publisher = outboxPublisher.getIfAvailable();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userMapper.insert(user);
+                userProfileMapper.insert(userProfile);
+                if (publisher != null) {
+                    publisher.publish(UserRegisteredEvent.AGGREGATE_TYPE, user.getUserId(),
+                            UserRegisteredEvent.EVENT_TYPE, registeredEvent);
+                }
+            });
+        } catch (DuplicateKeyException e) {
+            throw mapRegisterConflict(e);
         }
 
-        // 5. 创建用户
-        User user = createUser(request, clientIp);
-        userMapper.insert(user);
-
-        // 6. 创建用户资料
-        createInitialUserProfile(user.getUserId());
+        userExistenceFilter.add(UserExistenceFilter.Field.USERNAME, user.getUsername());
+        userExistenceFilter.add(UserExistenceFilter.Field.EMAIL, user.getEmail());
+        userExistenceFilter.add(UserExistenceFilter.Field.PHONE, user.getPhone());
 
-        // 7. 记录注册成功审计日志
+        // 5. 未启用发件箱时直接记录注册成功审计日志
+        if (publisher == null) {
+            operationAuditService.logAuthEvent(user.getUserId(), user.getEmail(), "REGISTER",
+                    String.format("type=%s, ip=%s", request.getType(), clientIp));
+        }
 
         log.info("用户注册成功: userId={}, username={}, type={}, IP={}",
                 user.getUserId(), user.getUsername(), request.getType(), clientIp);
 
-        // 8. 生成JWT令牌（指定用户类型为USER）
+        // 6. 生成JWT令牌（事务提交后，指定用户类型为USER）
         String accessToken = jwtTokenService.generateAccessToken(user.getUserId(), user.getUsername(), "USER", "USER");
         String refreshToken = jwtTokenService.generateRefreshToken(user.getUserId(), user.getUsername(), "USER");
 
-        // 9. 使用MapStruct转换响应对象并设置令牌
+        // 7. 使用MapStruct转换响应对象并设置令牌
         RegisterResponse response = userConverter.userToRegisterResponse(user);
         response.setAccessToken(accessToken);
         response.setRefreshToken(refreshToken);
@@ -258,6 +391,8 @@ public class UserService {
 
     /**
      * 发送注册验证码
+     *
+     * <p>验证码提交给通知服务后立即返回，短信/邮件由通知服务异步发送。</p>
      */
     public void sendRegisterOtp(String target, String type, String clientIp, String userAgent) {
         // 验证目标格式
@@ -274,27 +409,57 @@ public class UserService {
         }
 
         // 检查是否已注册
-        boolean exists = false;
-        if ("email".equals(type)) {
-            exists = isEmailExists(target);
-        } else if ("phone".equals(type)) {
-            exists = isPhoneExists(target);
-        }
-
+        boolean exists = "email".equals(type) ? isEmailExists(target) : isPhoneExists(target);
         if (exists) {
             throw new BusinessException(ApiCode.USER_ALREADY_EXISTS,
                     "email".equals(type) ? "邮箱已被注册" : "手机号已被注册");
         }
 
-        // 发送验证码
-        otpService.sendOtp(target, type, "register");
-
-        // 记录审计日志
+        // 生成验证码并提交通知
+        String otp = otpService.sendOtp(target, type, "register");
+        if (!otpNotificationSender.send(null, target, type, "register", otp)) {
+            throw new BusinessException(ApiCode.SERVICE_UNAVAILABLE, "验证码发送失败，请稍后重试");
+        }
 
         log.info("发送注册验证码请求: target={}, type={}, IP={}",
                 ValidationUtil.maskSensitiveInfo(target), type, clientIp);
     }
 
+    /**
+     * 等待并行任务结果，业务异常原样抛出
+     */
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new BusinessException("注册失败", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ApiCode.SERVICE_UNAVAILABLE, "注册被中断，请重试");
+        }
+    }
+
+    /**
+     * 将唯一索引冲突映射为对应的业务错误
+     */
+    private BusinessException mapRegisterConflict(DuplicateKeyException e) {
+        String message = String.valueOf(e.getMostSpecificCause().getMessage());
+        if (message.contains("uk_users_email")) {
+            return new BusinessException(ApiCode.EMAIL_ALREADY_EXISTS, "邮箱已被注册");
+        }
+        if (message.contains("uk_users_phone")) {
+            return new BusinessException(ApiCode.PHONE_ALREADY_EXISTS, "手机号已被注册");
+        }
+        if (message.contains("uk_users_username")) {
+            return new BusinessException(ApiCode.USER_ALREADY_EXISTS, "用户名已被使用");
+        }
+        log.error("注册时发生未识别的唯一约束冲突", e);
+        return new BusinessException(ApiCode.USER_ALREADY_EXISTS);
+    }
+
     /**
      * 验证注册请求
      */
@@ -334,11 +499,10 @@ public class UserService {
     /**
      * 创建用户对象
      */
-    private User createUser(RegisterRequest request, String clientIp) {
+    private User createUser(RegisterRequest request, String clientIp, long userId, String passwordHash) {
         User user = new User();
 
-        // 使用Leaf分布式ID生成器生成用户ID
-        Long userId = distributedIdService.generateSegmentId("user-id").getId();
+        // 用户ID由Leaf分布式ID生成器预先租用
         user.setUserId(userId);
         user.setUsername(request.getUsername());
 
@@ -351,8 +515,6 @@ public class UserService {
             user.setPhoneVerified(true); // OTP验证通过即认为已验证
         }
 
-        // 使用Spring Security的BCryptPasswordEncoder加密密码
-        String passwordHash = passwordEncoder.encode(request.getPassword());
         user.setPasswordHash(passwordHash);
 
         // 设置默认状态
@@ -367,13 +529,12 @@ public class UserService {
     }
 
     /**
-     * 创建初始用户资料
+     * 创建初始用户资料对象
      */
-    private void createInitialUserProfile(long userId) {
+    private UserProfile createInitialUserProfile(long profileId, long userId) {
         UserProfile userProfile = new UserProfile();
 
-        // 使用Leaf分布式ID生成器生成资料ID
-        Long profileId = distributedIdService.generateSegmentId("user-id").getId();
+        // 资料ID由Leaf分布式ID生成器预先租用
         userProfile.setProfileId(profileId);
         userProfile.setUserId(userId);
         userProfile.setLanguage("en");
@@ -383,7 +544,34 @@ public class UserService {
         userProfile.setCreatedAt(LocalDateTime.now());
         userProfile.setUpdatedAt(LocalDateTime.now());
 
-        userProfileMapper.insert(userProfile);
+        return userProfile;
+    }
+
+    /**
+     * 编码分页游标: Base64URL("created_at|user_id")
+     */
+    private String encodeCursor(LocalDateTime createdAt, Long userId) {
+        String raw = createdAt + "|" + userId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码分页游标
+     */
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("cursor parts: " + parts.length);
+            }
+            // 提前校验格式，避免非法游标进入SQL
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (RuntimeException e) {
+            throw new BusinessException(ApiCode.VALIDATION_ERROR, "无效的分页游标");
+        }
     }
 
     /**
@@ -429,4 +617,17 @@ public class UserService {
             userProfileMapper.updateById(userProfile);
         }
     }
-}
\ No newline at end of file
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
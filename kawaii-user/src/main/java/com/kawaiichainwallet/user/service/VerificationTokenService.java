@@ -1,26 +1,69 @@
 package com.kawaiichainwallet.user.service;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 /**
  * 验证Token服务 - 管理OTP验证后的临时Token
+ *
+ * <p>支持两种模式，通过 app.security.verification-token.mode 选择：</p>
+ * <ul>
+ *   <li>redis（默认）：随机Token作为key，target|type|purpose 存在Redis中；签发1次、校验并消费1次往返（GETDEL）</li>
+ *   <li>signed：Token自身携带 target、type、purpose、过期时间和随机nonce，并用HMAC-SHA256签名；
+ *       签发不访问Redis，校验是纯CPU计算，只在消费时用一次 SET NX 记录nonce保证一次性使用</li>
+ * </ul>
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class VerificationTokenService {
 
-    private final StringRedisTemplate redisTemplate;
-
     private static final String VERIFICATION_TOKEN_PREFIX = "verification:token:";
+    private static final String USED_NONCE_PREFIX = "verification:nonce:";
     private static final long TOKEN_EXPIRATION_MINUTES = 10;
 
+    private static final String MODE_SIGNED = "signed";
+    private static final String SIGNED_TOKEN_VERSION = "v1";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int NONCE_BYTES = 12;
+
+    private static final Base64.Encoder BASE64_URL_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder BASE64_URL_DECODER = Base64.getUrlDecoder();
+
+    private final StringRedisTemplate redisTemplate;
+    private final boolean signedMode;
+    private final SecretKeySpec signingKey;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public VerificationTokenService(StringRedisTemplate redisTemplate,
+                                    @Value("${app.security.verification-token.mode:redis}") String mode,
+                                    @Value("${app.security.verification-token.secret:}") String secret) {
+        this.redisTemplate = redisTemplate;
+        this.signedMode = MODE_SIGNED.equalsIgnoreCase(mode);
+        if (signedMode) {
+            if (secret == null || secret.length() < 32) {
+                throw new IllegalStateException("signed模式需要配置至少32个字符的 app.security.verification-token.secret");
+            }
+            this.signingKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        } else {
+            this.signingKey = null;
+        }
+        log.info("验证Token模式: {}", signedMode ? MODE_SIGNED : "redis");
+    }
+
     /**
      * 生成验证Token
      *
@@ -30,6 +73,12 @@ public class VerificationTokenService {
      * @return 生成的验证Token
      */
     public String generateToken(String target, String type, String purpose) {
+        if (signedMode) {
+            String token = generateSignedToken(target, type, purpose);
+            log.info("生成验证Token: mode=signed, target={}, type={}, purpose={}", target, type, purpose);
+            return token;
+        }
+
         String token = UUID.randomUUID().toString().replace("-", "");
         String key = VERIFICATION_TOKEN_PREFIX + token;
 
@@ -42,24 +91,41 @@ public class VerificationTokenService {
     }
 
     /**
-     * 验证Token并获取关联信息
+     * 校验Token并立即消费（一次性使用）
      *
      * @param token   验证Token
      * @param target  目标(手机号或邮箱)
      * @param purpose 用途
-     * @return 是否验证成功
+     * @return 是否验证成功；Token已被使用过时返回false
      */
-    public boolean verifyToken(String token, String target, String purpose) {
+    public boolean verifyAndConsume(String token, String target, String purpose) {
         if (token == null || token.isEmpty()) {
             log.warn("验证Token失败: Token为空");
             return false;
         }
 
-        String key = VERIFICATION_TOKEN_PREFIX + token;
-        String value = redisTemplate.opsForValue().get(key);
+        if (signedMode) {
+            SignedClaims claims = parseSignedToken(token);
+            if (claims == null || !claims.matches(target, purpose)) {
+                log.warn("验证Token失败: 签名无效、已过期或信息不匹配, target={}, purpose={}", target, purpose);
+                return false;
+            }
+            // nonce 保留到Token过期为止，之后Token本身已失效
+            long ttlSeconds = Math.max(1, claims.expiresAt() - Instant.now().getEpochSecond());
+            Boolean firstUse = redisTemplate.opsForValue()
+                    .setIfAbsent(USED_NONCE_PREFIX + claims.nonce(), "1", Duration.ofSeconds(ttlSeconds));
+            if (!Boolean.TRUE.equals(firstUse)) {
+                log.warn("验证Token失败: Token已被使用, target={}, purpose={}", target, purpose);
+                return false;
+            }
+            log.info("验证Token成功: mode=signed, target={}, purpose={}", target, purpose);
+            return true;
+        }
 
+        // GETDEL：读取和删除在同一次往返中完成，并发请求只有一个能拿到值
+        String value = redisTemplate.opsForValue().getAndDelete(VERIFICATION_TOKEN_PREFIX + token);
         if (value == null) {
-            log.warn("验证Token失败: Token不存在或已过期, token={}", token);
+            log.warn("验证Token失败: Token不存在、已过期或已被使用, token={}", token);
             return false;
         }
 
@@ -70,11 +136,8 @@ public class VerificationTokenService {
             return false;
         }
 
-        String storedTarget = parts[0];
-        String storedPurpose = parts[2];
-
         // 验证target和purpose是否匹配
-        if (!storedTarget.equals(target) || !storedPurpose.equals(purpose)) {
+        if (!parts[0].equals(target) || !parts[2].equals(purpose)) {
             log.warn("验证Token失败: 信息不匹配, token={}, target={}, purpose={}", token, target, purpose);
             return false;
         }
@@ -84,31 +147,69 @@ public class VerificationTokenService {
     }
 
     /**
-     * 使用Token(验证成功后删除,防止重复使用)
-     *
-     * @param token 验证Token
+     * 生成签名Token：base64url(v1|type|purpose|expiresAt|nonce|target).base64url(HMAC)
+     * target放在最后，允许其中包含分隔符
      */
-    public void consumeToken(String token) {
-        String key = VERIFICATION_TOKEN_PREFIX + token;
-        redisTemplate.delete(key);
-        log.info("Token已使用并删除: token={}", token);
+    private String generateSignedToken(String target, String type, String purpose) {
+        byte[] nonce = new byte[NONCE_BYTES];
+        secureRandom.nextBytes(nonce);
+        long expiresAt = Instant.now().plusSeconds(TimeUnit.MINUTES.toSeconds(TOKEN_EXPIRATION_MINUTES)).getEpochSecond();
+
+        String payload = String.join("|", SIGNED_TOKEN_VERSION, type, purpose,
+                String.valueOf(expiresAt), BASE64_URL_ENCODER.encodeToString(nonce), target);
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        return BASE64_URL_ENCODER.encodeToString(payloadBytes) + "." + BASE64_URL_ENCODER.encodeToString(sign(payloadBytes));
     }
 
     /**
-     * 获取Token关联的target
-     *
-     * @param token 验证Token
-     * @return target(手机号或邮箱)
+     * 解析并校验签名Token（签名和过期时间），无效时返回null
      */
-    public String getTargetFromToken(String token) {
-        String key = VERIFICATION_TOKEN_PREFIX + token;
-        String value = redisTemplate.opsForValue().get(key);
+    private SignedClaims parseSignedToken(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return null;
+        }
 
-        if (value == null) {
+        try {
+            byte[] payloadBytes = BASE64_URL_DECODER.decode(token.substring(0, dot));
+            byte[] signature = BASE64_URL_DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(sign(payloadBytes), signature)) {
+                return null;
+            }
+
+            String[] parts = new String(payloadBytes, StandardCharsets.UTF_8).split("\\|", 6);
+            if (parts.length != 6 || !SIGNED_TOKEN_VERSION.equals(parts[0])) {
+                return null;
+            }
+
+            long expiresAt = Long.parseLong(parts[3]);
+            if (expiresAt <= Instant.now().getEpochSecond()) {
+                return null;
+            }
+            return new SignedClaims(parts[5], parts[1], parts[2], expiresAt, parts[4]);
+        } catch (IllegalArgumentException e) {
+            // Base64解码失败或过期时间格式错误
             return null;
         }
+    }
 
-        String[] parts = value.split("\\|");
-        return parts.length >= 1 ? parts[0] : null;
+    private byte[] sign(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("验证Token签名失败", e);
+        }
+    }
+
+    /**
+     * 签名Token携带的信息
+     */
+    private record SignedClaims(String target, String type, String purpose, long expiresAt, String nonce) {
+
+        boolean matches(String expectedTarget, String expectedPurpose) {
+            return target.equals(expectedTarget) && purpose.equals(expectedPurpose);
+        }
     }
 }
@@ -0,0 +1,82 @@
+package com.kawaiichainwallet.user.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证Token两种模式的签发+校验耗时对比（redis：SET + GETDEL；signed：HMAC + SET NX）
+ * 需要可用的Redis，默认跳过，运行方式：
+ * mvn -pl kawaii-user test -Dtest=VerificationTokenBenchmarkTest -Dbenchmark=true [-Dredis.host=localhost -Dredis.port=6379]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VerificationTokenBenchmarkTest {
+
+    private static final int WARMUP_ROUNDS = 5_000;
+    private static final int MEASURE_ROUNDS = 20_000;
+    private static final String SECRET = "benchmark-secret-benchmark-secret-0123456789";
+    private static final String TARGET = "+8613800138000";
+    private static final String PURPOSE = "register";
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    @BeforeAll
+    static void connect() {
+        RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(
+                System.getProperty("redis.host", "localhost"),
+                Integer.getInteger("redis.port", 6379));
+        configuration.setDatabase(Integer.getInteger("redis.database", 15));
+        connectionFactory = new LettuceConnectionFactory(configuration);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    @Test
+    void redisMode() {
+        measure("redis", new VerificationTokenService(redisTemplate, "redis", ""));
+    }
+
+    @Test
+    void signedMode() {
+        measure("signed", new VerificationTokenService(redisTemplate, "signed", SECRET));
+    }
+
+    private static void measure(String mode, VerificationTokenService service) {
+        String sample = service.generateToken(TARGET, "phone", PURPOSE);
+        assertTrue(service.verifyAndConsume(sample, TARGET, PURPOSE));
+        assertFalse(service.verifyAndConsume(sample, TARGET, PURPOSE));
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            service.verifyAndConsume(service.generateToken(TARGET, "phone", PURPOSE), TARGET, PURPOSE);
+        }
+
+        long issueNanos = 0;
+        long verifyNanos = 0;
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            long start = System.nanoTime();
+            String token = service.generateToken(TARGET, "phone", PURPOSE);
+            long issued = System.nanoTime();
+            service.verifyAndConsume(token, TARGET, PURPOSE);
+            verifyNanos += System.nanoTime() - issued;
+            issueNanos += issued - start;
+        }
+        System.out.printf("%s: Token %d 字符, 签发 %.1f µs, 校验并消费 %.1f µs (每次, 单线程)%n",
+                mode, sample.length(), issueNanos / 1000.0 / MEASURE_ROUNDS, verifyNanos / 1000.0 / MEASURE_ROUNDS);
+    }
+}